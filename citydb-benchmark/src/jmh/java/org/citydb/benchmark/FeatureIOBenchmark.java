@@ -0,0 +1,86 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.benchmark;
+
+import org.citydb.core.file.input.RegularInputFile;
+import org.citydb.core.file.output.RegularOutputFile;
+import org.citydb.io.IOAdapter;
+import org.citydb.io.citygml.CityGMLAdapter;
+import org.citydb.io.citygml.CityJSONAdapter;
+import org.citydb.io.reader.FeatureReader;
+import org.citydb.io.reader.ReadOptions;
+import org.citydb.io.writer.FeatureWriter;
+import org.citydb.io.writer.WriteOptions;
+import org.citydb.model.feature.Feature;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FeatureIOBenchmark {
+    @Param({"citygml", "cityjson"})
+    private String format;
+
+    @Param({"1000"})
+    private int features;
+
+    @Param({"20"})
+    private int polygons;
+
+    private IOAdapter adapter;
+    private List<Feature> buildings;
+    private Path directory;
+    private Path input;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        adapter = format.equals("cityjson") ? new CityJSONAdapter() : new CityGMLAdapter();
+        adapter.initialize(getClass().getClassLoader());
+        buildings = SyntheticCityModel.newBuildings(features, polygons);
+        directory = Files.createTempDirectory("citydb-benchmark-");
+        input = directory.resolve(format.equals("cityjson") ? "input.json" : "input.gml");
+        output = directory.resolve(format.equals("cityjson") ? "output.json" : "output.gml");
+        write(input);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Path file : List.of(input, output, directory)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public void write() throws Exception {
+        write(output);
+    }
+
+    @Benchmark
+    public int read() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        try (FeatureReader reader = adapter.createReader(new RegularInputFile(input), new ReadOptions())) {
+            reader.read(feature -> count.incrementAndGet());
+        }
+
+        return count.get();
+    }
+
+    private void write(Path file) throws Exception {
+        try (FeatureWriter writer = adapter.createWriter(new RegularOutputFile(file), new WriteOptions())) {
+            for (Feature building : buildings) {
+                writer.write(building);
+            }
+        }
+    }
+}
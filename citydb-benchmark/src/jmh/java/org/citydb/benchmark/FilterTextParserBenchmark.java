@@ -0,0 +1,32 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.benchmark;
+
+import org.citydb.query.filter.common.Expression;
+import org.citydb.query.filter.encoding.FilterParseException;
+import org.citydb.query.filter.encoding.FilterTextParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterTextParserBenchmark {
+    @Param({
+            "bldg:storeysAboveGround > 3 and bldg:function = '1000'",
+            "core:objectid like 'bldg%' or core:objectid in ('a', 'b', 'c')",
+            "s_intersects(core:envelope, bbox(13.3, 52.5, 13.4, 52.6))"
+    })
+    private String text;
+
+    private final FilterTextParser parser = FilterTextParser.newInstance();
+
+    @Benchmark
+    public Expression parse() throws FilterParseException {
+        return parser.parse(text);
+    }
+}
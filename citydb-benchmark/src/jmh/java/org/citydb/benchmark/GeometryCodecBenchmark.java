@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.benchmark;
+
+import org.citydb.database.geometry.*;
+import org.citydb.model.geometry.Geometry;
+import org.citydb.model.geometry.Solid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeometryCodecBenchmark {
+    @Param({"10", "100", "1000"})
+    private int polygons;
+
+    private final WKBWriter wkbWriter = new WKBWriter().includeSRID(true);
+    private final WKBParser wkbParser = new WKBParser();
+    private final WKTWriter wktWriter = new WKTWriter();
+    private final WKTParser wktParser = new WKTParser();
+
+    private Solid solid;
+    private String wkb;
+    private byte[] binaryWkb;
+    private String wkt;
+
+    @Setup
+    public void setup() throws GeometryException {
+        solid = SyntheticCityModel.newSolid(0, 0, polygons);
+        solid.setSRID(25832);
+        wkb = wkbWriter.write(solid);
+        binaryWkb = wkbWriter.writeBinary(solid);
+        wkt = wktWriter.write(solid);
+    }
+
+    @Benchmark
+    public String writeWKB() {
+        return wkbWriter.write(solid);
+    }
+
+    @Benchmark
+    public byte[] writeBinaryWKB() {
+        return wkbWriter.writeBinary(solid);
+    }
+
+    @Benchmark
+    public Geometry<?> parseWKB() throws GeometryException {
+        return wkbParser.parse(wkb);
+    }
+
+    @Benchmark
+    public Geometry<?> parseBinaryWKB() throws GeometryException {
+        return wkbParser.parse(binaryWkb);
+    }
+
+    @Benchmark
+    public String writeWKT() throws GeometryException {
+        return wktWriter.write(solid);
+    }
+
+    @Benchmark
+    public Geometry<?> parseWKT() throws GeometryException {
+        return wktParser.parse(wkt);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.benchmark;
+
+import org.citydb.model.feature.Feature;
+import org.citydb.model.geometry.Polygon;
+import org.citydb.model.walker.ModelWalker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModelWalkerBenchmark {
+    @Param({"10", "1000"})
+    private int polygons;
+
+    private List<Feature> features;
+
+    @Setup
+    public void setup() {
+        features = SyntheticCityModel.newBuildings(100, polygons);
+    }
+
+    @Benchmark
+    public int walk() {
+        PolygonCounter counter = new PolygonCounter();
+        for (Feature feature : features) {
+            feature.accept(counter);
+        }
+
+        return counter.count;
+    }
+
+    @Benchmark
+    public Feature copy() {
+        Feature copy = null;
+        for (Feature feature : features) {
+            copy = feature.copy();
+        }
+
+        return copy;
+    }
+
+    private static class PolygonCounter extends ModelWalker {
+        private int count;
+
+        @Override
+        public void visit(Polygon polygon) {
+            count++;
+            super.visit(polygon);
+        }
+    }
+}
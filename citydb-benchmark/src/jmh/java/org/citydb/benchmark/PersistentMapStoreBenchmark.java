@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.benchmark;
+
+import org.citydb.core.cache.PersistentMapStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PersistentMapStoreBenchmark {
+    @Param({"100000"})
+    private int size;
+
+    @Param({"DISABLED", "FAST"})
+    private PersistentMapStore.CompressionLevel compressionLevel;
+
+    private PersistentMapStore store;
+    private Map<String, Long> targets;
+    private Map<Long, String> references;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        store = PersistentMapStore.builder()
+                .compressionLevel(compressionLevel)
+                .build();
+        targets = store.getOrCreateMap("targets");
+        references = store.getOrCreateMap("references");
+        for (long i = 0; i < size; i++) {
+            targets.put("gml_" + i, i);
+            references.put(i, "gml_" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Counter {
+        long next;
+    }
+
+    @Benchmark
+    public Long get(Counter counter) {
+        return targets.get("gml_" + (counter.next++ % size));
+    }
+
+    @Benchmark
+    public Long putIfAbsent(Counter counter) {
+        long id = size + counter.next++;
+        return targets.putIfAbsent("gml_" + id, id);
+    }
+
+    @Benchmark
+    public String resolve(Counter counter) {
+        String reference = references.get(counter.next++ % size);
+        return reference != null && targets.get(reference) != null ? reference : null;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.benchmark;
+
+import org.citydb.model.common.Name;
+import org.citydb.model.common.Namespaces;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.feature.FeatureType;
+import org.citydb.model.geometry.*;
+import org.citydb.model.property.Attribute;
+import org.citydb.model.property.DataType;
+import org.citydb.model.property.GeometryProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SyntheticCityModel {
+
+    private SyntheticCityModel() {
+    }
+
+    public static List<Feature> newBuildings(int count, int polygonsPerBuilding) {
+        List<Feature> buildings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buildings.add(newBuilding(i, polygonsPerBuilding));
+        }
+
+        return buildings;
+    }
+
+    public static Feature newBuilding(int index, int polygons) {
+        double x = (index % 100) * 20;
+        double y = (index / 100) * 20;
+
+        return Feature.of(FeatureType.BUILDING)
+                .setObjectId("bldg_" + index)
+                .addAttribute(Attribute.of(Name.of("storeysAboveGround", Namespaces.BUILDING), DataType.INTEGER)
+                        .setIntValue(index % 10 + 1))
+                .addAttribute(Attribute.of(Name.of("function", Namespaces.BUILDING), DataType.CODE)
+                        .setStringValue("1000"))
+                .addGeometry(GeometryProperty.of(Name.of("lod2Solid", Namespaces.CORE), newSolid(x, y, polygons))
+                        .setLod(2));
+    }
+
+    public static Solid newSolid(double x, double y, int polygons) {
+        List<Polygon> surfaces = new ArrayList<>(polygons);
+        int segments = Math.max(polygons, 4);
+        double step = 2 * Math.PI / segments;
+        for (int i = 0; i < polygons; i++) {
+            double x1 = x + 10 * Math.cos(i * step), y1 = y + 10 * Math.sin(i * step);
+            double x2 = x + 10 * Math.cos((i + 1) * step), y2 = y + 10 * Math.sin((i + 1) * step);
+            surfaces.add(Polygon.of(LinearRing.of(List.of(
+                    Coordinate.of(x1, y1, 0),
+                    Coordinate.of(x2, y2, 0),
+                    Coordinate.of(x2, y2, 10),
+                    Coordinate.of(x1, y1, 10),
+                    Coordinate.of(x1, y1, 0)))));
+        }
+
+        return Solid.of(CompositeSurface.of(surfaces));
+    }
+}
@@ -11,6 +11,7 @@ import org.citydb.database.DatabaseConstants;
 import org.citydb.database.connection.ConnectionDetails;
 import picocli.CommandLine;
 
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -40,6 +41,11 @@ public class ConnectionOptions implements Option {
             description = "Password to use when connecting to the 3DCityDB. Leave empty to be prompted.")
     private String password;
 
+    @CommandLine.Option(names = "--db-schema-cache", paramLabel = "<dir>",
+            description = "Directory for caching the schema mapping of the 3DCityDB. The cache is rebuilt " +
+                    "automatically when the schema changes.")
+    private Path schemaCache;
+
     @CommandLine.Option(names = "--db-property", split = ",", paramLabel = "<property=value>",
             description = "Database-specific connection properties.")
     private Map<String, String> properties;
@@ -68,6 +74,10 @@ public class ConnectionOptions implements Option {
         return password;
     }
 
+    public Path getSchemaCache() {
+        return schemaCache;
+    }
+
     public Map<String, String> getProperties() {
         return properties != null ? properties : Collections.emptyMap();
     }
@@ -78,6 +88,7 @@ public class ConnectionOptions implements Option {
                 .setPort(port)
                 .setDatabase(database)
                 .setSchema(schema)
+                .setSchemaCache(schemaCache != null ? schemaCache.toAbsolutePath().toString() : null)
                 .setUser(user)
                 .setPassword(password)
                 .setProperties(properties != null
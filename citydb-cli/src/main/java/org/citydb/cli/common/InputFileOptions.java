@@ -16,6 +16,11 @@ public class InputFileOptions implements Option {
             description = "Encoding of input file(s).")
     private String encoding;
 
+    @CommandLine.Option(names = "--gzip-threads", paramLabel = "<threads>",
+            description = "Number of threads to use for decompressing gzip input in parallel (default: number of " +
+                    "processors). Only multi-member files with recorded member sizes are decompressed in parallel.")
+    private Integer gzipThreads;
+
     public String[] getFiles() {
         return files;
     }
@@ -27,4 +32,16 @@ public class InputFileOptions implements Option {
     public String getEncoding() {
         return encoding;
     }
+
+    public Integer getGZipThreads() {
+        return gzipThreads;
+    }
+
+    @Override
+    public void preprocess(CommandLine commandLine) {
+        if (gzipThreads != null && gzipThreads <= 0) {
+            throw new CommandLine.ParameterException(commandLine,
+                    "Error: Number of gzip threads must be a positive integer but was '" + gzipThreads + "'");
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.common;
+
+import org.citydb.cli.CliConstants;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.MetricsReporter;
+import picocli.CommandLine;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class MetricsOptions implements Option {
+    @CommandLine.Option(names = "--metrics-file", paramLabel = "<file>",
+            description = "Write periodic JSON snapshots of pipeline metrics to this file.")
+    private Path jsonFile;
+
+    @CommandLine.Option(names = "--metrics-prometheus-file", paramLabel = "<file>",
+            description = "Write pipeline metrics in Prometheus text format to this file.")
+    private Path prometheusFile;
+
+    @CommandLine.Option(names = "--metrics-interval", paramLabel = "<seconds>", defaultValue = "10",
+            description = "Interval in seconds between metrics snapshots (default: ${DEFAULT-VALUE}).")
+    private int interval;
+
+    public Path getJsonFile() {
+        return jsonFile;
+    }
+
+    public Path getPrometheusFile() {
+        return prometheusFile;
+    }
+
+    public Duration getInterval() {
+        return Duration.ofSeconds(interval);
+    }
+
+    public boolean isEnabled() {
+        return jsonFile != null || prometheusFile != null;
+    }
+
+    public MetricsReporter newReporter() {
+        return MetricsReporter.builder(MetricRegistry.getInstance())
+                .jsonFile(jsonFile)
+                .prometheusFile(prometheusFile)
+                .interval(getInterval())
+                .build();
+    }
+
+    @Override
+    public void preprocess(CommandLine commandLine) {
+        if (interval <= 0) {
+            throw new CommandLine.ParameterException(commandLine,
+                    "Error: The metrics interval must be a positive integer but was '" + interval + "'");
+        }
+
+        if (jsonFile != null) {
+            jsonFile = CliConstants.WORKING_DIR.resolve(jsonFile);
+        }
+
+        if (prometheusFile != null) {
+            prometheusFile = CliConstants.WORKING_DIR.resolve(prometheusFile);
+        }
+    }
+}
@@ -5,6 +5,7 @@
 
 package org.citydb.cli.common;
 
+import org.citydb.core.concurrent.ExecutorHelper;
 import picocli.CommandLine;
 
 public class ThreadsOptions implements Option {
@@ -12,15 +13,32 @@ public class ThreadsOptions implements Option {
             description = "Number of threads to use for parallel processing.")
     private Integer threads;
 
+    @CommandLine.Option(names = "--virtual-threads",
+            description = "Run each import and export task on its own virtual thread (requires Java 21 or " +
+                    "later). The number of tasks that run at the same time is still limited by --threads.")
+    private boolean virtualThreads;
+
     public Integer getNumberOfThreads() {
         return threads;
     }
 
+    public boolean isUseVirtualThreads() {
+        return virtualThreads;
+    }
+
     @Override
     public void preprocess(CommandLine commandLine) {
         if (threads != null && threads <= 0) {
             throw new CommandLine.ParameterException(commandLine,
                     "Error: Number of threads must be a positive integer but was '" + threads + "'");
         }
+
+        if (virtualThreads) {
+            if (!ExecutorHelper.isVirtualThreadsSupported()) {
+                throw new CommandLine.ParameterException(commandLine,
+                        "Error: Virtual threads are not supported by the Java runtime " +
+                                Runtime.version().feature() + ". Java 21 or later is required");
+            }
+        }
     }
 }
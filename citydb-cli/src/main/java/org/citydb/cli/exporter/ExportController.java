@@ -5,13 +5,19 @@
 
 package org.citydb.cli.exporter;
 
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
 import org.citydb.cli.CommandHelper;
 import org.citydb.cli.ExecutionException;
 import org.citydb.cli.common.*;
 import org.citydb.cli.exporter.extension.FeatureExportProcessor;
+import org.citydb.cli.exporter.options.IncrementalOptions;
 import org.citydb.cli.exporter.options.OutputFileOptions;
 import org.citydb.cli.exporter.options.QueryOptions;
 import org.citydb.cli.exporter.options.TilingOptions;
+import org.citydb.cli.exporter.util.FanOutWriter;
+import org.citydb.cli.exporter.util.IncrementalExportHelper;
 import org.citydb.cli.exporter.util.MetadataHelper;
 import org.citydb.cli.exporter.util.SequentialWriter;
 import org.citydb.cli.exporter.util.TilingHelper;
@@ -19,7 +25,12 @@ import org.citydb.cli.util.FeatureStatistics;
 import org.citydb.config.ConfigException;
 import org.citydb.config.common.ConfigObject;
 import org.citydb.config.common.SrsReference;
+import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.core.file.OutputFile;
+import org.citydb.core.function.CheckedConsumer;
+import org.citydb.core.metrics.Counter;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.MetricsReporter;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.io.IOAdapter;
 import org.citydb.io.IOAdapterManager;
@@ -28,12 +39,14 @@ import org.citydb.io.writer.FeatureWriter;
 import org.citydb.io.writer.WriteException;
 import org.citydb.io.writer.WriteOptions;
 import org.citydb.io.writer.metadata.Metadata;
+import org.citydb.io.writer.options.MetadataOptions;
 import org.citydb.io.writer.options.OutputFormatOptions;
 import org.citydb.model.feature.Feature;
 import org.citydb.operation.exporter.Exporter;
 import org.citydb.operation.exporter.options.AppearanceOptions;
 import org.citydb.query.Query;
 import org.citydb.query.builder.sql.SqlBuildOptions;
+import org.citydb.query.executor.IdRange;
 import org.citydb.query.executor.QueryExecutor;
 import org.citydb.query.executor.QueryResult;
 import org.citydb.query.filter.encoding.FilterParseException;
@@ -45,14 +58,26 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class ExportController implements Command {
     @CommandLine.Mixin
     protected OutputFileOptions outputFileOptions;
 
+    @CommandLine.Option(names = "--additional-output", split = ",", paramLabel = "<format=file>",
+            description = "Also write the exported features to this file in the given format (e.g., CityGML or " +
+                    "CityJSON). Features are read from the database only once for all outputs.")
+    protected List<String> additionalOutputs;
+
     @CommandLine.Option(names = "--fail-fast",
             description = "Fail fast on errors.")
     protected Boolean failFast;
@@ -64,6 +89,16 @@ public abstract class ExportController implements Command {
     @CommandLine.ArgGroup(exclusive = false)
     protected ThreadsOptions threadsOptions;
 
+    @CommandLine.Option(names = "--id-partitions", paramLabel = "<n>",
+            description = "Split the feature ID space into this number of ranges and query each range on a " +
+                    "separate database connection.")
+    protected Integer idPartitions;
+
+    @CommandLine.Option(names = "--estimate-extent",
+            description = "Use the extent estimated from the database statistics as metadata of unfiltered " +
+                    "exports instead of computing it from the exported features.")
+    protected Boolean estimateExtent;
+
     @CommandLine.ArgGroup(exclusive = false)
     protected CrsOptions crsOptions;
 
@@ -82,6 +117,14 @@ public abstract class ExportController implements Command {
             heading = "Tiling options:%n")
     protected TilingOptions tilingOptions;
 
+    @CommandLine.ArgGroup(exclusive = false, order = Integer.MAX_VALUE,
+            heading = "Incremental export options:%n")
+    protected IncrementalOptions incrementalOptions;
+
+    @CommandLine.ArgGroup(exclusive = false, order = Integer.MAX_VALUE,
+            heading = "Metrics options:%n")
+    protected MetricsOptions metricsOptions;
+
     @CommandLine.ArgGroup(exclusive = false, order = Integer.MAX_VALUE,
             heading = "Database connection options:%n")
     protected ConnectionOptions connectionOptions;
@@ -94,6 +137,10 @@ public abstract class ExportController implements Command {
     private final Object lock = new Object();
     private volatile boolean shouldRun = true;
 
+    private record AdditionalOutput(IOAdapter adapter, Path file, WriteOptions writeOptions,
+                                    OutputFileBuilder builder) {
+    }
+
     protected abstract IOAdapter getIOAdapter(IOAdapterManager ioManager) throws ExecutionException;
 
     protected abstract OutputFormatOptions getFormatOptions(ConfigObject<OutputFormatOptions> formatOptions) throws ExecutionException;
@@ -114,28 +161,34 @@ public abstract class ExportController implements Command {
     protected boolean doExport() throws ExecutionException {
         IOAdapterManager ioManager = helper.getIOAdapterManager();
         IOAdapter ioAdapter = getIOAdapter(ioManager);
-        OutputFileBuilder builder = OutputFileBuilder.newInstance()
-                .tempDirectory(helper.resolveAgainstWorkingDir(tempDirectory))
-                .defaultFileExtension(ioManager.getFileExtensions(ioAdapter).stream()
-                        .findFirst()
-                        .orElse(null));
+        OutputFileBuilder builder = getOutputFileBuilder(outputFileOptions.getFile(), ioAdapter, ioManager);
 
         DatabaseAdapter databaseAdapter = helper.connect(connectionOptions);
         ExportOptions exportOptions = getExportOptions();
         WriteOptions writeOptions = getWriteOptions(exportOptions, databaseAdapter);
         writeOptions.getFormatOptions().set(getFormatOptions(writeOptions.getFormatOptions()));
+        List<AdditionalOutput> additionalOutputs = getAdditionalOutputs(writeOptions, ioManager);
 
         helper.logIndexStatus(Level.INFO, databaseAdapter);
 
         List<FeatureExportProcessor> featureProcessors = helper.getExtensions(FeatureExportProcessor.class);
         beforeExport(exportOptions, writeOptions, featureProcessors, databaseAdapter);
+        for (AdditionalOutput additionalOutput : additionalOutputs) {
+            beforeExport(exportOptions, additionalOutput.writeOptions(), featureProcessors, databaseAdapter);
+        }
 
+        boolean hasFilter = getUserQuery(exportOptions).getFilter().isPresent();
         Query query = getQuery(exportOptions);
+        IncrementalExportHelper incrementalHelper = getIncrementalExportHelper(query, databaseAdapter);
         Tiling tiling = getTiling(exportOptions, writeOptions);
-        MetadataHelper metadataHelper = MetadataHelper.of(exportOptions, writeOptions, tiling, databaseAdapter);
+        int partitions = getNumberOfPartitions(exportOptions, query);
+        MetadataHelper metadataHelper = MetadataHelper.of(exportOptions, writeOptions, query, hasFilter, tiling,
+                databaseAdapter);
 
         FeatureStatistics statistics = new FeatureStatistics(databaseAdapter);
         AtomicLong counter = new AtomicLong();
+        Counter featureCounter = MetricRegistry.getInstance().counter("export.features");
+        MetricsReporter metricsReporter = startMetricsReporter();
 
         try {
             TilingHelper tilingHelper = TilingHelper.of(tiling, query, helper, databaseAdapter);
@@ -155,69 +208,94 @@ public abstract class ExportController implements Command {
                         databaseAdapter);
 
                 Path file = tilingHelper.getOutputFile(outputFileOptions.getFile(), tile);
+                List<Path> additionalFiles = additionalOutputs.stream()
+                        .map(output -> tilingHelper.getOutputFile(output.file(), tile))
+                        .toList();
+                List<OutputFile> outputFiles = new ArrayList<>();
                 FeatureStatistics tileStatistics = new FeatureStatistics(databaseAdapter);
 
                 try (OutputFile outputFile = builder.newOutputFile(file);
-                     FeatureWriter writer = createWriter(outputFile, writeOptions, query, ioAdapter)) {
+                     AutoCloseable closer = () -> closeOutputFiles(outputFiles);
+                     FeatureWriter writer = createWriter(outputFile, writeOptions, query, ioAdapter,
+                             additionalOutputs, additionalFiles, outputFiles)) {
                     Exporter exporter = Exporter.newInstance();
-                    exportOptions.setOutputFile(outputFile);
+                    exportOptions.setOutputFile(outputFile)
+                            .setAdditionalOutputFiles(outputFiles);
 
                     logger.info("{}Exporting to {} file {}.", getTileCounter(tilingHelper, tile),
                             ioManager.getFileFormat(ioAdapter), outputFile.getFile());
+                    for (int i = 0; i < outputFiles.size(); i++) {
+                        logger.info("{}Also exporting to {} file {}.", getTileCounter(tilingHelper, tile),
+                                ioManager.getFileFormat(additionalOutputs.get(i).adapter()),
+                                outputFiles.get(i).getFile());
+                    }
 
-                    Metadata metadata = metadataHelper.getMetadata(executor, outputFile, tile);
+                    Metadata metadata = metadataHelper.getMetadata(executor, outputFile, tile, writer);
                     writer.writeMetadata(processMetadata(metadata));
 
                     logger.debug("Querying features for export...");
                     logger.trace("Using SQL query:\n{}", helper.getFormattedSql(executor.getSelect(), databaseAdapter));
 
-                    long sequenceId = 1;
-                    try (QueryResult result = executor.executeQuery()) {
+                    AtomicLong sequenceId = new AtomicLong(1);
+                    List<QueryResult> results = executeQuery(executor, partitions);
+                    try {
                         exporter.startSession(databaseAdapter, exportOptions);
-                        while (shouldRun && result.hasNext()) {
-                            long id = result.getId();
-
-                            if (tilingHelper.isUseTiling() && !tile.isOnTile(databaseAdapter
-                                    .getGeometryAdapter()
-                                    .getEnvelope(result.get(rs -> rs.getObject("envelope"))))) {
-                                continue;
-                            }
-
-                            exporter.exportFeature(id, sequenceId++).whenComplete((candidate, t) -> {
-                                if (candidate == null) {
-                                    abort(null, id, writer, t);
-                                    return;
+                        processResults(results, result -> {
+                            while (shouldRun && result.hasNext()) {
+                                long id = result.getId();
+
+                                if (tilingHelper.isUseTiling() && !tile.isOnTile(databaseAdapter
+                                        .getGeometryAdapter()
+                                        .getEnvelope(result.get(rs -> rs.getObject("envelope"))))) {
+                                    continue;
                                 }
 
-                                try {
-                                    Feature feature = processFeature(candidate, featureProcessors);
-                                    if (feature == null) {
-                                        if (writer instanceof SequentialWriter sequentialWriter) {
-                                            sequentialWriter.skip(candidate);
-                                        }
-
+                                exporter.exportFeature(id, sequenceId.getAndIncrement()).whenComplete((candidate, t) -> {
+                                    if (candidate == null) {
+                                        abort(null, id, writer, t);
                                         return;
                                     }
 
-                                    writer.write(feature, (success, e) -> {
-                                        if (success != Boolean.TRUE) {
-                                            abort(feature, id, writer, e);
+                                    try {
+                                        Feature feature = processFeature(candidate, featureProcessors);
+                                        if (feature == null) {
+                                            if (writer instanceof SequentialWriter sequentialWriter) {
+                                                sequentialWriter.skip(candidate);
+                                            }
+
                                             return;
                                         }
 
-                                        tileStatistics.add(feature);
-                                        long count = counter.incrementAndGet();
-                                        if (count % 1000 == 0) {
-                                            logger.info("{} features exported.", count);
-                                        }
-                                    });
-                                } catch (Throwable e) {
-                                    abort(candidate, id, writer, e);
-                                }
-                            });
-                        }
+                                        // the completion callback may be parked in a reorder buffer, so it
+                                        // must not keep the feature itself reachable
+                                        String name = getName(feature);
+                                        FeatureStatistics featureStatistics = new FeatureStatistics(databaseAdapter);
+                                        featureStatistics.add(feature);
+                                        writer.write(feature, (success, e) -> {
+                                            if (success != Boolean.TRUE) {
+                                                abort(name, id, writer, e);
+                                                return;
+                                            }
+
+                                            tileStatistics.merge(featureStatistics);
+                                            featureCounter.increment();
+                                            long count = counter.incrementAndGet();
+                                            if (count % 1000 == 0) {
+                                                logger.info("{} features exported.", count);
+                                            }
+                                        });
+                                    } catch (Throwable e) {
+                                        abort(getName(candidate), id, writer, e);
+                                    }
+                                });
+                            }
+                        });
                     } finally {
-                        exporter.closeSession();
+                        try {
+                            closeResults(results);
+                        } finally {
+                            exporter.closeSession();
+                        }
                     }
                 } catch (Throwable e) {
                     logger.warn("Database export aborted due to an error.");
@@ -229,14 +307,33 @@ public abstract class ExportController implements Command {
                         if (tileStatistics.isEmpty() && writeOptions.isSkipEmptyTiles()) {
                             logger.debug("Deleting empty tile file {}.", file);
                             helper.deleteFileIfExists(file);
+                            for (Path additionalFile : additionalFiles) {
+                                helper.deleteFileIfExists(additionalFile);
+                            }
                         }
                     }
                 }
             }
+
+            if (shouldRun && incrementalHelper != null) {
+                if (incrementalOptions.getDeleteManifest() != null) {
+                    incrementalHelper.writeDeleteManifest(
+                            helper.resolveAgainstWorkingDir(incrementalOptions.getDeleteManifest()));
+                }
+
+                if (incrementalOptions.getWatermarkFile() != null) {
+                    incrementalHelper.writeWatermark(
+                            helper.resolveAgainstWorkingDir(incrementalOptions.getWatermarkFile()));
+                }
+            }
         } catch (Throwable e) {
             shouldRun = false;
             throw e;
         } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+
             afterExport(shouldRun, statistics, featureProcessors);
             logStatistics(statistics, "Export summary:", Level.INFO);
         }
@@ -244,6 +341,151 @@ public abstract class ExportController implements Command {
         return shouldRun;
     }
 
+    private OutputFileBuilder getOutputFileBuilder(Path file, IOAdapter ioAdapter, IOAdapterManager ioManager) {
+        OutputFileBuilder builder = OutputFileBuilder.newInstance()
+                .tempDirectory(helper.resolveAgainstWorkingDir(tempDirectory))
+                .defaultFileExtension(ioManager.getFileExtensions(ioAdapter).stream()
+                        .findFirst()
+                        .orElse(null));
+
+        if (builder.isGZipFile(file)) {
+            builder.compressionThreads(outputFileOptions.getGZipThreads() != null
+                            ? outputFileOptions.getGZipThreads()
+                            : 1)
+                    .compressionBlockSize(outputFileOptions.getGZipBlockSize() != null
+                            ? outputFileOptions.getGZipBlockSize() * 1024
+                            : 0);
+        } else if (outputFileOptions.getGZipThreads() != null || outputFileOptions.getGZipBlockSize() != null) {
+            logger.warn("Ignoring gzip compression options for the non-gzip output file {}.", file);
+        }
+
+        return builder;
+    }
+
+    private List<AdditionalOutput> getAdditionalOutputs(WriteOptions writeOptions, IOAdapterManager ioManager) throws ExecutionException {
+        List<AdditionalOutput> outputs = new ArrayList<>();
+        if (additionalOutputs != null) {
+            for (String additionalOutput : additionalOutputs) {
+                int index = additionalOutput.indexOf('=');
+                if (index < 1 || index == additionalOutput.length() - 1) {
+                    throw new ExecutionException("Invalid additional output '" + additionalOutput + "'. " +
+                            "Use <format=file>.");
+                }
+
+                String format = additionalOutput.substring(0, index).trim();
+                IOAdapter ioAdapter = ioManager.getAdapterForFileFormat(format);
+                if (ioAdapter == null) {
+                    throw new ExecutionException("Unsupported output format '" + format + "'. " +
+                            "Supported formats are " + String.join(", ", ioManager.getFileFormats()) + ".");
+                }
+
+                Path file;
+                try {
+                    file = Path.of(additionalOutput.substring(index + 1).trim());
+                } catch (InvalidPathException e) {
+                    throw new ExecutionException("Invalid additional output file '" +
+                            additionalOutput.substring(index + 1) + "'.", e);
+                }
+
+                outputs.add(new AdditionalOutput(ioAdapter, file, copyWriteOptions(writeOptions),
+                        getOutputFileBuilder(file, ioAdapter, ioManager)));
+            }
+        }
+
+        return outputs;
+    }
+
+    private WriteOptions copyWriteOptions(WriteOptions writeOptions) throws ExecutionException {
+        try {
+            return JSON.parseObject(JSON.toJSONString(writeOptions, JSONWriter.Feature.FieldBased),
+                    WriteOptions.class, JSONReader.Feature.UseDoubleForDecimals);
+        } catch (Exception e) {
+            throw new ExecutionException("Failed to create write options for additional outputs.", e);
+        }
+    }
+
+    private IncrementalExportHelper getIncrementalExportHelper(Query query, DatabaseAdapter adapter) throws ExecutionException {
+        if (incrementalOptions != null) {
+            IncrementalExportHelper incrementalHelper = IncrementalExportHelper.of(incrementalOptions.getSince(),
+                    helper.resolveAgainstWorkingDir(incrementalOptions.getWatermarkFile()), adapter);
+
+            logger.info("Exporting features changed {}up to {}.", incrementalHelper.getSince() != null
+                    ? "after " + incrementalHelper.getSince() + " "
+                    : "", incrementalHelper.getWatermark());
+            incrementalHelper.apply(query);
+            return incrementalHelper;
+        }
+
+        return null;
+    }
+
+    private int getNumberOfPartitions(ExportOptions exportOptions, Query query) {
+        int partitions = exportOptions.getNumberOfPartitions();
+        if (partitions > 1 && (query.getSorting().isPresent() || query.getCountLimit().isPresent())) {
+            logger.warn("ID range partitioning is not supported for sorted or limited queries. " +
+                    "Using a single database query.");
+            return 1;
+        }
+
+        return partitions;
+    }
+
+    private List<QueryResult> executeQuery(QueryExecutor executor, int partitions) throws SQLException {
+        if (partitions > 1) {
+            List<IdRange> ranges = executor.computeIdRanges(partitions);
+            if (ranges.size() > 1) {
+                logger.debug("Querying features in {} ID ranges on separate database connections.", ranges.size());
+                return executor.executeQuery(ranges);
+            }
+        }
+
+        return List.of(executor.executeQuery());
+    }
+
+    private void processResults(List<QueryResult> results, CheckedConsumer<QueryResult, Exception> consumer) throws Throwable {
+        if (results.size() == 1) {
+            consumer.accept(results.get(0));
+            return;
+        }
+
+        ExecutorService service = ExecutorHelper.newFixedAndBlockingThreadPool(results.size());
+        try {
+            CompletableFuture.allOf(results.stream()
+                    .map(result -> CompletableFuture.runAsync(() -> {
+                        try {
+                            consumer.accept(result);
+                        } catch (Exception e) {
+                            shouldRun = false;
+                            throw new CompletionException(e);
+                        }
+                    }, service))
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private void closeResults(List<QueryResult> results) throws SQLException {
+        SQLException exception = null;
+        for (QueryResult result : results) {
+            try {
+                result.close();
+            } catch (SQLException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
     protected Metadata processMetadata(Metadata metadata) throws ExecutionException {
         return metadata;
     }
@@ -253,17 +495,29 @@ public abstract class ExportController implements Command {
     }
 
     protected Query getQuery(ExportOptions exportOptions) throws ExecutionException {
+        return helper.setValidityFilter(getUserQuery(exportOptions),
+                exportOptions.getValidityOptions().orElse(null));
+    }
+
+    private Query getUserQuery(ExportOptions exportOptions) throws ExecutionException {
         try {
-            Query query = queryOptions != null && queryOptions.getQuery() != null
+            return queryOptions != null && queryOptions.getQuery() != null
                     ? queryOptions.getQuery()
                     : exportOptions.getQuery().orElseGet(Query::new);
-
-            return helper.setValidityFilter(query, exportOptions.getValidityOptions().orElse(null));
         } catch (FilterParseException e) {
             throw new ExecutionException("Failed to parse the provided CQL2 filter expression.", e);
         }
     }
 
+    protected MetricsReporter startMetricsReporter() {
+        if (metricsOptions != null && metricsOptions.isEnabled()) {
+            logger.debug("Writing pipeline metrics every {} second(s).", metricsOptions.getInterval().toSeconds());
+            return metricsOptions.newReporter().start();
+        }
+
+        return null;
+    }
+
     protected Tiling getTiling(ExportOptions exportOptions, WriteOptions writeOptions) throws ExecutionException {
         if (tilingOptions != null) {
             if (tilingOptions.isSkipEmptyTiles()) {
@@ -284,8 +538,18 @@ public abstract class ExportController implements Command {
             throw new ExecutionException("Failed to get export options from config.", e);
         }
 
-        if (threadsOptions != null && threadsOptions.getNumberOfThreads() != null) {
-            exportOptions.setNumberOfThreads(threadsOptions.getNumberOfThreads());
+        if (threadsOptions != null) {
+            if (threadsOptions.getNumberOfThreads() != null) {
+                exportOptions.setNumberOfThreads(threadsOptions.getNumberOfThreads());
+            }
+
+            if (threadsOptions.isUseVirtualThreads()) {
+                exportOptions.setUseVirtualThreads(true);
+            }
+        }
+
+        if (idPartitions != null) {
+            exportOptions.setNumberOfPartitions(idPartitions);
         }
 
         if (crsOptions != null && crsOptions.getTargetSrs() != null) {
@@ -335,6 +599,12 @@ public abstract class ExportController implements Command {
             writeOptions.setNumberOfThreads(threadsOptions.getNumberOfThreads());
         }
 
+        if (estimateExtent != null) {
+            writeOptions.setMetadataOptions(writeOptions.getMetadataOptions()
+                    .orElseGet(() -> new MetadataOptions().setComputeExtent(true))
+                    .setEstimateExtent(estimateExtent));
+        }
+
         if (outputFileOptions.getEncoding() != null) {
             writeOptions.setEncoding(outputFileOptions.getEncoding());
         }
@@ -404,13 +674,64 @@ public abstract class ExportController implements Command {
         return feature;
     }
 
-    private FeatureWriter createWriter(OutputFile file, WriteOptions options, Query query, IOAdapter ioAdapter) throws WriteException {
+    private FeatureWriter createWriter(OutputFile file, WriteOptions options, Query query, IOAdapter ioAdapter,
+                                       List<AdditionalOutput> additionalOutputs, List<Path> additionalFiles,
+                                       List<OutputFile> outputFiles) throws WriteException, IOException {
         FeatureWriter writer = ioAdapter.createWriter(file, options);
+        if (!additionalOutputs.isEmpty()) {
+            List<FeatureWriter> writers = new ArrayList<>();
+            writers.add(writer);
+            try {
+                for (int i = 0; i < additionalOutputs.size(); i++) {
+                    AdditionalOutput output = additionalOutputs.get(i);
+                    OutputFile outputFile = output.builder().newOutputFile(additionalFiles.get(i));
+                    outputFiles.add(outputFile);
+                    FeatureWriter additionalWriter = output.adapter().createWriter(outputFile,
+                            output.writeOptions());
+                    if (additionalWriter == null) {
+                        throw new WriteException("The output format of " + outputFile.getFile() +
+                                " does not support writing features.");
+                    }
+
+                    writers.add(additionalWriter);
+                }
+            } catch (WriteException | IOException e) {
+                try {
+                    FanOutWriter.of(writers).close();
+                } catch (WriteException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+
+                throw e;
+            }
+
+            writer = FanOutWriter.of(writers);
+        }
+
         return query.getSorting().isPresent()
-                ? SequentialWriter.of(writer)
+                ? SequentialWriter.of(writer).withTempDirectory(helper.resolveAgainstWorkingDir(tempDirectory))
                 : writer;
     }
 
+    private void closeOutputFiles(List<OutputFile> outputFiles) throws IOException {
+        IOException exception = null;
+        for (OutputFile outputFile : outputFiles) {
+            try {
+                outputFile.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
     private AppearanceOptions getAppearanceOptions(ExportOptions exportOptions) {
         AppearanceOptions appearanceOptions = exportOptions.getAppearanceOptions()
                 .orElseGet(AppearanceOptions::new);
@@ -434,18 +755,20 @@ public abstract class ExportController implements Command {
         }
     }
 
-    private void abort(Feature feature, long id, FeatureWriter writer, Throwable e) {
+    private void abort(String name, long id, FeatureWriter writer, Throwable e) {
         synchronized (lock) {
             if (shouldRun) {
                 shouldRun = false;
                 logger.warn("Database export aborted due to an error.");
-                helper.logException(feature == null
-                        ? "Failed to export feature (ID: " + id + ")."
-                        : "Failed to export " + feature.getFeatureType().getLocalName()
-                        + feature.getObjectId().map(objectId -> " '" + objectId + "'").orElse("") +
+                helper.logException("Failed to export " + (name != null ? name : "feature") +
                         " (ID: " + id + ").", e);
                 writer.cancel();
             }
         }
     }
+
+    private String getName(Feature feature) {
+        return feature.getFeatureType().getLocalName()
+                + feature.getObjectId().map(objectId -> " '" + objectId + "'").orElse("");
+    }
 }
@@ -15,6 +15,7 @@ import java.util.Optional;
 public class ExportOptions extends org.citydb.operation.exporter.ExportOptions {
     private Query query;
     private Tiling tiling;
+    private int numberOfPartitions;
 
     public Optional<Query> getQuery() {
         return Optional.ofNullable(query);
@@ -33,4 +34,13 @@ public class ExportOptions extends org.citydb.operation.exporter.ExportOptions {
         this.tiling = tiling;
         return this;
     }
+
+    public int getNumberOfPartitions() {
+        return numberOfPartitions;
+    }
+
+    public ExportOptions setNumberOfPartitions(int numberOfPartitions) {
+        this.numberOfPartitions = numberOfPartitions;
+        return this;
+    }
 }
@@ -91,6 +91,7 @@ public class CityJSONExportCommand extends ExportController {
 
     private volatile boolean shouldRun = true;
     private Throwable exception;
+    private Map<ImplicitGeometry, String> globalTemplates;
 
     @Override
     protected IOAdapter getIOAdapter(IOAdapterManager ioManager) {
@@ -156,9 +157,15 @@ public class CityJSONExportCommand extends ExportController {
     @Override
     protected void beforeExport(ExportOptions exportOptions, WriteOptions writeOptions, DatabaseAdapter adapter) throws ExecutionException {
         try {
-            if (adapter.getGeometryAdapter().hasImplicitGeometries()) {
+            if (globalTemplates != null) {
+                if (!globalTemplates.isEmpty()) {
+                    CityJSONFormatOptions options = writeOptions.getFormatOptions()
+                            .getOrElse(CityJSONFormatOptions.class, CityJSONFormatOptions::new);
+                    globalTemplates.forEach((template, lod) -> options.addGlobalTemplate(template.copy(), lod));
+                }
+            } else if (adapter.getGeometryAdapter().hasImplicitGeometries()) {
                 logger.info("Retrieving global template geometries...");
-                Map<ImplicitGeometry, String> globalTemplates = new IdentityHashMap<>();
+                globalTemplates = new IdentityHashMap<>();
                 Exporter exporter = Exporter.newInstance();
                 SqlHelper helper = adapter.getSchemaAdapter().getSqlHelper();
 
@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.exporter.options;
+
+import org.citydb.cli.common.Option;
+import org.citydb.core.time.TimeHelper;
+import picocli.CommandLine;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+public class IncrementalOptions implements Option {
+    @CommandLine.Option(names = "--changed-since", paramLabel = "<time>",
+            description = "Only export features that have been created, updated or terminated after this time. " +
+                    "The time must be in <YYYY-MM-DD> or <YYYY-MM-DDThh:mm:ss[(+|-)hh:mm]> format.")
+    private String time;
+
+    @CommandLine.Option(names = "--watermark-file", paramLabel = "<file>",
+            description = "Read the changelog watermark of the previous run from this file and store the new " +
+                    "watermark after a successful export. Takes precedence over --changed-since.")
+    private Path watermarkFile;
+
+    @CommandLine.Option(names = "--delete-manifest", paramLabel = "<file>",
+            description = "Write the identifiers of terminated or deleted features to this JSON Lines file.")
+    private Path deleteManifest;
+
+    private OffsetDateTime since;
+
+    public OffsetDateTime getSince() {
+        return since;
+    }
+
+    public Path getWatermarkFile() {
+        return watermarkFile;
+    }
+
+    public Path getDeleteManifest() {
+        return deleteManifest;
+    }
+
+    @Override
+    public void preprocess(CommandLine commandLine) throws Exception {
+        if (time == null && watermarkFile == null) {
+            throw new CommandLine.ParameterException(commandLine,
+                    "Error: Incremental exports require either --changed-since or --watermark-file");
+        }
+
+        if (time != null) {
+            try {
+                since = OffsetDateTime.parse(time, TimeHelper.DATE_TIME_FORMATTER);
+            } catch (Exception e) {
+                throw new CommandLine.ParameterException(commandLine,
+                        "The changed-since time must be in YYYY-MM-DD or YYYY-MM-DDThh:mm:ss[(+|-)hh:mm] " +
+                                "format but was '" + time + "'");
+            }
+        }
+    }
+}
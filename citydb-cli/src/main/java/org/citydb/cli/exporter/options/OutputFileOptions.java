@@ -11,6 +11,8 @@ import picocli.CommandLine;
 import java.nio.file.Path;
 
 public class OutputFileOptions implements Option {
+    public static final int MAX_GZIP_BLOCK_SIZE = 1024 * 1024;
+
     @CommandLine.Option(names = {"-o", "--output"}, required = true,
             description = "Name of the output file.")
     private Path file;
@@ -19,6 +21,15 @@ public class OutputFileOptions implements Option {
             description = "Encoding to use for the output file.")
     private String encoding;
 
+    @CommandLine.Option(names = "--gzip-threads", paramLabel = "<threads>",
+            description = "Number of threads to use for compressing gzip output in parallel blocks (default: 1).")
+    private Integer gzipThreads;
+
+    @CommandLine.Option(names = "--gzip-block-size", paramLabel = "<kb>",
+            description = "Size of the blocks in KB that are compressed in parallel (default: 1024, " +
+                    "maximum: " + MAX_GZIP_BLOCK_SIZE + ").")
+    private Integer gzipBlockSize;
+
     public Path getFile() {
         return file;
     }
@@ -26,4 +37,24 @@ public class OutputFileOptions implements Option {
     public String getEncoding() {
         return encoding;
     }
+
+    public Integer getGZipThreads() {
+        return gzipThreads;
+    }
+
+    public Integer getGZipBlockSize() {
+        return gzipBlockSize;
+    }
+
+    @Override
+    public void preprocess(CommandLine commandLine) {
+        if (gzipThreads != null && gzipThreads <= 0) {
+            throw new CommandLine.ParameterException(commandLine,
+                    "Error: Number of gzip threads must be a positive integer but was '" + gzipThreads + "'");
+        } else if (gzipBlockSize != null && (gzipBlockSize <= 0 || gzipBlockSize > MAX_GZIP_BLOCK_SIZE)) {
+            throw new CommandLine.ParameterException(commandLine,
+                    "Error: The gzip block size must be a positive integer not greater than " +
+                            MAX_GZIP_BLOCK_SIZE + " but was '" + gzipBlockSize + "'");
+        }
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.exporter.util;
+
+import org.citydb.io.writer.FeatureWriter;
+import org.citydb.io.writer.WriteException;
+import org.citydb.io.writer.metadata.Metadata;
+import org.citydb.model.feature.Feature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+public class FanOutWriter implements FeatureWriter {
+    private final List<FeatureWriter> writers;
+
+    private FanOutWriter(List<FeatureWriter> writers) {
+        Objects.requireNonNull(writers, "The feature writers must not be null.");
+        if (writers.isEmpty()) {
+            throw new IllegalArgumentException("At least one feature writer is required.");
+        }
+
+        this.writers = List.copyOf(writers);
+    }
+
+    public static FanOutWriter of(List<FeatureWriter> writers) {
+        return new FanOutWriter(writers);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> write(Feature feature) throws WriteException {
+        List<Feature> features = new ArrayList<>(writers.size());
+        features.add(feature);
+        for (int i = 1; i < writers.size(); i++) {
+            features.add(feature.copy());
+        }
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(writers.size());
+        for (int i = 0; i < writers.size(); i++) {
+            results.add(writers.get(i).write(features.get(i)));
+        }
+
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(v -> results.stream().allMatch(result -> result.join() == Boolean.TRUE));
+    }
+
+    @Override
+    public void writeMetadata(Metadata metadata) throws WriteException {
+        for (FeatureWriter writer : writers) {
+            writer.writeMetadata(metadata);
+        }
+    }
+
+    @Override
+    public boolean computesExtent() {
+        return writers.stream().allMatch(FeatureWriter::computesExtent);
+    }
+
+    @Override
+    public void cancel() {
+        writers.forEach(FeatureWriter::cancel);
+    }
+
+    @Override
+    public void close() throws WriteException {
+        WriteException exception = null;
+        for (FeatureWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (WriteException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.exporter.util;
+
+import com.alibaba.fastjson2.JSONObject;
+import org.citydb.cli.ExecutionException;
+import org.citydb.database.adapter.DatabaseAdapter;
+import org.citydb.model.change.FeatureChange;
+import org.citydb.model.change.TransactionType;
+import org.citydb.query.Query;
+import org.citydb.query.filter.Filter;
+import org.citydb.query.filter.operation.BooleanExpression;
+import org.citydb.query.filter.operation.SqlExpression;
+import org.citydb.sqlbuilder.literal.IntegerLiteral;
+import org.citydb.sqlbuilder.operation.Exists;
+import org.citydb.sqlbuilder.operation.Operators;
+import org.citydb.sqlbuilder.query.Select;
+import org.citydb.sqlbuilder.schema.Table;
+import org.citydb.util.changelog.Changelog;
+import org.citydb.util.changelog.ChangelogException;
+import org.citydb.util.changelog.query.ChangelogQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IncrementalExportHelper {
+    private final Logger logger = LoggerFactory.getLogger(IncrementalExportHelper.class);
+    private final DatabaseAdapter adapter;
+    private final Changelog changelog;
+    private final OffsetDateTime since;
+    private final OffsetDateTime watermark;
+
+    private IncrementalExportHelper(OffsetDateTime since, OffsetDateTime watermark, DatabaseAdapter adapter) {
+        this.since = since;
+        this.watermark = watermark;
+        this.adapter = adapter;
+        changelog = Changelog.of(adapter);
+    }
+
+    public static IncrementalExportHelper of(OffsetDateTime since, Path watermarkFile, DatabaseAdapter adapter) throws ExecutionException {
+        Objects.requireNonNull(adapter, "The database adapter must not be null.");
+        if (!adapter.getDatabaseMetadata().isChangelogEnabled()) {
+            throw new ExecutionException("Incremental exports require the changelog to be enabled for the " +
+                    "3DCityDB.");
+        }
+
+        if (watermarkFile != null && Files.exists(watermarkFile)) {
+            since = readWatermark(watermarkFile);
+        }
+
+        try {
+            OffsetDateTime watermark = Changelog.of(adapter)
+                    .getLatestTransactionDate(since != null ? ChangelogQuery.after(since) : ChangelogQuery.newInstance())
+                    .orElse(since);
+            return new IncrementalExportHelper(since, watermark, adapter);
+        } catch (ChangelogException e) {
+            throw new ExecutionException("Failed to determine the changelog watermark.", e);
+        }
+    }
+
+    public OffsetDateTime getSince() {
+        return since;
+    }
+
+    public OffsetDateTime getWatermark() {
+        return watermark;
+    }
+
+    public Query apply(Query query) throws ExecutionException {
+        try {
+            BooleanExpression changed = SqlExpression.of(changelog.getFeatureIdQuery(getChangelogQuery()
+                    .addTransactionType(TransactionType.INSERT)
+                    .addTransactionType(TransactionType.UPDATE)));
+            return query.setFilter(Filter.of(query.getFilter()
+                    .map(filter -> filter.getExpression().and(changed))
+                    .orElse(changed)));
+        } catch (ChangelogException e) {
+            throw new ExecutionException("Failed to build incremental export filter.", e);
+        }
+    }
+
+    public long writeDeleteManifest(Path file) throws ExecutionException {
+        String schema = adapter.getConnectionDetails().getSchema();
+        Table changes = Table.of(org.citydb.database.schema.Table.FEATURE_CHANGELOG.getName(), schema);
+        Table feature = Table.of(org.citydb.database.schema.Table.FEATURE.getName(), schema);
+        Select withoutSuccessor = Select.newInstance()
+                .select(changes.column("id"))
+                .from(changes)
+                .where(Operators.not(Exists.of(Select.newInstance()
+                        .select(IntegerLiteral.of(1))
+                        .from(feature)
+                        .where(feature.column("objectid").eq(changes.column("objectid"))
+                                .and(feature.column("termination_date").isNull())))));
+
+        ChangelogQuery query = getChangelogQuery()
+                .addTransactionType(TransactionType.TERMINATE)
+                .addTransactionType(TransactionType.DELETE)
+                .setSqlFilter(withoutSuccessor.toSql());
+
+        AtomicLong count = new AtomicLong();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            changelog.forEachChange(query, change -> {
+                try {
+                    writer.write(toJSON(change).toJSONString());
+                    writer.newLine();
+                    count.incrementAndGet();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (IOException | ChangelogException e) {
+            throw new ExecutionException("Failed to write delete manifest " + file + ".", e);
+        }
+
+        logger.info("Wrote {} terminated or deleted feature(s) to delete manifest {}.", count.get(), file);
+        return count.get();
+    }
+
+    public void writeWatermark(Path file) throws ExecutionException {
+        if (watermark != null) {
+            try {
+                Files.writeString(file, watermark.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                        StandardCharsets.UTF_8);
+                logger.info("Stored changelog watermark {} in {}.", watermark, file);
+            } catch (IOException e) {
+                throw new ExecutionException("Failed to write changelog watermark to " + file + ".", e);
+            }
+        }
+    }
+
+    private ChangelogQuery getChangelogQuery() {
+        return since != null
+                ? ChangelogQuery.range(since, watermark)
+                : ChangelogQuery.until(watermark);
+    }
+
+    private JSONObject toJSON(FeatureChange change) {
+        return new JSONObject()
+                .fluentPut("objectId", change.getObjectId().orElse(null))
+                .fluentPut("featureType", change.getFeatureType().getLocalName())
+                .fluentPut("namespace", change.getFeatureType().getNamespace())
+                .fluentPut("transactionType", change.getTransactionType().map(TransactionType::toString)
+                        .orElse(null))
+                .fluentPut("transactionDate", change.getTransactionDate()
+                        .map(date -> date.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                        .orElse(null));
+    }
+
+    private static OffsetDateTime readWatermark(Path file) throws ExecutionException {
+        try {
+            return OffsetDateTime.parse(Files.readString(file, StandardCharsets.UTF_8).trim(),
+                    DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } catch (Exception e) {
+            throw new ExecutionException("Failed to read changelog watermark from " + file + ".", e);
+        }
+    }
+}
@@ -12,35 +12,49 @@ import org.citydb.config.common.SrsReference;
 import org.citydb.core.file.OutputFile;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.database.srs.SpatialReference;
+import org.citydb.io.writer.FeatureWriter;
 import org.citydb.io.writer.WriteOptions;
 import org.citydb.io.writer.metadata.Metadata;
 import org.citydb.io.writer.options.MetadataOptions;
+import org.citydb.operation.exporter.options.ValidityMode;
 import org.citydb.model.geometry.Envelope;
+import org.citydb.query.Query;
 import org.citydb.query.executor.QueryExecutor;
 import org.citydb.util.tiling.Tile;
 import org.citydb.util.tiling.Tiling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+
 public class MetadataHelper {
     private final Logger logger = LoggerFactory.getLogger(MetadataHelper.class);
     private final MetadataOptions metadataOptions;
     private final SrsReference targetSrs;
     private final DatabaseAdapter adapter;
     private final boolean useTiling;
+    private final boolean useEstimatedExtent;
 
-    private MetadataHelper(ExportOptions exportOptions, WriteOptions writeOptions, Tiling tiling, DatabaseAdapter adapter) {
+    private MetadataHelper(ExportOptions exportOptions, WriteOptions writeOptions, Query query, boolean hasFilter, Tiling tiling, DatabaseAdapter adapter) {
         this.adapter = adapter;
         metadataOptions = writeOptions.getMetadataOptions().orElse(null);
         targetSrs = exportOptions.getTargetSrs().orElse(null);
         useTiling = tiling != TilingHelper.noTiling();
+        useEstimatedExtent = metadataOptions != null
+                && metadataOptions.isEstimateExtent()
+                && !useTiling
+                && !query.hasFeatureTypes()
+                && !hasFilter
+                && isDefaultValidity(exportOptions)
+                && query.getLodFilter().isEmpty()
+                && query.getCountLimit().isEmpty();
     }
 
-    public static MetadataHelper of(ExportOptions exportOptions, WriteOptions writeOptions, Tiling tiling, DatabaseAdapter adapter) {
-        return new MetadataHelper(exportOptions, writeOptions, tiling, adapter);
+    public static MetadataHelper of(ExportOptions exportOptions, WriteOptions writeOptions, Query query, boolean hasFilter, Tiling tiling, DatabaseAdapter adapter) {
+        return new MetadataHelper(exportOptions, writeOptions, query, hasFilter, tiling, adapter);
     }
 
-    public Metadata getMetadata(QueryExecutor executor, OutputFile outputFile, Tile tile) throws ExecutionException {
+    public Metadata getMetadata(QueryExecutor executor, OutputFile outputFile, Tile tile, FeatureWriter writer) throws ExecutionException {
         Metadata metadata = new Metadata();
         if (metadataOptions == null) {
             return metadata;
@@ -55,12 +69,22 @@ public class MetadataHelper {
                 .ifPresent(metadata::setDescription);
 
         if (metadataOptions.isComputeExtent()) {
-            metadata.setExtent(computeExtent(executor, tile));
+            if (writer.computesExtent()) {
+                logger.debug("Export extent will be computed from the exported features.");
+            } else {
+                metadata.setExtent(getExtent(executor, tile));
+            }
         }
 
         return metadata;
     }
 
+    private boolean isDefaultValidity(ExportOptions exportOptions) {
+        return exportOptions.getValidityOptions()
+                .map(options -> options.getMode() == ValidityMode.VALID && options.getAt().isEmpty())
+                .orElse(true);
+    }
+
     private String replaceTokens(String input, OutputFile outputFile, Tile tile) {
         input = TokenReplacer.replaceFileTokens(input, outputFile);
         if (useTiling) {
@@ -70,11 +94,18 @@ public class MetadataHelper {
         return input;
     }
 
-    private Envelope computeExtent(QueryExecutor executor, Tile tile) throws ExecutionException {
+    private Envelope getExtent(QueryExecutor executor, Tile tile) throws ExecutionException {
         Envelope extent;
-        try {
-            logger.debug("Computing export extent...");
-            extent = executor.computeExtent();
+        try (Connection connection = adapter.getPool().getConnection()) {
+            extent = useEstimatedExtent
+                    ? adapter.getSchemaAdapter().getStatisticsHelper().estimateFeatureExtent(connection)
+                    : null;
+            if (extent == null || extent.isEmpty()) {
+                logger.debug("Computing export extent...");
+                extent = executor.computeExtent(connection);
+            } else {
+                logger.debug("Using estimated 2D export extent.");
+            }
         } catch (Exception e) {
             throw new ExecutionException("Failed to compute the export extent.", e);
         }
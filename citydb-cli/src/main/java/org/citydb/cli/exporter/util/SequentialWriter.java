@@ -5,35 +5,43 @@
 
 package org.citydb.cli.exporter.util;
 
+import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.io.writer.FeatureWriter;
 import org.citydb.io.writer.WriteException;
+import org.citydb.model.encoding.ModelObjectInputStream;
+import org.citydb.model.encoding.ModelObjectOutputStream;
 import org.citydb.model.feature.Feature;
 import org.citydb.model.feature.FeatureDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 
 public class SequentialWriter implements FeatureWriter {
-    private static final String SKIPPED = SequentialWriter.class.getName() + ".skipped";
+    public static final long DEFAULT_BUFFER_SIZE = 64 * 1024 * 1024;
+    private static final BiConsumer<Boolean, Throwable> SKIPPED = (success, t) -> {
+    };
+
     private final Logger logger = LoggerFactory.getLogger(SequentialWriter.class);
     private final ReentrantLock lock = new ReentrantLock();
-    private final Condition condition = lock.newCondition();
-    private final Map<Long, CacheEntry> cache = new HashMap<>();
+    private final Map<Long, BiConsumer<Boolean, Throwable>> pending = new HashMap<>();
+    private final TreeMap<Long, byte[]> buffer = new TreeMap<>();
     private final FeatureWriter writer;
 
+    private Path tempDirectory;
+    private long bufferSize = DEFAULT_BUFFER_SIZE;
+    private long bufferedBytes;
+    private PersistentMapStore store;
+    private Map<Long, byte[]> spilled;
     private volatile boolean shouldRun = true;
-    private long currentId = 1;
-
-    private record CacheEntry(Feature feature, BiConsumer<Boolean, Throwable> onCompletion) {
-    }
+    private volatile long currentId = 1;
 
     private SequentialWriter(FeatureWriter writer) {
         this.writer = Objects.requireNonNull(writer, "The feature writer must not be null.");
@@ -43,54 +51,130 @@ public class SequentialWriter implements FeatureWriter {
         return new SequentialWriter(writer);
     }
 
+    public SequentialWriter withTempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    public SequentialWriter withBufferSize(long bufferSize) {
+        if (bufferSize > 0) {
+            this.bufferSize = bufferSize;
+        }
+
+        return this;
+    }
+
     public void skip(Feature feature) throws WriteException {
-        feature.getUserProperties().set(SKIPPED, true);
-        write(feature, (success, t) -> {
-        });
+        process(feature, SKIPPED);
     }
 
     @Override
     public void write(Feature feature, BiConsumer<Boolean, Throwable> onCompletion) throws WriteException {
+        process(feature, onCompletion);
+    }
+
+    private void process(Feature feature, BiConsumer<Boolean, Throwable> onCompletion) throws WriteException {
         long sequenceId = feature.getDescriptor()
                 .map(FeatureDescriptor::getSequenceId)
                 .orElse(0L);
         if (sequenceId > 0) {
+            byte[] encoded = onCompletion != SKIPPED && sequenceId != currentId
+                    ? encode(feature)
+                    : null;
+
             lock.lock();
             try {
                 if (currentId == sequenceId) {
-                    if (shouldWrite(feature)) {
-                        writer.write(feature).whenComplete(onCompletion);
-                    }
-
+                    write(feature, onCompletion, sequenceId);
                     currentId++;
 
-                    CacheEntry entry;
-                    while ((entry = cache.remove(currentId)) != null) {
-                        condition.signal();
-                        if (shouldWrite(entry.feature)) {
-                            writer.write(entry.feature).whenComplete(entry.onCompletion);
-                        }
-
+                    BiConsumer<Boolean, Throwable> next;
+                    while ((next = pending.remove(currentId)) != null) {
+                        write(remove(currentId), next, currentId);
                         currentId++;
                     }
-                } else {
-                    cache.put(sequenceId, new CacheEntry(feature, onCompletion));
-                    if (shouldRun) {
-                        try {
-                            condition.await();
-                        } catch (InterruptedException e) {
-                            throw new WriteException("Failed to write feature.", e);
-                        }
+                } else if (shouldRun) {
+                    pending.put(sequenceId, onCompletion);
+                    if (onCompletion != SKIPPED) {
+                        put(sequenceId, encoded != null ? encoded : encode(feature));
                     }
                 }
             } finally {
                 lock.unlock();
             }
-        } else {
+        } else if (onCompletion != SKIPPED) {
             writer.write(feature).whenComplete(onCompletion);
         }
     }
 
+    private void write(Feature feature, BiConsumer<Boolean, Throwable> onCompletion, long sequenceId) throws WriteException {
+        if (onCompletion != SKIPPED) {
+            if (feature != null) {
+                writer.write(feature).whenComplete(onCompletion);
+            } else {
+                throw new WriteException("Failed to retrieve buffered feature (sequence ID: " + sequenceId + ").");
+            }
+        }
+    }
+
+    private void put(long sequenceId, byte[] feature) throws WriteException {
+        buffer.put(sequenceId, feature);
+        bufferedBytes += feature.length;
+        while (bufferedBytes > bufferSize && !buffer.isEmpty()) {
+            Map.Entry<Long, byte[]> last = buffer.pollLastEntry();
+            bufferedBytes -= last.getValue().length;
+            spill(last.getKey(), last.getValue());
+        }
+    }
+
+    private void spill(long sequenceId, byte[] feature) throws WriteException {
+        try {
+            if (spilled == null) {
+                store = PersistentMapStore.builder()
+                        .tempDirectory(tempDirectory)
+                        .build();
+                spilled = store.getOrCreateMap("features");
+                logger.debug("Sequential writer buffer is full. Spilling features to {}.", store.getBackingFile());
+            }
+
+            spilled.put(sequenceId, feature);
+        } catch (IOException e) {
+            throw new WriteException("Failed to create temporary feature store.", e);
+        } catch (Exception e) {
+            throw new WriteException("Failed to spill feature to temporary feature store.", e);
+        }
+    }
+
+    private Feature remove(long sequenceId) throws WriteException {
+        byte[] feature = buffer.remove(sequenceId);
+        if (feature != null) {
+            bufferedBytes -= feature.length;
+        } else if (spilled != null) {
+            feature = spilled.remove(sequenceId);
+        }
+
+        return feature != null ? decode(feature, sequenceId) : null;
+    }
+
+    private byte[] encode(Feature feature) throws WriteException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ModelObjectOutputStream stream = new ModelObjectOutputStream(output)) {
+            stream.writeObject(feature);
+        } catch (IOException e) {
+            throw new WriteException("Failed to encode feature for the reorder buffer.", e);
+        }
+
+        return output.toByteArray();
+    }
+
+    private Feature decode(byte[] feature, long sequenceId) throws WriteException {
+        try (ModelObjectInputStream stream = new ModelObjectInputStream(new ByteArrayInputStream(feature))) {
+            return (Feature) stream.readObject();
+        } catch (IOException e) {
+            throw new WriteException("Failed to decode buffered feature (sequence ID: " + sequenceId + ").", e);
+        }
+    }
+
     @Override
     public CompletableFuture<Boolean> write(Feature feature) {
         throw new UnsupportedOperationException();
@@ -100,38 +184,29 @@ public class SequentialWriter implements FeatureWriter {
     public void cancel() {
         shouldRun = false;
         writer.cancel();
-        lock.lock();
-        try {
-            condition.signalAll();
-        } finally {
-            lock.unlock();
-        }
     }
 
     @Override
     public void close() throws WriteException {
+        lock.lock();
         try {
-            if (shouldRun && !cache.isEmpty()) {
+            if (shouldRun && !pending.isEmpty()) {
                 logger.error("Sequential writer cache is not empty. Writing remaining objects...");
-                List<CacheEntry> entries = cache.entrySet().stream()
-                        .sorted(Map.Entry.comparingByKey())
-                        .map(Map.Entry::getValue)
-                        .toList();
-                for (CacheEntry entry : entries) {
-                    if (shouldWrite(entry.feature)) {
-                        writer.write(entry.feature).whenComplete(entry.onCompletion);
-                    }
+                for (long sequenceId : new TreeSet<>(pending.keySet())) {
+                    write(remove(sequenceId), pending.get(sequenceId), sequenceId);
                 }
             }
 
             writer.close();
         } finally {
-            cache.clear();
-        }
-    }
+            pending.clear();
+            buffer.clear();
+            bufferedBytes = 0;
+            if (store != null) {
+                store.close();
+            }
 
-    private boolean shouldWrite(Feature feature) {
-        return !feature.hasUserProperties()
-                || !feature.getUserProperties().getAndCompare(SKIPPED, true);
+            lock.unlock();
+        }
     }
 }
@@ -16,10 +16,14 @@ import org.citydb.cli.importer.options.FilterOptions;
 import org.citydb.cli.importer.options.ImportMode;
 import org.citydb.cli.importer.options.MetadataOptions;
 import org.citydb.cli.importer.util.ImportOptionsHelper;
+import org.citydb.cli.importer.util.SpatialSorter;
 import org.citydb.cli.util.FeatureStatistics;
 import org.citydb.config.ConfigException;
 import org.citydb.config.common.ConfigObject;
 import org.citydb.core.file.InputFile;
+import org.citydb.core.metrics.Counter;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.MetricsReporter;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.io.IOAdapter;
 import org.citydb.io.IOAdapterManager;
@@ -31,6 +35,7 @@ import org.citydb.io.reader.options.ImplicitGeometryScope;
 import org.citydb.io.reader.options.InputFormatOptions;
 import org.citydb.model.feature.Feature;
 import org.citydb.operation.importer.Importer;
+import org.citydb.operation.importer.options.ReplaceMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
@@ -40,6 +45,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public abstract class ImportController implements Command {
     enum Mode {import_all, skip, delete, terminate}
@@ -59,6 +65,23 @@ public abstract class ImportController implements Command {
             description = "Import mode: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE}).")
     private Mode mode;
 
+    @CommandLine.Option(names = "--bulk-duplicate-check",
+            description = "Load object identifiers of the input features into a temporary table and check for " +
+                    "duplicates in the database using a single bulk query.")
+    private Boolean bulkDuplicateCheck;
+
+    @CommandLine.Option(names = "--inline-replace",
+            description = "Delete or terminate existing features in the same transaction as the import of the new " +
+                    "features instead of in a separate step before the import. Requires the import mode " +
+                    "'delete' or 'terminate'. Duplicate features within the input files are not reliably " +
+                    "replaced by each other.")
+    private Boolean inlineReplace;
+
+    @CommandLine.Option(names = "--spatial-sort",
+            description = "Sort features along a Hilbert curve of their envelopes before importing them to improve " +
+                    "the spatial clustering of the database tables.")
+    private Boolean spatialSorting;
+
     @CommandLine.ArgGroup(exclusive = false)
     protected ThreadsOptions threadsOptions;
 
@@ -84,6 +107,10 @@ public abstract class ImportController implements Command {
             heading = "Filter options:%n")
     private FilterOptions filterOptions;
 
+    @CommandLine.ArgGroup(exclusive = false, order = Integer.MAX_VALUE,
+            heading = "Metrics options:%n")
+    protected MetricsOptions metricsOptions;
+
     @CommandLine.ArgGroup(exclusive = false, order = Integer.MAX_VALUE,
             heading = "Database connection options:%n")
     protected ConnectionOptions connectionOptions;
@@ -161,6 +188,7 @@ public abstract class ImportController implements Command {
             logger.info("Import is running in preview mode. Features will not be imported.");
         }
 
+        MetricsReporter metricsReporter = startMetricsReporter();
         try (DuplicateController duplicateController = DuplicateController.of(importOptions, databaseAdapter,
                 preview)) {
             Importer importer = Importer.newInstance()
@@ -170,14 +198,16 @@ public abstract class ImportController implements Command {
                     .setImportLogger(importLogger);
 
             AtomicLong counter = new AtomicLong();
+            Counter featureCounter = MetricRegistry.getInstance().counter("import.features");
             ImportOptionsHelper optionsHelper = ImportOptionsHelper.of(importOptions);
 
             for (int i = 0; shouldRun && filter.isCountWithinLimit() && i < inputFiles.size(); i++) {
                 InputFile inputFile = inputFiles.get(i);
                 logger.info("[{}|{}] Importing file {}.", i + 1, inputFiles.size(), inputFile.getContentFile());
 
-                try (inputFile; FeatureReader reader = ioAdapter.createReader(inputFile, readOptions)) {
-                    if (importMode != ImportMode.IMPORT_ALL) {
+                try (inputFile; FeatureReader reader = ioAdapter.createReader(inputFile, readOptions);
+                     SpatialSorter sorter = createSpatialSorter(importOptions)) {
+                    if (importMode != ImportMode.IMPORT_ALL && importOptions.getReplaceMode().isEmpty()) {
                         logger.debug("Checking database for duplicate features...");
                         DuplicateController.Result result = duplicateController.processDuplicates(reader, filter);
                         if (result == DuplicateController.Result.SKIP_FILE) {
@@ -188,6 +218,21 @@ public abstract class ImportController implements Command {
 
                     importer.startSession(databaseAdapter, optionsHelper.update(importOptions, inputFile));
 
+                    Consumer<Feature> importFeature = feature -> importer.importFeature(feature)
+                            .whenComplete((descriptor, e) -> {
+                                if (descriptor == null) {
+                                    abort(feature, reader, e);
+                                    return;
+                                }
+
+                                importLogger.add(feature);
+                                featureCounter.increment();
+                                long count = counter.incrementAndGet();
+                                if (count % 1000 == 0) {
+                                    logger.info("{} features processed.", count);
+                                }
+                            });
+
                     reader.read(candidate -> {
                         Feature feature;
                         try {
@@ -204,19 +249,25 @@ public abstract class ImportController implements Command {
                             return;
                         }
 
-                        importer.importFeature(feature).whenComplete((descriptor, e) -> {
-                            if (descriptor == null) {
+                        if (sorter != null) {
+                            try {
+                                sorter.add(feature);
+                            } catch (Throwable e) {
                                 abort(feature, reader, e);
-                                return;
                             }
+                        } else {
+                            importFeature.accept(feature);
+                        }
+                    });
 
-                            importLogger.add(feature);
-                            long count = counter.incrementAndGet();
-                            if (count % 1000 == 0) {
-                                logger.info("{} features processed.", count);
+                    if (sorter != null && shouldRun) {
+                        logger.debug("Importing features in spatially sorted order...");
+                        sorter.sort(feature -> {
+                            if (shouldRun) {
+                                importFeature.accept(feature);
                             }
                         });
-                    });
+                    }
                 } catch (Throwable e) {
                     shouldRun = false;
                     throw e;
@@ -238,6 +289,10 @@ public abstract class ImportController implements Command {
             logger.warn("Database import aborted due to an error.");
             throw new ExecutionException("A fatal error has occurred during import.", e);
         } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+
             afterImport(shouldRun, importLogger.getStatistics(), featureProcessors);
             if (!importLogger.getStatistics().isEmpty()) {
                 logger.info(!preview ? "Import summary:" : "Preview of features to be imported:");
@@ -257,12 +312,24 @@ public abstract class ImportController implements Command {
                     .withFileExtensions(ioManager.getFileExtensions(ioAdapter))
                     .withMediaType(ioManager.getMediaType(ioAdapter))
                     .withBaseDirectory(CliConstants.WORKING_DIR)
+                    .withGZipThreads(inputFileOptions.getGZipThreads() != null
+                            ? inputFileOptions.getGZipThreads()
+                            : 0)
                     .find();
         } catch (IOException e) {
             throw new ExecutionException("Failed to create list of input files.", e);
         }
     }
 
+    protected MetricsReporter startMetricsReporter() {
+        if (metricsOptions != null && metricsOptions.isEnabled()) {
+            logger.debug("Writing pipeline metrics every {} second(s).", metricsOptions.getInterval().toSeconds());
+            return metricsOptions.newReporter().start();
+        }
+
+        return null;
+    }
+
     protected Filter getFilter(ImportOptions importOptions, DatabaseAdapter adapter) throws ExecutionException {
         try {
             org.citydb.io.reader.options.FilterOptions filterOptions = importOptions.getFilterOptions().orElse(null);
@@ -320,8 +387,14 @@ public abstract class ImportController implements Command {
             importOptions.setTempDirectory(helper.resolveAgainstWorkingDir(tempDirectory));
         }
 
-        if (threadsOptions != null && threadsOptions.getNumberOfThreads() != null) {
-            importOptions.setNumberOfThreads(threadsOptions.getNumberOfThreads());
+        if (threadsOptions != null) {
+            if (threadsOptions.getNumberOfThreads() != null) {
+                importOptions.setNumberOfThreads(threadsOptions.getNumberOfThreads());
+            }
+
+            if (threadsOptions.isUseVirtualThreads()) {
+                importOptions.setUseVirtualThreads(true);
+            }
         }
 
         if (metadataOptions != null) {
@@ -355,6 +428,27 @@ public abstract class ImportController implements Command {
             });
         }
 
+        if (bulkDuplicateCheck != null) {
+            importOptions.setBulkDuplicateCheck(bulkDuplicateCheck);
+        }
+
+        if (spatialSorting != null) {
+            importOptions.setSpatialSorting(spatialSorting);
+        }
+
+        if (inlineReplace != null) {
+            importOptions.setInlineReplace(inlineReplace);
+        }
+
+        if (importOptions.isInlineReplace()) {
+            switch (importOptions.getMode()) {
+                case DELETE_EXISTING -> importOptions.setReplaceMode(ReplaceMode.DELETE);
+                case TERMINATE_EXISTING -> importOptions.setReplaceMode(ReplaceMode.TERMINATE);
+                default -> logger.warn("Inline replacement is only supported for the import modes 'delete' " +
+                        "and 'terminate'. The option is ignored.");
+            }
+        }
+
         if (Command.hasMatchedOption("--index-mode", commandSpec)) {
             importOptions.setIndexMode(switch (indexOptions.getMode()) {
                 case keep -> IndexMode.KEEP;
@@ -422,6 +516,12 @@ public abstract class ImportController implements Command {
         return feature;
     }
 
+    private SpatialSorter createSpatialSorter(ImportOptions importOptions) {
+        return importOptions.isSpatialSorting()
+                ? SpatialSorter.newInstance().withTempDirectory(importOptions.getTempDirectory().orElse(null))
+                : null;
+    }
+
     private void abort(Feature feature, FeatureReader reader, Throwable e) {
         synchronized (lock) {
             if (shouldRun) {
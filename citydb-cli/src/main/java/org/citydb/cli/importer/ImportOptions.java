@@ -21,6 +21,9 @@ public class ImportOptions extends org.citydb.operation.importer.ImportOptions {
     @JSONField(serializeFeatures = JSONWriter.Feature.WriteEnumUsingToString)
     private IndexMode indexMode = IndexMode.KEEP;
     private FilterOptions filterOptions;
+    private boolean bulkDuplicateCheck;
+    private boolean spatialSorting;
+    private boolean inlineReplace;
 
     public ImportMode getMode() {
         return mode != null ? mode : ImportMode.IMPORT_ALL;
@@ -48,4 +51,31 @@ public class ImportOptions extends org.citydb.operation.importer.ImportOptions {
         this.filterOptions = filterOptions;
         return this;
     }
+
+    public boolean isBulkDuplicateCheck() {
+        return bulkDuplicateCheck;
+    }
+
+    public ImportOptions setBulkDuplicateCheck(boolean bulkDuplicateCheck) {
+        this.bulkDuplicateCheck = bulkDuplicateCheck;
+        return this;
+    }
+
+    public boolean isSpatialSorting() {
+        return spatialSorting;
+    }
+
+    public ImportOptions setSpatialSorting(boolean spatialSorting) {
+        this.spatialSorting = spatialSorting;
+        return this;
+    }
+
+    public boolean isInlineReplace() {
+        return inlineReplace;
+    }
+
+    public ImportOptions setInlineReplace(boolean inlineReplace) {
+        this.inlineReplace = inlineReplace;
+        return this;
+    }
 }
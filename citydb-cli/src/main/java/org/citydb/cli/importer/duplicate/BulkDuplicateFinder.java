@@ -0,0 +1,80 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.importer.duplicate;
+
+import org.citydb.database.DatabaseException;
+import org.citydb.database.adapter.DatabaseAdapter;
+import org.citydb.database.util.BulkWriter;
+import org.citydb.database.util.TempTable;
+import org.citydb.model.feature.Feature;
+import org.citydb.sqlbuilder.query.Select;
+import org.citydb.sqlbuilder.schema.Table;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+public class BulkDuplicateFinder {
+    private final Map<String, Boolean> objectIds;
+    private final Map<Long, Boolean> databaseIds;
+    private final DatabaseAdapter adapter;
+    private final TempTable tempTable;
+    private final BulkWriter writer;
+
+    BulkDuplicateFinder(Map<String, Boolean> objectIds, Map<Long, Boolean> databaseIds, DatabaseAdapter adapter) throws DatabaseException, SQLException {
+        this.objectIds = objectIds;
+        this.databaseIds = databaseIds;
+        this.adapter = adapter;
+
+        tempTable = TempTable.builder(adapter)
+                .stringColumn("objectid")
+                .create();
+
+        try {
+            writer = tempTable.newBulkWriter();
+        } catch (SQLException e) {
+            tempTable.close();
+            throw e;
+        }
+    }
+
+    synchronized void process(Feature feature) throws SQLException {
+        String objectId = feature.getObjectId().orElse(null);
+        if (objectId != null) {
+            writer.write(objectId);
+        }
+    }
+
+    void findDuplicates() throws SQLException {
+        if (writer.finish() > 0) {
+            String schema = adapter.getConnectionDetails().getSchema();
+            Table feature = Table.of(org.citydb.database.schema.Table.FEATURE.getName(), schema);
+            Table candidates = Table.of(tempTable.getName(), schema);
+            Select select = Select.newInstance()
+                    .select(feature.columns("objectid", "id"))
+                    .from(feature)
+                    .join(candidates).on(candidates.column("objectid").eq(feature.column("objectid")))
+                    .where(feature.column("termination_date").isNull());
+
+            try (Statement stmt = tempTable.getConnection().createStatement();
+                 ResultSet rs = stmt.executeQuery(select.toSql())) {
+                while (rs.next()) {
+                    objectIds.put(rs.getString(1), Boolean.TRUE);
+                    databaseIds.put(rs.getLong(2), Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    void close() throws SQLException {
+        try {
+            writer.close();
+        } finally {
+            tempTable.close();
+        }
+    }
+}
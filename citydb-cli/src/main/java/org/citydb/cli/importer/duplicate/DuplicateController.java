@@ -94,6 +94,10 @@ public class DuplicateController implements AutoCloseable {
         Map<String, Boolean> objectIds = store.getOrCreateMap("object-ids");
         Map<Long, Boolean> databaseIds = store.getOrCreateMap("database-ids");
 
+        if (options.isBulkDuplicateCheck()) {
+            return findDuplicatesInBulk(reader, filter, objectIds, databaseIds);
+        }
+
         Deque<DuplicateFinder> finders = new ConcurrentLinkedDeque<>();
         ExecutorService service = ExecutorHelper.newFixedAndBlockingThreadPool(options.getNumberOfThreads() > 0
                 ? options.getNumberOfThreads()
@@ -150,6 +154,39 @@ public class DuplicateController implements AutoCloseable {
         return new Count(counter.get(), objectIds.size(), databaseIds.size());
     }
 
+    private Count findDuplicatesInBulk(FeatureReader reader, Filter filter, Map<String, Boolean> objectIds,
+                                       Map<Long, Boolean> databaseIds) throws ExecutionException {
+        AtomicInteger counter = new AtomicInteger();
+        try {
+            BulkDuplicateFinder finder = new BulkDuplicateFinder(objectIds, databaseIds, adapter);
+            try {
+                filter.saveState();
+                reader.prepass(feature -> {
+                    try {
+                        finder.process(feature);
+                        counter.incrementAndGet();
+                    } catch (Exception e) {
+                        exception = e;
+                        reader.cancel();
+                    }
+                });
+
+                if (exception != null) {
+                    throw exception;
+                }
+
+                finder.findDuplicates();
+            } finally {
+                finder.close();
+                filter.restoreState();
+            }
+        } catch (Exception e) {
+            throw new ExecutionException("Failed to check input file for duplicate features.", e);
+        }
+
+        return new Count(counter.get(), objectIds.size(), databaseIds.size());
+    }
+
     private PersistentMapStore createOrResetStore() throws ExecutionException {
         if (store == null) {
             try {
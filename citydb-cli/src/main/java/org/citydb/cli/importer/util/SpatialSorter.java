@@ -0,0 +1,202 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.importer.util;
+
+import org.citydb.core.cache.PersistentMapStore;
+import org.citydb.core.function.CheckedConsumer;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.geometry.Coordinate;
+import org.citydb.model.geometry.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+public class SpatialSorter implements AutoCloseable {
+    public static final int DEFAULT_BUFFER_SIZE = 10000;
+    private static final int ORDER = 15;
+    private static final long NO_KEY = 1L << (2 * ORDER);
+    private static final int ID_BITS = 32;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private final Logger logger = LoggerFactory.getLogger(SpatialSorter.class);
+    private final List<Entry> buffer = new ArrayList<>();
+
+    private Path tempDirectory;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private Envelope extent = Envelope.empty();
+    private PersistentMapStore store;
+    private Map<Long, Feature> features;
+    private Map<Long, double[]> centers;
+    private long sequenceId;
+
+    private record Entry(long key, Feature feature, double x, double y) {
+    }
+
+    private SpatialSorter() {
+    }
+
+    public static SpatialSorter newInstance() {
+        return new SpatialSorter();
+    }
+
+    public SpatialSorter withTempDirectory(Path tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    public SpatialSorter withBufferSize(int bufferSize) {
+        if (bufferSize > 0) {
+            this.bufferSize = bufferSize;
+        }
+
+        return this;
+    }
+
+    public synchronized void add(Feature feature) throws IOException {
+        double[] center = getCenter(feature);
+        if (center != null) {
+            extent.include(center[0], center[1]);
+        }
+
+        long id = sequenceId++;
+        if (features == null && buffer.size() < bufferSize) {
+            buffer.add(new Entry(id, feature, center != null ? center[0] : Double.NaN,
+                    center != null ? center[1] : Double.NaN));
+        } else {
+            if (features == null) {
+                spillBuffer();
+            }
+
+            features.put(id, feature);
+            if (center != null) {
+                centers.put(id, center);
+            }
+        }
+    }
+
+    public synchronized <E extends Exception> void sort(CheckedConsumer<Feature, E> consumer) throws E {
+        try {
+            if (features == null) {
+                List<Entry> sorted = buffer.stream()
+                        .map(entry -> new Entry(getKey(entry.x, entry.y) << ID_BITS | entry.key, entry.feature,
+                                entry.x, entry.y))
+                        .sorted(Comparator.comparingLong(Entry::key))
+                        .toList();
+                for (Entry entry : sorted) {
+                    consumer.accept(entry.feature);
+                }
+            } else {
+                logger.debug("Sorting {} spilled features along a Hilbert curve.", features.size());
+                Map<Long, Boolean> order = store.getOrCreateMap("order");
+                for (long id = 0; id < sequenceId; id++) {
+                    double[] center = centers.get(id);
+                    long key = center != null ? getKey(center[0], center[1]) : NO_KEY;
+                    order.put(key << ID_BITS | id, Boolean.TRUE);
+                }
+
+                for (Long key : order.keySet()) {
+                    Feature feature = features.remove(key & ID_MASK);
+                    if (feature != null) {
+                        consumer.accept(feature);
+                    }
+                }
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    private void spillBuffer() throws IOException {
+        store = PersistentMapStore.builder()
+                .tempDirectory(tempDirectory)
+                .build();
+        features = store.getOrCreateMap("features");
+        centers = store.getOrCreateMap("centers");
+        logger.debug("Spatial sort buffer is full. Spilling features to {}.", store.getBackingFile());
+
+        for (Entry entry : buffer) {
+            features.put(entry.key, entry.feature);
+            if (!Double.isNaN(entry.x)) {
+                centers.put(entry.key, new double[]{entry.x, entry.y});
+            }
+        }
+
+        buffer.clear();
+    }
+
+    private double[] getCenter(Feature feature) {
+        Envelope envelope = feature.getEnvelope().orElse(null);
+        if (envelope != null && !envelope.isEmpty()) {
+            Coordinate lowerCorner = envelope.getLowerCorner();
+            Coordinate upperCorner = envelope.getUpperCorner();
+            return new double[]{
+                    (lowerCorner.getX() + upperCorner.getX()) / 2,
+                    (lowerCorner.getY() + upperCorner.getY()) / 2};
+        }
+
+        return null;
+    }
+
+    private long getKey(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return NO_KEY;
+        }
+
+        Coordinate lowerCorner = extent.getLowerCorner();
+        Coordinate upperCorner = extent.getUpperCorner();
+        int max = (1 << ORDER) - 1;
+        double width = upperCorner.getX() - lowerCorner.getX();
+        double height = upperCorner.getY() - lowerCorner.getY();
+        int cellX = width > 0 ? (int) Math.min(max, (x - lowerCorner.getX()) / width * max) : 0;
+        int cellY = height > 0 ? (int) Math.min(max, (y - lowerCorner.getY()) / height * max) : 0;
+        return hilbert(cellX, cellY);
+    }
+
+    private long hilbert(int x, int y) {
+        int n = 1 << ORDER;
+        long d = 0;
+        for (int s = n >> 1; s > 0; s >>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+
+        return d;
+    }
+
+    private void clear() {
+        buffer.clear();
+        sequenceId = 0;
+        extent = Envelope.empty();
+        if (store != null) {
+            store.close();
+            store = null;
+            features = null;
+            centers = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        clear();
+    }
+}
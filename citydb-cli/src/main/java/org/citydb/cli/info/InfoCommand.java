@@ -56,6 +56,11 @@ public class InfoCommand implements Command {
             description = "Include database size metrics.")
     private Boolean includeSizeMetrics;
 
+    @CommandLine.Option(names = "--approximate",
+            description = "Estimate counts and extents from database statistics and table samples instead of " +
+                    "computing exact values.")
+    private Boolean approximate;
+
     @CommandLine.ArgGroup(exclusive = false,
             heading = "Database connection options:%n")
     private ConnectionOptions connectionOptions;
@@ -132,6 +137,10 @@ public class InfoCommand implements Command {
             reportOptions.setIncludeDatabaseSize(includeSizeMetrics);
         }
 
+        if (approximate != null) {
+            reportOptions.setApproximate(approximate);
+        }
+
         return reportOptions;
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.cli.exporter.util;
+
+import org.citydb.io.writer.FeatureWriter;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.feature.FeatureDescriptor;
+import org.citydb.model.feature.FeatureType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSequentialWriter {
+
+    @Test
+    @DisplayName("Out-of-order features spilled past the buffer")
+    public void testSpilledFeatures(@TempDir Path tempDir) throws Exception {
+        int count = 200;
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Boolean> completed = new ConcurrentHashMap<>();
+
+        try (SequentialWriter writer = SequentialWriter.of(new CollectingWriter(written))
+                .withTempDirectory(tempDir)
+                .withBufferSize(512)) {
+            for (int sequenceId = count; sequenceId > 0; sequenceId--) {
+                Feature feature = createFeature(sequenceId);
+                if (sequenceId == 100) {
+                    writer.skip(feature);
+                } else {
+                    String objectId = feature.getObjectId().orElseThrow();
+                    writer.write(feature, (success, e) -> completed.put(objectId, success));
+                }
+            }
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int sequenceId = 1; sequenceId <= count; sequenceId++) {
+            if (sequenceId != 100) {
+                expected.add("feature-" + sequenceId);
+            }
+        }
+
+        assertEquals(expected, written);
+        assertEquals(new HashSet<>(expected), completed.keySet());
+        assertTrue(completed.values().stream().allMatch(Boolean.TRUE::equals));
+    }
+
+    @Test
+    @DisplayName("Features written concurrently in random order")
+    public void testConcurrentFeatures(@TempDir Path tempDir) throws Exception {
+        int count = 2000;
+        List<Integer> sequenceIds = new ArrayList<>();
+        for (int sequenceId = 1; sequenceId <= count; sequenceId++) {
+            sequenceIds.add(sequenceId);
+        }
+
+        Collections.shuffle(sequenceIds, new Random(count));
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        try (SequentialWriter writer = SequentialWriter.of(new CollectingWriter(written))
+                .withTempDirectory(tempDir)
+                .withBufferSize(4096)) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int sequenceId : sequenceIds) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        Feature feature = createFeature(sequenceId);
+                        String objectId = feature.getObjectId().orElseThrow();
+                        writer.write(feature, (success, e) -> {
+                            if (success == Boolean.TRUE) {
+                                completed.add(objectId);
+                            }
+                        });
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }, service));
+            }
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            service.shutdown();
+            assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(count, written.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("feature-" + (i + 1), written.get(i));
+        }
+
+        assertEquals(count, completed.size());
+    }
+
+    private Feature createFeature(long sequenceId) {
+        Feature feature = Feature.of(FeatureType.BUILDING).setObjectId("feature-" + sequenceId);
+        feature.setDescriptor(FeatureDescriptor.of(sequenceId, 901).setSequenceId(sequenceId));
+        return feature;
+    }
+
+    private record CollectingWriter(List<String> written) implements FeatureWriter {
+
+        @Override
+        public CompletableFuture<Boolean> write(Feature feature) {
+            written.add(feature.getObjectId().orElse(null));
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
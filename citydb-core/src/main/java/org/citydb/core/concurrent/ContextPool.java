@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+public class ContextPool<T> {
+    private final Queue<T> contexts = new ConcurrentLinkedQueue<>();
+    private final Supplier<T> supplier;
+
+    private ContextPool(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static <T> ContextPool<T> of(Supplier<T> supplier) {
+        return new ContextPool<>(supplier);
+    }
+
+    public T acquire() {
+        T context = contexts.poll();
+        return context != null ? context : supplier.get();
+    }
+
+    public void release(T context) {
+        if (context != null) {
+            contexts.offer(context);
+        }
+    }
+}
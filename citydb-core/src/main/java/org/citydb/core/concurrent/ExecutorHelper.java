@@ -32,4 +32,18 @@ public class ExecutorHelper {
     public static ThreadPoolExecutor newFixedAndBlockingThreadPool(int nThreads) {
         return newFixedAndBlockingThreadPool(nThreads, nThreads * 2);
     }
+
+    public static ExecutorService newFixedAndBlockingThreadPool(int nThreads, int capacity, boolean virtualThreads) {
+        return virtualThreads
+                ? new VirtualThreadExecutor(nThreads, capacity)
+                : newFixedAndBlockingThreadPool(nThreads, capacity);
+    }
+
+    public static ExecutorService newFixedAndBlockingThreadPool(int nThreads, boolean virtualThreads) {
+        return newFixedAndBlockingThreadPool(nThreads, nThreads * 2, virtualThreads);
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreadExecutor.isSupported();
+    }
 }
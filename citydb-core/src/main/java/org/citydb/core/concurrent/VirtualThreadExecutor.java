@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+class VirtualThreadExecutor extends AbstractExecutorService {
+    private static final Method FACTORY = getFactory();
+    private final ExecutorService executor;
+    private final Semaphore running;
+    private final Semaphore pending;
+
+    VirtualThreadExecutor(int nThreads, int capacity) {
+        if (FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM.");
+        }
+
+        try {
+            executor = (ExecutorService) FACTORY.invoke(null);
+        } catch (Exception e) {
+            throw new UnsupportedOperationException("Failed to create a virtual thread executor.", e);
+        }
+
+        running = new Semaphore(nThreads);
+        pending = new Semaphore(nThreads + capacity);
+    }
+
+    static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command, "The command must not be null.");
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to submit a task.", e);
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    running.acquireUninterruptibly();
+                    try {
+                        command.run();
+                    } finally {
+                        running.release();
+                    }
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private static Method getFactory() {
+        try {
+            return Runtime.version().feature() >= 21
+                    ? Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
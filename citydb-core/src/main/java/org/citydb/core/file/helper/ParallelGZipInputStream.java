@@ -0,0 +1,297 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.file.helper;
+
+import java.io.*;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+public class ParallelGZipInputStream extends InputStream {
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    private static final int MAX_MEMBER_SIZE = 64 * 1024 * 1024;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final Future<byte[]> EOF = CompletableFuture.completedFuture(null);
+
+    private final InputStream in;
+    private final int chunkSize;
+    private final ExecutorService reader;
+    private final ExecutorService service;
+    private final BlockingQueue<Future<byte[]>> chunks;
+
+    private byte[] chunk = new byte[0];
+    private int position;
+    private boolean eof;
+    private volatile boolean closed;
+
+    public ParallelGZipInputStream(InputStream in, int chunkSize, int threads) {
+        this.in = new BufferedInputStream(Objects.requireNonNull(in, "The input stream must not be null."),
+                64 * 1024);
+        this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+        threads = Math.max(threads, 1);
+        chunks = new ArrayBlockingQueue<>(threads * 2);
+        service = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        reader = Executors.newSingleThreadExecutor();
+        reader.execute(this::readMembers);
+    }
+
+    public ParallelGZipInputStream(InputStream in, int threads) {
+        this(in, DEFAULT_CHUNK_SIZE, threads);
+    }
+
+    public ParallelGZipInputStream(InputStream in) {
+        this(in, getDefaultThreads());
+    }
+
+    public static int getDefaultThreads() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextChunk() ? chunk[position++] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        } else if (!nextChunk()) {
+            return -1;
+        }
+
+        int length = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return chunk.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                reader.shutdownNow();
+                if (service != null) {
+                    service.shutdownNow();
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    private boolean nextChunk() throws IOException {
+        ensureOpen();
+        while (position == chunk.length) {
+            if (eof) {
+                return false;
+            }
+
+            byte[] next = take();
+            if (next == null) {
+                eof = true;
+                return false;
+            }
+
+            chunk = next;
+            position = 0;
+        }
+
+        return true;
+    }
+
+    private byte[] take() throws IOException {
+        try {
+            return chunks.take().get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException exception
+                    ? exception
+                    : new IOException("Failed to decompress gzip member.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for gzip data.");
+        }
+    }
+
+    private void readMembers() {
+        try {
+            boolean first = true;
+            ByteArrayOutputStream header = new ByteArrayOutputStream(64);
+            while (!closed) {
+                header.reset();
+                int size = readHeader(header, first);
+                if (size < 0) {
+                    break;
+                } else if (size >= header.size() + 8 && size <= MAX_MEMBER_SIZE) {
+                    int headerSize = header.size();
+                    byte[] member = new byte[size];
+                    System.arraycopy(header.toByteArray(), 0, member, 0, headerSize);
+                    if (in.readNBytes(member, headerSize, size - headerSize) != size - headerSize) {
+                        throw new EOFException("Unexpected end of gzip member.");
+                    }
+
+                    chunks.put(service != null
+                            ? service.submit(() -> inflate(member, headerSize))
+                            : CompletableFuture.completedFuture(inflate(member, headerSize)));
+                } else {
+                    inflate(new SequenceInputStream(new ByteArrayInputStream(header.toByteArray()), in));
+                    break;
+                }
+
+                first = false;
+            }
+
+            chunks.put(EOF);
+        } catch (InterruptedException e) {
+            //
+        } catch (Throwable e) {
+            try {
+                chunks.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException ignored) {
+                //
+            }
+        }
+    }
+
+    private int readHeader(ByteArrayOutputStream header, boolean first) throws IOException {
+        byte[] fixed = in.readNBytes(10);
+        if (fixed.length == 0 && !first) {
+            return -1;
+        } else if (fixed.length < 10 || (fixed[0] & 0xff) != 0x1f || (fixed[1] & 0xff) != 0x8b) {
+            if (first) {
+                throw new ZipException("Not in GZIP format.");
+            }
+
+            return -1;
+        }
+
+        header.write(fixed);
+        int flags = fixed[3] & 0xff;
+        int size = 0;
+        if ((flags & FEXTRA) != 0) {
+            byte[] length = readHeaderBytes(2, header);
+            byte[] extra = readHeaderBytes(getShort(length, 0), header);
+            for (int i = 0; i + 4 <= extra.length; ) {
+                int subfieldLength = getShort(extra, i + 2);
+                if (extra[i] == 'C' && extra[i + 1] == 'D' && subfieldLength == 4 && i + 8 <= extra.length) {
+                    size = getInt(extra, i + 4);
+                } else if (extra[i] == 'B' && extra[i + 1] == 'C' && subfieldLength == 2
+                        && i + 6 <= extra.length) {
+                    size = getShort(extra, i + 4) + 1;
+                }
+
+                i += 4 + subfieldLength;
+            }
+        }
+
+        if ((flags & FNAME) != 0) {
+            readZeroTerminated(header);
+        }
+
+        if ((flags & FCOMMENT) != 0) {
+            readZeroTerminated(header);
+        }
+
+        if ((flags & FHCRC) != 0) {
+            readHeaderBytes(2, header);
+        }
+
+        return size;
+    }
+
+    private byte[] readHeaderBytes(int length, ByteArrayOutputStream header) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Unexpected end of gzip header.");
+        }
+
+        header.write(bytes);
+        return bytes;
+    }
+
+    private void readZeroTerminated(ByteArrayOutputStream header) throws IOException {
+        int b;
+        do {
+            b = in.read();
+            if (b == -1) {
+                throw new EOFException("Unexpected end of gzip header.");
+            }
+
+            header.write(b);
+        } while (b != 0);
+    }
+
+    private byte[] inflate(byte[] member, int headerSize) throws IOException {
+        int trailer = member.length - 8;
+        int expectedSize = getInt(member, trailer + 4);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(expectedSize >= 0 && expectedSize <= MAX_MEMBER_SIZE
+                ? expectedSize
+                : 8192);
+
+        Inflater inflater = new Inflater(true);
+        try {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[8192];
+            inflater.setInput(member, headerSize, trailer + 8 - headerSize);
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("The gzip member is shorter than its recorded size.");
+                }
+
+                crc.update(buffer, 0, length);
+                output.write(buffer, 0, length);
+            }
+
+            if (inflater.getRemaining() != 8) {
+                throw new ZipException("The gzip member does not end at its recorded size.");
+            } else if (getInt(member, trailer) != (int) crc.getValue()
+                    || expectedSize != (int) inflater.getBytesWritten()) {
+                throw new ZipException("Corrupt gzip trailer.");
+            }
+
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid gzip member: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void inflate(InputStream source) throws IOException, InterruptedException {
+        try (GZIPInputStream stream = new GZIPInputStream(source, 64 * 1024)) {
+            byte[] bytes;
+            while (!closed && (bytes = stream.readNBytes(chunkSize)).length > 0) {
+                chunks.put(CompletableFuture.completedFuture(bytes));
+            }
+        }
+    }
+
+    private int getShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    private int getInt(byte[] bytes, int offset) {
+        return getShort(bytes, offset) | getShort(bytes, offset + 2) << 16;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+}
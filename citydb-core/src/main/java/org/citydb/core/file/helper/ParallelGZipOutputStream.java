@@ -0,0 +1,177 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.file.helper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+public class ParallelGZipOutputStream extends OutputStream {
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 4, 0, 0, 0, 0, 0, 0,
+            8, 0, 'C', 'D', 4, 0, 0, 0, 0, 0};
+
+    private final OutputStream out;
+    private final ExecutorService service;
+    private final Deque<Future<byte[]>> blocks = new ArrayDeque<>();
+    private final int compressionLevel;
+    private final int maxPendingBlocks;
+
+    private byte[] buffer;
+    private int count;
+    private long members;
+    private boolean closed;
+
+    public ParallelGZipOutputStream(OutputStream out, int blockSize, int threads, int compressionLevel) {
+        this.out = Objects.requireNonNull(out, "The output stream must not be null.");
+        if ((compressionLevel < Deflater.NO_COMPRESSION
+                || compressionLevel > Deflater.BEST_COMPRESSION)
+                && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level.");
+        }
+
+        threads = Math.max(threads, 1);
+        this.compressionLevel = compressionLevel;
+        maxPendingBlocks = threads * 2;
+        buffer = new byte[blockSize > 0 ? blockSize : DEFAULT_BLOCK_SIZE];
+        service = Executors.newFixedThreadPool(threads);
+    }
+
+    public ParallelGZipOutputStream(OutputStream out, int threads) {
+        this(out, DEFAULT_BLOCK_SIZE, threads, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            submitBlock();
+        }
+
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureOpen();
+        while (len > 0) {
+            if (count == buffer.length) {
+                submitBlock();
+            }
+
+            int length = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!blocks.isEmpty() && blocks.peek().isDone()) {
+            writeBlock(blocks.poll());
+        }
+
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                if (count > 0 || members == 0) {
+                    submitBlock();
+                }
+
+                while (!blocks.isEmpty()) {
+                    writeBlock(blocks.poll());
+                }
+            } finally {
+                service.shutdownNow();
+                out.close();
+            }
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] block = buffer;
+        int length = count;
+        blocks.add(service.submit(() -> compress(block, length)));
+        buffer = new byte[buffer.length];
+        count = 0;
+        members++;
+
+        while (blocks.size() > maxPendingBlocks) {
+            writeBlock(blocks.poll());
+        }
+    }
+
+    private byte[] compress(byte[] block, int length) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(Math.max(length / 2, 64));
+        member.write(HEADER);
+
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            DeflaterOutputStream stream = new DeflaterOutputStream(member, deflater, 8192);
+            stream.write(block, 0, length);
+            stream.finish();
+        } finally {
+            deflater.end();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(block, 0, length);
+        writeInt((int) crc.getValue(), member);
+        writeInt(length, member);
+
+        byte[] bytes = member.toByteArray();
+        for (int i = 0; i < 4; i++) {
+            bytes[16 + i] = (byte) (bytes.length >>> (8 * i));
+        }
+
+        return bytes;
+    }
+
+    private void writeInt(int value, ByteArrayOutputStream stream) {
+        for (int i = 0; i < 4; i++) {
+            stream.write(value >>> (8 * i));
+        }
+    }
+
+    private void writeBlock(Future<byte[]> block) throws IOException {
+        try {
+            out.write(block.get());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException exception
+                    ? exception
+                    : new IOException("Failed to compress gzip block.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for gzip block.");
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+}
@@ -19,6 +19,10 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.zip.Deflater;
 
+/**
+ * @deprecated Use {@link StreamingZipCreator} instead.
+ */
+@Deprecated(since = "1.4", forRemoval = true)
 public class ParallelZipCreator {
     private final ExecutorService service;
     private final ThreadLocal<ScatterZipOutputStream> threadLocal;
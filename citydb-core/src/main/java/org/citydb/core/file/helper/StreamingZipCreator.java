@@ -0,0 +1,206 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.file.helper;
+
+import org.apache.commons.compress.archivers.zip.StreamCompressor;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+import org.citydb.core.concurrent.CountLatch;
+import org.citydb.core.concurrent.ExecutorHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+
+public class StreamingZipCreator {
+    public static final int DEFAULT_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+    private final ZipArchiveOutputStream target;
+    private final Path tempDir;
+    private final int compressionLevel;
+    private final int memoryThreshold;
+    private final ExecutorService service;
+    private final ExecutorService streams;
+    private final CountLatch countLatch = new CountLatch();
+    private volatile IOException exception;
+
+    public StreamingZipCreator(ZipArchiveOutputStream target, Path tempDir, int compressionLevel, int memoryThreshold) {
+        this.target = Objects.requireNonNull(target, "The target ZIP stream must not be null.");
+        this.tempDir = Objects.requireNonNull(tempDir, "The temporary directory must not be null.");
+        if ((compressionLevel < Deflater.NO_COMPRESSION
+                || compressionLevel > Deflater.BEST_COMPRESSION)
+                && compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level.");
+        }
+
+        this.compressionLevel = compressionLevel;
+        this.memoryThreshold = memoryThreshold > 0 ? memoryThreshold : DEFAULT_MEMORY_THRESHOLD;
+        service = ExecutorHelper.newFixedAndBlockingThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        streams = Executors.newCachedThreadPool();
+    }
+
+    public StreamingZipCreator(ZipArchiveOutputStream target, Path tempDir, int compressionLevel) {
+        this(target, tempDir, compressionLevel, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    public OutputStream addArchiveEntry(ZipArchiveEntry entry) {
+        return new EntryStream(entry);
+    }
+
+    public void addArchiveEntry(ZipArchiveEntry entry, Pipe pipe) {
+        countLatch.increment();
+        streams.execute(() -> {
+            try (InputStream source = pipe.sink()) {
+                deflate(entry, source);
+            } catch (Exception e) {
+                pipe.cancel(e.getMessage(), e.getCause());
+                setException(entry, e);
+            } finally {
+                countLatch.decrement();
+            }
+        });
+    }
+
+    public void finish() throws IOException {
+        try {
+            countLatch.await();
+            if (exception != null) {
+                throw exception;
+            }
+        } finally {
+            service.shutdown();
+            streams.shutdown();
+        }
+    }
+
+    private void deflate(ZipArchiveEntry entry, InputStream source) throws IOException {
+        try (BackingStore store = new BackingStore();
+             StreamCompressor compressor = StreamCompressor.create(compressionLevel, store)) {
+            compressor.deflate(source, entry.getMethod());
+            store.closeForWriting();
+
+            entry.setCrc(compressor.getCrc32());
+            entry.setCompressedSize(compressor.getBytesWrittenForLastEntry());
+            entry.setSize(compressor.getBytesRead());
+            try (InputStream raw = store.getInputStream()) {
+                synchronized (target) {
+                    target.addRawArchiveEntry(entry, raw);
+                }
+            }
+        }
+    }
+
+    private void setException(ZipArchiveEntry entry, Exception e) {
+        if (exception == null) {
+            exception = new IOException("Failed to write ZIP entry " + entry.getName() + ".", e);
+        }
+    }
+
+    private class EntryStream extends OutputStream {
+        private final ZipArchiveEntry entry;
+        private final BackingStore store = new BackingStore();
+        private boolean closed;
+
+        EntryStream(ZipArchiveEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("The ZIP entry " + entry.getName() + " has been closed.");
+            }
+
+            store.writeOut(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                store.closeForWriting();
+                countLatch.increment();
+                try {
+                    service.execute(() -> {
+                        try (store; InputStream source = store.getInputStream()) {
+                            deflate(entry, source);
+                        } catch (Exception e) {
+                            setException(entry, e);
+                        } finally {
+                            countLatch.decrement();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    countLatch.decrement();
+                    store.close();
+                    throw new IOException("Failed to write ZIP entry " + entry.getName() + ".", e);
+                }
+            }
+        }
+    }
+
+    private class BackingStore implements ScatterGatherBackingStore {
+        private final Buffer buffer = new Buffer();
+        private ScatterGatherBackingStore file;
+
+        @Override
+        public void writeOut(byte[] data, int offset, int length) throws IOException {
+            if (file == null && buffer.size() + length > memoryThreshold) {
+                file = new FileBasedScatterGatherBackingStore(
+                        Files.createTempFile(tempDir, "zip", ".tmp").toFile());
+                file.writeOut(buffer.toByteArray(), 0, buffer.size());
+                buffer.reset();
+            }
+
+            if (file != null) {
+                file.writeOut(data, offset, length);
+            } else {
+                buffer.write(data, offset, length);
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return file != null ? file.getInputStream() : buffer.toInputStream();
+        }
+
+        @Override
+        public void closeForWriting() throws IOException {
+            if (file != null) {
+                file.closeForWriting();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
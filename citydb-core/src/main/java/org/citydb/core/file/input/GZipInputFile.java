@@ -6,26 +6,35 @@
 package org.citydb.core.file.input;
 
 import org.apache.tika.mime.MediaType;
+import org.citydb.core.file.helper.ParallelGZipInputStream;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPInputStream;
 
 public class GZipInputFile extends RegularInputFile {
+    private final int threads;
 
-    public GZipInputFile(Path file, MediaType mediaType) {
+    public GZipInputFile(Path file, MediaType mediaType, int threads) {
         super(file, mediaType);
+        this.threads = threads > 0 ? threads : ParallelGZipInputStream.getDefaultThreads();
+    }
+
+    public GZipInputFile(Path file, MediaType mediaType) {
+        this(file, mediaType, 0);
     }
 
     public GZipInputFile(Path file) {
         this(file, null);
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
     @Override
     public InputStream openStream() throws IOException {
-        return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(getFile())));
+        return new ParallelGZipInputStream(Files.newInputStream(getFile()), threads);
     }
 }
@@ -5,20 +5,40 @@
 
 package org.citydb.core.file.output;
 
+import org.citydb.core.file.helper.ParallelGZipOutputStream;
+
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
 public class GZipOutputFile extends RegularOutputFile {
+    private final int compressionLevel;
+    private final int blockSize;
+    private final int threads;
 
-    public GZipOutputFile(Path file) {
+    public GZipOutputFile(Path file, int compressionLevel, int blockSize, int threads) {
         super(file);
+        this.compressionLevel = compressionLevel;
+        this.blockSize = blockSize;
+        this.threads = threads;
+    }
+
+    public GZipOutputFile(Path file) {
+        this(file, Deflater.DEFAULT_COMPRESSION, ParallelGZipOutputStream.DEFAULT_BLOCK_SIZE, 1);
     }
 
     @Override
     public OutputStream openStream() throws IOException {
-        return new GZIPOutputStream(Files.newOutputStream(getFile()));
+        OutputStream stream = Files.newOutputStream(getFile());
+        return threads > 1
+                ? new ParallelGZipOutputStream(stream, blockSize, threads, compressionLevel)
+                : new GZIPOutputStream(stream) {
+            {
+                def.setLevel(compressionLevel);
+            }
+        };
     }
 }
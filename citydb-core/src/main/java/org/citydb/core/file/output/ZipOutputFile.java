@@ -9,14 +9,15 @@ import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.citydb.core.file.FileType;
 import org.citydb.core.file.OutputFile;
-import org.citydb.core.file.helper.ParallelZipCreator;
 import org.citydb.core.file.helper.Pipe;
+import org.citydb.core.file.helper.StreamingZipCreator;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,16 +25,22 @@ import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
 public class ZipOutputFile extends OutputFile {
+    private static final Set<String> COMPRESSED_FORMATS = Set.of("jpg", "jpeg", "jpe", "jfif", "jp2", "j2k", "jpx",
+            "png", "gif", "webp", "avif", "heic", "jxl", "ktx2", "zip", "gz", "gzip", "bz2", "xz", "zst", "7z", "laz",
+            "mp3", "mp4", "ogg");
+
     private final String contentFile;
     private final Path tempDir;
-    private final ParallelZipCreator zipCreator;
+    private final int compressionLevel;
     private final Set<String> entries = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private ZipArchiveOutputStream target;
+    private StreamingZipCreator zipCreator;
 
     public ZipOutputFile(String contentFile, Path zipFile, Path tempDir, int compressionLevel) {
         super(zipFile, FileType.ARCHIVE);
         this.contentFile = Objects.requireNonNull(contentFile, "The content file must not be null.");
         this.tempDir = Objects.requireNonNull(tempDir, "The temporary directory must not be null.");
-        zipCreator = new ParallelZipCreator(tempDir, compressionLevel);
+        this.compressionLevel = compressionLevel;
     }
 
     public ZipOutputFile(String contentFile, Path zipFile, Path tempDir) {
@@ -66,24 +73,48 @@ public class ZipOutputFile extends OutputFile {
     }
 
     @Override
-    public OutputStream newOutputStream(String file) {
+    public OutputStream newOutputStream(String file) throws IOException {
         if (entries.add(file)) {
-            Pipe pipe = new Pipe();
             ZipArchiveEntry entry = new ZipArchiveEntry(file);
-            entry.setMethod(ZipEntry.DEFLATED);
-            zipCreator.addArchiveEntry(entry, pipe);
-            return pipe.source();
+            entry.setMethod(isCompressed(file) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            if (file.equals(contentFile)) {
+                Pipe pipe = new Pipe();
+                getZipCreator().addArchiveEntry(entry, pipe);
+                return pipe.source();
+            } else {
+                return getZipCreator().addArchiveEntry(entry);
+            }
         } else {
             return OutputStream.nullOutputStream();
         }
     }
 
+    private synchronized StreamingZipCreator getZipCreator() throws IOException {
+        if (zipCreator == null) {
+            target = new ZipArchiveOutputStream(getFile());
+            zipCreator = new StreamingZipCreator(target, tempDir, compressionLevel);
+        }
+
+        return zipCreator;
+    }
+
+    private boolean isCompressed(String file) {
+        int index = file.lastIndexOf('.');
+        return index > 0 && COMPRESSED_FORMATS.contains(file.substring(index + 1).toLowerCase(Locale.ROOT));
+    }
+
     @Override
-    public void close() throws IOException {
-        try (ZipArchiveOutputStream target = new ZipArchiveOutputStream(getFile())) {
-            zipCreator.writeTo(target);
+    public synchronized void close() throws IOException {
+        try {
+            getZipCreator().finish();
         } finally {
-            entries.clear();
+            try {
+                target.close();
+            } finally {
+                target = null;
+                zipCreator = null;
+                entries.clear();
+            }
         }
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram {
+    static final long[] DEFAULT_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 50000,
+            100000, 1000000};
+
+    private final String name;
+    private final long[] bounds;
+    private final AtomicLongArray buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    Histogram(String name, long[] bounds) {
+        this.name = name;
+        this.bounds = bounds.clone();
+        Arrays.sort(this.bounds);
+        buckets = new AtomicLongArray(this.bounds.length + 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void update(long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        buckets.incrementAndGet(index >= 0 ? index : -index - 1);
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMin() {
+        return getCount() > 0 ? min.get() : 0;
+    }
+
+    public long getMax() {
+        return getCount() > 0 ? max.get() : 0;
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count > 0 ? (double) getSum() / count : 0;
+    }
+
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return counts;
+    }
+
+    void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+}
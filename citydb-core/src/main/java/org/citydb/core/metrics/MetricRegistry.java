@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MetricRegistry {
+    private static final MetricRegistry instance = new MetricRegistry();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private MetricRegistry() {
+    }
+
+    public static MetricRegistry getInstance() {
+        return instance;
+    }
+
+    public static MetricRegistry newInstance() {
+        return new MetricRegistry();
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    public Histogram histogram(String name) {
+        return histogram(name, Histogram.DEFAULT_BOUNDS);
+    }
+
+    public Histogram histogram(String name, long[] bounds) {
+        return histograms.computeIfAbsent(name, v -> new Histogram(name, bounds));
+    }
+
+    public Map<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    public Map<String, Timer> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    public Map<String, Histogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty() && timers.isEmpty() && histograms.isEmpty();
+    }
+
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.metrics;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsReporter implements AutoCloseable {
+    private static final String PROMETHEUS_PREFIX = "citydb_";
+    private final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+    private final MetricRegistry registry;
+    private final Path jsonFile;
+    private final Path prometheusFile;
+    private final Duration interval;
+    private final Instant start = Instant.now();
+
+    private ScheduledExecutorService service;
+
+    private MetricsReporter(MetricRegistry registry, Path jsonFile, Path prometheusFile, Duration interval) {
+        this.registry = registry;
+        this.jsonFile = jsonFile;
+        this.prometheusFile = prometheusFile;
+        this.interval = interval;
+    }
+
+    public static Builder builder(MetricRegistry registry) {
+        return new Builder(registry);
+    }
+
+    public MetricsReporter start() {
+        if (service == null && !interval.isZero() && !interval.isNegative()) {
+            service = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "citydb-metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            service.scheduleAtFixedRate(this::report, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+
+        return this;
+    }
+
+    public void report() {
+        try {
+            if (jsonFile != null) {
+                writeAtomically(jsonFile, stream -> JSON.writeTo(stream, toJSON(),
+                        JSONWriter.Feature.PrettyFormatWith2Space));
+            }
+
+            if (prometheusFile != null) {
+                writeAtomically(prometheusFile, stream ->
+                        stream.write(toPrometheus().getBytes(StandardCharsets.UTF_8)));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to write metrics snapshot.", e);
+        }
+    }
+
+    public JSONObject toJSON() {
+        JSONObject counters = new JSONObject();
+        registry.getCounters().forEach((name, counter) -> counters.put(name, counter.getCount()));
+
+        JSONObject timers = new JSONObject();
+        registry.getTimers().forEach((name, timer) -> timers.put(name,
+                toJSON(timer.getHistogram(), 1e6).fluentPut("unit", "ms")));
+
+        JSONObject histograms = new JSONObject();
+        registry.getHistograms().forEach((name, histogram) -> histograms.put(name, toJSON(histogram, 1)));
+
+        return new JSONObject().fluentPut("timestamp", OffsetDateTime.now().toString())
+                .fluentPut("uptimeMillis", Duration.between(start, Instant.now()).toMillis())
+                .fluentPut("counters", counters)
+                .fluentPut("timers", timers)
+                .fluentPut("histograms", histograms);
+    }
+
+    public String toPrometheus() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            String name = toPrometheusName(entry.getKey()) + "_total";
+            builder.append("# TYPE ").append(name).append(" counter\n")
+                    .append(name).append(' ').append(entry.getValue().getCount()).append('\n');
+        }
+
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            appendHistogram(toPrometheusName(entry.getKey()) + "_seconds", entry.getValue().getHistogram(), 1e9,
+                    builder);
+        }
+
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            appendHistogram(toPrometheusName(entry.getKey()), entry.getValue(), 1, builder);
+        }
+
+        return builder.toString();
+    }
+
+    private JSONObject toJSON(Histogram histogram, double scale) {
+        JSONArray buckets = new JSONArray();
+        long[] bounds = histogram.getBounds();
+        long[] counts = histogram.getBucketCounts();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                buckets.add(new JSONObject()
+                        .fluentPut("le", i < bounds.length ? bounds[i] / scale : "+Inf")
+                        .fluentPut("count", counts[i]));
+            }
+        }
+
+        return new JSONObject().fluentPut("count", histogram.getCount())
+                .fluentPut("sum", histogram.getSum() / scale)
+                .fluentPut("mean", histogram.getMean() / scale)
+                .fluentPut("min", histogram.getMin() / scale)
+                .fluentPut("max", histogram.getMax() / scale)
+                .fluentPut("buckets", buckets);
+    }
+
+    private void appendHistogram(String name, Histogram histogram, double scale, StringBuilder builder) {
+        builder.append("# TYPE ").append(name).append(" histogram\n");
+        long[] bounds = histogram.getBounds();
+        long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            builder.append(name).append("_bucket{le=\"")
+                    .append(i < bounds.length ? formatDouble(bounds[i] / scale) : "+Inf")
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+
+        builder.append(name).append("_sum ").append(formatDouble(histogram.getSum() / scale)).append('\n')
+                .append(name).append("_count ").append(cumulative).append('\n');
+    }
+
+    private String toPrometheusName(String name) {
+        return PROMETHEUS_PREFIX + name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    }
+
+    private String formatDouble(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value)
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+
+    private void writeAtomically(Path file, StreamWriter writer) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(tempFile)) {
+            writer.write(stream);
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() {
+        if (service != null) {
+            service.shutdownNow();
+            service = null;
+        }
+
+        report();
+    }
+
+    @FunctionalInterface
+    private interface StreamWriter {
+        void write(OutputStream stream) throws IOException;
+    }
+
+    public static class Builder {
+        private final MetricRegistry registry;
+        private Path jsonFile;
+        private Path prometheusFile;
+        private Duration interval = Duration.ofSeconds(10);
+
+        private Builder(MetricRegistry registry) {
+            this.registry = Objects.requireNonNull(registry, "The metric registry must not be null.");
+        }
+
+        public Builder jsonFile(Path jsonFile) {
+            this.jsonFile = jsonFile;
+            return this;
+        }
+
+        public Builder prometheusFile(Path prometheusFile) {
+            this.prometheusFile = prometheusFile;
+            return this;
+        }
+
+        public Builder interval(Duration interval) {
+            if (interval != null) {
+                this.interval = interval;
+            }
+
+            return this;
+        }
+
+        public MetricsReporter build() {
+            return new MetricsReporter(registry, jsonFile, prometheusFile, interval);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public class Timer {
+    static final long[] DEFAULT_BOUNDS = {
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10),
+            TimeUnit.SECONDS.toNanos(60)};
+
+    private final Histogram histogram;
+
+    Timer(String name) {
+        histogram = new Histogram(name, DEFAULT_BOUNDS);
+    }
+
+    public String getName() {
+        return histogram.getName();
+    }
+
+    public Context start() {
+        return new Context(this, System.nanoTime());
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        if (duration >= 0) {
+            histogram.update(unit.toNanos(duration));
+        }
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(histogram.getSum(), TimeUnit.NANOSECONDS);
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+
+    public static class Context implements AutoCloseable {
+        private final Timer timer;
+        private final long start;
+        private boolean stopped;
+
+        private Context(Timer timer, long start) {
+            this.timer = timer;
+            this.start = start;
+        }
+
+        public long stop() {
+            long duration = System.nanoTime() - start;
+            if (!stopped) {
+                stopped = true;
+                timer.record(duration, TimeUnit.NANOSECONDS);
+            }
+
+            return duration;
+        }
+
+        @Override
+        public void close() {
+            stop();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.file.helper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestParallelGZipInputStream {
+
+    @Test
+    @DisplayName("Single-member gzip stream")
+    public void testSingleMember() throws IOException {
+        byte[] data = createData(3 * ParallelGZipInputStream.DEFAULT_CHUNK_SIZE + 17);
+        assertArrayEquals(data, decompress(gzip(data), 4));
+    }
+
+    @Test
+    @DisplayName("Multi-member gzip stream with 'CD' member sizes")
+    public void testParallelMembers() throws IOException {
+        byte[] data = createData(10_000 + 17);
+        byte[] compressed = parallelGZip(data, 1000);
+        assertArrayEquals(data, decompress(compressed, 4));
+        assertArrayEquals(data, decompress(compressed, 1));
+    }
+
+    @Test
+    @DisplayName("BGZF stream")
+    public void testBgzf() throws IOException {
+        byte[] data = createData(10_000 + 17);
+        assertArrayEquals(data, decompress(bgzf(data, 1000), 4));
+    }
+
+    @Test
+    @DisplayName("Mixed 'CD', BGZF and regular gzip members")
+    public void testMixedMembers() throws IOException {
+        byte[] first = createData(5000);
+        byte[] second = createData(3000);
+        byte[] third = createData(4000);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressed.write(parallelGZip(first, 1000));
+        compressed.write(bgzf(second, 1000));
+        compressed.write(gzip(third));
+        compressed.write(parallelGZip(first, 1000));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        expected.write(third);
+        expected.write(first);
+
+        assertArrayEquals(expected.toByteArray(), decompress(compressed.toByteArray(), 4));
+    }
+
+    @Test
+    @DisplayName("Recorded member size that does not match the member")
+    public void testInvalidMemberSize() throws IOException {
+        byte[] data = createData(2000);
+        byte[] compressed = parallelGZip(data, 1000);
+        int size = getInt(compressed, 16);
+
+        byte[] tooLarge = compressed.clone();
+        setInt(tooLarge, 16, compressed.length);
+        assertThrows(ZipException.class, () -> decompress(tooLarge, 4));
+
+        byte[] tooSmall = compressed.clone();
+        setInt(tooSmall, 16, size - 4);
+        assertThrows(IOException.class, () -> decompress(tooSmall, 4));
+    }
+
+    private byte[] decompress(byte[] compressed, int threads) throws IOException {
+        try (InputStream stream = new ParallelGZipInputStream(new ByteArrayInputStream(compressed), 512, threads)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream stream = new GZIPOutputStream(compressed)) {
+            stream.write(data);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private byte[] parallelGZip(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGZipOutputStream stream = new ParallelGZipOutputStream(compressed, blockSize, 4,
+                Deflater.DEFAULT_COMPRESSION)) {
+            stream.write(data);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private byte[] bgzf(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        for (int offset = 0; offset < data.length; offset += blockSize) {
+            writeBgzfBlock(data, offset, Math.min(blockSize, data.length - offset), compressed);
+        }
+
+        writeBgzfBlock(data, 0, 0, compressed);
+        return compressed.toByteArray();
+    }
+
+    private void writeBgzfBlock(byte[] data, int offset, int length, ByteArrayOutputStream output) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data, offset, length);
+        deflater.finish();
+        byte[] buffer = new byte[length + 1024];
+        int compressedLength = deflater.deflate(buffer);
+        deflater.end();
+
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+
+        byte[] block = new byte[18 + compressedLength + 8];
+        byte[] header = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0};
+        System.arraycopy(header, 0, block, 0, header.length);
+        block[16] = (byte) (block.length - 1);
+        block[17] = (byte) ((block.length - 1) >>> 8);
+        System.arraycopy(buffer, 0, block, 18, compressedLength);
+        setInt(block, block.length - 8, (int) crc.getValue());
+        setInt(block, block.length - 4, length);
+        output.writeBytes(block);
+    }
+
+    private byte[] createData(int size) {
+        byte[] data = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+
+        return data;
+    }
+
+    private int getInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+                | (bytes[offset + 1] & 0xff) << 8
+                | (bytes[offset + 2] & 0xff) << 16
+                | (bytes[offset + 3] & 0xff) << 24;
+    }
+
+    private void setInt(byte[] bytes, int offset, int value) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+}
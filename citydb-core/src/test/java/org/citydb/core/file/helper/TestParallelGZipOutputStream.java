@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.core.file.helper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestParallelGZipOutputStream {
+    private static final int BLOCK_SIZE = 1000;
+
+    @Test
+    @DisplayName("Empty input")
+    public void testEmptyInput() throws IOException {
+        byte[] compressed = compress(new byte[0], 4);
+        assertTrue(compressed.length > 0);
+        assertArrayEquals(new byte[0], gunzip(compressed));
+    }
+
+    @Test
+    @DisplayName("Input at and around block boundaries")
+    public void testBlockBoundaries() throws IOException {
+        for (int size : new int[]{1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 5 * BLOCK_SIZE, 5 * BLOCK_SIZE + 3}) {
+            byte[] data = createData(size);
+            assertArrayEquals(data, gunzip(compress(data, 4)), "Failed for input size " + size);
+            assertArrayEquals(data, gunzip(compress(data, 1)), "Failed for input size " + size);
+        }
+    }
+
+    @Test
+    @DisplayName("Single-byte writes and flushes")
+    public void testSingleByteWrites() throws IOException {
+        byte[] data = createData(3 * BLOCK_SIZE + 7);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGZipOutputStream stream = new ParallelGZipOutputStream(compressed, BLOCK_SIZE, 4,
+                Deflater.BEST_SPEED)) {
+            for (int i = 0; i < data.length; i++) {
+                stream.write(data[i]);
+                if (i % 777 == 0) {
+                    stream.flush();
+                }
+            }
+        }
+
+        assertArrayEquals(data, gunzip(compressed.toByteArray()));
+    }
+
+    private byte[] compress(byte[] data, int threads) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGZipOutputStream stream = new ParallelGZipOutputStream(compressed, BLOCK_SIZE, threads,
+                Deflater.DEFAULT_COMPRESSION)) {
+            stream.write(data);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private byte[] createData(int size) {
+        byte[] data = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+
+        return data;
+    }
+}
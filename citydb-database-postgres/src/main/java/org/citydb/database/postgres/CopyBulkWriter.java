@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.database.postgres;
+
+import org.citydb.database.util.BulkWriter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+class CopyBulkWriter implements BulkWriter {
+    private static final int BUFFER_SIZE = 65536;
+
+    private final CopyIn copyIn;
+    private final int columns;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+
+    CopyBulkWriter(Connection connection, String table, List<String> columns) throws SQLException {
+        this.columns = columns.size();
+        copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("copy " + table +
+                " (" + String.join(", ", columns) + ") from stdin");
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        if (values.length != columns) {
+            throw new SQLException("Expected " + columns + " values but got " + values.length + ".");
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+
+            appendValue(values[i]);
+        }
+
+        buffer.append('\n');
+        if (buffer.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            buffer.append("\\N");
+        } else {
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (!buffer.isEmpty()) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.citydb.core.concurrent.LazyCheckedInitializer;
 import org.citydb.core.version.Version;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.database.metadata.DatabaseProperty;
+import org.citydb.database.schema.ValidityReference;
+import org.citydb.database.util.FeatureHierarchyFilter;
 import org.citydb.model.property.RelationType;
 import org.citydb.sqlbuilder.common.SqlObject;
 import org.citydb.sqlbuilder.function.Function;
@@ -73,13 +75,42 @@ public class SchemaAdapter extends org.citydb.database.adapter.SchemaAdapter {
 
     @Override
     public String getFeatureHierarchyQuery() {
+        return getFeatureHierarchyQuery(FeatureHierarchyFilter.newInstance());
+    }
+
+    @Override
+    public String getFeatureHierarchyQuery(FeatureHierarchyFilter filter) {
+        String validity = getValidityCondition(filter);
+        String featureJoin = validity != null
+                ? "LEFT JOIN " + adapter.getConnectionDetails().getSchema() + "." +
+                org.citydb.database.schema.Table.FEATURE.getName() + " F ON F.ID = P.VAL_FEATURE_ID " +
+                "AND P.VAL_RELATION_TYPE = " + RelationType.CONTAINS.getDatabaseValue()
+                : "";
+        String isPruned = !filter.getLods().isEmpty()
+                ? "P.VAL_LOD IS NOT NULL AND (P.VAL_GEOMETRY_ID IS NOT NULL OR P.VAL_IMPLICITGEOM_ID IS NOT NULL) " +
+                "AND P.VAL_LOD " + (filter.isRemoveLods() ? "IN (" : "NOT IN (") + filter.getLods().stream()
+                .map(lod -> "'" + lod.replace("'", "''") + "'")
+                .collect(Collectors.joining(", ")) + ")"
+                : null;
+
         try {
-            return featureHierarchyQuery.get();
+            return featureHierarchyQuery.get()
+                    .replace("@IS_VALID@", validity != null ? "F.ID IS NULL OR COALESCE(" + validity + ", FALSE)" : "TRUE")
+                    .replace("@FEATURE_JOIN@", featureJoin)
+                    .replace("@IS_PRUNED@", isPruned != null ? isPruned : "FALSE")
+                    .replace("@PRUNED_COUNT@", isPruned != null
+                            ? "COUNT(*) FILTER (WHERE IS_PRUNED) OVER ()"
+                            : "0");
         } catch (Exception e) {
             throw new IllegalStateException("Failed to create feature hierarchy query.", e);
         }
     }
 
+    @Override
+    public boolean supportsFeatureHierarchyFilter() {
+        return true;
+    }
+
     @Override
     public SqlObject getRecursiveImplicitGeometryQuery(Select featureQuery) {
         try {
@@ -142,6 +173,17 @@ public class SchemaAdapter extends org.citydb.database.adapter.SchemaAdapter {
         return select;
     }
 
+    @Override
+    public String getSchemaMappingFingerprintQuery() {
+        String schema = adapter.getConnectionDetails().getSchema();
+        return "select count(*), max(xmin::text::bigint) " +
+                "from " + schema + "." + org.citydb.database.schema.Table.NAMESPACE + " " +
+                "union all select count(*), max(xmin::text::bigint) " +
+                "from " + schema + "." + org.citydb.database.schema.Table.DATATYPE + " " +
+                "union all select count(*), max(xmin::text::bigint) " +
+                "from " + schema + "." + org.citydb.database.schema.Table.OBJECTCLASS;
+    }
+
     @Override
     public SqlHelper getSqlHelper() {
         return sqlHelper;
@@ -260,6 +302,28 @@ public class SchemaAdapter extends org.citydb.database.adapter.SchemaAdapter {
         }
     }
 
+    private String getValidityCondition(FeatureHierarchyFilter filter) {
+        FeatureHierarchyFilter.Validity validity = filter.getValidity().orElse(null);
+        if (validity == null) {
+            return null;
+        }
+
+        String from = filter.getValidityReference() == ValidityReference.DATABASE ? "F.CREATION_DATE" : "F.VALID_FROM";
+        String to = filter.getValidityReference() == ValidityReference.DATABASE ? "F.TERMINATION_DATE" : "F.VALID_TO";
+        String time = filter.getValidityTime()
+                .map(timestamp -> "'" + timestamp + "'::timestamp with time zone")
+                .orElse(null);
+
+        if (validity == FeatureHierarchyFilter.Validity.VALID) {
+            return time != null
+                    ? "(" + (filter.isLenient() ? from + " IS NULL OR " : "") + from + " <= " + time + ") " +
+                    "AND (" + to + " IS NULL OR " + to + " > " + time + ")"
+                    : to + " IS NULL";
+        } else {
+            return time != null ? to + " <= " + time : to + " IS NOT NULL";
+        }
+    }
+
     private String readRecursiveImplicitGeometryQuery() throws IOException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(
                 SchemaAdapter.class.getResourceAsStream("/org/citydb/database/postgres/query_recursive_implicit_geometry.sql"))))) {
@@ -5,8 +5,16 @@
 
 package org.citydb.database.postgres;
 
+import org.citydb.core.tuple.Pair;
+import org.citydb.database.DatabaseException;
 import org.citydb.database.adapter.DatabaseAdapter;
+import org.citydb.database.geometry.GeometryException;
 import org.citydb.database.metadata.DatabaseSize;
+import org.citydb.database.schema.FeatureType;
+import org.citydb.model.common.Name;
+import org.citydb.model.common.Namespaces;
+import org.citydb.model.geometry.Envelope;
+import org.citydb.model.geometry.GeometryType;
 import org.citydb.sqlbuilder.function.Function;
 import org.citydb.sqlbuilder.literal.StringLiteral;
 import org.citydb.sqlbuilder.query.Select;
@@ -16,14 +24,11 @@ import org.citydb.sqlbuilder.query.Sets;
 import org.citydb.sqlbuilder.schema.Table;
 import org.citydb.sqlbuilder.util.PlainSql;
 
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.EnumMap;
-import java.util.Map;
+import java.sql.*;
+import java.util.*;
 
 public class StatisticsHelper extends org.citydb.database.util.StatisticsHelper {
+    private static final long SAMPLE_SIZE = 100000;
 
     StatisticsHelper(DatabaseAdapter adapter) {
         super(adapter);
@@ -68,4 +73,197 @@ public class StatisticsHelper extends org.citydb.database.util.StatisticsHelper
     protected Selection<?> getGeometryType(Table geometryData) {
         return geometryData.column("geometry_properties->>'type'");
     }
+
+    @Override
+    public long estimateRowCount(org.citydb.database.schema.Table table, Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("select reltuples, relpages, " +
+                "pg_relation_size(oid) / current_setting('block_size')::int from pg_class " +
+                "where oid = to_regclass(?)")) {
+            stmt.setString(1, getSchema() + "." + table.getName());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    double tuples = rs.getDouble(1);
+                    long pages = rs.getLong(2);
+                    long currentPages = rs.getLong(3);
+                    if (tuples > 0 || (tuples == 0 && currentPages == 0)) {
+                        return pages > 0
+                                ? Math.round(tuples / pages * currentPages)
+                                : Math.round(tuples);
+                    }
+                }
+            }
+        }
+
+        return super.estimateRowCount(table, connection);
+    }
+
+    @Override
+    public Map<FeatureType, Long> estimateFeatureCount(FeatureScope scope, Connection connection) throws SQLException {
+        long rowCount = estimateRowCount(org.citydb.database.schema.Table.FEATURE, connection);
+        if (rowCount <= SAMPLE_SIZE) {
+            return getFeatureCount(scope, connection);
+        }
+
+        Map<FeatureType, Long> featureCount = new IdentityHashMap<>();
+        sample(org.citydb.database.schema.Table.FEATURE, "s.objectclass_id", "*", null, scope, rowCount,
+                connection).forEach((objectClassId, count) -> {
+            if (objectClassId != null) {
+                featureCount.put(getSchemaMapping().getFeatureType(Integer.parseInt(objectClassId)), count);
+            }
+        });
+
+        return featureCount;
+    }
+
+    @Override
+    public List<Long> estimateIdBoundaries(org.citydb.database.schema.Table table, int partitions, Connection connection) throws SQLException {
+        if (partitions < 2) {
+            return List.of();
+        }
+
+        List<Long> bounds = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement("select histogram_bounds::text from pg_stats " +
+                "where schemaname = ? and tablename = ? and attname = 'id'")) {
+            stmt.setString(1, getSchema());
+            stmt.setString(2, table.getName());
+            try (ResultSet rs = stmt.executeQuery()) {
+                String histogram = rs.next() ? rs.getString(1) : null;
+                if (histogram != null && histogram.length() > 2) {
+                    for (String bound : histogram.substring(1, histogram.length() - 1).split(",")) {
+                        bounds.add(Long.parseLong(bound.trim()));
+                    }
+                }
+            }
+        }
+
+        if (bounds.size() > partitions) {
+            List<Long> boundaries = new ArrayList<>(partitions - 1);
+            for (int i = 1; i < partitions; i++) {
+                boundaries.add(bounds.get((int) Math.round((double) i * (bounds.size() - 1) / partitions)));
+            }
+
+            return boundaries;
+        }
+
+        long rowCount = estimateRowCount(table, connection);
+        return rowCount > SAMPLE_SIZE
+                ? getIdBoundaries(getSchema() + "." + table.getName() + " tablesample system (" +
+                String.format(Locale.ROOT, "%.6f", 100.0 * SAMPLE_SIZE / rowCount) + ")", partitions, connection)
+                : super.estimateIdBoundaries(table, partitions, connection);
+    }
+
+    @Override
+    public Map<GeometryType, Long> estimateGeometryCount(FeatureScope scope, Connection connection) throws SQLException {
+        long rowCount = estimateRowCount(org.citydb.database.schema.Table.GEOMETRY_DATA, connection);
+        if (rowCount <= SAMPLE_SIZE) {
+            return getGeometryCount(scope, connection);
+        }
+
+        Map<GeometryType, Long> geometryCount = new EnumMap<>(GeometryType.class);
+        sample(org.citydb.database.schema.Table.GEOMETRY_DATA, "s.geometry_properties->>'type'", "*", "feature_id",
+                scope, rowCount, connection).forEach((type, count) -> {
+            if (type != null) {
+                geometryCount.put(GeometryType.fromDatabaseValue(Integer.parseInt(type)), count);
+            }
+        });
+
+        return geometryCount;
+    }
+
+    @Override
+    public Map<String, Long> estimateGeometryCountByLod(FeatureScope scope, Connection connection) throws SQLException {
+        long rowCount = estimateRowCount(org.citydb.database.schema.Table.PROPERTY, connection);
+        if (rowCount <= SAMPLE_SIZE) {
+            return getGeometryCountByLod(scope, connection);
+        }
+
+        Map<String, Long> lods = sample(org.citydb.database.schema.Table.PROPERTY, "s.val_lod", "s.val_geometry_id",
+                "feature_id", scope, rowCount, connection);
+        lods.remove(null);
+        return lods;
+    }
+
+    @Override
+    public Map<String, Long> estimateAppearanceCountByTheme(FeatureScope scope, Connection connection) throws SQLException {
+        long rowCount = estimateRowCount(org.citydb.database.schema.Table.APPEARANCE, connection);
+        if (rowCount <= SAMPLE_SIZE) {
+            return getAppearanceCountByTheme(scope, connection);
+        }
+
+        Map<String, Long> appearanceCount = new HashMap<>();
+        sample(org.citydb.database.schema.Table.APPEARANCE, "s.theme", "*", "feature_id", scope, rowCount,
+                connection).forEach((theme, count) -> appearanceCount.put(theme != null ? theme : NULL_THEME, count));
+
+        return appearanceCount;
+    }
+
+    @Override
+    public Pair<FeatureType, Long> estimateImplicitGeometryCount(Connection connection) throws SQLException {
+        return Pair.of(getSchemaMapping().getFeatureType(Name.of("ImplicitGeometry", Namespaces.CORE)),
+                estimateRowCount(org.citydb.database.schema.Table.IMPLICIT_GEOMETRY, connection));
+    }
+
+    @Override
+    public Pair<FeatureType, Long> estimateAddressCount(FeatureScope scope, Connection connection) throws SQLException {
+        return scope == FeatureScope.ALL
+                ? Pair.of(getSchemaMapping().getFeatureType(Name.of("Address", Namespaces.CORE)),
+                estimateRowCount(org.citydb.database.schema.Table.ADDRESS, connection))
+                : getAddressCount(scope, connection);
+    }
+
+    @Override
+    public Envelope estimateFeatureExtent(Connection connection) throws DatabaseException, SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("select st_estimatedextent(?, ?, ?)")) {
+            stmt.setString(1, getSchema());
+            stmt.setString(2, org.citydb.database.schema.Table.FEATURE.getName());
+            stmt.setString(3, "envelope");
+            try (ResultSet rs = stmt.executeQuery()) {
+                Envelope envelope = rs.next() ? adapter.getGeometryAdapter().getEnvelope(rs.getObject(1)) : null;
+                return envelope != null
+                        ? envelope.setSRID(adapter.getDatabaseMetadata().getSpatialReference().getSRID())
+                        : null;
+            }
+        } catch (GeometryException e) {
+            throw new DatabaseException("Failed to estimate feature extent.", e);
+        }
+    }
+
+    private Map<String, Long> sample(org.citydb.database.schema.Table table, String key, String value,
+                                     String featureColumn, FeatureScope scope, long rowCount,
+                                     Connection connection) throws SQLException {
+        String feature = featureColumn != null ? "f" : "s";
+        String condition = switch (scope) {
+            case ALL -> "true";
+            case ACTIVE -> feature + ".termination_date is null";
+            case TERMINATED -> feature + ".termination_date is not null";
+        };
+
+        String sql = "select " + key + ", count(" + value + ") filter (where " + condition + "), count(*) " +
+                "from " + getSchema() + "." + table.getName() + " s tablesample system (" +
+                String.format(Locale.ROOT, "%.6f", 100.0 * SAMPLE_SIZE / rowCount) + ")" +
+                (featureColumn != null && scope != FeatureScope.ALL
+                        ? " left join " + getSchema() + "." + org.citydb.database.schema.Table.FEATURE.getName() +
+                        " f on f.id = s." + featureColumn
+                        : "") +
+                " group by 1";
+
+        Map<String, Long> counts = new HashMap<>();
+        long sampleSize = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getLong(2));
+                sampleSize += rs.getLong(3);
+            }
+        }
+
+        if (sampleSize > 0) {
+            double factor = (double) rowCount / sampleSize;
+            counts.replaceAll((k, count) -> Math.round(count * factor));
+            counts.values().removeIf(count -> count == 0);
+            return counts;
+        } else {
+            return new HashMap<>();
+        }
+    }
 }
@@ -6,7 +6,11 @@
 package org.citydb.database.postgres;
 
 import org.citydb.database.adapter.DatabaseAdapter;
+import org.citydb.database.util.BulkWriter;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
 public class TempTableHelper implements org.citydb.database.util.TempTableHelper {
@@ -80,4 +84,9 @@ public class TempTableHelper implements org.citydb.database.util.TempTableHelper
                         .orElse("") +
                 ")";
     }
+
+    @Override
+    public BulkWriter createBulkWriter(Connection connection, String table, List<String> columns) throws SQLException {
+        return new CopyBulkWriter(connection, table, columns);
+    }
 }
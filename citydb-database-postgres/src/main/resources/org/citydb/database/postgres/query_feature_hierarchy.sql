@@ -23,6 +23,8 @@ WITH RECURSIVE FEATURE_HIERARCHY AS
      1::integer AS VAL_RELATION_TYPE,
      NULL::text AS VAL_CONTENT,
      NULL::text AS VAL_CONTENT_MIME_TYPE,
+     TRUE AS IS_VALID,
+     FALSE AS IS_PRUNED,
      FALSE AS IS_CYCLE,
      ARRAY[]::bigint[] AS PATH
    FROM (SELECT ?::bigint AS ID) F
@@ -51,10 +53,13 @@ WITH RECURSIVE FEATURE_HIERARCHY AS
      P.VAL_RELATION_TYPE,
      P.VAL_CONTENT,
      P.VAL_CONTENT_MIME_TYPE,
+     @IS_VALID@,
+     @IS_PRUNED@,
      P.ID = ANY(PATH),
      PATH || P.ID
    FROM @SCHEMA@.PROPERTY P
-   INNER JOIN FEATURE_HIERARCHY H ON H.VAL_FEATURE_ID = P.FEATURE_ID AND H.VAL_RELATION_TYPE = 1
+   INNER JOIN FEATURE_HIERARCHY H ON H.VAL_FEATURE_ID = P.FEATURE_ID AND H.VAL_RELATION_TYPE = 1 AND H.IS_VALID
+   @FEATURE_JOIN@
    WHERE NOT IS_CYCLE)
 SELECT
   H.ID,
@@ -80,5 +85,7 @@ SELECT
   H.VAL_FEATURE_ID,
   H.VAL_RELATION_TYPE,
   H.VAL_CONTENT,
-  H.VAL_CONTENT_MIME_TYPE
-FROM FEATURE_HIERARCHY H
+  H.VAL_CONTENT_MIME_TYPE,
+  H.PRUNED_COUNT
+FROM (SELECT *, @PRUNED_COUNT@ AS PRUNED_COUNT FROM FEATURE_HIERARCHY) H
+WHERE NOT H.IS_PRUNED
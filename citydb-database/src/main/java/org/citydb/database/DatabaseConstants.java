@@ -22,6 +22,7 @@ public class DatabaseConstants {
     public static final String ENV_CITYDB_USERNAME = "CITYDB_USERNAME";
     public static final String ENV_CITYDB_PASSWORD = "CITYDB_PASSWORD";
     public static final String ENV_CITYDB_CONN_PROPS = "CITYDB_CONN_PROPS";
+    public static final String ENV_CITYDB_SCHEMA_CACHE = "CITYDB_SCHEMA_CACHE";
     public static final String ENV_CITYDB_ADMIN_USERNAME = "CITYDB_ADMIN_USERNAME";
     public static final String ENV_CITYDB_ADMIN_PASSWORD = "CITYDB_ADMIN_PASSWORD";
     public static final String ENV_CITYDB_ADMIN_DB = "CITYDB_ADMIN_DATABASE";
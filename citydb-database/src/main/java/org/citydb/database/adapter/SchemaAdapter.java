@@ -16,6 +16,7 @@ import org.citydb.sqlbuilder.common.SqlObject;
 import org.citydb.sqlbuilder.query.Select;
 import org.citydb.sqlbuilder.schema.Table;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collections;
@@ -42,6 +43,14 @@ public abstract class SchemaAdapter {
 
     public abstract String getFeatureHierarchyQuery();
 
+    public String getFeatureHierarchyQuery(FeatureHierarchyFilter filter) {
+        return getFeatureHierarchyQuery();
+    }
+
+    public boolean supportsFeatureHierarchyFilter() {
+        return false;
+    }
+
     public abstract SqlObject getRecursiveImplicitGeometryQuery(Select featureQuery);
 
     public abstract Select getRecursiveLodQuery(Set<String> lods, boolean requireAll, int searchDepth, Table table);
@@ -65,7 +74,14 @@ public abstract class SchemaAdapter {
     protected abstract boolean schemaExists(String schemaName, Version version, Connection connection) throws SQLException;
 
     void buildSchemaMapping() throws SchemaException {
-        schemaMapping = SchemaMappingBuilder.newInstance().build(adapter);
+        String schemaCache = adapter.getConnectionDetails().getSchemaCache();
+        schemaMapping = SchemaMappingBuilder.newInstance()
+                .snapshotDirectory(schemaCache != null ? Path.of(schemaCache) : null)
+                .build(adapter);
+    }
+
+    public String getSchemaMappingFingerprintQuery() {
+        return null;
     }
 
     public SchemaMapping getSchemaMapping() {
@@ -20,6 +20,7 @@ public class ConnectionDetails {
     private Integer port;
     private String database;
     private String schema;
+    private String schemaCache;
     private Map<String, Object> properties;
     private PoolOptions poolOptions;
     private AdminOptions adminOptions;
@@ -34,6 +35,7 @@ public class ConnectionDetails {
                 .setPort(other.port)
                 .setDatabase(other.database)
                 .setSchema(other.schema)
+                .setSchemaCache(other.schemaCache)
                 .setProperties(other.properties != null ? new HashMap<>(other.properties) : null)
                 .setPoolOptions(other.poolOptions != null ? PoolOptions.of(other.poolOptions) : null)
                 .setAdminOptions(other.adminOptions != null ? AdminOptions.of(other.adminOptions) : null);
@@ -151,6 +153,19 @@ public class ConnectionDetails {
         return this.schema == null ? setSchema(schema) : this;
     }
 
+    public String getSchemaCache() {
+        return schemaCache;
+    }
+
+    public ConnectionDetails setSchemaCache(String schemaCache) {
+        this.schemaCache = schemaCache;
+        return this;
+    }
+
+    public ConnectionDetails setSchemaCacheIfAbsent(String schemaCache) {
+        return this.schemaCache == null ? setSchemaCache(schemaCache) : this;
+    }
+
     public boolean hasProperties() {
         return properties != null && !properties.isEmpty();
     }
@@ -248,6 +263,7 @@ public class ConnectionDetails {
                 .setPortIfAbsent(other.port)
                 .setDatabaseIfAbsent(other.database)
                 .setSchemaIfAbsent(other.schema)
+                .setSchemaCacheIfAbsent(other.schemaCache)
                 .addPropertiesIfAbsent(other.properties)
                 .setPoolOptionsIfAbsent(other.poolOptions)
                 .fillAbsentAdminOptionsFrom(other.adminOptions)
@@ -261,6 +277,7 @@ public class ConnectionDetails {
                 .setPortIfAbsent(System.getenv(DatabaseConstants.ENV_CITYDB_PORT))
                 .setDatabaseIfAbsent(System.getenv(DatabaseConstants.ENV_CITYDB_NAME))
                 .setSchemaIfAbsent(System.getenv(DatabaseConstants.ENV_CITYDB_SCHEMA))
+                .setSchemaCacheIfAbsent(System.getenv(DatabaseConstants.ENV_CITYDB_SCHEMA_CACHE))
                 .addPropertiesIfAbsent(System.getenv(DatabaseConstants.ENV_CITYDB_CONN_PROPS))
                 .fillAbsentAdminOptionsFromEnv();
     }
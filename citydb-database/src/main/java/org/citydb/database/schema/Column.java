@@ -5,9 +5,10 @@
 
 package org.citydb.database.schema;
 
+import java.io.Serializable;
 import java.util.Locale;
 
-public class Column {
+public class Column implements Serializable {
     private final String name;
     private final ColumnType type;
 
@@ -5,7 +5,9 @@
 
 package org.citydb.database.schema;
 
-public class Condition {
+import java.io.Serializable;
+
+public class Condition implements Serializable {
     private final Column column;
     private final String value;
 
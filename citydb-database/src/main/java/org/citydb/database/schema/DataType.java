@@ -8,6 +8,7 @@ package org.citydb.database.schema;
 import org.citydb.model.common.Name;
 import org.citydb.model.common.Namespaces;
 
+import java.io.Serial;
 import java.util.Map;
 import java.util.Optional;
 
@@ -61,4 +62,9 @@ public class DataType extends Type<DataType> implements ValueObject {
     DataType self() {
         return this;
     }
+
+    @Serial
+    private Object readResolve() {
+        return id == UNDEFINED.id ? UNDEFINED : this;
+    }
 }
@@ -8,6 +8,7 @@ package org.citydb.database.schema;
 import org.citydb.model.common.Name;
 import org.citydb.model.common.Namespaces;
 
+import java.io.Serial;
 import java.util.Map;
 
 public class FeatureType extends Type<FeatureType> {
@@ -81,4 +82,9 @@ public class FeatureType extends Type<FeatureType> {
     FeatureType self() {
         return this;
     }
+
+    @Serial
+    private Object readResolve() {
+        return id == UNDEFINED.id ? UNDEFINED : this;
+    }
 }
@@ -5,9 +5,10 @@
 
 package org.citydb.database.schema;
 
+import java.io.Serializable;
 import java.util.*;
 
-public class Join {
+public class Join implements Serializable {
     private final Table table;
     private final String fromColumn;
     private final String toColumn;
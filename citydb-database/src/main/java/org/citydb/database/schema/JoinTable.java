@@ -5,7 +5,9 @@
 
 package org.citydb.database.schema;
 
-public class JoinTable {
+import java.io.Serializable;
+
+public class JoinTable implements Serializable {
     private final Table table;
     private final Join sourceJoin;
     private final Join targetJoin;
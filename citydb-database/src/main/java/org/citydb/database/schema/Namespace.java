@@ -7,9 +7,11 @@ package org.citydb.database.schema;
 
 import org.citydb.model.common.Namespaces;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Optional;
 
-public class Namespace {
+public class Namespace implements Serializable {
     public static final Namespace UNDEFINED = new Namespace(null, Namespaces.EMPTY_NAMESPACE, null);
 
     private final Integer id;
@@ -33,4 +35,9 @@ public class Namespace {
     public Optional<String> getAlias() {
         return Optional.ofNullable(alias);
     }
+
+    @Serial
+    private Object readResolve() {
+        return id == null ? UNDEFINED : this;
+    }
 }
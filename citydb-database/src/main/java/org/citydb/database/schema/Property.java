@@ -8,12 +8,13 @@ package org.citydb.database.schema;
 import org.citydb.model.common.Name;
 import org.citydb.model.common.PrefixedName;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
-public class Property implements ValueObject, Typeable, Joinable {
+public class Property implements ValueObject, Typeable, Joinable, Serializable {
     private final Name name;
     private final String description;
     private final Integer parentIndex;
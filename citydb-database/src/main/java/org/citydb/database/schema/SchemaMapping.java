@@ -9,9 +9,10 @@ import org.citydb.model.common.Name;
 import org.citydb.model.common.Namespaces;
 import org.citydb.model.common.PrefixedName;
 
+import java.io.Serializable;
 import java.util.*;
 
-public class SchemaMapping {
+public class SchemaMapping implements Serializable {
     public static final String TARGET_OBJECTCLASS_ID = "@target.objectclass_id@";
 
     private final Map<Integer, Namespace> namespacesById = new HashMap<>();
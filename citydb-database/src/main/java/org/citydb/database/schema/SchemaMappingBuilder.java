@@ -10,19 +10,34 @@ import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
 import org.citydb.core.version.Version;
 import org.citydb.database.adapter.DatabaseAdapter;
+import org.citydb.database.connection.ConnectionDetails;
 import org.citydb.model.common.Name;
 import org.citydb.model.common.Namespaces;
 import org.citydb.model.common.PrefixedName;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 
 public class SchemaMappingBuilder {
+    private static final int SNAPSHOT_FORMAT = 2;
+    private static final ObjectInputFilter SNAPSHOT_FILTER = ObjectInputFilter.Config.createFilter(
+            "org.citydb.database.schema.*;org.citydb.model.common.Name;java.lang.*;java.util.*;!*");
+    private final Logger logger = LoggerFactory.getLogger(SchemaMappingBuilder.class);
     private final SchemaMapping schemaMapping = new SchemaMapping();
+    private Path snapshotDirectory;
 
     private SchemaMappingBuilder() {
     }
@@ -31,19 +46,44 @@ public class SchemaMappingBuilder {
         return new SchemaMappingBuilder();
     }
 
+    public SchemaMappingBuilder snapshotDirectory(Path snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+        return this;
+    }
+
     public SchemaMapping build(DatabaseAdapter adapter) throws SchemaException {
         try (Connection connection = adapter.getPool().getConnection()) {
-            buildNamespaces(connection, adapter);
-            buildDataTypes(connection, adapter);
-            buildFeatureTypes(connection, adapter);
-            postprocess();
+            String fingerprintQuery = snapshotDirectory != null
+                    ? adapter.getSchemaAdapter().getSchemaMappingFingerprintQuery()
+                    : null;
+            if (fingerprintQuery == null) {
+                return build(connection, adapter);
+            }
 
+            Path snapshotFile = getSnapshotFile(adapter);
+            String fingerprint = getFingerprint(connection, fingerprintQuery, adapter);
+            SchemaMapping snapshot = readSnapshot(snapshotFile, fingerprint);
+            if (snapshot != null) {
+                return snapshot;
+            }
+
+            build(connection, adapter);
+            writeSnapshot(snapshotFile, fingerprint);
             return schemaMapping;
         } catch (SQLException e) {
             throw new SchemaException("Failed to query schema mapping.", e);
         }
     }
 
+    private SchemaMapping build(Connection connection, DatabaseAdapter adapter) throws SchemaException, SQLException {
+        buildNamespaces(connection, adapter);
+        buildDataTypes(connection, adapter);
+        buildFeatureTypes(connection, adapter);
+        postprocess();
+
+        return schemaMapping;
+    }
+
     private void buildNamespaces(Connection connection, DatabaseAdapter adapter) throws SchemaException, SQLException {
         try (Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery("select id, namespace, alias " +
@@ -149,6 +189,83 @@ public class SchemaMappingBuilder {
         }
     }
 
+    private String getFingerprint(Connection connection, String query, DatabaseAdapter adapter) throws SQLException {
+        StringBuilder fingerprint = new StringBuilder()
+                .append(adapter.getDatabaseMetadata().getVersion());
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    fingerprint.append(':').append(rs.getString(i));
+                }
+            }
+        }
+
+        return fingerprint.toString();
+    }
+
+    private Path getSnapshotFile(DatabaseAdapter adapter) {
+        ConnectionDetails connectionDetails = adapter.getConnectionDetails();
+        String key = adapter.getDatabaseName() + ":" +
+                connectionDetails.getHost() + ":" +
+                connectionDetails.getPort() + "/" +
+                connectionDetails.getDatabase() + "/" +
+                connectionDetails.getSchema();
+
+        return snapshotDirectory.resolve("schema-mapping-" +
+                UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".bin");
+    }
+
+    private SchemaMapping readSnapshot(Path snapshotFile, String fingerprint) {
+        if (Files.isRegularFile(snapshotFile)) {
+            try (ObjectInputStream stream = new ObjectInputStream(
+                    new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+                stream.setObjectInputFilter(SNAPSHOT_FILTER);
+                if (stream.readInt() == SNAPSHOT_FORMAT
+                        && fingerprint.equals(stream.readUTF())
+                        && stream.readObject() instanceof SchemaMapping snapshot) {
+                    logger.debug("Loading schema mapping from snapshot {}.", snapshotFile);
+                    return snapshot;
+                }
+
+                logger.debug("The schema mapping snapshot {} is outdated.", snapshotFile);
+            } catch (Exception e) {
+                logger.debug("Failed to read schema mapping snapshot {}.", snapshotFile, e);
+            }
+        }
+
+        return null;
+    }
+
+    private void writeSnapshot(Path snapshotFile, String fingerprint) {
+        try {
+            Files.createDirectories(snapshotDirectory);
+            Path tempFile = Files.createTempFile(snapshotDirectory, "schema-mapping-", ".tmp");
+            try {
+                try (ObjectOutputStream stream = new ObjectOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    stream.writeInt(SNAPSHOT_FORMAT);
+                    stream.writeUTF(fingerprint);
+                    stream.writeObject(schemaMapping);
+                }
+
+                try {
+                    Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            logger.debug("Stored schema mapping snapshot at {}.", snapshotFile);
+        } catch (Exception e) {
+            logger.warn("Failed to store schema mapping snapshot at {}.", snapshotFile, e);
+        }
+    }
+
     private DataType buildDataType(int id, Name name, boolean isAbstract, Integer superTypeId, JSONObject object,
                                    DatabaseAdapter adapter) throws SchemaException {
         String identifier = object.getString("identifier");
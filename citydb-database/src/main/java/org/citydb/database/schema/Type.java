@@ -7,9 +7,10 @@ package org.citydb.database.schema;
 
 import org.citydb.model.common.Name;
 
+import java.io.Serializable;
 import java.util.*;
 
-public abstract class Type<T extends Type<T>> implements Joinable {
+public abstract class Type<T extends Type<T>> implements Joinable, Serializable {
     final int id;
     final Name name;
     final Table table;
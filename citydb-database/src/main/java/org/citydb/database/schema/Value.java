@@ -7,10 +7,11 @@ package org.citydb.database.schema;
 
 import org.citydb.model.common.Name;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Optional;
 
-public class Value {
+public class Value implements Serializable {
     private final Column column;
     private final Integer propertyIndex;
     private Property property;
@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.database.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+class BatchBulkWriter implements BulkWriter {
+    private static final int BATCH_SIZE = 1000;
+
+    private final PreparedStatement stmt;
+    private final int columns;
+    private int batchCounter;
+    private long rows;
+
+    BatchBulkWriter(Connection connection, String table, List<String> columns) throws SQLException {
+        this.columns = columns.size();
+        stmt = connection.prepareStatement("insert into " + table +
+                " (" + String.join(", ", columns) + ") values (" +
+                String.join(", ", Collections.nCopies(columns.size(), "?")) + ")");
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        if (values.length != columns) {
+            throw new SQLException("Expected " + columns + " values but got " + values.length + ".");
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            stmt.setObject(i + 1, values[i]);
+        }
+
+        stmt.addBatch();
+        if (++batchCounter == BATCH_SIZE) {
+            executeBatch();
+        }
+    }
+
+    @Override
+    public long finish() throws SQLException {
+        executeBatch();
+        return rows;
+    }
+
+    private void executeBatch() throws SQLException {
+        if (batchCounter > 0) {
+            stmt.executeBatch();
+            rows += batchCounter;
+            batchCounter = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        stmt.close();
+    }
+}
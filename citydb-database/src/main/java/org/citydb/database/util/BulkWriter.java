@@ -0,0 +1,17 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.database.util;
+
+import java.sql.SQLException;
+
+public interface BulkWriter extends AutoCloseable {
+    void write(Object... values) throws SQLException;
+
+    long finish() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+}
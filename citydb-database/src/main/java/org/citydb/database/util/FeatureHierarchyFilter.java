@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.database.util;
+
+import org.citydb.database.schema.ValidityReference;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+public class FeatureHierarchyFilter {
+    private Set<String> lods = Collections.emptySet();
+    private boolean removeLods;
+    private Validity validity;
+    private ValidityReference validityReference = ValidityReference.DATABASE;
+    private OffsetDateTime validityTime;
+    private boolean lenient;
+
+    public enum Validity {
+        VALID,
+        INVALID
+    }
+
+    private FeatureHierarchyFilter() {
+    }
+
+    public static FeatureHierarchyFilter newInstance() {
+        return new FeatureHierarchyFilter();
+    }
+
+    public Set<String> getLods() {
+        return lods;
+    }
+
+    public boolean isRemoveLods() {
+        return removeLods;
+    }
+
+    public FeatureHierarchyFilter keepLods(Set<String> lods) {
+        this.lods = Objects.requireNonNull(lods, "The LoDs must not be null.");
+        removeLods = false;
+        return this;
+    }
+
+    public FeatureHierarchyFilter removeLods(Set<String> lods) {
+        this.lods = Objects.requireNonNull(lods, "The LoDs must not be null.");
+        removeLods = true;
+        return this;
+    }
+
+    public Optional<Validity> getValidity() {
+        return Optional.ofNullable(validity);
+    }
+
+    public ValidityReference getValidityReference() {
+        return validityReference;
+    }
+
+    public Optional<OffsetDateTime> getValidityTime() {
+        return Optional.ofNullable(validityTime);
+    }
+
+    public boolean isLenient() {
+        return lenient;
+    }
+
+    public FeatureHierarchyFilter validity(Validity validity, ValidityReference reference, OffsetDateTime time,
+                                           boolean lenient) {
+        this.validity = validity;
+        validityReference = Objects.requireNonNull(reference, "The validity reference must not be null.");
+        validityTime = time;
+        this.lenient = lenient;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return lods.isEmpty() && validity == null;
+    }
+}
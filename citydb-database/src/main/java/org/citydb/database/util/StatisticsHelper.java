@@ -33,6 +33,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 
 public abstract class StatisticsHelper {
@@ -479,6 +480,65 @@ public abstract class StatisticsHelper {
         }
     }
 
+    public long estimateRowCount(org.citydb.database.schema.Table table, Connection connection) throws SQLException {
+        Table target = Table.of(table.getName(), getSchema());
+        Select select = Select.newInstance()
+                .select(Function.of("count", IntegerLiteral.of(1)))
+                .from(target);
+
+        try (PreparedStatement stmt = connection.prepareStatement(select.toSql());
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    public Map<FeatureType, Long> estimateFeatureCount(FeatureScope scope, Connection connection) throws SQLException {
+        return getFeatureCount(scope, connection);
+    }
+
+    public List<Long> estimateIdBoundaries(org.citydb.database.schema.Table table, int partitions, Connection connection) throws SQLException {
+        return getIdBoundaries(getSchema() + "." + table.getName(), partitions, connection);
+    }
+
+    protected List<Long> getIdBoundaries(String source, int partitions, Connection connection) throws SQLException {
+        List<Long> boundaries = new ArrayList<>(partitions);
+        if (partitions > 1) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("select min(id) from (select id, ntile(" + partitions + ") " +
+                         "over (order by id) as t from " + source + ") s group by t order by 1")) {
+                while (rs.next()) {
+                    boundaries.add(rs.getLong(1));
+                }
+            }
+        }
+
+        return !boundaries.isEmpty() ? boundaries.subList(1, boundaries.size()) : boundaries;
+    }
+
+    public Envelope estimateFeatureExtent(Connection connection) throws DatabaseException, SQLException {
+        return null;
+    }
+
+    public Map<GeometryType, Long> estimateGeometryCount(FeatureScope scope, Connection connection) throws SQLException {
+        return getGeometryCount(scope, connection);
+    }
+
+    public Map<String, Long> estimateGeometryCountByLod(FeatureScope scope, Connection connection) throws SQLException {
+        return getGeometryCountByLod(scope, connection);
+    }
+
+    public Map<String, Long> estimateAppearanceCountByTheme(FeatureScope scope, Connection connection) throws SQLException {
+        return getAppearanceCountByTheme(scope, connection);
+    }
+
+    public Pair<FeatureType, Long> estimateImplicitGeometryCount(Connection connection) throws SQLException {
+        return getImplicitGeometryCount(connection);
+    }
+
+    public Pair<FeatureType, Long> estimateAddressCount(FeatureScope scope, Connection connection) throws SQLException {
+        return getAddressCount(scope, connection);
+    }
+
     public DatabaseSize getDatabaseSize() throws DatabaseException, SQLException {
         try (Connection connection = adapter.getPool().getConnection(true)) {
             return getDatabaseSize(connection);
@@ -524,11 +584,11 @@ public abstract class StatisticsHelper {
         return feature;
     }
 
-    private SchemaMapping getSchemaMapping() {
+    protected SchemaMapping getSchemaMapping() {
         return adapter.getSchemaAdapter().getSchemaMapping();
     }
 
-    private String getSchema() {
+    protected String getSchema() {
         return adapter.getConnectionDetails().getSchema();
     }
 }
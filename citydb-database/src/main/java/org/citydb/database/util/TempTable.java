@@ -80,6 +80,10 @@ public class TempTable implements AutoCloseable {
         }
     }
 
+    public BulkWriter newBulkWriter() throws SQLException {
+        return helper.createBulkWriter(connection, prefixedName, getColumns());
+    }
+
     public boolean isEmpty() throws SQLException {
         return size() == 0;
     }
@@ -5,6 +5,9 @@
 
 package org.citydb.database.util;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 
 public interface TempTableHelper {
@@ -31,4 +34,8 @@ public interface TempTableHelper {
     String getGeometry();
 
     String getCreateTempTable(String name, Map<String, String> columns);
+
+    default BulkWriter createBulkWriter(Connection connection, String table, List<String> columns) throws SQLException {
+        return new BatchBulkWriter(connection, table, columns);
+    }
 }
@@ -10,6 +10,8 @@ import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.core.file.InputFile;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.io.citygml.CityGMLAdapterContext;
 import org.citydb.io.citygml.reader.preprocess.CityGMLPreprocessor;
 import org.citydb.io.citygml.reader.util.FileMetadata;
@@ -46,6 +48,8 @@ public class CityGMLReader extends FeatureReader {
     private final CityGMLFormatOptions formatOptions;
     private final PersistentMapStore store;
     private final Filter filter;
+    private final Timer parseTimer = MetricRegistry.getInstance().timer("import.reader.parse");
+    private final Timer convertTimer = MetricRegistry.getInstance().timer("import.reader.convert");
 
     private volatile boolean isPreprocessed;
     private volatile boolean shouldRun = true;
@@ -131,7 +135,11 @@ public class CityGMLReader extends FeatureReader {
                 countLatch.increment();
                 service.execute(() -> {
                     try {
-                        AbstractFeature feature = chunk.build();
+                        AbstractFeature feature;
+                        try (Timer.Context ignored = parseTimer.start()) {
+                            feature = chunk.build();
+                        }
+
                         if (preprocessor.process(feature, (int) chunk.getLocalProperties().get("featureId"))) {
                             process(feature, consumer, helpers.get());
                         }
@@ -177,7 +185,11 @@ public class CityGMLReader extends FeatureReader {
     }
 
     private void process(AbstractFeature feature, Consumer<Feature> consumer, ModelBuilderHelper helper) throws Exception {
-        Feature object = helper.getTopLevelFeature(feature);
+        Feature object;
+        try (Timer.Context ignored = convertTimer.start()) {
+            object = helper.getTopLevelFeature(feature);
+        }
+
         if (object != null) {
             Filter.Result result = filter.test(object);
             if (result == Filter.Result.ACCEPT) {
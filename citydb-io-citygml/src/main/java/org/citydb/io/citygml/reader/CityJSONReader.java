@@ -10,6 +10,8 @@ import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.core.file.InputFile;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.io.citygml.CityGMLAdapterContext;
 import org.citydb.io.citygml.reader.preprocess.CityJSONPreprocessor;
 import org.citydb.io.citygml.reader.util.FileMetadata;
@@ -39,6 +41,8 @@ public class CityJSONReader extends FeatureReader {
     private final PersistentMapStore store;
     private final Filter filter;
     private final CityJSONPreprocessor preprocessor;
+    private final Timer parseTimer = MetricRegistry.getInstance().timer("import.reader.parse");
+    private final Timer convertTimer = MetricRegistry.getInstance().timer("import.reader.convert");
 
     private volatile boolean shouldRun = true;
     private Throwable exception;
@@ -102,7 +106,11 @@ public class CityJSONReader extends FeatureReader {
                             .initialize(metadata, options, formatOptions));
 
             while (shouldRun && reader.hasNext()) {
-                AbstractFeature feature = reader.next();
+                AbstractFeature feature;
+                try (Timer.Context ignored = parseTimer.start()) {
+                    feature = reader.next();
+                }
+
                 preprocessor.retainState(retainState)
                         .processGlobalObjects(feature);
 
@@ -110,7 +118,11 @@ public class CityJSONReader extends FeatureReader {
                 service.execute(() -> {
                     try {
                         preprocessor.process(feature);
-                        Feature object = helpers.get().getTopLevelFeature(feature);
+                        Feature object;
+                        try (Timer.Context ignored = convertTimer.start()) {
+                            object = helpers.get().getTopLevelFeature(feature);
+                        }
+
                         if (object != null) {
                             Filter.Result result = filter.test(object);
                             if (result == Filter.Result.ACCEPT) {
@@ -19,29 +19,47 @@ import org.citygml4j.xml.module.gml.GMLCoreModule;
 import org.citygml4j.xml.transform.TransformerPipeline;
 import org.citygml4j.xml.writer.SAXFragmentHandler;
 import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
 import org.xmlobjects.serializer.ObjectSerializeException;
 import org.xmlobjects.stream.XMLWriteException;
 import org.xmlobjects.stream.XMLWriter;
 import org.xmlobjects.stream.XMLWriterFactory;
-import org.xmlobjects.util.xml.SAXBuffer;
 import org.xmlobjects.util.xml.SAXWriter;
 import org.xmlobjects.xml.Element;
 import org.xmlobjects.xml.Namespaces;
 
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.sax.SAXResult;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class CityGMLChunkWriter {
+    private static final String PLACEHOLDER_NAMESPACE = "urn:org.citydb:member-placeholder";
+
+    private final OutputStream stream;
+    private final ByteArrayOutputStream template = new ByteArrayOutputStream();
     private final SAXWriter writer;
+    private final String encoding;
+    private final Charset charset;
     private final CityGMLVersion version;
     private final XMLWriterFactory factory;
     private final Namespaces namespaces;
+    private final Map<String, String> prefixes = new LinkedHashMap<>();
+    private final Map<String, String> schemaLocations = new LinkedHashMap<>();
+    private final ThreadLocal<MemberWriter> memberWriters = new ThreadLocal<>();
     private final Object lock = new Object();
 
     private TransformerPipeline transformer;
     private CityModel cityModel;
+    private String defaultNamespace;
+    private byte[] footer;
     private volatile State state = State.INITIAL;
 
     private enum State {
@@ -51,8 +69,11 @@ public class CityGMLChunkWriter {
     }
 
     CityGMLChunkWriter(OutputStream stream, String encoding, CityGMLVersion version, CityGMLContext context) throws IOException {
-        this.writer = new SAXWriter(stream, encoding);
+        this.stream = new BufferedOutputStream(stream);
+        this.encoding = encoding;
         this.version = version;
+        writer = new SAXWriter(template, encoding);
+        charset = Charset.forName(encoding);
         factory = XMLWriterFactory.newInstance(context.getXMLObjects());
 
         namespaces = Namespaces.newInstance();
@@ -67,6 +88,7 @@ public class CityGMLChunkWriter {
 
     CityGMLChunkWriter setPrefix(String prefix, String namespaceURI) {
         writer.withPrefix(prefix, namespaceURI);
+        prefixes.put(prefix, namespaceURI);
         return this;
     }
 
@@ -84,6 +106,7 @@ public class CityGMLChunkWriter {
 
     CityGMLChunkWriter setDefaultNamespace(String namespaceURI) {
         writer.withDefaultNamespace(namespaceURI);
+        defaultNamespace = namespaceURI;
         return this;
     }
 
@@ -120,6 +143,7 @@ public class CityGMLChunkWriter {
 
     CityGMLChunkWriter setSchemaLocation(String namespaceURI, String schemaLocation) {
         writer.withSchemaLocation(namespaceURI, schemaLocation);
+        schemaLocations.put(namespaceURI, schemaLocation);
         return this;
     }
 
@@ -128,7 +152,7 @@ public class CityGMLChunkWriter {
             if (module.isSetSchemaLocation()
                     && ((module instanceof CityGMLModule && !(module instanceof CoreModule))
                     || module instanceof ADEModule)) {
-                writer.withSchemaLocation(module.getNamespaceURI(), module.getSchemaLocation());
+                setSchemaLocation(module.getNamespaceURI(), module.getSchemaLocation());
             }
         }
 
@@ -157,33 +181,29 @@ public class CityGMLChunkWriter {
         return this;
     }
 
-    ContentHandler getContentHandler() {
-        return writer;
-    }
-
-    SAXBuffer bufferMember(AbstractFeature feature) throws WriteException {
+    byte[] serializeMember(AbstractFeature feature) throws WriteException {
         if (feature instanceof AbstractCityObject) {
-            return bufferMember(feature, CoreModule.of(version).getNamespaceURI(), "cityObjectMember");
+            return serializeMember(feature, CoreModule.of(version).getNamespaceURI(), "cityObjectMember");
         } else if (feature instanceof AbstractAppearance) {
-            return bufferMember(feature, version != CityGMLVersion.v3_0
+            return serializeMember(feature, version != CityGMLVersion.v3_0
                     ? AppearanceModule.of(version).getNamespaceURI()
                     : CoreModule.of(version).getNamespaceURI(), "appearanceMember");
         } else if (version == CityGMLVersion.v3_0) {
             if (feature instanceof AbstractVersion) {
-                return bufferMember(feature, CoreModule.v3_0.getNamespaceURI(), "versionMember");
+                return serializeMember(feature, CoreModule.v3_0.getNamespaceURI(), "versionMember");
             } else if (feature instanceof AbstractVersionTransition) {
-                return bufferMember(feature, CoreModule.v3_0.getNamespaceURI(), "versionTransitionMember");
+                return serializeMember(feature, CoreModule.v3_0.getNamespaceURI(), "versionTransitionMember");
             } else {
-                return bufferMember(feature, CoreModule.v3_0.getNamespaceURI(), "featureMember");
+                return serializeMember(feature, CoreModule.v3_0.getNamespaceURI(), "featureMember");
             }
         } else if (feature != null) {
-            return bufferMember(feature, GMLCoreModule.v3_1.getNamespaceURI(), "featureMember");
+            return serializeMember(feature, GMLCoreModule.v3_1.getNamespaceURI(), "featureMember");
         }
 
         return null;
     }
 
-    private SAXBuffer bufferMember(AbstractFeature feature, String namespaceURI, String propertyName) throws WriteException {
+    private byte[] serializeMember(AbstractFeature feature, String namespaceURI, String propertyName) throws WriteException {
         switch (state) {
             case CLOSED:
                 throw new WriteException("Illegal to write features after writer has been closed.");
@@ -192,17 +212,53 @@ public class CityGMLChunkWriter {
         }
 
         try {
-            SAXBuffer buffer = new SAXBuffer()
-                    .useAsFragment(true)
-                    .assumeMixedContent(false);
-            XMLWriter writer = getWriter(buffer);
+            MemberWriter memberWriter = getMemberWriter();
+            XMLWriter writer = getWriter(new MemberHandler(memberWriter.writer()));
             writer.writeStartDocument();
             writer.writeStartElement(Element.of(namespaceURI, propertyName));
             writer.writeObject(feature, namespaces);
             writer.writeEndElement();
             writer.writeEndDocument();
-            return buffer;
-        } catch (XMLWriteException | ObjectSerializeException e) {
+            return memberWriter.flush();
+        } catch (XMLWriteException | ObjectSerializeException | SAXException e) {
+            throw new WriteException("Caused by:", e);
+        }
+    }
+
+    private MemberWriter getMemberWriter() throws WriteException, XMLWriteException, ObjectSerializeException, SAXException {
+        MemberWriter memberWriter = memberWriters.get();
+        if (memberWriter == null) {
+            // each thread serializes members with its own SAX writer that has already written the
+            // document header, so members are written in the namespace context of the root element
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            SAXWriter writer = new SAXWriter(output, encoding);
+            writer.writeXMLDeclaration(false);
+            writer.withIndent(this.writer.getIndent());
+            prefixes.forEach(writer::withPrefix);
+            schemaLocations.forEach(writer::withSchemaLocation);
+            if (defaultNamespace != null) {
+                writer.withDefaultNamespace(defaultNamespace);
+            }
+
+            writeHeader(writer);
+            writer.flush();
+            output.reset();
+
+            memberWriter = new MemberWriter(output, writer);
+            memberWriters.set(memberWriter);
+        }
+
+        return memberWriter;
+    }
+
+    void writeMember(byte[] member) throws WriteException {
+        if (state == State.CLOSED) {
+            throw new WriteException("Illegal to write features after writer has been closed.");
+        }
+
+        try {
+            stream.write(member);
+        } catch (IOException e) {
             throw new WriteException("Caused by:", e);
         }
     }
@@ -225,12 +281,27 @@ public class CityGMLChunkWriter {
             }
 
             try {
-                SAXFragmentHandler fragmentHandler = new SAXFragmentHandler(writer, SAXFragmentHandler.Mode.HEADER);
-                XMLWriter writer = getWriter(fragmentHandler);
+                writeHeader(this.writer);
+
+                SAXFragmentHandler footerHandler = new SAXFragmentHandler(this.writer, SAXFragmentHandler.Mode.FOOTER);
+                XMLWriter writer = getWriter(footerHandler);
                 writer.writeStartDocument();
-                writer.writeObject(getCityModel(), namespaces);
+                writer.writeObject(new CityModel(), namespaces);
                 writer.writeEndDocument();
-            } catch (XMLWriteException | ObjectSerializeException e) {
+                this.writer.close();
+
+                String document = template.toString(charset);
+                int index = document.indexOf(PLACEHOLDER_NAMESPACE);
+                int start = document.lastIndexOf('<', index);
+                int end = document.indexOf('>', index) + 1;
+                if (document.charAt(end - 2) != '/') {
+                    end = document.indexOf('>', end) + 1;
+                }
+
+                String header = document.substring(0, start).stripTrailing();
+                footer = document.substring(end).getBytes(charset);
+                stream.write(header.getBytes(charset));
+            } catch (XMLWriteException | ObjectSerializeException | SAXException | IOException e) {
                 throw new WriteException("Caused by:", e);
             } finally {
                 state = State.DOCUMENT_STARTED;
@@ -238,20 +309,17 @@ public class CityGMLChunkWriter {
         }
     }
 
-    private void writeFooter() throws WriteException {
-        if (state == State.INITIAL) {
-            writeHeader();
-        }
-
-        try {
-            SAXFragmentHandler fragmentHandler = new SAXFragmentHandler(writer, SAXFragmentHandler.Mode.FOOTER);
-            XMLWriter writer = getWriter(fragmentHandler);
-            writer.writeStartDocument();
-            writer.writeObject(new CityModel(), namespaces);
-            writer.writeEndDocument();
-        } catch (XMLWriteException | ObjectSerializeException e) {
-            throw new WriteException("Caused by:", e);
-        }
+    private void writeHeader(SAXWriter writer) throws WriteException, XMLWriteException, ObjectSerializeException, SAXException {
+        SAXFragmentHandler headerHandler = new SAXFragmentHandler(writer, SAXFragmentHandler.Mode.HEADER);
+        XMLWriter xmlWriter = getWriter(headerHandler);
+        xmlWriter.writeStartDocument();
+        xmlWriter.writeObject(getCityModel(), namespaces);
+        xmlWriter.writeEndDocument();
+
+        writer.startPrefixMapping("placeholder", PLACEHOLDER_NAMESPACE);
+        writer.startElement(PLACEHOLDER_NAMESPACE, "member", "placeholder:member", new AttributesImpl());
+        writer.endElement(PLACEHOLDER_NAMESPACE, "member", "placeholder:member");
+        writer.endPrefixMapping("placeholder");
     }
 
     private XMLWriter getWriter(ContentHandler handler) throws WriteException {
@@ -275,12 +343,39 @@ public class CityGMLChunkWriter {
         }
 
         try {
-            writeFooter();
-            writer.close();
+            writeHeader();
+            stream.write(footer);
+            stream.close();
         } catch (IOException e) {
             throw new WriteException("Caused by:", e);
         } finally {
             state = State.CLOSED;
         }
     }
+
+    private record MemberWriter(ByteArrayOutputStream output, SAXWriter writer) {
+
+        byte[] flush() throws SAXException {
+            writer.flush();
+            byte[] member = output.toByteArray();
+            output.reset();
+            return member.length > 0 ? member : null;
+        }
+    }
+
+    private static class MemberHandler extends XMLFilterImpl {
+
+        MemberHandler(ContentHandler handler) {
+            setContentHandler(handler);
+        }
+
+        @Override
+        public void startDocument() {
+            // members are written into the open root element
+        }
+
+        @Override
+        public void endDocument() {
+        }
+    }
 }
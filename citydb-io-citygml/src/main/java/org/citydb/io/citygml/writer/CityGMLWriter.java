@@ -10,6 +10,8 @@ import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.core.file.OutputFile;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.io.citygml.CityGMLAdapterContext;
 import org.citydb.io.citygml.writer.util.GlobalFeatureWriter;
 import org.citydb.io.writer.FeatureWriter;
@@ -29,24 +31,37 @@ import org.xmlobjects.gml.model.deprecated.StringOrRef;
 import org.xmlobjects.gml.model.feature.BoundingShape;
 import org.xmlobjects.gml.model.geometry.DirectPosition;
 import org.xmlobjects.gml.model.geometry.Envelope;
-import org.xmlobjects.util.xml.SAXBuffer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 public class CityGMLWriter implements FeatureWriter, GlobalFeatureWriter {
     private final Logger logger = LoggerFactory.getLogger(CityGMLWriter.class);
     private final CityGMLChunkWriter writer;
     private final PersistentMapStore store;
     private final ExecutorService service;
+    private final ExecutorService serializers;
+    private final Semaphore permits;
     private final ThreadLocal<ModelSerializerHelper> helpers;
+    private final ThreadLocal<List<byte[]>> globalFeatures = new ThreadLocal<>();
     private final CountLatch countLatch;
+    private final Timer serializeTimer = MetricRegistry.getInstance().timer("export.writer.serialize");
+    private final Timer queueTimer = MetricRegistry.getInstance().timer("export.writer.queue_wait");
+    private final Timer writeTimer = MetricRegistry.getInstance().timer("export.writer.write");
     private final String srsName;
+    private final Object lock = new Object();
 
     private volatile boolean shouldRun = true;
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+    private record Members(List<byte[]> globalFeatures, byte[] feature) {
+    }
 
     public CityGMLWriter(OutputFile file, WriteOptions options, CityGMLAdapterContext context) throws WriteException {
         Objects.requireNonNull(file, "The output file must not be null.");
@@ -80,7 +95,12 @@ public class CityGMLWriter implements FeatureWriter, GlobalFeatureWriter {
             throw new WriteException("Failed to initialize local cache.", e);
         }
 
-        service = ExecutorHelper.newFixedAndBlockingThreadPool(1, 100);
+        int threads = options.getNumberOfThreads() > 0
+                ? options.getNumberOfThreads()
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+        service = Executors.newSingleThreadExecutor();
+        serializers = ExecutorHelper.newFixedAndBlockingThreadPool(threads);
+        permits = new Semaphore(Math.max(100, threads * 25));
         helpers = ThreadLocal.withInitial(() -> new ModelSerializerHelper(this, store, context)
                 .initialize(options, formatOptions, cityGMLContext));
         countLatch = new CountLatch();
@@ -90,13 +110,34 @@ public class CityGMLWriter implements FeatureWriter, GlobalFeatureWriter {
     @Override
     public CompletableFuture<Boolean> write(Feature feature) throws WriteException {
         if (shouldRun) {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            CompletableFuture<Members> buffer = new CompletableFuture<>();
             try {
-                AbstractFeature converted = helpers.get().getTopLevelFeature(feature);
-                return write(writer.bufferMember(converted));
+                Timer.Context context = queueTimer.start();
+                permits.acquire();
+                append(buffer, result, true);
+                serializers.execute(() -> {
+                    List<byte[]> globalFeatures = new ArrayList<>();
+                    this.globalFeatures.set(globalFeatures);
+                    try (Timer.Context ignored = serializeTimer.start()) {
+                        byte[] member = writer.serializeMember(helpers.get().getTopLevelFeature(feature));
+                        buffer.complete(new Members(globalFeatures, member));
+                    } catch (Throwable e) {
+                        shouldRun = false;
+                        result.completeExceptionally(new WriteException("Failed to write feature.", e));
+                        buffer.complete(null);
+                    } finally {
+                        this.globalFeatures.remove();
+                    }
+                });
+                context.stop();
             } catch (Throwable e) {
                 shouldRun = false;
+                buffer.complete(null);
                 throw new WriteException("Failed to write feature.", e);
             }
+
+            return result;
         } else {
             return new CompletableFuture<>();
         }
@@ -104,18 +145,38 @@ public class CityGMLWriter implements FeatureWriter, GlobalFeatureWriter {
 
     @Override
     public void write(AbstractFeature feature) throws WriteException {
-        write(writer.bufferMember(feature));
+        if (shouldRun) {
+            byte[] member = writer.serializeMember(feature);
+            List<byte[]> globalFeatures = this.globalFeatures.get();
+            if (globalFeatures != null) {
+                if (member != null) {
+                    globalFeatures.add(member);
+                }
+            } else {
+                append(CompletableFuture.completedFuture(new Members(List.of(), member)),
+                        new CompletableFuture<>(), false);
+            }
+        }
     }
 
-    private CompletableFuture<Boolean> write(SAXBuffer buffer) {
-        CompletableFuture<Boolean> result = new CompletableFuture<>();
-        if (shouldRun) {
-            countLatch.increment();
-            service.execute(() -> {
+    private void append(CompletableFuture<Members> buffer, CompletableFuture<Boolean> result, boolean release) {
+        countLatch.increment();
+        synchronized (lock) {
+            tail = tail.runAfterBothAsync(buffer, () -> {
                 try {
-                    if (buffer != null && !buffer.isEmpty()) {
-                        buffer.send(writer.getContentHandler(), false);
-                        result.complete(true);
+                    Members members = buffer.join();
+                    if (members != null) {
+                        try (Timer.Context ignored = writeTimer.start()) {
+                            for (byte[] globalFeature : members.globalFeatures()) {
+                                writer.writeMember(globalFeature);
+                            }
+
+                            if (members.feature() != null) {
+                                writer.writeMember(members.feature());
+                            }
+                        }
+
+                        result.complete(members.feature() != null);
                     } else {
                         result.complete(false);
                     }
@@ -123,14 +184,14 @@ public class CityGMLWriter implements FeatureWriter, GlobalFeatureWriter {
                     shouldRun = false;
                     result.completeExceptionally(new WriteException("Failed to write feature.", e));
                 } finally {
+                    if (release) {
+                        permits.release();
+                    }
+
                     countLatch.decrement();
                 }
-            });
-        } else {
-            result.cancel(true);
+            }, service);
         }
-
-        return result;
     }
 
     @Override
@@ -171,6 +232,7 @@ public class CityGMLWriter implements FeatureWriter, GlobalFeatureWriter {
         } catch (Exception e) {
             throw new WriteException("Failed to close CityGML writer.", e);
         } finally {
+            serializers.shutdown();
             service.shutdown();
         }
     }
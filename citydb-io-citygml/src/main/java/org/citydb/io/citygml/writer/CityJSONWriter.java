@@ -5,12 +5,19 @@
 
 package org.citydb.io.citygml.writer;
 
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
 import org.citydb.config.ConfigException;
 import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.core.file.OutputFile;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.io.citygml.CityGMLAdapterContext;
+import org.citydb.io.citygml.writer.util.CityJSONSpool;
 import org.citydb.io.citygml.writer.util.GlobalFeatureWriter;
 import org.citydb.io.writer.FeatureWriter;
 import org.citydb.io.writer.WriteException;
@@ -29,21 +36,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xmlobjects.gml.model.geometry.AbstractGeometry;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
     private final Logger logger = LoggerFactory.getLogger(CityJSONWriter.class);
+    private final CityJSONWriterFactory factory;
     private final AbstractCityJSONWriter<?> writer;
+    private final OutputStream stream;
+    private final Charset charset;
+    private final boolean htmlSafe;
+    private final boolean transformCoordinates;
+    private final double scale;
+    private final CityJSONSpool spool;
     private final PersistentMapStore store;
     private final ExecutorService service;
+    private final ExecutorService serializers;
+    private final Semaphore permits;
     private final ThreadLocal<ModelSerializerHelper> helpers;
+    private final ThreadLocal<List<Object>> globalFeatures = new ThreadLocal<>();
+    private final Map<AbstractGeometry, Number> templateGeometries = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final List<Appearance> globalAppearances = Collections.synchronizedList(new ArrayList<>());
     private final CountLatch countLatch;
+    private final Timer serializeTimer = MetricRegistry.getInstance().timer("export.writer.serialize");
+    private final Timer queueTimer = MetricRegistry.getInstance().timer("export.writer.queue_wait");
+    private final Timer writeTimer = MetricRegistry.getInstance().timer("export.writer.write");
+    private final Object lock = new Object();
+    private final Object headerLock = new Object();
 
     private volatile boolean shouldRun = true;
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
     private Throwable exception;
+    private org.citydb.io.writer.metadata.Metadata metadata;
+    private volatile String header;
+    private double[] translate;
+    private boolean headerWritten;
+
+    private record Members(List<Object> items, boolean hasFeature) {
+    }
 
     public CityJSONWriter(OutputFile file, WriteOptions options, CityGMLAdapterContext context) throws WriteException {
         Objects.requireNonNull(file, "The output file must not be null.");
@@ -65,8 +104,31 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
             throw new WriteException("Failed to get CityJSON format options from config.", e);
         }
 
-        writer = CityJSONWriterFactory.newInstance(cityJSONContext, options, formatOptions)
-                .createWriter(file);
+        factory = CityJSONWriterFactory.newInstance(cityJSONContext, options, formatOptions);
+        htmlSafe = formatOptions.isHtmlSafe();
+        transformCoordinates = formatOptions.isTransformCoordinates();
+        scale = Math.pow(10, -formatOptions.getVertexPrecision());
+        try {
+            if (factory.isSpoolingRequired()) {
+                spool = factory.createSpool(file);
+                stream = new BufferedOutputStream(spool.openStream());
+                charset = StandardCharsets.UTF_8;
+                writer = null;
+                logger.debug("Spooling CityJSON output to temporary files.");
+            } else if (factory.isFeatureEncodingSupported()) {
+                spool = null;
+                stream = new BufferedOutputStream(file.openStream());
+                charset = factory.getCharset();
+                writer = null;
+            } else {
+                spool = null;
+                stream = null;
+                charset = null;
+                writer = factory.createWriter(file);
+            }
+        } catch (IOException e) {
+            throw new WriteException("Failed to open CityJSON output stream.", e);
+        }
 
         try {
             store = PersistentMapStore.builder()
@@ -77,7 +139,12 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
             throw new WriteException("Failed to initialize local cache.", e);
         }
 
-        service = ExecutorHelper.newFixedAndBlockingThreadPool(1, 100);
+        int threads = options.getNumberOfThreads() > 0
+                ? options.getNumberOfThreads()
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+        service = Executors.newSingleThreadExecutor();
+        serializers = ExecutorHelper.newFixedAndBlockingThreadPool(threads);
+        permits = new Semaphore(Math.max(100, threads * 25));
         helpers = ThreadLocal.withInitial(() -> new ModelSerializerHelper(this, store, context)
                 .initialize(options, formatOptions));
         countLatch = new CountLatch();
@@ -88,13 +155,39 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
     @Override
     public CompletableFuture<Boolean> write(Feature feature) throws WriteException {
         if (shouldRun) {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            CompletableFuture<Members> encoded = new CompletableFuture<>();
             try {
-                AbstractFeature converted = helpers.get().getTopLevelFeature(feature);
-                return writeCityObject(converted);
+                Timer.Context context = queueTimer.start();
+                permits.acquire();
+                append(encoded, result, true);
+                serializers.execute(() -> {
+                    List<Object> items = new ArrayList<>();
+                    globalFeatures.set(items);
+                    try (Timer.Context ignored = serializeTimer.start()) {
+                        AbstractFeature converted = helpers.get().getTopLevelFeature(feature);
+                        int globalItems = items.size();
+                        if (converted != null) {
+                            items.addAll(encode(converted));
+                        }
+
+                        encoded.complete(new Members(items, items.size() > globalItems));
+                    } catch (Throwable e) {
+                        shouldRun = false;
+                        result.completeExceptionally(new WriteException("Failed to write feature.", e));
+                        encoded.complete(null);
+                    } finally {
+                        globalFeatures.remove();
+                    }
+                });
+                context.stop();
             } catch (Throwable e) {
                 shouldRun = false;
+                encoded.complete(null);
                 throw new WriteException("Failed to write feature.", e);
             }
+
+            return result;
         } else {
             return new CompletableFuture<>();
         }
@@ -102,18 +195,36 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
 
     @Override
     public void write(AbstractFeature feature) throws WriteException {
-        writeCityObject(feature);
+        if (shouldRun) {
+            List<Object> items = encode(feature);
+            List<Object> globalFeatures = this.globalFeatures.get();
+            if (globalFeatures != null) {
+                globalFeatures.addAll(items);
+            } else {
+                append(CompletableFuture.completedFuture(new Members(items, false)), new CompletableFuture<>(), false);
+            }
+        }
     }
 
-    private CompletableFuture<Boolean> writeCityObject(AbstractFeature feature) {
-        CompletableFuture<Boolean> result = new CompletableFuture<>();
-        if (shouldRun) {
-            countLatch.increment();
-            service.execute(() -> {
+    private void append(CompletableFuture<Members> encoded, CompletableFuture<Boolean> result, boolean release) {
+        countLatch.increment();
+        synchronized (lock) {
+            tail = tail.runAfterBothAsync(encoded, () -> {
                 try {
-                    if (feature != null) {
-                        writer.writeCityObject(feature);
-                        result.complete(true);
+                    Members members = encoded.join();
+                    if (members != null) {
+                        try (Timer.Context ignored = writeTimer.start()) {
+                            for (Object item : members.items()) {
+                                if (item instanceof AbstractFeature feature) {
+                                    writer.writeCityObject(feature);
+                                } else {
+                                    writeHeader();
+                                    stream.write((byte[]) item);
+                                }
+                            }
+                        }
+
+                        result.complete(members.hasFeature());
                     } else {
                         result.complete(false);
                     }
@@ -121,14 +232,136 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
                     shouldRun = false;
                     result.completeExceptionally(new WriteException("Failed to write feature.", e));
                 } finally {
+                    if (release) {
+                        permits.release();
+                    }
+
                     countLatch.decrement();
                 }
-            });
+            }, service);
+        }
+    }
+
+    private List<Object> encode(AbstractFeature feature) throws WriteException {
+        if (writer != null) {
+            return List.of(feature);
+        }
+
+        try {
+            List<String> lines = encodeLines(feature);
+            if (lines.isEmpty()) {
+                return List.of();
+            }
+
+            if (header == null) {
+                createHeader(lines);
+            }
+
+            List<Object> items = new ArrayList<>(lines.size() - 1);
+            for (String line : lines.subList(1, lines.size())) {
+                if (transformCoordinates && spool == null) {
+                    line = quantize(line);
+                }
+
+                items.add((line + "\n").getBytes(charset));
+            }
+
+            return items;
+        } catch (Exception e) {
+            throw new WriteException("Failed to encode CityJSON feature.", e);
+        }
+    }
+
+    private List<String> encodeLines(AbstractFeature feature) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AbstractCityJSONWriter<?> writer = factory.createFeatureWriter(output);
+        templateGeometries.forEach(writer::withGlobalTemplateGeometry);
+        globalAppearances.forEach(writer::withGlobalAppearance);
+        applyMetadata(writer);
+
+        if (feature != null) {
+            writer.writeCityObject(feature);
+        }
+
+        writer.close();
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+
+    private void createHeader(List<String> lines) {
+        synchronized (headerLock) {
+            if (header == null && !lines.isEmpty()) {
+                JSONObject header = JSON.parseObject(lines.get(0));
+                if (transformCoordinates) {
+                    translate = getTranslate(lines);
+                    header.put("transform", new JSONObject()
+                            .fluentPut("scale", List.of(scale, scale, scale))
+                            .fluentPut("translate", List.of(translate[0], translate[1], translate[2])));
+                }
+
+                this.header = toJSONString(header);
+            }
+        }
+    }
+
+    private double[] getTranslate(List<String> lines) {
+        Coordinate lowerCorner = metadata != null && metadata.getExtent().isPresent()
+                ? metadata.getExtent().get().getLowerCorner()
+                : null;
+        if (lowerCorner != null) {
+            return new double[]{lowerCorner.getX(), lowerCorner.getY(),
+                    !Double.isNaN(lowerCorner.getZ()) ? lowerCorner.getZ() : 0};
+        }
+
+        double[] translate = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        for (String line : lines.subList(1, lines.size())) {
+            JSONArray vertices = JSON.parseObject(line).getJSONArray("vertices");
+            if (vertices != null) {
+                for (Object vertex : vertices) {
+                    if (vertex instanceof JSONArray coordinates && coordinates.size() > 2) {
+                        for (int i = 0; i < 3; i++) {
+                            translate[i] = Math.min(translate[i], coordinates.getDoubleValue(i));
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < 3; i++) {
+            if (translate[i] == Double.MAX_VALUE) {
+                translate[i] = 0;
+            }
+        }
+
+        return translate;
+    }
+
+    private String quantize(String line) {
+        JSONObject feature = JSON.parseObject(line);
+        JSONArray vertices = feature.getJSONArray("vertices");
+        if (vertices != null) {
+            CityJSONSpool.quantize(vertices, new double[]{scale, scale, scale}, translate);
+            return toJSONString(feature);
         } else {
-            result.cancel(true);
+            return line;
         }
+    }
 
-        return result;
+    private String toJSONString(JSONObject object) {
+        return htmlSafe
+                ? JSON.toJSONString(object, JSONWriter.Feature.BrowserSecure)
+                : JSON.toJSONString(object);
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            if (header != null) {
+                stream.write((header + "\n").getBytes(charset));
+            }
+
+            headerWritten = true;
+        }
     }
 
     private void processGlobalTemplates(List<ImplicitGeometry> globalTemplates) throws WriteException {
@@ -141,7 +374,7 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
                 iterator.remove();
 
                 countLatch.increment();
-                service.execute(() -> {
+                serializers.execute(() -> {
                     try {
                         org.citygml4j.core.model.core.ImplicitGeometry implicitGeometry = helpers.get()
                                 .getImplicitGeometry(template);
@@ -172,8 +405,12 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
 
             countLatch.await();
             if (exception == null) {
-                geometries.forEach(writer::withGlobalTemplateGeometry);
-                appearances.forEach(writer::withGlobalAppearance);
+                templateGeometries.putAll(geometries);
+                globalAppearances.addAll(appearances);
+                if (writer != null) {
+                    geometries.forEach(writer::withGlobalTemplateGeometry);
+                    appearances.forEach(writer::withGlobalAppearance);
+                }
             } else {
                 throw new WriteException("Failed to preprocess global template geometries.", exception);
             }
@@ -186,6 +423,17 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
             return;
         }
 
+        this.metadata = metadata;
+        if (writer != null) {
+            applyMetadata(writer);
+        }
+    }
+
+    private void applyMetadata(AbstractCityJSONWriter<?> writer) {
+        if (metadata == null) {
+            return;
+        }
+
         Metadata target = writer.getMetadata();
         metadata.getTitle().ifPresent(target::setTitle);
 
@@ -201,6 +449,11 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
         writer.withMetadata(target);
     }
 
+    @Override
+    public boolean computesExtent() {
+        return spool != null;
+    }
+
     @Override
     public void cancel() {
         shouldRun = false;
@@ -211,11 +464,36 @@ public class CityJSONWriter implements FeatureWriter, GlobalFeatureWriter {
         try {
             countLatch.await();
             store.close();
-            writer.close();
+            if (writer != null) {
+                writer.close();
+            } else {
+                if (header == null) {
+                    createHeader(encodeLines(null));
+                }
+
+                writeHeader();
+                stream.close();
+            }
+
+            if (spool != null) {
+                spool.merge();
+                if (spool.getDuplicateCityObjects() > 0) {
+                    logger.warn("Skipped {} duplicate city object(s) when merging the CityJSON output.",
+                            spool.getDuplicateCityObjects());
+                }
+            }
         } catch (Exception e) {
             throw new WriteException("Failed to close CityJSON writer.", e);
         } finally {
+            serializers.shutdown();
             service.shutdown();
+            if (spool != null) {
+                try {
+                    spool.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to delete temporary CityJSON files.", e);
+                }
+            }
         }
     }
 }
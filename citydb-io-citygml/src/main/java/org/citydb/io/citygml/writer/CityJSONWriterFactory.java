@@ -6,6 +6,7 @@
 package org.citydb.io.citygml.writer;
 
 import org.citydb.core.file.OutputFile;
+import org.citydb.io.citygml.writer.util.CityJSONSpool;
 import org.citydb.io.writer.WriteException;
 import org.citydb.io.writer.WriteOptions;
 import org.citygml4j.cityjson.CityJSONContext;
@@ -14,6 +15,9 @@ import org.citygml4j.cityjson.writer.AbstractCityJSONWriter;
 import org.citygml4j.cityjson.writer.CityJSONOutputFactory;
 import org.citygml4j.cityjson.writer.OutputEncoding;
 
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Objects;
 
@@ -32,19 +36,40 @@ public class CityJSONWriterFactory {
         return new CityJSONWriterFactory(context, options, formatOptions);
     }
 
-    public AbstractCityJSONWriter<?> createWriter(OutputFile file) throws WriteException {
+    public boolean isSpoolingRequired() {
+        return !formatOptions.isJsonLines() && formatOptions.getVersion() != CityJSONVersion.v1_0;
+    }
+
+    public boolean isFeatureEncodingSupported() {
+        return formatOptions.getVersion() != CityJSONVersion.v1_0;
+    }
+
+    public CityJSONSpool createSpool(OutputFile file) throws WriteException {
+        try {
+            return CityJSONSpool.of(file, options.getTempDirectory().orElse(null),
+                            formatOptions.getVersion().toString())
+                    .withCharset(getCharset(options.getEncoding().orElse(null)))
+                    .withIndent(formatOptions.isPrettyPrint() ? "  " : null)
+                    .setHtmlSafe(formatOptions.isHtmlSafe())
+                    .setQuantizeVertices(formatOptions.isTransformCoordinates());
+        } catch (Exception e) {
+            throw new WriteException("Failed to create CityJSON spool.", e);
+        }
+    }
+
+    public AbstractCityJSONWriter<?> createFeatureWriter(OutputStream stream) throws WriteException {
         try {
-            CityJSONOutputFactory factory = context.createCityJSONOutputFactory(formatOptions.getVersion())
-                    .computeCityModelExtent(true)
-                    .withVertexPrecision(formatOptions.getVertexPrecision())
-                    .withTemplatePrecision(formatOptions.getTemplatePrecision())
-                    .withTextureVertexPrecision(formatOptions.getTextureVertexPrecision())
-                    .applyTransformation(formatOptions.isTransformCoordinates())
-                    .transformTemplateGeometries(formatOptions.isReplaceTemplateGeometries())
-                    .useMaterialDefaults(formatOptions.isUseMaterialDefaults())
-                    .withFallbackTheme(formatOptions.getFallbackTheme())
-                    .writeGenericAttributeTypes(formatOptions.isWriteGenericAttributeTypes());
+            return createOutputFactory(false)
+                    .createCityJSONFeatureWriter(stream, OutputEncoding.UTF8)
+                    .setHtmlSafe(formatOptions.isHtmlSafe());
+        } catch (Exception e) {
+            throw new WriteException("Failed to create CityJSON writer.", e);
+        }
+    }
 
+    public AbstractCityJSONWriter<?> createWriter(OutputFile file) throws WriteException {
+        try {
+            CityJSONOutputFactory factory = createOutputFactory(formatOptions.isTransformCoordinates());
             OutputEncoding encoding = getOutputEncoding(options.getEncoding().orElse(null));
             boolean shouldStream = formatOptions.isJsonLines() && formatOptions.getVersion() != CityJSONVersion.v1_0;
 
@@ -59,6 +84,19 @@ public class CityJSONWriterFactory {
         }
     }
 
+    private CityJSONOutputFactory createOutputFactory(boolean applyTransformation) throws Exception {
+        return context.createCityJSONOutputFactory(formatOptions.getVersion())
+                .computeCityModelExtent(true)
+                .withVertexPrecision(formatOptions.getVertexPrecision())
+                .withTemplatePrecision(formatOptions.getTemplatePrecision())
+                .withTextureVertexPrecision(formatOptions.getTextureVertexPrecision())
+                .applyTransformation(applyTransformation)
+                .transformTemplateGeometries(formatOptions.isReplaceTemplateGeometries())
+                .useMaterialDefaults(formatOptions.isUseMaterialDefaults())
+                .withFallbackTheme(formatOptions.getFallbackTheme())
+                .writeGenericAttributeTypes(formatOptions.isWriteGenericAttributeTypes());
+    }
+
     private OutputEncoding getOutputEncoding(String encoding) {
         if (encoding != null) {
             return switch (encoding.toUpperCase(Locale.ROOT)) {
@@ -72,4 +110,22 @@ public class CityJSONWriterFactory {
 
         return OutputEncoding.UTF8;
     }
+
+    public Charset getCharset() {
+        return getCharset(options.getEncoding().orElse(null));
+    }
+
+    private Charset getCharset(String encoding) {
+        if (encoding != null) {
+            return switch (encoding.toUpperCase(Locale.ROOT)) {
+                case "UTF16", "UTF-16", "UTF-16BE" -> StandardCharsets.UTF_16BE;
+                case "UTF-16LE" -> StandardCharsets.UTF_16LE;
+                case "UTF32", "UTF-32", "UTF-32BE" -> Charset.forName("UTF-32BE");
+                case "UTF-32LE" -> Charset.forName("UTF-32LE");
+                default -> StandardCharsets.UTF_8;
+            };
+        }
+
+        return StandardCharsets.UTF_8;
+    }
 }
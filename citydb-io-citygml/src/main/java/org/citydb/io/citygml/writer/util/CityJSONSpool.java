@@ -0,0 +1,566 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.io.citygml.writer.util;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONWriter;
+import org.citydb.core.cache.PersistentMapStore;
+import org.citydb.core.file.OutputFile;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class CityJSONSpool implements AutoCloseable {
+    private final OutputFile file;
+    private final Path directory;
+    private final Path features;
+    private final Path vertices;
+    private final Path textures;
+    private final Path textureVertices;
+    private final Path materials;
+    private final String version;
+
+    private Charset charset = StandardCharsets.UTF_8;
+    private String indent;
+    private boolean htmlSafe;
+    private boolean quantizeVertices;
+    private long vertexCount;
+    private long textureCount;
+    private long textureVertexCount;
+    private long materialCount;
+    private double[] extent;
+    private long duplicateCityObjects;
+    private PersistentMapStore store;
+
+    private CityJSONSpool(OutputFile file, Path tempDirectory, String version) throws IOException {
+        this.file = Objects.requireNonNull(file, "The output file must not be null.");
+        this.version = Objects.requireNonNull(version, "The CityJSON version must not be null.");
+        directory = tempDirectory != null ?
+                Files.createTempDirectory(Files.createDirectories(tempDirectory), "cityjson-") :
+                Files.createTempDirectory("cityjson-");
+        features = directory.resolve("features.jsonl");
+        vertices = directory.resolve("vertices.json");
+        textures = directory.resolve("textures.json");
+        textureVertices = directory.resolve("vertices-texture.json");
+        materials = directory.resolve("materials.json");
+    }
+
+    public static CityJSONSpool of(OutputFile file, Path tempDirectory, String version) throws IOException {
+        return new CityJSONSpool(file, tempDirectory, version);
+    }
+
+    public CityJSONSpool withCharset(Charset charset) {
+        if (charset != null) {
+            this.charset = charset;
+        }
+
+        return this;
+    }
+
+    public CityJSONSpool withIndent(String indent) {
+        this.indent = indent;
+        return this;
+    }
+
+    public CityJSONSpool setHtmlSafe(boolean htmlSafe) {
+        this.htmlSafe = htmlSafe;
+        return this;
+    }
+
+    public CityJSONSpool setQuantizeVertices(boolean quantizeVertices) {
+        this.quantizeVertices = quantizeVertices;
+        return this;
+    }
+
+    public OutputStream openStream() throws IOException {
+        return Files.newOutputStream(features);
+    }
+
+    public long getDuplicateCityObjects() {
+        return duplicateCityObjects;
+    }
+
+    public void merge() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(features, StandardCharsets.UTF_8);
+             Writer vertexWriter = Files.newBufferedWriter(vertices, StandardCharsets.UTF_8);
+             Writer textureWriter = Files.newBufferedWriter(textures, StandardCharsets.UTF_8);
+             Writer textureVertexWriter = Files.newBufferedWriter(textureVertices, StandardCharsets.UTF_8);
+             Writer materialWriter = Files.newBufferedWriter(materials, StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(file.openStream(), charset))) {
+            String line = reader.readLine();
+            JSONObject header = line != null ? JSON.parseObject(line) : new JSONObject();
+            header.putIfAbsent("type", "CityJSON");
+            header.putIfAbsent("version", version);
+            JSONObject transform = header.getJSONObject("transform");
+            double[] scale = transform != null ? toArray(transform.getJSONArray("scale")) : null;
+            double[] translate = transform != null ? toArray(transform.getJSONArray("translate")) : null;
+
+            JSONObject appearance = header.getJSONObject("appearance");
+            if (appearance != null) {
+                textureCount = append(appearance.getJSONArray("textures"), textureWriter, textureCount);
+                textureVertexCount = append(appearance.getJSONArray("vertices-texture"), textureVertexWriter,
+                        textureVertexCount);
+                materialCount = append(appearance.getJSONArray("materials"), materialWriter, materialCount);
+            }
+
+            writer.write('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> member : header.entrySet()) {
+                switch (member.getKey()) {
+                    case "CityObjects", "vertices", "appearance", "metadata" -> {
+                    }
+                    default -> {
+                        writeName(member.getKey(), writer, 1, first);
+                        writeValue(member.getValue(), writer, 1);
+                        first = false;
+                    }
+                }
+            }
+
+            writeName("CityObjects", writer, 1, first);
+            writer.write('{');
+            long cityObjects = 0;
+            store = PersistentMapStore.builder()
+                    .tempDirectory(directory)
+                    .build();
+            Map<String, Boolean> cityObjectIds = store.getOrCreateMap("cityObjectIds");
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JSONObject feature = JSON.parseObject(line);
+                JSONObject objects = feature.getJSONObject("CityObjects");
+                if (objects != null) {
+                    int size = objects.size();
+                    objects.keySet().removeIf(id -> cityObjectIds.putIfAbsent(id, Boolean.TRUE) != null);
+                    if (objects.size() != size) {
+                        duplicateCityObjects += size - objects.size();
+                        if (objects.isEmpty()) {
+                            continue;
+                        }
+
+                        removeUnusedVertices(feature, objects);
+                    }
+
+                    long vertexOffset = vertexCount;
+                    long textureOffset = textureCount;
+                    long textureVertexOffset = textureVertexCount;
+                    long materialOffset = materialCount;
+
+                    JSONArray featureVertices = feature.getJSONArray("vertices");
+                    if (featureVertices != null) {
+                        for (Object vertex : featureVertices) {
+                            updateExtent(vertex, quantizeVertices ? null : transform);
+                        }
+
+                        if (quantizeVertices && scale != null && translate != null) {
+                            quantize(featureVertices, scale, translate);
+                        }
+
+                        vertexCount = append(featureVertices, vertexWriter, vertexCount);
+                    }
+
+                    JSONObject featureAppearance = feature.getJSONObject("appearance");
+                    if (featureAppearance != null) {
+                        textureCount = append(featureAppearance.getJSONArray("textures"), textureWriter,
+                                textureCount);
+                        textureVertexCount = append(featureAppearance.getJSONArray("vertices-texture"),
+                                textureVertexWriter, textureVertexCount);
+                        materialCount = append(featureAppearance.getJSONArray("materials"), materialWriter,
+                                materialCount);
+                    }
+
+                    for (Map.Entry<String, Object> object : objects.entrySet()) {
+                        updateIndexes(object.getValue(), vertexOffset, textureOffset, textureVertexOffset,
+                                materialOffset);
+                        writeName(object.getKey(), writer, 2, cityObjects++ == 0);
+                        writeValue(object.getValue(), writer, 2);
+                    }
+                }
+            }
+
+            writeEnd('}', writer, 2, cityObjects == 0);
+
+            vertexWriter.close();
+            writeName("vertices", writer, 1, false);
+            copy(vertices, writer, 1, vertexCount);
+
+            if (appearance != null || textureCount > 0 || textureVertexCount > 0 || materialCount > 0) {
+                textureWriter.close();
+                textureVertexWriter.close();
+                materialWriter.close();
+
+                writeName("appearance", writer, 1, false);
+                writer.write('{');
+                boolean firstMember = true;
+                if (appearance != null) {
+                    for (Map.Entry<String, Object> member : appearance.entrySet()) {
+                        switch (member.getKey()) {
+                            case "textures", "vertices-texture", "materials" -> {
+                            }
+                            default -> {
+                                writeName(member.getKey(), writer, 2, firstMember);
+                                writeValue(member.getValue(), writer, 2);
+                                firstMember = false;
+                            }
+                        }
+                    }
+                }
+
+                if (materialCount > 0) {
+                    writeName("materials", writer, 2, firstMember);
+                    copy(materials, writer, 2, materialCount);
+                    firstMember = false;
+                }
+
+                if (textureCount > 0) {
+                    writeName("textures", writer, 2, firstMember);
+                    copy(textures, writer, 2, textureCount);
+                    firstMember = false;
+                }
+
+                if (textureVertexCount > 0) {
+                    writeName("vertices-texture", writer, 2, firstMember);
+                    copy(textureVertices, writer, 2, textureVertexCount);
+                    firstMember = false;
+                }
+
+                writeEnd('}', writer, 2, firstMember);
+            }
+
+            JSONObject metadata = header.getJSONObject("metadata");
+            if (extent != null && (metadata == null || !metadata.containsKey("geographicalExtent"))) {
+                if (metadata == null) {
+                    metadata = new JSONObject();
+                }
+
+                metadata.put("geographicalExtent", List.of(extent[0], extent[1], extent[2],
+                        extent[3], extent[4], extent[5]));
+            }
+
+            if (metadata != null) {
+                writeName("metadata", writer, 1, false);
+                writeValue(metadata, writer, 1);
+            }
+
+            writeEnd('}', writer, 1, false);
+        }
+    }
+
+    public static void quantize(JSONArray vertices, double[] scale, double[] translate) {
+        for (Object vertex : vertices) {
+            if (vertex instanceof JSONArray coordinates) {
+                for (int i = 0; i < Math.min(3, coordinates.size()); i++) {
+                    coordinates.set(i, Math.round((coordinates.getDoubleValue(i) - translate[i]) / scale[i]));
+                }
+            }
+        }
+    }
+
+    private double[] toArray(JSONArray values) {
+        if (values != null && values.size() > 2) {
+            return new double[]{values.getDoubleValue(0), values.getDoubleValue(1), values.getDoubleValue(2)};
+        }
+
+        return null;
+    }
+
+    private void removeUnusedVertices(JSONObject feature, JSONObject objects) {
+        JSONArray featureVertices = feature.getJSONArray("vertices");
+        if (featureVertices != null) {
+            BitSet used = new BitSet(featureVertices.size());
+            for (Object object : objects.values()) {
+                processBoundaries(object, boundaries -> collect(boundaries, used));
+            }
+
+            if (used.cardinality() < featureVertices.size()) {
+                long[] mapping = new long[featureVertices.size()];
+                JSONArray vertices = new JSONArray(used.cardinality());
+                for (int i = used.nextSetBit(0); i >= 0 && i < mapping.length; i = used.nextSetBit(i + 1)) {
+                    mapping[i] = vertices.size();
+                    vertices.add(featureVertices.get(i));
+                }
+
+                for (Object object : objects.values()) {
+                    processBoundaries(object, boundaries -> remap(boundaries, mapping));
+                }
+
+                feature.put("vertices", vertices);
+            }
+        }
+    }
+
+    private void processBoundaries(Object value, Consumer<Object> consumer) {
+        if (value instanceof JSONObject object) {
+            if (object.containsKey("boundaries")) {
+                consumer.accept(object.get("boundaries"));
+            }
+
+            for (Map.Entry<String, Object> entry : object.entrySet()) {
+                if (!entry.getKey().equals("boundaries")) {
+                    processBoundaries(entry.getValue(), consumer);
+                }
+            }
+        } else if (value instanceof JSONArray array) {
+            for (Object child : array) {
+                processBoundaries(child, consumer);
+            }
+        }
+    }
+
+    private void collect(Object value, BitSet used) {
+        if (value instanceof JSONArray array) {
+            for (Object item : array) {
+                if (item instanceof Number index) {
+                    used.set(index.intValue());
+                } else {
+                    collect(item, used);
+                }
+            }
+        }
+    }
+
+    private void remap(Object value, long[] mapping) {
+        if (value instanceof JSONArray array) {
+            for (int i = 0; i < array.size(); i++) {
+                Object item = array.get(i);
+                if (item instanceof Number index) {
+                    array.set(i, mapping[index.intValue()]);
+                } else {
+                    remap(item, mapping);
+                }
+            }
+        }
+    }
+
+    private void updateIndexes(Object value, long vertexOffset, long textureOffset, long textureVertexOffset,
+                               long materialOffset) {
+        if (value instanceof JSONObject object) {
+            if (object.containsKey("boundaries")) {
+                offset(object.get("boundaries"), vertexOffset);
+
+                if (object.get("texture") instanceof JSONObject texture) {
+                    for (Object theme : texture.values()) {
+                        if (theme instanceof JSONObject themeObject) {
+                            offsetTextures(themeObject.get("values"), textureOffset, textureVertexOffset);
+                        }
+                    }
+                }
+
+                if (object.get("material") instanceof JSONObject material) {
+                    for (Object theme : material.values()) {
+                        if (theme instanceof JSONObject themeObject) {
+                            offset(themeObject.get("values"), materialOffset);
+                            if (themeObject.get("value") instanceof Number index) {
+                                themeObject.put("value", index.longValue() + materialOffset);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (Object child : object.values()) {
+                updateIndexes(child, vertexOffset, textureOffset, textureVertexOffset, materialOffset);
+            }
+        } else if (value instanceof JSONArray array) {
+            for (Object child : array) {
+                updateIndexes(child, vertexOffset, textureOffset, textureVertexOffset, materialOffset);
+            }
+        }
+    }
+
+    private void offset(Object value, long offset) {
+        if (offset > 0 && value instanceof JSONArray array) {
+            for (int i = 0; i < array.size(); i++) {
+                Object item = array.get(i);
+                if (item instanceof Number index) {
+                    array.set(i, index.longValue() + offset);
+                } else {
+                    offset(item, offset);
+                }
+            }
+        }
+    }
+
+    private void offsetTextures(Object value, long textureOffset, long textureVertexOffset) {
+        if (value instanceof JSONArray array && !array.isEmpty()) {
+            if (array.get(0) instanceof JSONArray) {
+                for (Object item : array) {
+                    offsetTextures(item, textureOffset, textureVertexOffset);
+                }
+            } else {
+                for (int i = 0; i < array.size(); i++) {
+                    if (array.get(i) instanceof Number index) {
+                        array.set(i, index.longValue() + (i == 0 ? textureOffset : textureVertexOffset));
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateExtent(Object vertex, JSONObject transform) {
+        if (vertex instanceof JSONArray coordinates && coordinates.size() > 2) {
+            JSONArray scale = transform != null ? transform.getJSONArray("scale") : null;
+            JSONArray translate = transform != null ? transform.getJSONArray("translate") : null;
+            if (extent == null) {
+                extent = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+                        -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+            }
+
+            for (int i = 0; i < 3; i++) {
+                double value = coordinates.getDoubleValue(i);
+                if (scale != null && translate != null) {
+                    value = value * scale.getDoubleValue(i) + translate.getDoubleValue(i);
+                }
+
+                extent[i] = Math.min(extent[i], value);
+                extent[i + 3] = Math.max(extent[i + 3], value);
+            }
+        }
+    }
+
+    private long append(JSONArray items, Writer writer, long count) throws IOException {
+        if (items != null) {
+            for (Object item : items) {
+                if (count++ > 0) {
+                    writer.write(',');
+                }
+
+                newLine(writer, 2);
+                writeValue(item, writer, 2);
+            }
+        }
+
+        return count;
+    }
+
+    private void copy(Path spool, Writer writer, int depth, long count) throws IOException {
+        writer.write('[');
+        try (Reader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            reader.transferTo(depth == 1 ? writer : new IndentingWriter(writer));
+        }
+
+        writeEnd(']', writer, depth + 1, count == 0);
+    }
+
+    private void writeName(String name, Writer writer, int depth, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+
+        newLine(writer, depth);
+        writer.write(JSON.toJSONString(name));
+        writer.write(indent != null ? ": " : ":");
+    }
+
+    private void writeEnd(char end, Writer writer, int depth, boolean empty) throws IOException {
+        if (!empty) {
+            newLine(writer, depth - 1);
+        }
+
+        writer.write(end);
+    }
+
+    private void writeValue(Object value, Writer writer, int depth) throws IOException {
+        if (value instanceof Map<?, ?> map) {
+            writer.write('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeName(String.valueOf(entry.getKey()), writer, depth + 1, first);
+                writeValue(entry.getValue(), writer, depth + 1);
+                first = false;
+            }
+
+            writeEnd('}', writer, depth + 1, first);
+        } else if (value instanceof List<?> list) {
+            writer.write('[');
+            boolean nested = indent != null && list.stream().anyMatch(item -> item instanceof Map<?, ?>);
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+
+                if (nested) {
+                    newLine(writer, depth + 1);
+                }
+
+                writeValue(list.get(i), writer, depth + 1);
+            }
+
+            if (nested && !list.isEmpty()) {
+                newLine(writer, depth);
+            }
+
+            writer.write(']');
+        } else if (value instanceof BigDecimal decimal) {
+            writer.write(decimal.toPlainString());
+        } else if (value instanceof String string) {
+            writer.write(htmlSafe ?
+                    JSON.toJSONString(string, JSONWriter.Feature.BrowserSecure) :
+                    JSON.toJSONString(string));
+        } else {
+            writer.write(JSON.toJSONString(value));
+        }
+    }
+
+    private void newLine(Writer writer, int depth) throws IOException {
+        if (indent != null) {
+            writer.write('\n');
+            writer.write(indent.repeat(depth));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+
+        for (Path path : List.of(features, vertices, textures, textureVertices, materials)) {
+            Files.deleteIfExists(path);
+        }
+
+        Files.deleteIfExists(directory);
+    }
+
+    private class IndentingWriter extends FilterWriter {
+
+        IndentingWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            if (c == '\n' && indent != null) {
+                super.write(indent);
+            }
+        }
+
+        @Override
+        public void write(char[] buffer, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                write(buffer[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                write(str.charAt(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.io.citygml.writer.util;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import org.citydb.core.file.output.RegularOutputFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCityJSONSpool {
+
+    @Test
+    @DisplayName("Merge features with duplicate city objects")
+    public void testDuplicateCityObjects(@TempDir Path tempDir) throws IOException {
+        Path output = tempDir.resolve("output.json");
+        try (CityJSONSpool spool = CityJSONSpool.of(new RegularOutputFile(output), tempDir, "2.0")) {
+            try (OutputStream stream = spool.openStream()) {
+                write(stream, "{\"type\":\"CityJSON\",\"version\":\"2.0\"," +
+                        "\"transform\":{\"scale\":[0.001,0.001,0.001],\"translate\":[100,200,0]}," +
+                        "\"CityObjects\":{},\"vertices\":[]}");
+                write(stream, "{\"type\":\"CityJSONFeature\",\"id\":\"b1\",\"CityObjects\":{" +
+                        "\"b1\":{\"type\":\"Building\",\"geometry\":[{\"type\":\"MultiSurface\",\"lod\":\"1\"," +
+                        "\"boundaries\":[[[0,1,2]]]}]}}," +
+                        "\"vertices\":[[0,0,0],[1000,0,0],[1000,1000,500]]}");
+                write(stream, "{\"type\":\"CityJSONFeature\",\"id\":\"b2\",\"CityObjects\":{" +
+                        "\"b1\":{\"type\":\"BuildingPart\",\"geometry\":[{\"type\":\"MultiSurface\",\"lod\":\"1\"," +
+                        "\"boundaries\":[[[3,0,1]]]}]}," +
+                        "\"b2\":{\"type\":\"Building\",\"geometry\":[{\"type\":\"MultiSurface\",\"lod\":\"1\"," +
+                        "\"boundaries\":[[[0,1,2]]]}]}}," +
+                        "\"vertices\":[[0,0,0],[2000,0,0],[2000,2000,0],[9000,9000,9000]]}");
+                write(stream, "{\"type\":\"CityJSONFeature\",\"id\":\"b1\",\"CityObjects\":{" +
+                        "\"b1\":{\"type\":\"Building\",\"geometry\":[{\"type\":\"MultiSurface\",\"lod\":\"1\"," +
+                        "\"boundaries\":[[[0,0,0]]]}]}}," +
+                        "\"vertices\":[[5000,5000,5000]]}");
+            }
+
+            spool.merge();
+            assertEquals(2, spool.getDuplicateCityObjects());
+        }
+
+        String content = Files.readString(output, StandardCharsets.UTF_8);
+        assertEquals(1, content.split("\"b1\"", -1).length - 1);
+
+        JSONObject cityJSON = JSON.parseObject(content);
+        JSONObject cityObjects = cityJSON.getJSONObject("CityObjects");
+        assertEquals(Set.of("b1", "b2"), cityObjects.keySet());
+        assertEquals("Building", cityObjects.getJSONObject("b1").getString("type"));
+        assertEquals("[[[0,1,2]]]", getBoundaries(cityObjects.getJSONObject("b1")).toJSONString());
+        assertEquals("[[[3,4,5]]]", getBoundaries(cityObjects.getJSONObject("b2")).toJSONString());
+        // the vertex only used by the skipped duplicate is dropped
+        assertEquals(6, cityJSON.getJSONArray("vertices").size());
+        assertEquals("[2000,2000,0]", cityJSON.getJSONArray("vertices").get(5).toString());
+
+        JSONArray extent = cityJSON.getJSONObject("metadata").getJSONArray("geographicalExtent");
+        double[] expected = {100, 200, 0, 102, 202, 0.5};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], extent.getDoubleValue(i), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Quantize real-world vertices using the header transform")
+    public void testQuantizeVertices(@TempDir Path tempDir) throws IOException {
+        Path output = tempDir.resolve("output.json");
+        try (CityJSONSpool spool = CityJSONSpool.of(new RegularOutputFile(output), tempDir, "2.0")
+                .setQuantizeVertices(true)) {
+            try (OutputStream stream = spool.openStream()) {
+                write(stream, "{\"type\":\"CityJSON\",\"version\":\"2.0\"," +
+                        "\"transform\":{\"scale\":[0.001,0.001,0.001],\"translate\":[100,200,0]}," +
+                        "\"CityObjects\":{},\"vertices\":[]}");
+                write(stream, "{\"type\":\"CityJSONFeature\",\"id\":\"b1\",\"CityObjects\":{" +
+                        "\"b1\":{\"type\":\"Building\",\"geometry\":[{\"type\":\"MultiSurface\",\"lod\":\"1\"," +
+                        "\"boundaries\":[[[0,1,2]]]}]}}," +
+                        "\"vertices\":[[100.5,200.25,1],[101,200.25,1],[101,201.125,2.5]]}");
+            }
+
+            spool.merge();
+        }
+
+        JSONObject cityJSON = JSON.parseObject(Files.readString(output, StandardCharsets.UTF_8));
+        assertEquals("[[500,250,1000],[1000,250,1000],[1000,1125,2500]]",
+                cityJSON.getJSONArray("vertices").toJSONString());
+
+        JSONArray extent = cityJSON.getJSONObject("metadata").getJSONArray("geographicalExtent");
+        double[] expected = {100.5, 200.25, 1, 101, 201.125, 2.5};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], extent.getDoubleValue(i), 1e-9);
+        }
+    }
+
+    private JSONArray getBoundaries(JSONObject cityObject) {
+        return cityObject.getJSONArray("geometry").getJSONObject(0).getJSONArray("boundaries");
+    }
+
+    private void write(OutputStream stream, String line) throws IOException {
+        stream.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -38,6 +38,7 @@ public class InputFiles {
     private final Set<MediaType> mediaTypes = new HashSet<>();
     private Path baseDirectory = Path.of(".").toAbsolutePath().normalize();
     private Predicate<Path> filter;
+    private int gzipThreads;
 
     private InputFiles(Collection<String> pathsOrGlobPatterns) throws IOException {
         this.pathsOrGlobPatterns = pathsOrGlobPatterns;
@@ -103,6 +104,11 @@ public class InputFiles {
         return this;
     }
 
+    public InputFiles withGZipThreads(int gzipThreads) {
+        this.gzipThreads = Math.max(gzipThreads, 0);
+        return this;
+    }
+
     public List<InputFile> find() throws IOException {
         List<InputFile> inputFiles = new ArrayList<>();
         String defaultPattern = !extensions.isEmpty()
@@ -222,7 +228,7 @@ public class InputFiles {
             String fileName = file.getFileName().toString().replaceAll("\\.gz(ip)?$", "");
             MediaType mediaType = getMediaType(input, fileName);
             if (isSupportedMediaType(mediaType)) {
-                inputFiles.add(new GZipInputFile(file, mediaType));
+                inputFiles.add(new GZipInputFile(file, mediaType, gzipThreads));
             }
         } catch (IOException e) {
             throw new UncheckedIOException("Failed to open GZIP file " + file + ".", e);
@@ -21,6 +21,8 @@ public class OutputFileBuilder {
     private String defaultFileExtension = "";
     private Path tempDirectory;
     private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionBlockSize;
+    private int compressionThreads = 1;
 
     private OutputFileBuilder() {
     }
@@ -53,6 +55,30 @@ public class OutputFileBuilder {
         return this;
     }
 
+    public OutputFileBuilder compressionBlockSize(int compressionBlockSize) {
+        if (compressionBlockSize > 0) {
+            this.compressionBlockSize = compressionBlockSize;
+        }
+
+        return this;
+    }
+
+    public OutputFileBuilder compressionThreads(int compressionThreads) {
+        if (compressionThreads > 0) {
+            this.compressionThreads = compressionThreads;
+        }
+
+        return this;
+    }
+
+    public boolean isGZipFile(Path file) {
+        return switch (getFileName(Objects.requireNonNull(file, "The output file must not be null."))[1]
+                .toLowerCase(Locale.ROOT)) {
+            case "gzip", "gz" -> true;
+            default -> false;
+        };
+    }
+
     public OutputFile newOutputFile(Path file) throws IOException {
         file = Objects.requireNonNull(file, "The output file must not be null.")
                 .toAbsolutePath()
@@ -69,7 +95,10 @@ public class OutputFileBuilder {
                     file,
                     tempDirectory != null ? tempDirectory : parent,
                     compressionLevel);
-            case "gzip", "gz" -> new GZipOutputFile(file);
+            case "gzip", "gz" -> new GZipOutputFile(file,
+                    compressionLevel,
+                    compressionBlockSize,
+                    compressionThreads);
             default -> new RegularOutputFile(parent.resolve(createFileName(fileName[0], fileName[1])));
         };
     }
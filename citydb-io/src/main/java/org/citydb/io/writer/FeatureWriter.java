@@ -21,6 +21,10 @@ public interface FeatureWriter extends AutoCloseable {
     default void writeMetadata(Metadata metadata) throws WriteException {
     }
 
+    default boolean computesExtent() {
+        return false;
+    }
+
     void cancel();
 
     @Override
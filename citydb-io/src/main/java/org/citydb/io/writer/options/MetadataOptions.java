@@ -11,6 +11,7 @@ public class MetadataOptions {
     private String title;
     private String description;
     private boolean computeExtent;
+    private boolean estimateExtent;
 
     public Optional<String> getTitle() {
         return Optional.ofNullable(title);
@@ -38,4 +39,19 @@ public class MetadataOptions {
         this.computeExtent = computeExtent;
         return this;
     }
+
+    public boolean isEstimateExtent() {
+        return estimateExtent;
+    }
+
+    /**
+     * Uses the extent estimated from the database statistics instead of computing the exact extent of the
+     * exported features. The estimate is only used for exports without filter, feature type, LoD filter, count
+     * limit, and tiling. The default validity filter is ignored. It is a 2D bounding box, so the height values of the extent are set to zero, and it is
+     * approximate: it may be outdated and also covers terminated features.
+     */
+    public MetadataOptions setEstimateExtent(boolean estimateExtent) {
+        this.estimateExtent = estimateExtent;
+        return this;
+    }
 }
@@ -6,9 +6,7 @@
 package org.citydb.model.common;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Supplier;
 
 public class UserProperties implements Serializable {
@@ -59,6 +57,10 @@ public class UserProperties implements Serializable {
         return this;
     }
 
+    public Set<String> getNames() {
+        return properties != null ? Collections.unmodifiableSet(properties.keySet()) : Collections.emptySet();
+    }
+
     public boolean isEmpty() {
         return properties == null || properties.isEmpty();
     }
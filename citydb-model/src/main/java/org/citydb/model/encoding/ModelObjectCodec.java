@@ -0,0 +1,125 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.model.encoding;
+
+import org.citydb.model.address.Address;
+import org.citydb.model.appearance.*;
+import org.citydb.model.change.FeatureChange;
+import org.citydb.model.common.ExternalFile;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.geometry.*;
+import org.citydb.model.property.*;
+
+import java.util.Map;
+
+final class ModelObjectCodec {
+    static final int MAGIC = 0x43444d4f;
+    static final byte VERSION = 2;
+
+    static final byte NULL = 0;
+    static final byte REFERENCE = 1;
+    static final byte STRING = 2;
+    static final byte TRUE = 3;
+    static final byte FALSE = 4;
+    static final byte INTEGER = 5;
+    static final byte LONG = 6;
+    static final byte DOUBLE = 7;
+    static final byte FLOAT = 8;
+    static final byte OFFSET_DATE_TIME = 9;
+    static final byte ENUM = 10;
+    static final byte NAME = 11;
+    static final byte LIST = 12;
+    static final byte SET = 13;
+    static final byte MAP = 14;
+
+    static final byte FEATURE = 32;
+    static final byte ATTRIBUTE = 33;
+    static final byte GEOMETRY_PROPERTY = 34;
+    static final byte IMPLICIT_GEOMETRY_PROPERTY = 35;
+    static final byte FEATURE_PROPERTY = 36;
+    static final byte APPEARANCE_PROPERTY = 37;
+    static final byte ADDRESS_PROPERTY = 38;
+    static final byte POINT = 39;
+    static final byte MULTI_POINT = 40;
+    static final byte LINE_STRING = 41;
+    static final byte MULTI_LINE_STRING = 42;
+    static final byte POLYGON = 43;
+    static final byte LINEAR_RING = 44;
+    static final byte COMPOSITE_SURFACE = 45;
+    static final byte MULTI_SURFACE = 46;
+    static final byte TRIANGULATED_SURFACE = 47;
+    static final byte SOLID = 48;
+    static final byte COMPOSITE_SOLID = 49;
+    static final byte MULTI_SOLID = 50;
+    static final byte ENVELOPE = 51;
+    static final byte IMPLICIT_GEOMETRY = 52;
+    static final byte APPEARANCE = 53;
+    static final byte SURFACE_DATA_PROPERTY = 54;
+    static final byte PARAMETERIZED_TEXTURE = 55;
+    static final byte GEOREFERENCED_TEXTURE = 56;
+    static final byte X3D_MATERIAL = 57;
+    static final byte ADDRESS = 58;
+    static final byte FEATURE_CHANGE = 59;
+    static final byte EXTERNAL_FILE = 60;
+
+    static final byte END = 0;
+    static final byte TARGETS = 1;
+    static final byte USER_PROPERTIES = 2;
+
+    static final byte ARRAY_LIST = 0;
+    static final byte LINKED_LIST = 1;
+    static final byte HASH_SET = 2;
+    static final byte LINKED_HASH_SET = 3;
+    static final byte TREE_SET = 4;
+    static final byte HASH_MAP = 5;
+    static final byte LINKED_HASH_MAP = 6;
+    static final byte TREE_MAP = 7;
+    static final byte IDENTITY_HASH_MAP = 8;
+    static final byte CONCURRENT_HASH_MAP = 9;
+    static final byte UNMODIFIABLE = 10;
+
+    static final Map<Class<?>, Byte> TYPES = Map.ofEntries(
+            Map.entry(Feature.class, FEATURE),
+            Map.entry(Attribute.class, ATTRIBUTE),
+            Map.entry(GeometryProperty.class, GEOMETRY_PROPERTY),
+            Map.entry(ImplicitGeometryProperty.class, IMPLICIT_GEOMETRY_PROPERTY),
+            Map.entry(FeatureProperty.class, FEATURE_PROPERTY),
+            Map.entry(AppearanceProperty.class, APPEARANCE_PROPERTY),
+            Map.entry(AddressProperty.class, ADDRESS_PROPERTY),
+            Map.entry(Point.class, POINT),
+            Map.entry(MultiPoint.class, MULTI_POINT),
+            Map.entry(LineString.class, LINE_STRING),
+            Map.entry(MultiLineString.class, MULTI_LINE_STRING),
+            Map.entry(Polygon.class, POLYGON),
+            Map.entry(LinearRing.class, LINEAR_RING),
+            Map.entry(CompositeSurface.class, COMPOSITE_SURFACE),
+            Map.entry(MultiSurface.class, MULTI_SURFACE),
+            Map.entry(TriangulatedSurface.class, TRIANGULATED_SURFACE),
+            Map.entry(Solid.class, SOLID),
+            Map.entry(CompositeSolid.class, COMPOSITE_SOLID),
+            Map.entry(MultiSolid.class, MULTI_SOLID),
+            Map.entry(Envelope.class, ENVELOPE),
+            Map.entry(ImplicitGeometry.class, IMPLICIT_GEOMETRY),
+            Map.entry(Appearance.class, APPEARANCE),
+            Map.entry(SurfaceDataProperty.class, SURFACE_DATA_PROPERTY),
+            Map.entry(ParameterizedTexture.class, PARAMETERIZED_TEXTURE),
+            Map.entry(GeoreferencedTexture.class, GEOREFERENCED_TEXTURE),
+            Map.entry(X3DMaterial.class, X3D_MATERIAL),
+            Map.entry(Address.class, ADDRESS),
+            Map.entry(FeatureChange.class, FEATURE_CHANGE),
+            Map.entry(ExternalFile.class, EXTERNAL_FILE));
+
+    private ModelObjectCodec() {
+    }
+
+    static boolean isUnmodifiable(Object collection) {
+        String name = collection.getClass().getName();
+        return name.startsWith("java.util.ImmutableCollections$")
+                || name.startsWith("java.util.Collections$Unmodifiable")
+                || name.startsWith("java.util.Collections$Empty")
+                || name.startsWith("java.util.Collections$Singleton");
+    }
+}
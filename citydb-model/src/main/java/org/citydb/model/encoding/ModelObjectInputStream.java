@@ -0,0 +1,746 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.model.encoding;
+
+import org.citydb.model.address.Address;
+import org.citydb.model.address.AddressDescriptor;
+import org.citydb.model.appearance.*;
+import org.citydb.model.change.FeatureChange;
+import org.citydb.model.change.FeatureChangeDescriptor;
+import org.citydb.model.change.TransactionType;
+import org.citydb.model.common.*;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.feature.FeatureDescriptor;
+import org.citydb.model.geometry.*;
+import org.citydb.model.property.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.citydb.model.encoding.ModelObjectCodec.*;
+
+public class ModelObjectInputStream implements Closeable {
+    private final DataInputStream stream;
+    private final List<Object> handles = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+
+    public ModelObjectInputStream(InputStream stream) throws IOException {
+        this.stream = new DataInputStream(Objects.requireNonNull(stream, "The input stream must not be null."));
+        if (this.stream.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Invalid model object stream header.");
+        }
+
+        byte version = this.stream.readByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported model object stream version " + version + ".");
+        }
+    }
+
+    public Object readObject() throws IOException {
+        try {
+            Object object = readValue(stream.readByte());
+            readTrailer();
+            return object;
+        } finally {
+            handles.clear();
+            strings.clear();
+        }
+    }
+
+    private void readTrailer() throws IOException {
+        byte tag;
+        while ((tag = stream.readByte()) != END) {
+            switch (tag) {
+                case TARGETS -> readTargets();
+                case USER_PROPERTIES -> readUserProperties();
+                default -> throw new StreamCorruptedException("Invalid trailer tag " + tag + ".");
+            }
+        }
+    }
+
+    private Object readValue(byte tag) throws IOException {
+        return switch (tag) {
+            case NULL -> null;
+            case REFERENCE -> getHandle(readLength());
+            case STRING -> readString();
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case INTEGER -> (int) unZigZag(readVarLong());
+            case LONG -> unZigZag(readVarLong());
+            case DOUBLE -> stream.readDouble();
+            case FLOAT -> stream.readFloat();
+            case OFFSET_DATE_TIME -> readDateTimeValue();
+            case ENUM -> readEnumValue();
+            case NAME -> readName();
+            case LIST -> readList();
+            case SET -> readSet();
+            case MAP -> readMap();
+            default -> readModelObject(tag);
+        };
+    }
+
+    private Object readValue() throws IOException {
+        return readValue(stream.readByte());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnumValue() throws IOException {
+        String typeName = readString();
+        String name = readString();
+        try {
+            Class<?> type = Class.forName(typeName, false, ModelObjectInputStream.class.getClassLoader());
+            if (!type.isEnum()) {
+                throw new InvalidObjectException(typeName + " is not an enum type.");
+            }
+
+            return Enum.valueOf((Class) type, name);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to load enum type " + typeName + ".", e);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidObjectException("Invalid enum constant " + name + " of " + typeName + ".");
+        }
+    }
+
+    private List<Object> readList() throws IOException {
+        byte kind = stream.readByte();
+        int size = readLength();
+        List<Object> list = switch (kind) {
+            case ARRAY_LIST, UNMODIFIABLE -> new ArrayList<>(size);
+            case LINKED_LIST -> new LinkedList<>();
+            default -> throw new StreamCorruptedException("Invalid list kind " + kind + ".");
+        };
+
+        int handle = putHandle(list);
+        for (int i = 0; i < size; i++) {
+            list.add(readValue());
+        }
+
+        return kind == UNMODIFIABLE ? setHandle(handle, Collections.unmodifiableList(list)) : list;
+    }
+
+    private Set<Object> readSet() throws IOException {
+        byte kind = stream.readByte();
+        int size = readLength();
+        Set<Object> set = switch (kind) {
+            case HASH_SET -> new HashSet<>(size);
+            case LINKED_HASH_SET, UNMODIFIABLE -> new LinkedHashSet<>(size);
+            case TREE_SET -> new TreeSet<>();
+            default -> throw new StreamCorruptedException("Invalid set kind " + kind + ".");
+        };
+
+        int handle = putHandle(set);
+        for (int i = 0; i < size; i++) {
+            set.add(readValue());
+        }
+
+        return kind == UNMODIFIABLE ? setHandle(handle, Collections.unmodifiableSet(set)) : set;
+    }
+
+    private Map<Object, Object> readMap() throws IOException {
+        byte kind = stream.readByte();
+        int size = readLength();
+        Map<Object, Object> map = switch (kind) {
+            case HASH_MAP -> new HashMap<>(size);
+            case LINKED_HASH_MAP, UNMODIFIABLE -> new LinkedHashMap<>(size);
+            case TREE_MAP -> new TreeMap<>();
+            case IDENTITY_HASH_MAP -> new IdentityHashMap<>(size);
+            case CONCURRENT_HASH_MAP -> new ConcurrentHashMap<>(size);
+            default -> throw new StreamCorruptedException("Invalid map kind " + kind + ".");
+        };
+
+        int handle = putHandle(map);
+        for (int i = 0; i < size; i++) {
+            Object key = readValue();
+            map.put(key, readValue());
+        }
+
+        return kind == UNMODIFIABLE ? setHandle(handle, Collections.unmodifiableMap(map)) : map;
+    }
+
+    private <T> T readModelObject(Class<T> type) throws IOException {
+        byte tag = stream.readByte();
+        Object object = switch (tag) {
+            case NULL -> null;
+            case REFERENCE -> getHandle(readLength());
+            default -> readModelObject(tag);
+        };
+
+        if (object != null && !type.isInstance(object)) {
+            throw new StreamCorruptedException("Expected " + type.getSimpleName() + " but found " +
+                    object.getClass().getSimpleName() + ".");
+        }
+
+        return type.cast(object);
+    }
+
+    private Object readModelObject(byte tag) throws IOException {
+        int handle = putHandle(null);
+        Object object = switch (tag) {
+            case FEATURE -> readFeature(handle);
+            case ATTRIBUTE -> readAttribute();
+            case GEOMETRY_PROPERTY -> readGeometryProperty();
+            case IMPLICIT_GEOMETRY_PROPERTY -> readImplicitGeometryProperty();
+            case FEATURE_PROPERTY -> readFeatureProperty();
+            case APPEARANCE_PROPERTY -> readAppearanceProperty();
+            case ADDRESS_PROPERTY -> readAddressProperty();
+            case POINT -> readGeometry(Point.of(readCoordinate()));
+            case MULTI_POINT -> readGeometry(MultiPoint.of(readModelObjects(Point.class)));
+            case LINE_STRING -> readGeometry(LineString.of(readCoordinates()));
+            case MULTI_LINE_STRING -> readGeometry(MultiLineString.of(readModelObjects(LineString.class)));
+            case POLYGON -> readPolygon();
+            case LINEAR_RING -> LinearRing.of(readCoordinates()).setObjectId(readString());
+            case COMPOSITE_SURFACE -> readGeometry(CompositeSurface.of(readModelObjects(Polygon.class)));
+            case MULTI_SURFACE -> readGeometry(MultiSurface.of(readModelObjects(Polygon.class)));
+            case TRIANGULATED_SURFACE -> readGeometry(TriangulatedSurface.of(readModelObjects(Polygon.class)));
+            case SOLID -> readGeometry(Solid.of(requireNonNull(readModelObject(CompositeSurface.class), "shell")));
+            case COMPOSITE_SOLID -> readGeometry(CompositeSolid.of(readModelObjects(Solid.class)));
+            case MULTI_SOLID -> readGeometry(MultiSolid.of(readModelObjects(Solid.class)));
+            case ENVELOPE -> readSrsReference(Envelope.of(readCoordinate(), readCoordinate()));
+            case IMPLICIT_GEOMETRY -> readImplicitGeometry();
+            case APPEARANCE -> readAppearance();
+            case SURFACE_DATA_PROPERTY -> readSurfaceDataProperty();
+            case PARAMETERIZED_TEXTURE -> readTexture(ParameterizedTexture.newInstance());
+            case GEOREFERENCED_TEXTURE -> readGeoreferencedTexture();
+            case X3D_MATERIAL -> readX3DMaterial();
+            case ADDRESS -> readAddress();
+            case FEATURE_CHANGE -> readFeatureChange();
+            case EXTERNAL_FILE -> readExternalFile();
+            default -> throw new StreamCorruptedException("Invalid type tag " + tag + ".");
+        };
+
+        return setHandle(handle, object);
+    }
+
+    private Feature readFeature(int handle) throws IOException {
+        Feature feature = setHandle(handle, Feature.of(requireNonNull(readName(), "feature type")))
+                .setObjectId(readString())
+                .setIdentifier(readString())
+                .setIdentifierCodeSpace(readString())
+                .setCreationDate(readDateTime())
+                .setTerminationDate(readDateTime())
+                .setValidFrom(readDateTime())
+                .setValidTo(readDateTime())
+                .setEnvelope(readModelObject(Envelope.class))
+                .setLastModificationDate(readDateTime())
+                .setUpdatingPerson(readString())
+                .setReasonForUpdate(readString())
+                .setLineage(readString());
+
+        if (stream.readBoolean()) {
+            feature.setDescriptor(FeatureDescriptor.of(unZigZag(readVarLong()), (int) unZigZag(readVarLong()))
+                    .setSequenceId(unZigZag(readVarLong())));
+        }
+
+        readProperties(Attribute.class, feature::addAttribute);
+        readProperties(GeometryProperty.class, feature::addGeometry);
+        readProperties(ImplicitGeometryProperty.class, feature::addImplicitGeometry);
+        readProperties(FeatureProperty.class, feature::addFeature);
+        readProperties(AppearanceProperty.class, feature::addAppearance);
+        readProperties(AddressProperty.class, feature::addAddress);
+        return feature;
+    }
+
+    private Attribute readAttribute() throws IOException {
+        Name name = readPropertyName();
+        PropertyDescriptor descriptor = readPropertyDescriptor();
+        Attribute attribute = Attribute.of(name, readName())
+                .setIntValue(readNullableLong())
+                .setDoubleValue(readNullableDouble())
+                .setStringValue(readString())
+                .setArrayValue(readArrayValue())
+                .setTimeStamp(readDateTime())
+                .setURI(readString())
+                .setCodeSpace(readString())
+                .setUom(readString())
+                .setGenericContent(readString())
+                .setGenericContentMimeType(readString())
+                .setDescriptor(descriptor);
+
+        readProperties(Property.class, attribute::addProperty);
+        return attribute;
+    }
+
+    private GeometryProperty readGeometryProperty() throws IOException {
+        Name name = readPropertyName();
+        PropertyDescriptor descriptor = readPropertyDescriptor();
+        return GeometryProperty.of(name, requireNonNull(readModelObject(Geometry.class), "geometry"))
+                .setLod(readString())
+                .setDescriptor(descriptor);
+    }
+
+    private ImplicitGeometryProperty readImplicitGeometryProperty() throws IOException {
+        Name name = readPropertyName();
+        PropertyDescriptor descriptor = readPropertyDescriptor();
+        ImplicitGeometryProperty property = stream.readBoolean()
+                ? ImplicitGeometryProperty.of(name, requireNonNull(readModelObject(ImplicitGeometry.class),
+                "implicit geometry"))
+                : ImplicitGeometryProperty.of(name, requireNonNull(readString(), "reference"));
+
+        return property.setTransformationMatrix(readMatrix(16))
+                .setReferencePoint(readModelObject(Point.class))
+                .setLod(readString())
+                .setDescriptor(descriptor);
+    }
+
+    private FeatureProperty readFeatureProperty() throws IOException {
+        Name name = readPropertyName();
+        PropertyDescriptor descriptor = readPropertyDescriptor();
+        boolean inline = stream.readBoolean();
+        Feature feature = inline ? requireNonNull(readModelObject(Feature.class), "feature") : null;
+        String reference = !inline ? requireNonNull(readString(), "reference") : null;
+        RelationType relationType = readEnum(RelationType.class);
+        return (feature != null
+                ? FeatureProperty.of(name, feature, relationType)
+                : FeatureProperty.of(name, reference, relationType))
+                .setDescriptor(descriptor);
+    }
+
+    private AppearanceProperty readAppearanceProperty() throws IOException {
+        Name name = readPropertyName();
+        PropertyDescriptor descriptor = readPropertyDescriptor();
+        return AppearanceProperty.of(name, requireNonNull(readModelObject(Appearance.class), "appearance"))
+                .setDescriptor(descriptor);
+    }
+
+    private AddressProperty readAddressProperty() throws IOException {
+        Name name = readPropertyName();
+        PropertyDescriptor descriptor = readPropertyDescriptor();
+        return (stream.readBoolean()
+                ? AddressProperty.of(name, requireNonNull(readModelObject(Address.class), "address"))
+                : AddressProperty.of(name, requireNonNull(readString(), "reference")))
+                .setDescriptor(descriptor);
+    }
+
+    private Name readPropertyName() throws IOException {
+        return requireNonNull(readName(), "property name");
+    }
+
+    private PropertyDescriptor readPropertyDescriptor() throws IOException {
+        return stream.readBoolean()
+                ? PropertyDescriptor.of(unZigZag(readVarLong()), unZigZag(readVarLong()))
+                .setParentId(unZigZag(readVarLong()))
+                : null;
+    }
+
+    private <T> void readProperties(Class<T> type, PropertyConsumer<T> consumer) throws IOException {
+        int size = readLength();
+        for (int i = 0; i < size; i++) {
+            consumer.accept(requireNonNull(readModelObject(type), "property"));
+        }
+    }
+
+    private Polygon readPolygon() throws IOException {
+        LinearRing exteriorRing = requireNonNull(readModelObject(LinearRing.class), "exterior ring");
+        List<LinearRing> interiorRings = stream.readBoolean() ? readModelObjects(LinearRing.class) : null;
+        return readGeometry(Polygon.of(exteriorRing, interiorRings, stream.readBoolean()));
+    }
+
+    private <T extends Geometry<?>> T readGeometry(T geometry) throws IOException {
+        geometry.setObjectId(readString());
+        readSrsReference(geometry);
+        if (stream.readBoolean()) {
+            geometry.setDescriptor(GeometryDescriptor.of(unZigZag(readVarLong()), unZigZag(readVarLong())));
+        }
+
+        return geometry;
+    }
+
+    private <T extends SrsReference> T readSrsReference(T reference) throws IOException {
+        Long srid = readNullableLong();
+        reference.setSRID(srid != null ? srid.intValue() : null);
+        reference.setSrsIdentifier(readString());
+        return reference;
+    }
+
+    private ImplicitGeometry readImplicitGeometry() throws IOException {
+        ImplicitGeometry implicitGeometry = stream.readBoolean()
+                ? ImplicitGeometry.of(requireNonNull(readModelObject(Geometry.class), "geometry"))
+                : ImplicitGeometry.of(requireNonNull(readModelObject(ExternalFile.class), "library object"));
+
+        implicitGeometry.setObjectId(readString());
+        readProperties(AppearanceProperty.class, implicitGeometry::addAppearance);
+        return implicitGeometry;
+    }
+
+    private Appearance readAppearance() throws IOException {
+        Appearance appearance = Appearance.newInstance()
+                .setObjectId(readString())
+                .setIdentifier(readString())
+                .setIdentifierCodeSpace(readString())
+                .setTheme(readString());
+
+        for (SurfaceDataProperty property : readModelObjects(SurfaceDataProperty.class)) {
+            appearance.addSurfaceData(property);
+        }
+
+        if (stream.readBoolean()) {
+            appearance.setDescriptor(AppearanceDescriptor.of(unZigZag(readVarLong()))
+                    .setFeatureId(unZigZag(readVarLong()))
+                    .setImplicitGeometryId(unZigZag(readVarLong())));
+        }
+
+        return appearance;
+    }
+
+    private SurfaceDataProperty readSurfaceDataProperty() throws IOException {
+        return stream.readBoolean()
+                ? SurfaceDataProperty.of(requireNonNull(readModelObject(SurfaceData.class), "surface data"))
+                : SurfaceDataProperty.of(requireNonNull(readString(), "reference"));
+    }
+
+    private GeoreferencedTexture readGeoreferencedTexture() throws IOException {
+        return readTexture(GeoreferencedTexture.newInstance())
+                .setReferencePoint(readModelObject(Point.class))
+                .setOrientation(readMatrix(4));
+    }
+
+    private X3DMaterial readX3DMaterial() throws IOException {
+        return readSurfaceData(X3DMaterial.newInstance())
+                .setShininess(readNullableDouble())
+                .setTransparency(readNullableDouble())
+                .setAmbientIntensity(readNullableDouble())
+                .setDiffuseColor(readColor())
+                .setEmissiveColor(readColor())
+                .setSpecularColor(readColor())
+                .setIsSmooth(readNullableBoolean());
+    }
+
+    private <T extends Texture<?>> T readTexture(T texture) throws IOException {
+        readSurfaceData(texture);
+        texture.setTextureImage(readModelObject(ExternalFile.class));
+        texture.setTextureType(readEnum(TextureType.class));
+        texture.setWrapMode(readEnum(WrapMode.class));
+        texture.setBorderColor(readColor());
+        return texture;
+    }
+
+    private <T extends SurfaceData<?>> T readSurfaceData(T surfaceData) throws IOException {
+        surfaceData.setObjectId(readString());
+        surfaceData.setIdentifier(readString());
+        surfaceData.setIdentifierCodeSpace(readString());
+        surfaceData.setIsFront(readNullableBoolean());
+        return surfaceData;
+    }
+
+    private void readTargets() throws IOException {
+        SurfaceData<?> surfaceData = getHandle(readLength(), SurfaceData.class);
+        try {
+            if (surfaceData instanceof ParameterizedTexture texture) {
+                int size = readLength();
+                for (int i = 0; i < size; i++) {
+                    LinearRing linearRing = getHandle(readLength(), LinearRing.class);
+                    int length = readLength();
+                    List<TextureCoordinate> textureCoordinates = new ArrayList<>(length);
+                    for (int j = 0; j < length; j++) {
+                        textureCoordinates.add(TextureCoordinate.of(stream.readFloat(), stream.readFloat()));
+                    }
+
+                    texture.addTextureCoordinates(linearRing, textureCoordinates);
+                }
+
+                size = readLength();
+                for (int i = 0; i < size; i++) {
+                    Surface<?> surface = getHandle(readLength(), Surface.class);
+                    texture.addWorldToTextureMapping(surface, readMatrix(12));
+                }
+            } else {
+                List<Surface<?>> targets = surfaceData.getTargets();
+                int size = readLength();
+                for (int i = 0; i < size; i++) {
+                    targets.add(getHandle(readLength(), Surface.class));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidObjectException("Invalid appearance target: " + e.getMessage());
+        }
+    }
+
+    private void readUserProperties() throws IOException {
+        Child child = getHandle(readLength(), Child.class);
+        int size = readLength();
+        for (int i = 0; i < size; i++) {
+            String name = readString();
+            child.getUserProperties().set(name, readValue());
+        }
+    }
+
+    private Address readAddress() throws IOException {
+        Address address = Address.newInstance()
+                .setObjectId(readString())
+                .setIdentifier(readString())
+                .setIdentifierCodeSpace(readString())
+                .setStreet(readString())
+                .setHouseNumber(readString())
+                .setPoBox(readString())
+                .setZipCode(readString())
+                .setCity(readString())
+                .setState(readString())
+                .setCountry(readString())
+                .setFreeText(readArrayValue())
+                .setMultiPoint(readModelObject(MultiPoint.class))
+                .setGenericContent(readString())
+                .setGenericContentMimeType(readString());
+
+        if (stream.readBoolean()) {
+            address.setDescriptor(AddressDescriptor.of(unZigZag(readVarLong())));
+        }
+
+        return address;
+    }
+
+    private FeatureChange readFeatureChange() throws IOException {
+        FeatureChange featureChange = FeatureChange.of(requireNonNull(readName(), "feature type"))
+                .setObjectId(readString())
+                .setIdentifier(readString())
+                .setIdentifierCodeSpace(readString())
+                .setEnvelope(readModelObject(Envelope.class))
+                .setTransactionType(readEnum(TransactionType.class))
+                .setTransactionDate(readDateTime())
+                .setDatabaseUser(readString())
+                .setReasonForUpdate(readString());
+
+        if (stream.readBoolean()) {
+            featureChange.setDescriptor(FeatureChangeDescriptor.of(unZigZag(readVarLong()),
+                    (int) unZigZag(readVarLong()), readNullableLong()));
+        }
+
+        return featureChange;
+    }
+
+    private ExternalFile readExternalFile() throws IOException {
+        boolean isPath = stream.readBoolean();
+        String location = requireNonNull(readString(), "file location");
+        return (isPath ? ExternalFile.of(Path.of(location)) : ExternalFile.of(location))
+                .setObjectId(readString())
+                .setMimeType(readString())
+                .setMimeTypeCodeSpace(readString());
+    }
+
+    private <T> List<T> readModelObjects(Class<T> type) throws IOException {
+        int size = readLength();
+        List<T> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            objects.add(readModelObject(type));
+        }
+
+        return objects;
+    }
+
+    private Name readName() throws IOException {
+        byte kind = stream.readByte();
+        if (kind == 0) {
+            return null;
+        }
+
+        String localName = readString();
+        String namespace = readString();
+        if (kind == 1) {
+            return Name.of(localName, namespace);
+        } else if (kind == 2) {
+            String prefix = readString();
+            return prefix != null
+                    ? PrefixedName.of(prefix + ":" + localName)
+                    : PrefixedName.of(Name.of(localName, namespace));
+        } else {
+            throw new StreamCorruptedException("Invalid name kind " + kind + ".");
+        }
+    }
+
+    private ArrayValue readArrayValue() throws IOException {
+        if (!stream.readBoolean()) {
+            return null;
+        }
+
+        int size = readLength();
+        ArrayValue arrayValue = ArrayValue.newInstance();
+        for (int i = 0; i < size; i++) {
+            Object value = readValue();
+            if (value instanceof Boolean bool) {
+                arrayValue.add(Value.of(bool));
+            } else if (value instanceof Integer number) {
+                arrayValue.add(Value.of(number));
+            } else if (value instanceof Long number) {
+                arrayValue.add(Value.of(number));
+            } else if (value instanceof Double number) {
+                arrayValue.add(Value.of(number));
+            } else if (value instanceof String string) {
+                arrayValue.add(Value.of(string));
+            } else {
+                throw new StreamCorruptedException("Invalid array value.");
+            }
+        }
+
+        return arrayValue;
+    }
+
+    private List<Coordinate> readCoordinates() throws IOException {
+        int size = readLength();
+        int dimension = stream.readByte();
+        List<Coordinate> coordinates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            coordinates.add(readCoordinate(dimension != 0 ? dimension : stream.readByte()));
+        }
+
+        return coordinates;
+    }
+
+    private Coordinate readCoordinate() throws IOException {
+        return readCoordinate(stream.readByte());
+    }
+
+    private Coordinate readCoordinate(int dimension) throws IOException {
+        return dimension == 3
+                ? Coordinate.of(stream.readDouble(), stream.readDouble(), stream.readDouble())
+                : Coordinate.of(stream.readDouble(), stream.readDouble());
+    }
+
+    private List<Double> readMatrix(int size) throws IOException {
+        if (!stream.readBoolean()) {
+            return null;
+        }
+
+        List<Double> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(stream.readDouble());
+        }
+
+        return values;
+    }
+
+    private Color readColor() throws IOException {
+        return stream.readBoolean()
+                ? Color.of(stream.readDouble(), stream.readDouble(), stream.readDouble(), stream.readDouble())
+                : null;
+    }
+
+    private <T extends Enum<T>> T readEnum(Class<T> type) throws IOException {
+        String name = readString();
+        try {
+            return name != null ? Enum.valueOf(type, name) : null;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidObjectException("Invalid enum constant " + name + " of " + type.getName() + ".");
+        }
+    }
+
+    private OffsetDateTime readDateTime() throws IOException {
+        return stream.readBoolean() ? readDateTimeValue() : null;
+    }
+
+    private OffsetDateTime readDateTimeValue() throws IOException {
+        return OffsetDateTime.ofInstant(
+                Instant.ofEpochSecond(unZigZag(readVarLong()), readVarLong()),
+                ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong())));
+    }
+
+    private Long readNullableLong() throws IOException {
+        return stream.readBoolean() ? unZigZag(readVarLong()) : null;
+    }
+
+    private Double readNullableDouble() throws IOException {
+        return stream.readBoolean() ? stream.readDouble() : null;
+    }
+
+    private Boolean readNullableBoolean() throws IOException {
+        byte value = stream.readByte();
+        return value == NULL ? null : value == TRUE;
+    }
+
+    private int putHandle(Object object) {
+        handles.add(object);
+        return handles.size() - 1;
+    }
+
+    private <T> T setHandle(int handle, T object) {
+        handles.set(handle, object);
+        return object;
+    }
+
+    private Object getHandle(int handle) throws IOException {
+        Object object = handle < handles.size() ? handles.get(handle) : null;
+        if (object == null) {
+            throw new StreamCorruptedException("Invalid reference to unresolved handle " + handle + ".");
+        }
+
+        return object;
+    }
+
+    private <T> T getHandle(int handle, Class<T> type) throws IOException {
+        Object object = getHandle(handle);
+        if (!type.isInstance(object)) {
+            throw new StreamCorruptedException("Expected " + type.getSimpleName() + " but found " +
+                    object.getClass().getSimpleName() + ".");
+        }
+
+        return type.cast(object);
+    }
+
+    private <T> T requireNonNull(T object, String name) throws IOException {
+        if (object == null) {
+            throw new StreamCorruptedException("Missing " + name + ".");
+        }
+
+        return object;
+    }
+
+    private String readString() throws IOException {
+        int id = readLength();
+        if (id == 0) {
+            return null;
+        } else if (id > 1) {
+            if (id - 2 >= strings.size()) {
+                throw new StreamCorruptedException("Invalid string reference " + id + ".");
+            }
+
+            return strings.get(id - 2);
+        }
+
+        String value = new String(stream.readNBytes(readLength()), StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    private int readLength() throws IOException {
+        long length = readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid length " + length + ".");
+        }
+
+        return (int) length;
+    }
+
+    private long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = stream.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new StreamCorruptedException("Malformed variable-length integer.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    @FunctionalInterface
+    private interface PropertyConsumer<T> {
+        void accept(T property);
+    }
+}
@@ -0,0 +1,751 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.model.encoding;
+
+import org.citydb.model.address.Address;
+import org.citydb.model.address.AddressDescriptor;
+import org.citydb.model.appearance.*;
+import org.citydb.model.change.FeatureChange;
+import org.citydb.model.change.FeatureChangeDescriptor;
+import org.citydb.model.common.*;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.feature.FeatureDescriptor;
+import org.citydb.model.geometry.*;
+import org.citydb.model.property.*;
+import org.citydb.model.util.matrix.Matrix;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.citydb.model.encoding.ModelObjectCodec.*;
+
+public class ModelObjectOutputStream implements Closeable, Flushable {
+    private final DataOutputStream stream;
+    private final Map<Object, Integer> handles = new IdentityHashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<SurfaceData<?>> surfaceData = new ArrayList<>();
+    private final List<Child> children = new ArrayList<>();
+
+    public ModelObjectOutputStream(OutputStream stream) throws IOException {
+        this.stream = new DataOutputStream(Objects.requireNonNull(stream, "The output stream must not be null."));
+        this.stream.writeInt(MAGIC);
+        this.stream.writeByte(VERSION);
+    }
+
+    public void writeObject(Object object) throws IOException {
+        try {
+            writeValue(object);
+            writeTrailer();
+        } finally {
+            handles.clear();
+            strings.clear();
+            surfaceData.clear();
+            children.clear();
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        int surfaceDataIndex = 0, childIndex = 0;
+        while (surfaceDataIndex < surfaceData.size() || childIndex < children.size()) {
+            if (surfaceDataIndex < surfaceData.size()) {
+                writeTargets(surfaceData.get(surfaceDataIndex++));
+            } else {
+                writeUserProperties(children.get(childIndex++));
+            }
+        }
+
+        stream.writeByte(END);
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            stream.writeByte(NULL);
+        } else if (value instanceof String string) {
+            stream.writeByte(STRING);
+            writeString(string);
+        } else if (value instanceof Boolean bool) {
+            stream.writeByte(bool ? TRUE : FALSE);
+        } else if (value instanceof Integer number) {
+            stream.writeByte(INTEGER);
+            writeVarLong(zigZag(number));
+        } else if (value instanceof Long number) {
+            stream.writeByte(LONG);
+            writeVarLong(zigZag(number));
+        } else if (value instanceof Double number) {
+            stream.writeByte(DOUBLE);
+            stream.writeDouble(number);
+        } else if (value instanceof Float number) {
+            stream.writeByte(FLOAT);
+            stream.writeFloat(number);
+        } else if (value instanceof OffsetDateTime dateTime) {
+            stream.writeByte(OFFSET_DATE_TIME);
+            writeDateTimeValue(dateTime);
+        } else if (value instanceof Enum<?> constant) {
+            stream.writeByte(ENUM);
+            writeString(constant.getDeclaringClass().getName());
+            writeString(constant.name());
+        } else if (value instanceof Name name) {
+            stream.writeByte(NAME);
+            writeName(name);
+        } else if (value instanceof Collection<?> || value instanceof Map<?, ?>) {
+            writeCollection(value);
+        } else {
+            writeModelObject(value);
+        }
+    }
+
+    private void writeCollection(Object collection) throws IOException {
+        Integer handle = handles.get(collection);
+        if (handle != null) {
+            stream.writeByte(REFERENCE);
+            writeVarLong(handle);
+            return;
+        }
+
+        handles.put(collection, handles.size());
+        if (collection instanceof List<?> list) {
+            stream.writeByte(LIST);
+            stream.writeByte(getKind(list, list.getClass() == ArrayList.class ? ARRAY_LIST
+                    : list.getClass() == LinkedList.class ? LINKED_LIST
+                    : -1));
+            writeVarLong(list.size());
+            for (Object item : list) {
+                writeValue(item);
+            }
+        } else if (collection instanceof Set<?> set) {
+            stream.writeByte(SET);
+            stream.writeByte(getKind(set, set.getClass() == HashSet.class ? HASH_SET
+                    : set.getClass() == LinkedHashSet.class ? LINKED_HASH_SET
+                    : set instanceof TreeSet<?> treeSet && treeSet.getClass() == TreeSet.class
+                    && treeSet.comparator() == null ? TREE_SET
+                    : -1));
+            writeVarLong(set.size());
+            for (Object item : set) {
+                writeValue(item);
+            }
+        } else if (collection instanceof Map<?, ?> map) {
+            stream.writeByte(MAP);
+            stream.writeByte(getKind(map, map.getClass() == HashMap.class ? HASH_MAP
+                    : map.getClass() == LinkedHashMap.class ? LINKED_HASH_MAP
+                    : map instanceof TreeMap<?, ?> treeMap && treeMap.getClass() == TreeMap.class
+                    && treeMap.comparator() == null ? TREE_MAP
+                    : map.getClass() == IdentityHashMap.class ? IDENTITY_HASH_MAP
+                    : map.getClass() == ConcurrentHashMap.class ? CONCURRENT_HASH_MAP
+                    : -1));
+            writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        } else {
+            throw new NotSerializableException(collection.getClass().getName());
+        }
+    }
+
+    private byte getKind(Object collection, int kind) throws IOException {
+        if (kind != -1) {
+            return (byte) kind;
+        } else if (isUnmodifiable(collection)) {
+            return UNMODIFIABLE;
+        } else {
+            throw new NotSerializableException(collection.getClass().getName());
+        }
+    }
+
+    private void writeModelObject(Object object) throws IOException {
+        if (object == null) {
+            stream.writeByte(NULL);
+            return;
+        }
+
+        Integer handle = handles.get(object);
+        if (handle != null) {
+            stream.writeByte(REFERENCE);
+            writeVarLong(handle);
+            return;
+        }
+
+        Byte type = TYPES.get(object.getClass());
+        if (type == null) {
+            throw new NotSerializableException(object.getClass().getName());
+        }
+
+        handles.put(object, handles.size());
+        if (object instanceof Child child && child.hasUserProperties()) {
+            children.add(child);
+        }
+
+        stream.writeByte(type);
+        switch (type) {
+            case FEATURE -> writeFeature((Feature) object);
+            case ATTRIBUTE -> writeAttribute((Attribute) object);
+            case GEOMETRY_PROPERTY -> writeGeometryProperty((GeometryProperty) object);
+            case IMPLICIT_GEOMETRY_PROPERTY -> writeImplicitGeometryProperty((ImplicitGeometryProperty) object);
+            case FEATURE_PROPERTY -> writeFeatureProperty((FeatureProperty) object);
+            case APPEARANCE_PROPERTY -> writeAppearanceProperty((AppearanceProperty) object);
+            case ADDRESS_PROPERTY -> writeAddressProperty((AddressProperty) object);
+            case POINT -> writePoint((Point) object);
+            case MULTI_POINT -> writeMultiPoint((MultiPoint) object);
+            case LINE_STRING -> writeLineString((LineString) object);
+            case MULTI_LINE_STRING -> writeMultiLineString((MultiLineString) object);
+            case POLYGON -> writePolygon((Polygon) object);
+            case LINEAR_RING -> writeLinearRing((LinearRing) object);
+            case COMPOSITE_SURFACE, MULTI_SURFACE, TRIANGULATED_SURFACE ->
+                    writeSurfaceCollection((SurfaceCollection<?>) object);
+            case SOLID -> writeSolid((Solid) object);
+            case COMPOSITE_SOLID, MULTI_SOLID -> writeSolidCollection((SolidCollection<?>) object);
+            case ENVELOPE -> writeEnvelope((Envelope) object);
+            case IMPLICIT_GEOMETRY -> writeImplicitGeometry((ImplicitGeometry) object);
+            case APPEARANCE -> writeAppearance((Appearance) object);
+            case SURFACE_DATA_PROPERTY -> writeSurfaceDataProperty((SurfaceDataProperty) object);
+            case PARAMETERIZED_TEXTURE -> writeParameterizedTexture((ParameterizedTexture) object);
+            case GEOREFERENCED_TEXTURE -> writeGeoreferencedTexture((GeoreferencedTexture) object);
+            case X3D_MATERIAL -> writeX3DMaterial((X3DMaterial) object);
+            case ADDRESS -> writeAddress((Address) object);
+            case FEATURE_CHANGE -> writeFeatureChange((FeatureChange) object);
+            case EXTERNAL_FILE -> writeExternalFile((ExternalFile) object);
+        }
+    }
+
+    private void writeFeature(Feature feature) throws IOException {
+        writeName(feature.getFeatureType());
+        writeString(feature.getObjectId().orElse(null));
+        writeString(feature.getIdentifier().orElse(null));
+        writeString(feature.getIdentifierCodeSpace().orElse(null));
+        writeDateTime(feature.getCreationDate().orElse(null));
+        writeDateTime(feature.getTerminationDate().orElse(null));
+        writeDateTime(feature.getValidFrom().orElse(null));
+        writeDateTime(feature.getValidTo().orElse(null));
+        writeModelObject(feature.getEnvelope().orElse(null));
+        writeDateTime(feature.getLastModificationDate().orElse(null));
+        writeString(feature.getUpdatingPerson().orElse(null));
+        writeString(feature.getReasonForUpdate().orElse(null));
+        writeString(feature.getLineage().orElse(null));
+
+        FeatureDescriptor descriptor = feature.getDescriptor().orElse(null);
+        stream.writeBoolean(descriptor != null);
+        if (descriptor != null) {
+            writeVarLong(zigZag(descriptor.getId()));
+            writeVarLong(zigZag(descriptor.getObjectClassId()));
+            writeVarLong(zigZag(descriptor.getSequenceId()));
+        }
+
+        writeProperties(feature.hasAttributes() ? feature.getAttributes() : null);
+        writeProperties(feature.hasGeometries() ? feature.getGeometries() : null);
+        writeProperties(feature.hasImplicitGeometries() ? feature.getImplicitGeometries() : null);
+        writeProperties(feature.hasFeatures() ? feature.getFeatures() : null);
+        writeProperties(feature.hasAppearances() ? feature.getAppearances() : null);
+        writeProperties(feature.hasAddresses() ? feature.getAddresses() : null);
+    }
+
+    private void writeAttribute(Attribute attribute) throws IOException {
+        writeProperty(attribute);
+        writeName(attribute.getDataType().orElse(null));
+        writeNullableLong(attribute.getIntValue().orElse(null));
+        writeNullableDouble(attribute.getDoubleValue().orElse(null));
+        writeString(attribute.getStringValue().orElse(null));
+        writeArrayValue(attribute.getArrayValue().orElse(null));
+        writeDateTime(attribute.getTimeStamp().orElse(null));
+        writeString(attribute.getURI().orElse(null));
+        writeString(attribute.getCodeSpace().orElse(null));
+        writeString(attribute.getUom().orElse(null));
+        writeString(attribute.getGenericContent().orElse(null));
+        writeString(attribute.getGenericContentMimeType().orElse(null));
+        writeProperties(attribute.hasProperties() ? attribute.getProperties() : null);
+    }
+
+    private void writeGeometryProperty(GeometryProperty property) throws IOException {
+        writeProperty(property);
+        writeModelObject(property.getObject());
+        writeString(property.getLod().orElse(null));
+    }
+
+    private void writeImplicitGeometryProperty(ImplicitGeometryProperty property) throws IOException {
+        writeProperty(property);
+        writeInlineOrByReference(property.getObject().orElse(null), property.getReference().orElse(null));
+        writeMatrix(property.getTransformationMatrix().orElse(null));
+        writeModelObject(property.getReferencePoint().orElse(null));
+        writeString(property.getLod().orElse(null));
+    }
+
+    private void writeFeatureProperty(FeatureProperty property) throws IOException {
+        writeProperty(property);
+        writeInlineOrByReference(property.getObject().orElse(null), property.getReference().orElse(null));
+        writeString(property.getRelationType().name());
+    }
+
+    private void writeAppearanceProperty(AppearanceProperty property) throws IOException {
+        writeProperty(property);
+        writeModelObject(property.getObject());
+    }
+
+    private void writeAddressProperty(AddressProperty property) throws IOException {
+        writeProperty(property);
+        writeInlineOrByReference(property.getObject().orElse(null), property.getReference().orElse(null));
+    }
+
+    private void writeProperty(Property<?> property) throws IOException {
+        writeName(property.getName());
+        PropertyDescriptor descriptor = property.getDescriptor().orElse(null);
+        stream.writeBoolean(descriptor != null);
+        if (descriptor != null) {
+            writeVarLong(zigZag(descriptor.getId()));
+            writeVarLong(zigZag(descriptor.getFeatureId()));
+            writeVarLong(zigZag(descriptor.getParentId()));
+        }
+    }
+
+    private void writeProperties(PropertyMap<?> properties) throws IOException {
+        List<? extends Property<?>> values = properties != null ? properties.getAll() : Collections.emptyList();
+        writeVarLong(values.size());
+        for (Property<?> property : values) {
+            writeModelObject(property);
+        }
+    }
+
+    private void writeInlineOrByReference(Object object, String reference) throws IOException {
+        stream.writeBoolean(object != null);
+        if (object != null) {
+            writeModelObject(object);
+        } else {
+            writeString(reference);
+        }
+    }
+
+    private void writePoint(Point point) throws IOException {
+        writeCoordinate(point.getCoordinate());
+        writeGeometry(point);
+    }
+
+    private void writeMultiPoint(MultiPoint multiPoint) throws IOException {
+        writeModelObjects(multiPoint.getPoints());
+        writeGeometry(multiPoint);
+    }
+
+    private void writeLineString(LineString lineString) throws IOException {
+        writeCoordinates(lineString.getPoints());
+        writeGeometry(lineString);
+    }
+
+    private void writeMultiLineString(MultiLineString multiLineString) throws IOException {
+        writeModelObjects(multiLineString.getLineStrings());
+        writeGeometry(multiLineString);
+    }
+
+    private void writePolygon(Polygon polygon) throws IOException {
+        writeModelObject(polygon.getExteriorRing());
+        stream.writeBoolean(polygon.hasInteriorRings());
+        if (polygon.hasInteriorRings()) {
+            writeModelObjects(polygon.getInteriorRings());
+        }
+
+        stream.writeBoolean(polygon.isReversed());
+        writeGeometry(polygon);
+    }
+
+    private void writeLinearRing(LinearRing linearRing) throws IOException {
+        writeCoordinates(linearRing.getPoints());
+        writeString(linearRing.getObjectId().orElse(null));
+    }
+
+    private void writeSurfaceCollection(SurfaceCollection<?> collection) throws IOException {
+        writeModelObjects(collection.getPolygons());
+        writeGeometry(collection);
+    }
+
+    private void writeSolid(Solid solid) throws IOException {
+        writeModelObject(solid.getShell());
+        writeGeometry(solid);
+    }
+
+    private void writeSolidCollection(SolidCollection<?> collection) throws IOException {
+        writeModelObjects(collection.getSolids());
+        writeGeometry(collection);
+    }
+
+    private void writeGeometry(Geometry<?> geometry) throws IOException {
+        writeString(geometry.getObjectId().orElse(null));
+        writeSrsReference(geometry);
+        GeometryDescriptor descriptor = geometry.getDescriptor().orElse(null);
+        stream.writeBoolean(descriptor != null);
+        if (descriptor != null) {
+            writeVarLong(zigZag(descriptor.getId()));
+            writeVarLong(zigZag(descriptor.getFeatureId()));
+        }
+    }
+
+    private void writeEnvelope(Envelope envelope) throws IOException {
+        writeCoordinate(envelope.getLowerCorner());
+        writeCoordinate(envelope.getUpperCorner());
+        writeSrsReference(envelope);
+    }
+
+    private void writeSrsReference(SrsReference reference) throws IOException {
+        // the getters fall back to the SRS of an enclosing object, which is only
+        // restored on reading if that object is part of this stream
+        SrsReference inherited = reference.getInheritedSrsReference();
+        boolean restored = inherited != null && handles.containsKey(inherited);
+        Integer srid = reference.getSRID().orElse(null);
+        String srsIdentifier = reference.getSrsIdentifier().orElse(null);
+        writeNullableLong(restored && Objects.equals(srid, inherited.getSRID().orElse(null)) ? null
+                : srid != null ? srid.longValue() : null);
+        writeString(restored && Objects.equals(srsIdentifier, inherited.getSrsIdentifier().orElse(null)) ? null
+                : srsIdentifier);
+    }
+
+    private void writeImplicitGeometry(ImplicitGeometry implicitGeometry) throws IOException {
+        Geometry<?> geometry = implicitGeometry.getGeometry().orElse(null);
+        stream.writeBoolean(geometry != null);
+        writeModelObject(geometry != null ? geometry : implicitGeometry.getLibraryObject().orElse(null));
+        writeString(implicitGeometry.getObjectId().orElse(null));
+        writeProperties(implicitGeometry.hasAppearances() ? implicitGeometry.getAppearances() : null);
+    }
+
+    private void writeAppearance(Appearance appearance) throws IOException {
+        writeString(appearance.getObjectId().orElse(null));
+        writeString(appearance.getIdentifier().orElse(null));
+        writeString(appearance.getIdentifierCodeSpace().orElse(null));
+        writeString(appearance.getTheme().orElse(null));
+        writeModelObjects(appearance.hasSurfaceData() ? appearance.getSurfaceData() : Collections.emptyList());
+
+        AppearanceDescriptor descriptor = appearance.getDescriptor().orElse(null);
+        stream.writeBoolean(descriptor != null);
+        if (descriptor != null) {
+            writeVarLong(zigZag(descriptor.getId()));
+            writeVarLong(zigZag(descriptor.getFeatureId()));
+            writeVarLong(zigZag(descriptor.getImplicitGeometryId()));
+        }
+    }
+
+    private void writeSurfaceDataProperty(SurfaceDataProperty property) throws IOException {
+        writeInlineOrByReference(property.getObject().orElse(null), property.getReference().orElse(null));
+    }
+
+    private void writeParameterizedTexture(ParameterizedTexture texture) throws IOException {
+        writeTexture(texture);
+    }
+
+    private void writeGeoreferencedTexture(GeoreferencedTexture texture) throws IOException {
+        writeTexture(texture);
+        writeModelObject(texture.getReferencePoint().orElse(null));
+        writeMatrix(texture.getOrientation().orElse(null));
+    }
+
+    private void writeX3DMaterial(X3DMaterial material) throws IOException {
+        writeSurfaceData(material);
+        writeNullableDouble(material.getShininess().orElse(null));
+        writeNullableDouble(material.getTransparency().orElse(null));
+        writeNullableDouble(material.getAmbientIntensity().orElse(null));
+        writeColor(material.getDiffuseColor().orElse(null));
+        writeColor(material.getEmissiveColor().orElse(null));
+        writeColor(material.getSpecularColor().orElse(null));
+        writeNullableBoolean(material.getIsSmooth().orElse(null));
+    }
+
+    private void writeTexture(Texture<?> texture) throws IOException {
+        writeSurfaceData(texture);
+        writeModelObject(texture.getTextureImage().orElse(null));
+        writeEnum(texture.getTextureType().orElse(null));
+        writeEnum(texture.getWrapMode().orElse(null));
+        writeColor(texture.getBorderColor().orElse(null));
+    }
+
+    private void writeSurfaceData(SurfaceData<?> surfaceData) throws IOException {
+        writeString(surfaceData.getObjectId().orElse(null));
+        writeString(surfaceData.getIdentifier().orElse(null));
+        writeString(surfaceData.getIdentifierCodeSpace().orElse(null));
+        writeNullableBoolean(surfaceData.isFront().orElse(null));
+
+        // targets are written after the root object so that every target surface has
+        // already been written at its position in the geometry tree
+        if (surfaceData instanceof ParameterizedTexture texture) {
+            if (texture.hasTextureCoordinates() || texture.hasWorldToTextureMappings()) {
+                this.surfaceData.add(texture);
+            }
+        } else if (!surfaceData.getTargets().isEmpty()) {
+            this.surfaceData.add(surfaceData);
+        }
+    }
+
+    private void writeTargets(SurfaceData<?> surfaceData) throws IOException {
+        stream.writeByte(TARGETS);
+        writeVarLong(handles.get(surfaceData));
+        if (surfaceData instanceof ParameterizedTexture texture) {
+            Map<LinearRing, List<TextureCoordinate>> textureCoordinates = texture.hasTextureCoordinates()
+                    ? texture.getTextureCoordinates()
+                    : Collections.emptyMap();
+            writeVarLong(textureCoordinates.size());
+            for (Map.Entry<LinearRing, List<TextureCoordinate>> entry : textureCoordinates.entrySet()) {
+                writeTarget(entry.getKey());
+                writeVarLong(entry.getValue().size());
+                for (TextureCoordinate textureCoordinate : entry.getValue()) {
+                    stream.writeFloat(textureCoordinate.getS());
+                    stream.writeFloat(textureCoordinate.getT());
+                }
+            }
+
+            Map<Surface<?>, Matrix3x4> worldToTextureMappings = texture.hasWorldToTextureMappings()
+                    ? texture.getWorldToTextureMappings()
+                    : Collections.emptyMap();
+            writeVarLong(worldToTextureMappings.size());
+            for (Map.Entry<Surface<?>, Matrix3x4> entry : worldToTextureMappings.entrySet()) {
+                writeTarget(entry.getKey());
+                writeMatrix(entry.getValue());
+            }
+        } else {
+            List<Surface<?>> targets = surfaceData.getTargets();
+            writeVarLong(targets.size());
+            for (Surface<?> target : targets) {
+                writeTarget(target);
+            }
+        }
+    }
+
+    private void writeTarget(Object target) throws IOException {
+        Integer handle = handles.get(target);
+        if (handle == null) {
+            throw new NotSerializableException("The appearance target " + target.getClass().getName() +
+                    " is not part of the written object.");
+        }
+
+        writeVarLong(handle);
+    }
+
+    private void writeUserProperties(Child child) throws IOException {
+        stream.writeByte(USER_PROPERTIES);
+        writeVarLong(handles.get(child));
+        UserProperties userProperties = child.getUserProperties();
+        Set<String> names = userProperties.getNames();
+        writeVarLong(names.size());
+        for (String name : names) {
+            writeString(name);
+            writeValue(userProperties.get(name));
+        }
+    }
+
+    private void writeAddress(Address address) throws IOException {
+        writeString(address.getObjectId().orElse(null));
+        writeString(address.getIdentifier().orElse(null));
+        writeString(address.getIdentifierCodeSpace().orElse(null));
+        writeString(address.getStreet().orElse(null));
+        writeString(address.getHouseNumber().orElse(null));
+        writeString(address.getPoBox().orElse(null));
+        writeString(address.getZipCode().orElse(null));
+        writeString(address.getCity().orElse(null));
+        writeString(address.getState().orElse(null));
+        writeString(address.getCountry().orElse(null));
+        writeArrayValue(address.getFreeText().orElse(null));
+        writeModelObject(address.getMultiPoint().orElse(null));
+        writeString(address.getGenericContent().orElse(null));
+        writeString(address.getGenericContentMimeType().orElse(null));
+
+        AddressDescriptor descriptor = address.getDescriptor().orElse(null);
+        stream.writeBoolean(descriptor != null);
+        if (descriptor != null) {
+            writeVarLong(zigZag(descriptor.getId()));
+        }
+    }
+
+    private void writeFeatureChange(FeatureChange featureChange) throws IOException {
+        writeName(featureChange.getFeatureType());
+        writeString(featureChange.getObjectId().orElse(null));
+        writeString(featureChange.getIdentifier().orElse(null));
+        writeString(featureChange.getIdentifierCodeSpace().orElse(null));
+        writeModelObject(featureChange.getEnvelope().orElse(null));
+        writeEnum(featureChange.getTransactionType().orElse(null));
+        writeDateTime(featureChange.getTransactionDate().orElse(null));
+        writeString(featureChange.getDatabaseUser().orElse(null));
+        writeString(featureChange.getReasonForUpdate().orElse(null));
+
+        FeatureChangeDescriptor descriptor = featureChange.getDescriptor().orElse(null);
+        stream.writeBoolean(descriptor != null);
+        if (descriptor != null) {
+            writeVarLong(zigZag(descriptor.getId()));
+            writeVarLong(zigZag(descriptor.getObjectClassId()));
+            writeNullableLong(descriptor.getFeatureId().orElse(null));
+        }
+    }
+
+    private void writeExternalFile(ExternalFile externalFile) throws IOException {
+        Path path = externalFile.getPath().orElse(null);
+        if (path != null) {
+            stream.writeBoolean(path.getFileSystem() == FileSystems.getDefault());
+            writeString(path.toString());
+        } else {
+            stream.writeBoolean(false);
+            writeString(externalFile.getURI().orElse(null));
+        }
+
+        writeString(externalFile.getObjectId().orElse(null));
+        writeString(externalFile.getMimeType().orElse(null));
+        writeString(externalFile.getMimeTypeCodeSpace().orElse(null));
+    }
+
+    private void writeModelObjects(List<?> objects) throws IOException {
+        writeVarLong(objects.size());
+        for (Object object : objects) {
+            writeModelObject(object);
+        }
+    }
+
+    private void writeName(Name name) throws IOException {
+        if (name == null) {
+            stream.writeByte(0);
+        } else if (name instanceof PrefixedName prefixedName) {
+            stream.writeByte(2);
+            writeString(name.getLocalName());
+            writeString(name.getNamespace());
+            writeString(prefixedName.getPrefix().orElse(null));
+        } else {
+            stream.writeByte(1);
+            writeString(name.getLocalName());
+            writeString(name.getNamespace());
+        }
+    }
+
+    private void writeArrayValue(ArrayValue arrayValue) throws IOException {
+        stream.writeBoolean(arrayValue != null);
+        if (arrayValue != null) {
+            writeVarLong(arrayValue.size());
+            for (Value value : arrayValue.getValues()) {
+                writeValue(value.rawValue());
+            }
+        }
+    }
+
+    private void writeCoordinates(List<Coordinate> coordinates) throws IOException {
+        int dimension = !coordinates.isEmpty() ? coordinates.get(0).getDimension() : 3;
+        for (Coordinate coordinate : coordinates) {
+            if (coordinate.getDimension() != dimension) {
+                dimension = 0;
+                break;
+            }
+        }
+
+        writeVarLong(coordinates.size());
+        stream.writeByte(dimension);
+        for (Coordinate coordinate : coordinates) {
+            if (dimension == 0) {
+                stream.writeByte(coordinate.getDimension());
+            }
+
+            writeCoordinateValues(coordinate);
+        }
+    }
+
+    private void writeCoordinate(Coordinate coordinate) throws IOException {
+        stream.writeByte(coordinate.getDimension());
+        writeCoordinateValues(coordinate);
+    }
+
+    private void writeCoordinateValues(Coordinate coordinate) throws IOException {
+        stream.writeDouble(coordinate.getX());
+        stream.writeDouble(coordinate.getY());
+        if (coordinate.getDimension() == 3) {
+            stream.writeDouble(coordinate.getZ());
+        }
+    }
+
+    private void writeMatrix(Matrix matrix) throws IOException {
+        stream.writeBoolean(matrix != null);
+        if (matrix != null) {
+            for (double value : matrix.toRowMajor()) {
+                stream.writeDouble(value);
+            }
+        }
+    }
+
+    private void writeColor(Color color) throws IOException {
+        stream.writeBoolean(color != null);
+        if (color != null) {
+            stream.writeDouble(color.getRed());
+            stream.writeDouble(color.getGreen());
+            stream.writeDouble(color.getBlue());
+            stream.writeDouble(color.getAlpha());
+        }
+    }
+
+    private void writeEnum(Enum<?> constant) throws IOException {
+        writeString(constant != null ? constant.name() : null);
+    }
+
+    private void writeDateTime(OffsetDateTime dateTime) throws IOException {
+        stream.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            writeDateTimeValue(dateTime);
+        }
+    }
+
+    private void writeDateTimeValue(OffsetDateTime dateTime) throws IOException {
+        writeVarLong(zigZag(dateTime.toEpochSecond()));
+        writeVarLong(dateTime.getNano());
+        writeVarLong(zigZag(dateTime.getOffset().getTotalSeconds()));
+    }
+
+    private void writeNullableLong(Long value) throws IOException {
+        stream.writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(zigZag(value));
+        }
+    }
+
+    private void writeNullableDouble(Double value) throws IOException {
+        stream.writeBoolean(value != null);
+        if (value != null) {
+            stream.writeDouble(value);
+        }
+    }
+
+    private void writeNullableBoolean(Boolean value) throws IOException {
+        stream.writeByte(value == null ? NULL : value ? TRUE : FALSE);
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        Integer id = strings.get(value);
+        if (id != null) {
+            writeVarLong(id + 2);
+        } else {
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(1);
+            writeVarLong(bytes.length);
+            stream.write(bytes);
+        }
+    }
+
+    private long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            stream.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        stream.writeByte((int) value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
@@ -8,10 +8,7 @@ package org.citydb.model.encoding;
 import org.citydb.core.function.Pipeline;
 import org.citydb.model.common.Child;
 
-import java.io.BufferedInputStream;
-import java.io.EOFException;
-import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -42,8 +39,7 @@ public class ModelObjectReader {
     }
 
     public <T extends Child> void consume(Path file, Class<T> type, Consumer<T> consumer) throws IOException {
-        try (ObjectInputStream stream = new ObjectInputStream(new BufferedInputStream(
-                Files.newInputStream(file)))) {
+        try (ObjectSource stream = open(file)) {
             while (true) {
                 try {
                     Object object = stream.readObject();
@@ -64,8 +60,7 @@ public class ModelObjectReader {
     }
 
     public <T extends Child, R> R process(Path file, Class<T> type, Pipeline<T, R> pipeline) throws IOException {
-        try (ObjectInputStream stream = new ObjectInputStream(new BufferedInputStream(
-                Files.newInputStream(file)))) {
+        try (ObjectSource stream = open(file)) {
             while (true) {
                 try {
                     Object object = stream.readObject();
@@ -85,4 +80,48 @@ public class ModelObjectReader {
             throw new IOException("Failed to parse model object.", e);
         }
     }
+
+    private ObjectSource open(Path file) throws IOException {
+        BufferedInputStream stream = new BufferedInputStream(Files.newInputStream(file));
+        try {
+            stream.mark(2);
+            boolean isJavaSerialization = stream.read() == 0xAC && stream.read() == 0xED;
+            stream.reset();
+
+            if (isJavaSerialization) {
+                ObjectInputStream objectStream = new ObjectInputStream(stream);
+                return new ObjectSource() {
+                    @Override
+                    public Object readObject() throws IOException, ClassNotFoundException {
+                        return objectStream.readObject();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        objectStream.close();
+                    }
+                };
+            } else {
+                ModelObjectInputStream objectStream = new ModelObjectInputStream(stream);
+                return new ObjectSource() {
+                    @Override
+                    public Object readObject() throws IOException {
+                        return objectStream.readObject();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        objectStream.close();
+                    }
+                };
+            }
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    private interface ObjectSource extends Closeable {
+        Object readObject() throws IOException, ClassNotFoundException;
+    }
 }
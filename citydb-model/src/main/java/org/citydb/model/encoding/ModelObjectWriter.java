@@ -13,10 +13,7 @@ import org.citydb.model.walker.ModelWalker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.UncheckedIOException;
+import java.io.*;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -50,10 +47,22 @@ public class ModelObjectWriter {
     public void write(List<Child> objects, Path file) throws IOException {
         file = file.toAbsolutePath().normalize();
         helper.ensureCreated(file.getParent());
-        try (ObjectOutputStream stream = new ObjectOutputStream(new BufferedOutputStream(
+        try (ModelObjectOutputStream stream = new ModelObjectOutputStream(new BufferedOutputStream(
                 Files.newOutputStream(file)))) {
-            for (Child object : objects) {
-                writeObject(object, stream, file.getParent());
+            write(objects, stream, file.getParent());
+        }
+    }
+
+    public void write(Child object, ModelObjectOutputStream stream, Path baseDir) throws IOException {
+        write(Collections.singletonList(object), stream, baseDir);
+    }
+
+    public void write(List<Child> objects, ModelObjectOutputStream stream, Path baseDir) throws IOException {
+        baseDir = prepare(baseDir);
+        for (Child object : objects) {
+            process(object, baseDir);
+            synchronized (lock) {
+                stream.writeObject(object);
             }
         }
     }
@@ -63,14 +72,22 @@ public class ModelObjectWriter {
     }
 
     public void write(List<Child> objects, ObjectOutputStream stream, Path baseDir) throws IOException {
-        baseDir = baseDir.toAbsolutePath().normalize();
-        helper.ensureCreated(baseDir);
+        baseDir = prepare(baseDir);
         for (Child object : objects) {
-            writeObject(object, stream, baseDir);
+            process(object, baseDir);
+            synchronized (lock) {
+                stream.writeUnshared(object);
+            }
         }
     }
 
-    private void writeObject(Child object, ObjectOutputStream stream, Path baseDir) throws IOException {
+    private Path prepare(Path baseDir) throws IOException {
+        baseDir = baseDir.toAbsolutePath().normalize();
+        helper.ensureCreated(baseDir);
+        return baseDir;
+    }
+
+    private void process(Child object, Path baseDir) throws IOException {
         if (object instanceof Visitable visitable) {
             try {
                 visitable.accept(new Processor(baseDir, helper));
@@ -78,10 +95,6 @@ public class ModelObjectWriter {
                 throw new IOException(e.getMessage(), e.getCause());
             }
         }
-
-        synchronized (lock) {
-            stream.writeUnshared(object);
-        }
     }
 
     private static class Processor extends ModelWalker {
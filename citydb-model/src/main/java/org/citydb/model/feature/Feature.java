@@ -471,6 +471,7 @@ public class Feature extends Child implements Identifiable, Visitable, Describab
         feature.attributes = copy(attributes, feature, session);
         feature.geometries = copy(geometries, feature, session);
         feature.implicitGeometries = copy(implicitGeometries, feature, session);
+        feature.features = copy(features, feature, session);
         feature.appearances = copy(appearances, feature, session);
         feature.addresses = copy(addresses, feature, session);
         feature.descriptor = descriptor != null ? descriptor.copy() : null;
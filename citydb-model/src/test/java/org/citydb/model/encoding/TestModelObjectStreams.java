@@ -0,0 +1,313 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.model.encoding;
+
+import org.citydb.model.appearance.*;
+import org.citydb.model.change.TransactionType;
+import org.citydb.model.common.*;
+import org.citydb.model.feature.Feature;
+import org.citydb.model.feature.FeatureDescriptor;
+import org.citydb.model.feature.FeatureType;
+import org.citydb.model.geometry.*;
+import org.citydb.model.property.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestModelObjectStreams {
+    private static final OffsetDateTime CREATION_DATE = OffsetDateTime.of(2024, 5, 17, 10, 30, 15, 500, ZoneOffset.ofHours(2));
+
+    @Test
+    @DisplayName("Round trip of a feature with nested features, implicit geometries and appearances")
+    public void testFeatureRoundTrip() throws IOException {
+        Feature feature = createBuilding();
+        Feature copy = (Feature) roundTrip(feature).get(0);
+
+        assertEquals(FeatureType.BUILDING.getName(), copy.getFeatureType());
+        assertEquals("building", copy.getObjectId().orElse(null));
+        assertEquals(CREATION_DATE, copy.getCreationDate().orElse(null));
+        assertTrue(copy.getTerminationDate().isEmpty());
+        assertEquals(42, copy.getDescriptor().map(FeatureDescriptor::getSequenceId).orElse(-1L));
+
+        Envelope envelope = copy.getEnvelope().orElseThrow();
+        assertSame(copy, envelope.getParent().orElse(null));
+        assertEquals(Integer.valueOf(25832), envelope.getSRID().orElse(null));
+
+        Attribute attribute = copy.getAttributes().getFirst(Name.of("height", Namespaces.CORE)).orElseThrow();
+        assertEquals(Long.valueOf(12), attribute.getIntValue().orElse(null));
+        assertEquals("m", attribute.getUom().orElse(null));
+        assertEquals(DataType.INTEGER.getName(), attribute.getDataType().orElse(null));
+        assertEquals(List.of(true, 1, 2L, 3.5, "four"), attribute.getArrayValue().orElseThrow().getValues().stream()
+                .map(Value::rawValue)
+                .toList());
+        Attribute nested = attribute.getProperties().getFirst(PrefixedName.of("gen:nested"), Attribute.class)
+                .orElseThrow();
+        assertEquals("gen", ((PrefixedName) nested.getName()).getPrefix().orElse(null));
+        assertSame(attribute, nested.getParent().orElse(null));
+
+        Solid solid = (Solid) copy.getGeometries().getFirst(Name.of("lod2Solid", Namespaces.BUILDING))
+                .orElseThrow()
+                .getObject();
+        Polygon roof = solid.getShell().getPolygons().get(0);
+        assertEquals(Integer.valueOf(25832), roof.getSRID().orElse(null));
+        assertEquals(Integer.valueOf(4326), solid.getShell().getPolygons().get(1).getSRID().orElse(null));
+        assertTrue(roof.isReversed());
+        assertEquals(1, roof.getInteriorRings().size());
+        assertSame(roof, roof.getExteriorRing().getParent().orElse(null));
+        assertSame(solid.getShell(), roof.getParent().orElse(null));
+        assertSame(copy, solid.getParent(Feature.class));
+
+        Feature part = copy.getFeatures().getFirst(Name.of("buildingPart", Namespaces.BUILDING))
+                .flatMap(FeatureProperty::getObject)
+                .orElseThrow();
+        assertSame(copy, part.getParent(Feature.class));
+        assertEquals(RelationType.CONTAINS, copy.getFeatures().getAll().get(0).getRelationType());
+        Polygon wall = ((MultiSurface) part.getGeometries().getAll().get(0).getObject()).getPolygons().get(0);
+
+        ImplicitGeometry template = part.getImplicitGeometries().getAll().get(0).getObject().orElseThrow();
+        assertSame(template, copy.getImplicitGeometries().getAll().get(0).getObject().orElse(null));
+        assertEquals(16, part.getImplicitGeometries().getAll().get(0).getTransformationMatrix()
+                .orElseThrow()
+                .toRowMajor()
+                .size());
+        Polygon templatePolygon = ((MultiSurface) template.getGeometry().orElseThrow()).getPolygons().get(0);
+
+        Appearance appearance = copy.getAppearances().getAll().get(0).getObject();
+        ParameterizedTexture texture = (ParameterizedTexture) appearance.getSurfaceData().get(0)
+                .getObject()
+                .orElseThrow();
+        assertEquals(TextureType.SPECIFIC, texture.getTextureType().orElse(null));
+        assertEquals(WrapMode.MIRROR, texture.getWrapMode().orElse(null));
+        assertEquals("http://example.org/wall.png", texture.getTextureImage()
+                .flatMap(ExternalFile::getURI)
+                .orElse(null));
+        assertEquals(List.of(0.5f, 0.25f), texture.getTextureCoordinates(wall.getExteriorRing()).stream()
+                .flatMap(coordinate -> Stream.of(coordinate.getS(), coordinate.getT()))
+                .toList());
+        assertNotNull(texture.getWorldToTextureMapping(roof));
+        assertEquals(2, texture.getTextureCoordinates().size());
+
+        X3DMaterial material = (X3DMaterial) appearance.getSurfaceData().get(1).getObject().orElseThrow();
+        assertEquals(List.of(wall, roof), material.getTargets());
+        assertEquals(0.2, material.getDiffuseColor().orElseThrow().getGreen());
+        assertTrue(material.isFront().isEmpty());
+        assertEquals(Boolean.TRUE, material.getIsSmooth().orElse(null));
+        assertEquals("material", appearance.getSurfaceData().get(2).getReference().orElse(null));
+
+        X3DMaterial templateMaterial = (X3DMaterial) template.getAppearances().getAll().get(0)
+                .getObject()
+                .getSurfaceData().get(0)
+                .getObject()
+                .orElseThrow();
+        assertEquals(List.of(templatePolygon), templateMaterial.getTargets());
+    }
+
+    @Test
+    @DisplayName("User properties keep shared references, cycles and collection types")
+    public void testUserProperties() throws IOException {
+        Feature feature = createBuilding();
+        Feature part = feature.getFeatures().getAll().get(0).getObject().orElseThrow();
+        List<Object> shared = new LinkedList<>(List.of("a", 1));
+        Map<String, Object> map = new TreeMap<>(Map.of("b", 2L, "a", OffsetDateTime.MIN));
+        map.put("self", map);
+
+        feature.getUserProperties()
+                .set("part", part)
+                .set("shared", shared)
+                .set("map", map)
+                .set("set", new LinkedHashSet<>(List.of("z", "y")))
+                .set("immutable", List.of(1, 2))
+                .set("type", TransactionType.UPDATE)
+                .set("name", Name.of("foo", "bar"));
+        part.getUserProperties()
+                .set("root", feature)
+                .set("shared", shared)
+                .set("outside", LineString.of(List.of(Coordinate.of(1, 2), Coordinate.of(3, 4))));
+
+        Feature copy = (Feature) roundTrip(feature).get(0);
+        Feature partCopy = copy.getFeatures().getAll().get(0).getObject().orElseThrow();
+
+        assertSame(partCopy, copy.getUserProperties().get("part"));
+        assertSame(copy, partCopy.getUserProperties().get("root"));
+        assertSame(copy.getUserProperties().get("shared"), partCopy.getUserProperties().get("shared"));
+        assertInstanceOf(LinkedList.class, copy.getUserProperties().get("shared"));
+        assertEquals(shared, copy.getUserProperties().get("shared"));
+
+        Map<?, ?> mapCopy = copy.getUserProperties().get("map", Map.class);
+        assertInstanceOf(TreeMap.class, mapCopy);
+        assertSame(mapCopy, mapCopy.get("self"));
+        assertEquals(List.of("a", "b", "self"), new ArrayList<>(mapCopy.keySet()));
+        assertEquals(OffsetDateTime.MIN, mapCopy.get("a"));
+
+        assertEquals(List.of("z", "y"), new ArrayList<>(copy.getUserProperties().get("set", Set.class)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> copy.getUserProperties().get("immutable", List.class).add(3));
+        assertSame(TransactionType.UPDATE, copy.getUserProperties().get("type"));
+        assertEquals(Name.of("foo", "bar"), copy.getUserProperties().get("name"));
+        assertEquals(2, partCopy.getUserProperties().get("outside", LineString.class).getPoints().size());
+    }
+
+    @Test
+    @DisplayName("Several objects per stream are read independently")
+    public void testMultipleObjects() throws IOException {
+        Feature first = createBuilding();
+        Feature second = Feature.of(FeatureType.BUILDING).setObjectId("second");
+        second.getUserProperties().set("value", "building");
+
+        List<Object> objects = roundTrip(first, second, null, "text");
+        assertEquals(4, objects.size());
+        assertEquals("building", ((Feature) objects.get(0)).getObjectId().orElse(null));
+        assertEquals("second", ((Feature) objects.get(1)).getObjectId().orElse(null));
+        assertEquals("building", ((Feature) objects.get(1)).getUserProperties().get("value"));
+        assertNull(objects.get(2));
+        assertEquals("text", objects.get(3));
+    }
+
+    @Test
+    @DisplayName("Unsupported values and foreign appearance targets are rejected")
+    public void testUnsupportedValues() {
+        Feature feature = Feature.of(FeatureType.BUILDING);
+        feature.getUserProperties().set("value", new StringBuilder());
+        assertThrows(NotSerializableException.class, () -> roundTrip(feature));
+
+        Feature other = Feature.of(FeatureType.BUILDING);
+        other.getUserProperties().set("value", new ArrayList<>(List.of(1)).subList(0, 1));
+        assertThrows(NotSerializableException.class, () -> roundTrip(other));
+
+        Polygon polygon = createPolygon(0, false);
+        MultiSurface.of(polygon);
+        Feature source = Feature.of(FeatureType.BUILDING)
+                .addAppearance(AppearanceProperty.of(Name.of("appearance", Namespaces.APPEARANCE),
+                        Appearance.newInstance().addSurfaceData(SurfaceDataProperty.of(
+                                X3DMaterial.newInstance().addTarget(polygon)))));
+        assertThrows(NotSerializableException.class, () -> roundTrip(source));
+    }
+
+    @Test
+    @DisplayName("ModelObjectReader reads both the binary format and Java serialization")
+    public void testWriterAndReader(@TempDir Path tempDir) throws IOException {
+        ModelObjectWriter writer = ModelObjectWriter.newInstance();
+        Path binary = tempDir.resolve("features.bin");
+        writer.write(List.<Child>of(createBuilding(), Feature.of(FeatureType.BUILDING)), binary);
+
+        List<Feature> features = ModelObjectReader.newInstance().read(binary, Feature.class);
+        assertEquals(2, features.size());
+        assertEquals("building", features.get(0).getObjectId().orElse(null));
+
+        Path serialized = tempDir.resolve("features.ser");
+        try (ObjectOutputStream stream = new ObjectOutputStream(Files.newOutputStream(serialized))) {
+            writer.write(createBuilding(), stream, tempDir);
+        }
+
+        features = ModelObjectReader.newInstance().read(serialized, Feature.class);
+        assertEquals(1, features.size());
+        assertEquals("building", features.get(0).getObjectId().orElse(null));
+    }
+
+    private List<Object> roundTrip(Object... objects) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ModelObjectOutputStream stream = new ModelObjectOutputStream(bytes)) {
+            for (Object object : objects) {
+                stream.writeObject(object);
+            }
+        }
+
+        List<Object> result = new ArrayList<>();
+        try (ModelObjectInputStream stream = new ModelObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (int i = 0; i < objects.length; i++) {
+                result.add(stream.readObject());
+            }
+
+            assertThrows(EOFException.class, stream::readObject);
+        }
+
+        return result;
+    }
+
+    private Feature createBuilding() {
+        Polygon roof = createPolygon(10, true);
+        Polygon ground = createPolygon(0, false).setSRID(4326);
+        Solid solid = Solid.of(CompositeSurface.of(roof, ground)).setObjectId("solid");
+
+        Polygon wall = createPolygon(5, false);
+        Feature part = Feature.of(FeatureType.BUILDING_PART)
+                .setObjectId("part")
+                .addGeometry(GeometryProperty.of(Name.of("lod2MultiSurface", Namespaces.BUILDING),
+                        MultiSurface.of(wall)).setLod(2));
+
+        Polygon templatePolygon = createPolygon(0, false);
+        ImplicitGeometry template = ImplicitGeometry.of(MultiSurface.of(templatePolygon))
+                .addAppearance(AppearanceProperty.of(Name.of("appearance", Namespaces.APPEARANCE),
+                        Appearance.of("rgb").addSurfaceData(SurfaceDataProperty.of(
+                                X3DMaterial.newInstance().addTarget(templatePolygon)))));
+        part.addImplicitGeometry(ImplicitGeometryProperty.of(Name.of("lod1ImplicitRepresentation",
+                        Namespaces.CORE), template)
+                .setTransformationMatrix(Matrix4x4.identity())
+                .setReferencePoint(Point.of(Coordinate.of(1, 2, 3))));
+
+        ParameterizedTexture texture = ParameterizedTexture.newInstance()
+                .setTextureImage(ExternalFile.of("http://example.org/wall.png").setMimeType("image/png"))
+                .setTextureType(TextureType.SPECIFIC)
+                .setWrapMode(WrapMode.MIRROR)
+                .setIsFront(true)
+                .addTextureCoordinates(wall.getExteriorRing(), List.of(TextureCoordinate.of(0.5f, 0.25f)))
+                .addTextureCoordinates(roof.getInteriorRings().get(0), List.of(TextureCoordinate.of(1f, 1f)))
+                .addWorldToTextureMapping(roof, Matrix3x4.identity());
+        X3DMaterial material = X3DMaterial.newInstance()
+                .setObjectId("material")
+                .setDiffuseColor(Color.of(0.1, 0.2, 0.3, 1.0))
+                .setIsSmooth(true)
+                .addTarget(wall)
+                .addTarget(roof);
+
+        Feature building = Feature.of(FeatureType.BUILDING)
+                .setObjectId("building")
+                .setCreationDate(CREATION_DATE)
+                .setEnvelope(Envelope.of(Coordinate.of(0, 0, 0), Coordinate.of(10, 10, 10)).setSRID(25832))
+                .setDescriptor(FeatureDescriptor.of(1, 901).setSequenceId(42))
+                .addAttribute(Attribute.of(Name.of("height", Namespaces.CORE), DataType.INTEGER)
+                        .setIntValue(12)
+                        .setUom("m")
+                        .setArrayValue(ArrayValue.of(List.of(Value.of(true), Value.of(1), Value.of(2L),
+                                Value.of(3.5), Value.of("four"))))
+                        .addProperty(Attribute.of(PrefixedName.of("gen:nested"), DataType.STRING)
+                                .setStringValue("nested")))
+                .addGeometry(GeometryProperty.of(Name.of("lod2Solid", Namespaces.BUILDING), solid))
+                .addImplicitGeometry(ImplicitGeometryProperty.of(Name.of("lod1ImplicitRepresentation",
+                        Namespaces.CORE), template))
+                .addFeature(FeatureProperty.of(Name.of("buildingPart", Namespaces.BUILDING), part,
+                        RelationType.CONTAINS))
+                .addAppearance(AppearanceProperty.of(Name.of("appearance", Namespaces.APPEARANCE),
+                        Appearance.of("rgb")
+                                .addSurfaceData(SurfaceDataProperty.of(texture))
+                                .addSurfaceData(SurfaceDataProperty.of(material))
+                                .addSurfaceData(SurfaceDataProperty.of("material"))));
+
+        // the template is shared by the building and its part and is attached to the part
+        part.getImplicitGeometries().getAll().get(0).setObject(template);
+        return building;
+    }
+
+    private Polygon createPolygon(double z, boolean withInteriorRing) {
+        LinearRing exterior = LinearRing.of(List.of(Coordinate.of(0, 0, z), Coordinate.of(10, 0, z),
+                Coordinate.of(10, 10, z), Coordinate.of(0, 0, z)));
+        return withInteriorRing
+                ? Polygon.of(exterior, List.of(LinearRing.of(List.of(Coordinate.of(1, 1, z),
+                Coordinate.of(2, 1, z), Coordinate.of(2, 2, z), Coordinate.of(1, 1, z)))), true)
+                : Polygon.of(exterior);
+    }
+}
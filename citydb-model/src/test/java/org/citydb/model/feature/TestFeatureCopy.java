@@ -0,0 +1,37 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.model.feature;
+
+import org.citydb.model.common.Name;
+import org.citydb.model.common.Namespaces;
+import org.citydb.model.property.FeatureProperty;
+import org.citydb.model.property.RelationType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFeatureCopy {
+
+    @Test
+    @DisplayName("Copy of a feature with nested features")
+    public void testNestedFeatures() {
+        Name name = Name.of("buildingPart", Namespaces.BUILDING);
+        Feature part = Feature.of(FeatureType.BUILDING_PART).setObjectId("part");
+        Feature building = Feature.of(FeatureType.BUILDING).setObjectId("building");
+        building.addFeature(FeatureProperty.of(name, part, RelationType.CONTAINS));
+
+        Feature copy = building.copy();
+        FeatureProperty property = copy.getFeatures().getFirst(name).orElseThrow();
+        Feature partCopy = property.getObject().orElseThrow();
+
+        assertNotSame(part, partCopy);
+        assertEquals("part", partCopy.getObjectId().orElse(null));
+        assertSame(copy, property.getParent().orElse(null));
+        assertSame(property, partCopy.getParent().orElse(null));
+        assertEquals(1, building.getFeatures().getAll().size());
+    }
+}
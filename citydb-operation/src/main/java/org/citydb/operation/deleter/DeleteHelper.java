@@ -46,6 +46,10 @@ public class DeleteHelper {
                 : 0;
     }
 
+    public static DeleteHelper of(DatabaseAdapter adapter, Connection connection, DeleteOptions options) {
+        return new DeleteHelper(adapter, connection, options, null, Deleter.TransactionMode.NO_COMMIT);
+    }
+
     public DatabaseAdapter getAdapter() {
         return adapter;
     }
@@ -28,6 +28,7 @@ public class DeleteOptions {
 
     @JSONField(serialize = false, deserialize = false)
     private int numberOfThreads;
+    private boolean useVirtualThreads;
 
     public DeleteMode getMode() {
         return mode != null ? mode : DeleteMode.TERMINATE;
@@ -100,4 +101,13 @@ public class DeleteOptions {
         this.numberOfThreads = numberOfThreads;
         return this;
     }
+
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public DeleteOptions setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
 }
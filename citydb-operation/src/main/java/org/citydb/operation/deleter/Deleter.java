@@ -5,6 +5,7 @@
 
 package org.citydb.operation.deleter;
 
+import org.citydb.core.concurrent.ContextPool;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.database.adapter.DatabaseAdapter;
@@ -22,7 +23,7 @@ import java.util.concurrent.ExecutorService;
 public class Deleter {
     private ExecutorService service;
     private Connection connection;
-    private ThreadLocal<DeleteHelper> contexts;
+    private ContextPool<DeleteHelper> contexts;
     private Set<DeleteHelper> helpers;
     private DeleteLogger logger;
     private CountLatch countLatch;
@@ -95,10 +96,10 @@ public class Deleter {
         helpers = ConcurrentHashMap.newKeySet();
         service = ExecutorHelper.newFixedAndBlockingThreadPool(options.getNumberOfThreads() > 0
                 ? options.getNumberOfThreads()
-                : 1);
+                : 1, options.isUseVirtualThreads());
 
         countLatch = new CountLatch();
-        contexts = ThreadLocal.withInitial(() -> {
+        contexts = ContextPool.of(() -> {
             try {
                 DeleteHelper helper = new DeleteHelper(adapter, connection, options, logger, transactionMode);
                 helpers.add(helper);
@@ -120,13 +121,16 @@ public class Deleter {
             if (state == State.SESSION_STARTED) {
                 countLatch.increment();
                 service.execute(() -> {
+                    DeleteHelper helper = null;
                     try {
-                        contexts.get().deleteFeature(id);
+                        helper = contexts.acquire();
+                        helper.deleteFeature(id);
                         result.complete(true);
                     } catch (Throwable e) {
                         shouldRun = false;
                         result.completeExceptionally(e);
                     } finally {
+                        contexts.release(helper);
                         countLatch.decrement();
                     }
                 });
@@ -39,6 +39,7 @@ public class ExportHelper {
     private final LodFilter lodFilter;
     private final Postprocessor postprocessor;
     private final TableHelper tableHelper;
+    private final ImplicitGeometryCache implicitGeometryCache;
     private final SurfaceDataMapper surfaceDataMapper = new SurfaceDataMapper();
     private final Set<String> featureIdCache = new HashSet<>();
     private final Set<String> surfaceDataIdCache = new HashSet<>();
@@ -46,9 +47,11 @@ public class ExportHelper {
     private final Set<String> addressIdCache = new HashSet<>();
     private final Set<String> externalFileIdCache = new HashSet<>();
 
-    ExportHelper(DatabaseAdapter adapter, ExportOptions options) throws SQLException, SrsException {
+    ExportHelper(DatabaseAdapter adapter, ExportOptions options, ImplicitGeometryCache implicitGeometryCache)
+            throws SQLException, SrsException {
         this.adapter = adapter;
         this.options = options;
+        this.implicitGeometryCache = implicitGeometryCache;
 
         connection = adapter.getPool().getConnection();
         schemaMapping = adapter.getSchemaAdapter().getSchemaMapping();
@@ -92,6 +95,10 @@ public class ExportHelper {
         return tableHelper;
     }
 
+    public ImplicitGeometryCache getImplicitGeometryCache() {
+        return implicitGeometryCache;
+    }
+
     public OperationHelper getOperationHelper() {
         return adapter.getSchemaAdapter().getOperationHelper();
     }
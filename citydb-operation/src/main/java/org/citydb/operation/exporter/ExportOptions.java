@@ -17,10 +17,13 @@ import org.citydb.model.encoding.Matrix3x4Writer;
 import org.citydb.operation.exporter.options.AppearanceOptions;
 import org.citydb.operation.exporter.options.LodOptions;
 import org.citydb.operation.exporter.options.ValidityOptions;
+import org.citydb.operation.exporter.util.ImplicitGeometryCache;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @SerializableConfig(name = "exportOptions")
@@ -30,6 +33,7 @@ public class ExportOptions {
             () -> new RegularOutputFile(Files.createTempDirectory("citydb-").resolve("output.tmp")));
 
     private int numberOfThreads;
+    private boolean useVirtualThreads;
     private boolean useAbsoluteResourcePaths;
     private SrsReference targetSrs;
     @JSONField(serializeUsing = Matrix3x4Writer.class, deserializeUsing = Matrix3x4Reader.class)
@@ -37,9 +41,12 @@ public class ExportOptions {
     private ValidityOptions validityOptions;
     private LodOptions lodOptions;
     private AppearanceOptions appearanceOptions;
+    private int implicitGeometryCacheSize = ImplicitGeometryCache.DEFAULT_CACHE_SIZE;
 
     @JSONField(serialize = false, deserialize = false)
     private OutputFile outputFile;
+    @JSONField(serialize = false, deserialize = false)
+    private List<OutputFile> additionalOutputFiles;
 
     public int getNumberOfThreads() {
         return numberOfThreads;
@@ -50,6 +57,15 @@ public class ExportOptions {
         return this;
     }
 
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public ExportOptions setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
     public boolean isUseAbsoluteResourcePaths() {
         return useAbsoluteResourcePaths;
     }
@@ -104,6 +120,15 @@ public class ExportOptions {
         return this;
     }
 
+    public int getImplicitGeometryCacheSize() {
+        return implicitGeometryCacheSize;
+    }
+
+    public ExportOptions setImplicitGeometryCacheSize(int implicitGeometryCacheSize) {
+        this.implicitGeometryCacheSize = implicitGeometryCacheSize;
+        return this;
+    }
+
     public OutputFile getOutputFile() {
         if (outputFile == null) {
             try {
@@ -121,6 +146,15 @@ public class ExportOptions {
         return this;
     }
 
+    public List<OutputFile> getAdditionalOutputFiles() {
+        return additionalOutputFiles != null ? additionalOutputFiles : Collections.emptyList();
+    }
+
+    public ExportOptions setAdditionalOutputFiles(List<OutputFile> additionalOutputFiles) {
+        this.additionalOutputFiles = additionalOutputFiles;
+        return this;
+    }
+
     public ExportOptions setOutputDirectory(Path outputDirectory) {
         outputFile = new RegularOutputFile(outputDirectory.resolve("output.tmp"));
         return this;
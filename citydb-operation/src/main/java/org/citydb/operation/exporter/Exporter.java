@@ -5,12 +5,14 @@
 
 package org.citydb.operation.exporter;
 
+import org.citydb.core.concurrent.ContextPool;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
-import org.citydb.core.function.CheckedSupplier;
+import org.citydb.core.function.CheckedFunction;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.model.feature.Feature;
 import org.citydb.model.geometry.ImplicitGeometry;
+import org.citydb.operation.exporter.util.ImplicitGeometryCache;
 
 import java.util.Objects;
 import java.util.Set;
@@ -20,8 +22,9 @@ import java.util.concurrent.ExecutorService;
 
 public class Exporter {
     private ExecutorService service;
-    private ThreadLocal<ExportHelper> contexts;
+    private ContextPool<ExportHelper> contexts;
     private Set<ExportHelper> helpers;
+    private ImplicitGeometryCache implicitGeometryCache;
     private CountLatch countLatch;
 
     private volatile State state = State.SESSION_NOT_STARTED;
@@ -59,12 +62,13 @@ public class Exporter {
         helpers = ConcurrentHashMap.newKeySet();
         service = ExecutorHelper.newFixedAndBlockingThreadPool(options.getNumberOfThreads() > 0
                 ? options.getNumberOfThreads()
-                : Math.max(2, Runtime.getRuntime().availableProcessors()), 1000);
+                : Math.max(2, Runtime.getRuntime().availableProcessors()), 1000, options.isUseVirtualThreads());
 
+        implicitGeometryCache = ImplicitGeometryCache.newInstance(options.getImplicitGeometryCacheSize());
         countLatch = new CountLatch();
-        contexts = ThreadLocal.withInitial(() -> {
+        contexts = ContextPool.of(() -> {
             try {
-                ExportHelper helper = new ExportHelper(adapter, options);
+                ExportHelper helper = new ExportHelper(adapter, options, implicitGeometryCache);
                 helpers.add(helper);
                 return helper;
             } catch (Exception e) {
@@ -83,25 +87,28 @@ public class Exporter {
     }
 
     public CompletableFuture<Feature> exportFeature(long id, long sequenceId) {
-        return doExport(() -> contexts.get().exportFeature(id, sequenceId));
+        return doExport(helper -> helper.exportFeature(id, sequenceId));
     }
 
     public CompletableFuture<ImplicitGeometry> exportImplicitGeometry(long id) {
-        return doExport(() -> contexts.get().exportImplicitGeometry(id));
+        return doExport(helper -> helper.exportImplicitGeometry(id));
     }
 
-    private <T> CompletableFuture<T> doExport(CheckedSupplier<T, Throwable> supplier) {
+    private <T> CompletableFuture<T> doExport(CheckedFunction<ExportHelper, T, Throwable> function) {
         CompletableFuture<T> result = new CompletableFuture<>();
         if (shouldRun) {
             if (state == State.SESSION_STARTED) {
                 countLatch.increment();
                 service.execute(() -> {
+                    ExportHelper helper = null;
                     try {
-                        result.complete(supplier.get());
+                        helper = contexts.acquire();
+                        result.complete(function.apply(helper));
                     } catch (Throwable e) {
                         shouldRun = false;
                         result.completeExceptionally(e);
                     } finally {
+                        contexts.release(helper);
                         countLatch.decrement();
                     }
                 });
@@ -131,6 +138,7 @@ public class Exporter {
             shouldRun = false;
             throw new ExportException("Failed to close export session.", e);
         } finally {
+            implicitGeometryCache.clear();
             service.shutdown();
         }
     }
@@ -22,11 +22,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class BlobExporter {
     private final OutputFile outputFile;
+    private final List<OutputFile> additionalOutputFiles;
     private final SchemaAdapter schemaAdapter;
     private final int batchSize;
     private final PreparedStatement stmt;
@@ -34,6 +36,7 @@ public class BlobExporter {
 
     public BlobExporter(Table table, String idColumn, String blobColumn, ExportHelper helper) throws SQLException {
         outputFile = helper.getOptions().getOutputFile();
+        additionalOutputFiles = helper.getOptions().getAdditionalOutputFiles();
         schemaAdapter = helper.getAdapter().getSchemaAdapter();
         batchSize = Math.min(100, schemaAdapter.getMaximumNumberOfItemsForInOperator());
         stmt = helper.getConnection().prepareStatement(getQuery(table, idColumn, blobColumn).toSql());
@@ -64,8 +67,8 @@ public class BlobExporter {
                         ExternalFile externalFile = batches.get(rs.getLong(1));
                         byte[] buffer = rs.getBytes(2);
                         if (buffer != null && buffer.length > 0) {
-                            try (OutputStream out = openStream(externalFile)) {
-                                out.write(buffer);
+                            try {
+                                write(buffer, externalFile);
                             } catch (Exception e) {
                                 throw new ExportException("Failed to export file '" +
                                         externalFile.getFileLocation() + "'.", e);
@@ -79,11 +82,24 @@ public class BlobExporter {
         }
     }
 
-    private OutputStream openStream(ExternalFile target) throws IOException {
+    private void write(byte[] buffer, ExternalFile target) throws IOException {
         Optional<Path> path = target.getPath();
-        return path.isPresent()
-                ? Files.newOutputStream(path.get())
-                : outputFile.newOutputStream(outputFile.resolve(target.getFileLocation()));
+        if (path.isPresent()) {
+            try (OutputStream out = Files.newOutputStream(path.get())) {
+                out.write(buffer);
+            }
+        } else {
+            write(buffer, target, outputFile);
+            for (OutputFile additionalOutputFile : additionalOutputFiles) {
+                write(buffer, target, additionalOutputFile);
+            }
+        }
+    }
+
+    private void write(byte[] buffer, ExternalFile target, OutputFile outputFile) throws IOException {
+        try (OutputStream out = outputFile.newOutputStream(outputFile.resolve(target.getFileLocation()))) {
+            out.write(buffer);
+        }
     }
 
     public void close() throws ExportException, SQLException {
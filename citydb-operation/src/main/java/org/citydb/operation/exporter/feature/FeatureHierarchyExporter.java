@@ -5,6 +5,9 @@
 
 package org.citydb.operation.exporter.feature;
 
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
+import org.citydb.database.util.FeatureHierarchyFilter;
 import org.citydb.model.feature.Feature;
 import org.citydb.operation.exporter.ExportException;
 import org.citydb.operation.exporter.ExportHelper;
@@ -15,19 +18,30 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class FeatureHierarchyExporter extends DatabaseExporter {
+    private final Timer queryTimer = MetricRegistry.getInstance().timer("export.hierarchy.query");
+    private final Timer buildTimer = MetricRegistry.getInstance().timer("export.hierarchy.build");
 
     public FeatureHierarchyExporter(ExportHelper helper) throws SQLException {
         super(helper);
-        stmt = helper.getConnection().prepareStatement(adapter.getSchemaAdapter().getFeatureHierarchyQuery());
+        FeatureHierarchyFilter filter = FeatureHierarchyFilter.newInstance();
+        if (adapter.getSchemaAdapter().supportsFeatureHierarchyFilter()) {
+            helper.getLodFilter().applyTo(filter);
+            helper.getValidityFilter().applyTo(filter);
+        }
+        stmt = helper.getConnection().prepareStatement(adapter.getSchemaAdapter().getFeatureHierarchyQuery(filter));
     }
 
     public Feature doExport(long id) throws ExportException, SQLException {
         stmt.setLong(1, id);
+        Timer.Context queryContext = queryTimer.start();
         try (ResultSet rs = stmt.executeQuery()) {
-            return HierarchyBuilder.newInstance(id, helper)
-                    .initialize(rs)
-                    .build()
-                    .getFeature(id);
+            queryContext.stop();
+            try (Timer.Context ignored = buildTimer.start()) {
+                return HierarchyBuilder.newInstance(id, helper)
+                        .initialize(rs)
+                        .build()
+                        .getFeature(id);
+            }
         }
     }
 }
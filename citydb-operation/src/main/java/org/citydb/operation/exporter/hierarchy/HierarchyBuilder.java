@@ -5,7 +5,9 @@
 
 package org.citydb.operation.exporter.hierarchy;
 
+import org.citydb.model.appearance.AppearanceDescriptor;
 import org.citydb.model.feature.Feature;
+import org.citydb.model.geometry.ImplicitGeometry;
 import org.citydb.model.property.Attribute;
 import org.citydb.model.property.DataType;
 import org.citydb.model.property.Property;
@@ -20,8 +22,10 @@ import org.citydb.operation.exporter.geometry.ImplicitGeometryExporter;
 import org.citydb.operation.exporter.options.AppearanceOptions;
 import org.citydb.operation.exporter.property.PropertyExporter;
 import org.citydb.operation.exporter.property.PropertyStub;
+import org.citydb.operation.exporter.util.ImplicitGeometryCache;
 import org.citydb.operation.exporter.util.LodFilter;
 import org.citydb.operation.exporter.util.TableHelper;
+import org.citydb.operation.exporter.util.TemplateRegistrar;
 import org.citydb.operation.exporter.util.ValidityFilter;
 
 import java.sql.ResultSet;
@@ -34,6 +38,7 @@ public class HierarchyBuilder {
     private final ValidityFilter validityFilter;
     private final LodFilter lodFilter;
     private final TableHelper tableHelper;
+    private final ImplicitGeometryCache implicitGeometryCache;
     private final PropertyBuilder propertyBuilder;
     private final Hierarchy hierarchy = new Hierarchy();
     private final Map<Long, List<PropertyStub>> propertyStubs = new HashMap<>();
@@ -45,6 +50,7 @@ public class HierarchyBuilder {
         validityFilter = helper.getValidityFilter();
         lodFilter = helper.getLodFilter();
         tableHelper = helper.getTableHelper();
+        implicitGeometryCache = helper.getImplicitGeometryCache();
         propertyBuilder = new PropertyBuilder(helper);
         exportAppearances = helper.getOptions().getAppearanceOptions()
                 .orElseGet(AppearanceOptions::new)
@@ -72,8 +78,14 @@ public class HierarchyBuilder {
         Set<Long> propertyIds = new HashSet<>();
         Set<Long> featureIds = new HashSet<>();
         Map<Long, Integer> referees = new HashMap<>();
+        boolean readPrunedCount = lodFilter.isAppliedToQuery();
 
         while (rs.next() && propertyIds.add(rs.getLong("id"))) {
+            if (readPrunedCount) {
+                lodFilter.setPrunedGeometries(rs.getLong("pruned_count"));
+                readPrunedCount = false;
+            }
+
             long parentFeatureId = rs.getLong("feature_id");
             if (rs.wasNull()) {
                 continue;
@@ -151,6 +163,20 @@ public class HierarchyBuilder {
             }
         }
 
+        Set<ImplicitGeometry> cachedTemplates = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!implicitGeometryIds.isEmpty()) {
+            Iterator<Long> iterator = implicitGeometryIds.iterator();
+            while (iterator.hasNext()) {
+                long implicitGeometryId = iterator.next();
+                ImplicitGeometry implicitGeometry = implicitGeometryCache.get(implicitGeometryId);
+                if (implicitGeometry != null) {
+                    hierarchy.addImplicitGeometry(implicitGeometryId, implicitGeometry);
+                    cachedTemplates.add(implicitGeometry);
+                    iterator.remove();
+                }
+            }
+        }
+
         if (!geometryIds.isEmpty()) {
             tableHelper.getOrCreateExporter(GeometryExporter.class)
                     .doExport(geometryIds, false)
@@ -172,7 +198,21 @@ public class HierarchyBuilder {
         if (!implicitGeometryIds.isEmpty()) {
             tableHelper.getOrCreateExporter(ImplicitGeometryExporter.class)
                     .doExport(implicitGeometryIds, hierarchy.getAppearances().values())
-                    .forEach(hierarchy::addImplicitGeometry);
+                    .forEach((id, implicitGeometry) -> hierarchy.addImplicitGeometry(id,
+                            implicitGeometryCache.putAndCopy(id, implicitGeometry, helper)));
+        }
+
+        if (!cachedTemplates.isEmpty()) {
+            TemplateRegistrar registrar = TemplateRegistrar.of(helper);
+            hierarchy.getAppearances().values().stream()
+                    .filter(appearance -> appearance.getDescriptor()
+                            .map(AppearanceDescriptor::getImplicitGeometryId)
+                            .orElse(0L) == 0)
+                    .forEach(registrar::withAppearance);
+            hierarchy.getImplicitGeometries().values().stream()
+                    .filter(implicitGeometry -> !cachedTemplates.contains(implicitGeometry))
+                    .forEach(registrar::withTemplate);
+            cachedTemplates.forEach(registrar::register);
         }
     }
 
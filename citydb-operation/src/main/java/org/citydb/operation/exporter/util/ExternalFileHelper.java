@@ -14,8 +14,11 @@ import org.citydb.model.common.ExternalFile;
 import org.citydb.operation.exporter.ExportException;
 import org.citydb.operation.exporter.ExportHelper;
 
+import java.util.List;
+
 public class ExternalFileHelper {
     private final OutputFile outputFile;
+    private final List<OutputFile> additionalOutputFiles;
     private final boolean useAbsoluteResourcePaths;
     private String outputFolder;
     private String fileNamePrefix;
@@ -27,6 +30,7 @@ public class ExternalFileHelper {
 
     private ExternalFileHelper(ExportHelper helper) {
         outputFile = helper.getOptions().getOutputFile();
+        additionalOutputFiles = helper.getOptions().getAdditionalOutputFiles();
         useAbsoluteResourcePaths = helper.getOptions().isUseAbsoluteResourcePaths();
     }
 
@@ -74,6 +78,11 @@ public class ExternalFileHelper {
         if (path != null && !isCreated[index]) {
             try {
                 outputFile.createDirectories(path);
+                if (!useAbsoluteResourcePaths || outputFile.getFileType() == FileType.ARCHIVE) {
+                    for (OutputFile additionalOutputFile : additionalOutputFiles) {
+                        additionalOutputFile.createDirectories(path);
+                    }
+                }
                 isCreated[index] = true;
             } catch (Exception e) {
                 throw new ExportException("Failed to create output folder '" + path + "'.", e);
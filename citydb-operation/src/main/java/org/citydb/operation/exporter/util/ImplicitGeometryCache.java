@@ -0,0 +1,124 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.exporter.util;
+
+import org.citydb.core.metrics.Counter;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.model.appearance.Appearance;
+import org.citydb.model.appearance.ParameterizedTexture;
+import org.citydb.model.appearance.SurfaceDataProperty;
+import org.citydb.model.geometry.ImplicitGeometry;
+import org.citydb.model.geometry.LinearRing;
+import org.citydb.model.property.AppearanceProperty;
+import org.citydb.model.util.IdCreator;
+import org.citydb.model.walker.ModelWalker;
+import org.citydb.operation.exporter.ExportHelper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ImplicitGeometryCache {
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private final Map<Long, ImplicitGeometry> templates;
+    private final int maxSize;
+    private final Counter hits = MetricRegistry.getInstance().counter("export.implicit_geometry.cache.hits");
+    private final Counter misses = MetricRegistry.getInstance().counter("export.implicit_geometry.cache.misses");
+
+    private ImplicitGeometryCache(int maxSize) {
+        this.maxSize = maxSize;
+        templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ImplicitGeometry> eldest) {
+                return size() > ImplicitGeometryCache.this.maxSize;
+            }
+        };
+    }
+
+    public static ImplicitGeometryCache newInstance(int maxSize) {
+        return new ImplicitGeometryCache(Math.max(maxSize, 0));
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public ImplicitGeometry get(long id) {
+        if (isEnabled()) {
+            ImplicitGeometry template;
+            synchronized (templates) {
+                template = templates.get(id);
+            }
+
+            if (template != null) {
+                hits.increment();
+                return copy(template);
+            } else {
+                misses.increment();
+            }
+        }
+
+        return null;
+    }
+
+    public ImplicitGeometry putAndCopy(long id, ImplicitGeometry implicitGeometry, ExportHelper helper) {
+        if (isEnabled() && isCacheable(implicitGeometry)) {
+            new AppearanceHelper(helper).assignSurfaceData(implicitGeometry, helper.getSurfaceDataMapper());
+            return putAndCopy(id, implicitGeometry);
+        }
+
+        return implicitGeometry;
+    }
+
+    ImplicitGeometry putAndCopy(long id, ImplicitGeometry implicitGeometry) {
+        synchronized (templates) {
+            templates.put(id, implicitGeometry);
+        }
+
+        return copy(implicitGeometry);
+    }
+
+    private ImplicitGeometry copy(ImplicitGeometry template) {
+        ImplicitGeometry implicitGeometry = template.copy();
+        if (implicitGeometry.hasAppearances()) {
+            implicitGeometry.accept(new ModelWalker() {
+                @Override
+                public void visit(ParameterizedTexture texture) {
+                    if (texture.hasTextureCoordinates()) {
+                        for (LinearRing ring : texture.getTextureCoordinates().keySet()) {
+                            ring.setObjectId(IdCreator.getInstance().createId());
+                        }
+                    }
+                }
+            });
+        }
+
+        return implicitGeometry;
+    }
+
+    private boolean isCacheable(ImplicitGeometry implicitGeometry) {
+        if (implicitGeometry.hasAppearances()) {
+            for (AppearanceProperty property : implicitGeometry.getAppearances().getAll()) {
+                Appearance appearance = property.getObject();
+                if (appearance != null && appearance.hasSurfaceData()) {
+                    for (SurfaceDataProperty surfaceData : appearance.getSurfaceData()) {
+                        if (surfaceData.getObject().isEmpty()) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+}
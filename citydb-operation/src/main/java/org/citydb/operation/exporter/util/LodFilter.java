@@ -5,6 +5,7 @@
 
 package org.citydb.operation.exporter.util;
 
+import org.citydb.database.util.FeatureHierarchyFilter;
 import org.citydb.operation.exporter.options.LodMode;
 import org.citydb.operation.exporter.options.LodOptions;
 
@@ -20,6 +21,7 @@ public class LodFilter {
 
     private String targetLod;
     private boolean hasRemovedGeometry;
+    private boolean appliedToQuery;
 
     public LodFilter(LodOptions options) {
         Objects.requireNonNull(options, "The LoD filter options must not be null.");
@@ -50,6 +52,28 @@ public class LodFilter {
         }
     }
 
+    public void applyTo(FeatureHierarchyFilter filter) {
+        if (enabled && !requiresAvailableLods()) {
+            if (mode == LodMode.KEEP) {
+                filter.keepLods(lods);
+            } else {
+                filter.removeLods(lods);
+            }
+
+            appliedToQuery = true;
+        }
+    }
+
+    public boolean isAppliedToQuery() {
+        return appliedToQuery;
+    }
+
+    public void setPrunedGeometries(long count) {
+        if (count > 0) {
+            hasRemovedGeometry = true;
+        }
+    }
+
     boolean hasRemovedGeometry() {
         return hasRemovedGeometry;
     }
@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.exporter.util;
+
+import org.citydb.model.appearance.*;
+import org.citydb.model.common.ExternalFile;
+import org.citydb.model.geometry.ImplicitGeometry;
+import org.citydb.model.property.AppearanceProperty;
+import org.citydb.operation.exporter.ExportHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class TemplateRegistrar {
+    private final Predicate<SurfaceData<?>> surfaceDataLookup;
+    private final Predicate<ExternalFile> externalFileLookup;
+    private final Map<String, SurfaceData<?>> surfaceData = new HashMap<>();
+
+    TemplateRegistrar(Predicate<SurfaceData<?>> surfaceDataLookup, Predicate<ExternalFile> externalFileLookup) {
+        this.surfaceDataLookup = surfaceDataLookup;
+        this.externalFileLookup = externalFileLookup;
+    }
+
+    public static TemplateRegistrar of(ExportHelper helper) {
+        return new TemplateRegistrar(helper::lookupAndPut, helper::lookupAndPut);
+    }
+
+    public TemplateRegistrar withAppearance(Appearance appearance) {
+        if (appearance != null && appearance.hasSurfaceData()) {
+            for (SurfaceDataProperty property : appearance.getSurfaceData()) {
+                property.getObject().ifPresent(surfaceData -> surfaceData.getObjectId()
+                        .ifPresent(objectId -> this.surfaceData.putIfAbsent(objectId, surfaceData)));
+            }
+        }
+
+        return this;
+    }
+
+    public TemplateRegistrar withTemplate(ImplicitGeometry template) {
+        if (template.hasAppearances()) {
+            for (AppearanceProperty property : template.getAppearances().getAll()) {
+                withAppearance(property.getObject());
+            }
+        }
+
+        return this;
+    }
+
+    public void register(ImplicitGeometry template) {
+        if (template.hasAppearances()) {
+            for (AppearanceProperty appearanceProperty : template.getAppearances().getAll()) {
+                Appearance appearance = appearanceProperty.getObject();
+                if (appearance != null && appearance.hasSurfaceData()) {
+                    for (SurfaceDataProperty property : appearance.getSurfaceData()) {
+                        SurfaceData<?> surfaceData = property.getObject().orElse(null);
+                        if (surfaceData != null) {
+                            register(surfaceData, property);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void register(SurfaceData<?> surfaceData, SurfaceDataProperty property) {
+        if (surfaceDataLookup.test(surfaceData)) {
+            SurfaceData<?> existing = this.surfaceData.get(surfaceData.getObjectId().orElse(null));
+            if (existing != null && existing != surfaceData) {
+                merge(surfaceData, existing);
+            }
+
+            property.setReference(surfaceData);
+        } else {
+            surfaceData.getObjectId().ifPresent(objectId -> this.surfaceData.put(objectId, surfaceData));
+            if (surfaceData instanceof Texture<?> texture) {
+                texture.getTextureImage().ifPresent(externalFileLookup::test);
+            }
+        }
+    }
+
+    private void merge(SurfaceData<?> source, SurfaceData<?> target) {
+        if (source instanceof X3DMaterial material && target instanceof X3DMaterial existing) {
+            if (material.hasTargets()) {
+                material.getTargets().forEach(existing::addTarget);
+            }
+        } else if (source instanceof ParameterizedTexture texture
+                && target instanceof ParameterizedTexture existing) {
+            if (texture.hasTextureCoordinates()) {
+                texture.getTextureCoordinates().forEach(existing::addTextureCoordinates);
+            }
+
+            if (texture.hasWorldToTextureMappings()) {
+                texture.getWorldToTextureMappings().forEach(existing::addWorldToTextureMapping);
+            }
+        } else if (source instanceof GeoreferencedTexture texture
+                && target instanceof GeoreferencedTexture existing) {
+            if (texture.hasTargets()) {
+                texture.getTargets().forEach(existing::addTarget);
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@
 package org.citydb.operation.exporter.util;
 
 import org.citydb.database.schema.ValidityReference;
+import org.citydb.database.util.FeatureHierarchyFilter;
+import org.citydb.database.util.FeatureHierarchyFilter.Validity;
 import org.citydb.model.feature.Feature;
 import org.citydb.operation.exporter.options.ValidityOptions;
 
@@ -38,6 +40,13 @@ public class ValidityFilter {
         };
     }
 
+    public void applyTo(FeatureHierarchyFilter filter) {
+        switch (mode) {
+            case VALID, VALID_AT -> filter.validity(Validity.VALID, reference, timestamp, lenient);
+            case INVALID, INVALID_AT -> filter.validity(Validity.INVALID, reference, timestamp, lenient);
+        }
+    }
+
     public boolean filter(Feature feature) {
         return switch (mode) {
             case VALID -> reference.to(feature).isEmpty();
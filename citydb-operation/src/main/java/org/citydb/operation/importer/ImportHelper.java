@@ -6,7 +6,10 @@
 package org.citydb.operation.importer;
 
 import org.citydb.core.cache.PersistentMapStore;
+import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.core.file.FileLocator;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.database.schema.SchemaMapping;
 import org.citydb.database.schema.Table;
@@ -18,6 +21,7 @@ import org.citydb.model.geometry.ImplicitGeometry;
 import org.citydb.model.util.AffineTransformer;
 import org.citydb.operation.importer.common.DatabaseImporter;
 import org.citydb.operation.importer.feature.FeatureImporter;
+import org.citydb.operation.importer.options.BatchOptions;
 import org.citydb.operation.importer.reference.CacheType;
 import org.citydb.operation.importer.reference.ReferenceCache;
 import org.citydb.operation.importer.reference.ReferenceManager;
@@ -33,31 +37,49 @@ import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class ImportHelper {
+    private static final int MAX_DEFERRED_FEATURES = 50;
     private final Logger logger = LoggerFactory.getLogger(ImportHelper.class);
     private final DatabaseAdapter adapter;
     private final ImportOptions options;
     private final ReferenceManager referenceManager;
     private final PersistentMapStore store;
     private final ImportLogger importLogger;
-    private final Connection connection;
     private final SchemaMapping schemaMapping;
-    private final TableHelper tableHelper;
+    private final TableHelper[] tableHelpers;
+    private final ExecutorService batchService;
     private final SequenceGenerator sequenceGenerator;
     private final AffineTransformer transformer;
     private final Map<CacheType, ReferenceCache> caches = new EnumMap<>(CacheType.class);
-    private final List<ImportLogEntry> logEntries = new ArrayList<>();
     private final Importer.TransactionMode transactionMode;
     private final boolean failFast;
+    private final boolean replaceExisting;
     private final int batchSize;
-
+    private final BatchOptions batchOptions;
+    private final Timer sequenceTimer = MetricRegistry.getInstance().timer("import.sequence.generate");
+    private final Timer featureTimer = MetricRegistry.getInstance().timer("import.feature.convert");
+    private final Timer commitTimer = MetricRegistry.getInstance().timer("import.commit");
+
+    private final List<DeferredFeature> deferredFeatures = new ArrayList<>();
+
+    private TableHelper tableHelper;
+    private List<ImportLogEntry> logEntries = new ArrayList<>();
+    private PendingBatch pendingBatch;
+    private String firstFeature;
+    private String lastFeature;
     private OffsetDateTime importTime;
     private SequenceValues sequenceValues;
+    private int deferredTemplates;
     private boolean shouldCommit;
 
     ImportHelper(DatabaseAdapter adapter, ImportOptions options, ReferenceManager referenceManager,
-                 PersistentMapStore store, ImportLogger importLogger, Importer.TransactionMode transactionMode) throws SQLException {
+                 PersistentMapStore store, TemplateCache templateCache, ImportLogger importLogger,
+                 Importer.TransactionMode transactionMode) throws SQLException {
         this.adapter = adapter;
         this.options = options;
         this.referenceManager = referenceManager;
@@ -65,13 +87,26 @@ public class ImportHelper {
         this.importLogger = importLogger;
         this.transactionMode = transactionMode;
 
-        connection = adapter.getPool().getConnection(false);
+        batchOptions = options.getBatchOptions().orElseGet(BatchOptions::new);
+        boolean asynchronous = batchOptions.isAsynchronous() && transactionMode != Importer.TransactionMode.NO_COMMIT;
         schemaMapping = adapter.getSchemaAdapter().getSchemaMapping();
-        tableHelper = new TableHelper(this);
-        sequenceGenerator = new SequenceGenerator(this);
+        batchSize = adapter.getSchemaAdapter().getDefaultBatchSize();
+        if (asynchronous) {
+            tableHelpers = new TableHelper[]{
+                    new TableHelper(this, adapter.getPool().getConnection(false)),
+                    new TableHelper(this, adapter.getPool().getConnection(false))};
+            batchService = ExecutorHelper.newFixedAndBlockingThreadPool(1);
+        } else {
+            tableHelpers = new TableHelper[]{new TableHelper(this, adapter.getPool().getConnection(false))};
+            batchService = null;
+        }
+
+        tableHelper = tableHelpers[0];
+
+        sequenceGenerator = new SequenceGenerator(this, templateCache);
         transformer = options.getAffineTransform().map(AffineTransformer::of).orElse(null);
         failFast = options.isFailFast();
-        batchSize = adapter.getSchemaAdapter().getDefaultBatchSize();
+        replaceExisting = options.getReplaceMode().isPresent();
     }
 
     public DatabaseAdapter getAdapter() {
@@ -87,13 +122,17 @@ public class ImportHelper {
     }
 
     public Connection getConnection() {
-        return connection;
+        return tableHelper.getConnection();
     }
 
     public int getBatchSize() {
         return batchSize;
     }
 
+    public BatchController createBatchController(Table table) {
+        return BatchController.of(table, batchSize, batchOptions);
+    }
+
     public TableHelper getTableHelper() {
         return tableHelper;
     }
@@ -161,31 +200,108 @@ public class ImportHelper {
         return objectId != null && store.getOrCreateMap("external-files").putIfAbsent(objectId, true) != null;
     }
 
-    FeatureDescriptor importFeature(Feature feature) throws ImportException {
+    void importFeature(Feature feature, CompletableFuture<FeatureDescriptor> result) throws ImportException {
         try {
             if (transformer != null) {
                 transformer.transform(feature);
             }
 
-            importTime = OffsetDateTime.now().withNano(0);
-            sequenceValues = sequenceGenerator.generateNextValues(feature);
-            FeatureDescriptor descriptor = tableHelper.getOrCreateImporter(FeatureImporter.class).doImport(feature);
+            SequenceGenerator.Request request;
+            try (Timer.Context ignored = sequenceTimer.start()) {
+                request = sequenceGenerator.prepare(feature);
+            }
 
-            if (importLogger != null) {
-                logEntries.add(ImportLogEntry.of(feature, descriptor));
+            if (request.requiresTemplateLookup() || !deferredFeatures.isEmpty()) {
+                deferredFeatures.add(new DeferredFeature(feature, request, result));
+                deferredTemplates += request.getNumberOfTemplates();
+                if (deferredTemplates >= batchSize || deferredFeatures.size() >= MAX_DEFERRED_FEATURES) {
+                    importDeferredFeatures();
+                }
+            } else {
+                result.complete(importFeature(feature, request));
             }
 
             executeBatch(false, transactionMode == Importer.TransactionMode.AUTO_COMMIT);
-            return descriptor;
+        } catch (BatchExecutionException e) {
+            throw e;
         } catch (Exception e) {
             throw new ImportException("Failed to import feature.", e);
         }
     }
 
+    private FeatureDescriptor importFeature(Feature feature, SequenceGenerator.Request request) throws ImportException, SQLException {
+        importTime = OffsetDateTime.now().withNano(0);
+        try (Timer.Context ignored = sequenceTimer.start()) {
+            sequenceValues = sequenceGenerator.generateNextValues(request);
+        }
+
+        if (replaceExisting) {
+            tableHelper.getOrCreateReplacer().replace(feature);
+        }
+
+        FeatureDescriptor descriptor;
+        try (Timer.Context ignored = featureTimer.start()) {
+            descriptor = tableHelper.getOrCreateImporter(FeatureImporter.class).doImport(feature);
+        }
+
+        if (importLogger != null) {
+            logEntries.add(ImportLogEntry.of(feature, descriptor));
+        }
+
+        if (batchService != null) {
+            lastFeature = getObjectSignature(feature);
+            if (firstFeature == null) {
+                firstFeature = lastFeature;
+            }
+        }
+
+        return descriptor;
+    }
+
+    private void importDeferredFeatures() throws ImportException, SQLException {
+        if (!deferredFeatures.isEmpty()) {
+            try {
+                List<SequenceGenerator.Request> requests = new ArrayList<>(deferredFeatures.size());
+                for (DeferredFeature deferredFeature : deferredFeatures) {
+                    requests.add(deferredFeature.request());
+                }
+
+                try (Timer.Context ignored = sequenceTimer.start()) {
+                    sequenceGenerator.lookupTemplates(requests);
+                }
+
+                for (DeferredFeature deferredFeature : deferredFeatures) {
+                    try {
+                        deferredFeature.result().complete(importFeature(deferredFeature.feature(),
+                                deferredFeature.request()));
+                    } catch (ImportException | SQLException e) {
+                        deferredFeature.result().completeExceptionally(
+                                new ImportException("Failed to import feature.", e));
+                        throw e;
+                    }
+                }
+            } finally {
+                cancelDeferredFeatures();
+            }
+        }
+    }
+
+    private void cancelDeferredFeatures() {
+        for (DeferredFeature deferredFeature : deferredFeatures) {
+            deferredFeature.result().cancel(true);
+        }
+
+        deferredFeatures.clear();
+        deferredTemplates = 0;
+    }
+
     public void executeBatch(Table table) throws SQLException {
-        for (Table candidate : tableHelper.getCommitOrder(table)) {
-            for (DatabaseImporter importer : tableHelper.getImporters(candidate)) {
-                importer.executeBatch();
+        if (batchService == null) {
+            tableHelper.executeReplacements();
+            for (Table candidate : tableHelper.getCommitOrder(table)) {
+                for (DatabaseImporter importer : tableHelper.getImporters(candidate)) {
+                    importer.executeBatch();
+                }
             }
         }
 
@@ -195,33 +311,96 @@ public class ImportHelper {
     void executeBatch(boolean force, boolean commit) throws ImportException, SQLException {
         if (force || shouldCommit) {
             try {
-                for (Table table : tableHelper.getCommitOrder()) {
-                    for (DatabaseImporter importer : tableHelper.getImporters(table)) {
-                        importer.executeBatch();
-                    }
-                }
-
+                importDeferredFeatures();
                 for (ReferenceCache cache : caches.values()) {
                     referenceManager.storeReferences(cache);
                 }
 
-                if (commit) {
-                    connection.commit();
-                } else if (transactionMode == Importer.TransactionMode.AUTO_ROLLBACK) {
-                    connection.rollback();
+                awaitPendingBatch();
+                if (batchService != null && !force) {
+                    TableHelper tableHelper = this.tableHelper;
+                    List<ImportLogEntry> logEntries = this.logEntries;
+                    String features = getFeatureRange(firstFeature, lastFeature);
+                    pendingBatch = new PendingBatch(features, batchService.submit(() -> {
+                        try {
+                            executeBatch(tableHelper, logEntries, commit);
+                            return null;
+                        } catch (Throwable e) {
+                            logger.error("Rolled back the import batch of {}.", features, e);
+                            throw e;
+                        }
+                    }));
+
+                    this.tableHelper = tableHelper == tableHelpers[0] ? tableHelpers[1] : tableHelpers[0];
+                    this.logEntries = new ArrayList<>();
+                } else {
+                    executeBatch(tableHelper, logEntries, commit);
                 }
+            } finally {
+                shouldCommit = false;
+                firstFeature = lastFeature = null;
+            }
+        }
+    }
 
-                updateImportLog(commit);
-            } catch (SQLException e) {
+    private void executeBatch(TableHelper tableHelper, List<ImportLogEntry> logEntries, boolean commit) throws ImportException, SQLException {
+        Connection connection = tableHelper.getConnection();
+        try {
+            tableHelper.executeReplacements();
+            for (Table table : tableHelper.getCommitOrder()) {
+                for (DatabaseImporter importer : tableHelper.getImporters(table)) {
+                    importer.executeBatch();
+                }
+            }
+
+            if (commit) {
+                try (Timer.Context ignored = commitTimer.start()) {
+                    connection.commit();
+                }
+            } else if (transactionMode == Importer.TransactionMode.AUTO_ROLLBACK) {
                 connection.rollback();
-                throw e;
+            }
+
+            updateImportLog(logEntries, commit);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the batch executed on the batch thread. A failed batch has already been rolled back and logged
+     * when it failed, but it is only reported to the caller when the next batch is flushed or the helper is
+     * closed. The resulting exception then belongs to the feature that triggered the flush, while the features
+     * of the failed batch have already been completed.
+     */
+    private void awaitPendingBatch() throws ImportException {
+        if (pendingBatch != null) {
+            try {
+                pendingBatch.future().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImportException("Interrupted while waiting for batch execution.", e);
+            } catch (ExecutionException e) {
+                throw new BatchExecutionException("Failed to execute the import batch of " +
+                        pendingBatch.features() + ".", e.getCause());
             } finally {
-                shouldCommit = false;
+                pendingBatch = null;
             }
         }
     }
 
-    private void updateImportLog(boolean commit) throws ImportException {
+    private String getFeatureRange(String firstFeature, String lastFeature) {
+        if (firstFeature == null) {
+            return "no features";
+        } else {
+            return firstFeature.equals(lastFeature)
+                    ? firstFeature
+                    : firstFeature + " to " + lastFeature;
+        }
+    }
+
+    private void updateImportLog(List<ImportLogEntry> logEntries, boolean commit) throws ImportException {
         if (importLogger != null && !logEntries.isEmpty()) {
             try {
                 for (ImportLogEntry logEntry : logEntries) {
@@ -234,14 +413,40 @@ public class ImportHelper {
     }
 
     void close() throws ImportException, SQLException {
-        updateImportLog(false);
-        logEntries.clear();
-        sequenceGenerator.close();
-
         try {
-            tableHelper.close();
+            cancelDeferredFeatures();
+            awaitPendingBatch();
         } finally {
-            connection.close();
+            if (batchService != null) {
+                batchService.shutdown();
+            }
+
+            updateImportLog(logEntries, false);
+            logEntries.clear();
+            sequenceGenerator.close();
+
+            try {
+                for (TableHelper tableHelper : tableHelpers) {
+                    tableHelper.close();
+                }
+            } finally {
+                for (TableHelper tableHelper : tableHelpers) {
+                    tableHelper.getConnection().close();
+                }
+            }
+        }
+    }
+
+    private record DeferredFeature(Feature feature, SequenceGenerator.Request request,
+                                   CompletableFuture<FeatureDescriptor> result) {
+    }
+
+    private record PendingBatch(String features, Future<?> future) {
+    }
+
+    private static class BatchExecutionException extends ImportException {
+        BatchExecutionException(String message, Throwable cause) {
+            super(message, cause);
         }
     }
 }
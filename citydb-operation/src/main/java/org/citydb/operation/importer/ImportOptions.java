@@ -11,7 +11,9 @@ import org.citydb.config.SerializableConfig;
 import org.citydb.model.common.Matrix3x4;
 import org.citydb.model.encoding.Matrix3x4Reader;
 import org.citydb.model.encoding.Matrix3x4Writer;
+import org.citydb.operation.importer.options.BatchOptions;
 import org.citydb.operation.importer.options.CreationDateMode;
+import org.citydb.operation.importer.options.ReplaceMode;
 
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
@@ -22,6 +24,7 @@ public class ImportOptions {
     private boolean failFast;
     private String tempDirectory;
     private int numberOfThreads;
+    private boolean useVirtualThreads;
     private String updatingPerson;
     private String reasonForUpdate;
     @JSONField(serializeFeatures = JSONWriter.Feature.WriteEnumUsingToString)
@@ -30,6 +33,9 @@ public class ImportOptions {
     private String lineage;
     @JSONField(serializeUsing = Matrix3x4Writer.class, deserializeUsing = Matrix3x4Reader.class)
     private Matrix3x4 affineTransform;
+    private BatchOptions batchOptions;
+    @JSONField(serializeFeatures = JSONWriter.Feature.WriteEnumUsingToString)
+    private ReplaceMode replaceMode;
 
     public boolean isFailFast() {
         return failFast;
@@ -62,6 +68,15 @@ public class ImportOptions {
         return this;
     }
 
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public ImportOptions setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
     public Optional<String> getUpdatingPerson() {
         return Optional.ofNullable(updatingPerson);
     }
@@ -115,4 +130,22 @@ public class ImportOptions {
         this.affineTransform = affineTransform;
         return this;
     }
+
+    public Optional<BatchOptions> getBatchOptions() {
+        return Optional.ofNullable(batchOptions);
+    }
+
+    public ImportOptions setBatchOptions(BatchOptions batchOptions) {
+        this.batchOptions = batchOptions;
+        return this;
+    }
+
+    public Optional<ReplaceMode> getReplaceMode() {
+        return Optional.ofNullable(replaceMode);
+    }
+
+    public ImportOptions setReplaceMode(ReplaceMode replaceMode) {
+        this.replaceMode = replaceMode;
+        return this;
+    }
 }
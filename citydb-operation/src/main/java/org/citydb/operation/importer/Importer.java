@@ -6,6 +6,7 @@
 package org.citydb.operation.importer;
 
 import org.citydb.core.cache.PersistentMapStore;
+import org.citydb.core.concurrent.ContextPool;
 import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.concurrent.ExecutorHelper;
 import org.citydb.database.adapter.DatabaseAdapter;
@@ -13,6 +14,7 @@ import org.citydb.model.feature.Feature;
 import org.citydb.model.feature.FeatureDescriptor;
 import org.citydb.operation.importer.reference.ReferenceManager;
 import org.citydb.operation.importer.util.ImportLogger;
+import org.citydb.operation.importer.util.TemplateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,7 +31,7 @@ public class Importer {
     private ExecutorService service;
     private PersistentMapStore store;
     private ReferenceManager referenceManager;
-    private ThreadLocal<ImportHelper> contexts;
+    private ContextPool<ImportHelper> contexts;
     private Set<ImportHelper> helpers;
     private ImportLogger importLogger;
     private CountLatch countLatch;
@@ -103,16 +105,17 @@ public class Importer {
         }
 
         referenceManager = ReferenceManager.newInstance(adapter, store, options);
+        TemplateCache templateCache = TemplateCache.newInstance();
         helpers = ConcurrentHashMap.newKeySet();
         service = ExecutorHelper.newFixedAndBlockingThreadPool(options.getNumberOfThreads() > 0
                 ? options.getNumberOfThreads()
-                : Math.max(2, Runtime.getRuntime().availableProcessors()));
+                : Math.max(2, Runtime.getRuntime().availableProcessors()), options.isUseVirtualThreads());
 
         countLatch = new CountLatch();
-        contexts = ThreadLocal.withInitial(() -> {
+        contexts = ContextPool.of(() -> {
             try {
                 ImportHelper helper = new ImportHelper(adapter, options, referenceManager, store,
-                        importLogger, transactionMode);
+                        templateCache, importLogger, transactionMode);
                 helpers.add(helper);
                 return helper;
             } catch (Exception e) {
@@ -132,12 +135,15 @@ public class Importer {
             if (state == State.SESSION_STARTED) {
                 countLatch.increment();
                 service.execute(() -> {
+                    ImportHelper helper = null;
                     try {
-                        result.complete(contexts.get().importFeature(feature));
+                        helper = contexts.acquire();
+                        helper.importFeature(feature, result);
                     } catch (Throwable e) {
                         shouldRun = false;
                         result.completeExceptionally(e);
                     } finally {
+                        contexts.release(helper);
                         countLatch.decrement();
                     }
                 });
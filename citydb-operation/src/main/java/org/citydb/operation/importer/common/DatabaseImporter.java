@@ -9,6 +9,9 @@ import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
 import com.alibaba.fastjson2.JSONWriter;
 import org.citydb.core.file.FileLocator;
+import org.citydb.core.metrics.Histogram;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.database.geometry.GeometryException;
 import org.citydb.database.schema.SchemaMapping;
@@ -25,6 +28,7 @@ import org.citydb.model.geometry.ImplicitGeometry;
 import org.citydb.operation.importer.ImportException;
 import org.citydb.operation.importer.ImportHelper;
 import org.citydb.operation.importer.reference.CacheType;
+import org.citydb.operation.importer.util.BatchController;
 import org.citydb.operation.importer.util.TableHelper;
 import org.slf4j.event.Level;
 
@@ -44,6 +48,9 @@ public abstract class DatabaseImporter {
     protected final PreparedStatement stmt;
 
     private final Integer srid;
+    private final Timer batchTimer;
+    private final Histogram batchSizes;
+    private final BatchController batchController;
     private int batchCounter;
 
     public DatabaseImporter(Table table, ImportHelper helper) throws SQLException {
@@ -53,7 +60,10 @@ public abstract class DatabaseImporter {
         this.schemaMapping = helper.getSchemaMapping();
         this.tableHelper = helper.getTableHelper();
         srid = adapter.getDatabaseMetadata().getSpatialReference().getSRID();
-        stmt = helper.getConnection().prepareStatement(getInsertStatement());
+        batchTimer = MetricRegistry.getInstance().timer("import.batch.execute." + table.getName());
+        batchSizes = MetricRegistry.getInstance().histogram("import.batch.size." + table.getName());
+        batchController = helper.createBatchController(table);
+        stmt = tableHelper.getConnection().prepareStatement(getInsertStatement());
     }
 
     protected abstract String getInsertStatement();
@@ -85,6 +95,7 @@ public abstract class DatabaseImporter {
     protected void setStringOrNull(int index, String value) throws SQLException {
         if (value != null) {
             stmt.setString(index, value);
+            batchController.addBytes(value.length());
         } else {
             stmt.setNull(index, Types.VARCHAR);
         }
@@ -93,6 +104,7 @@ public abstract class DatabaseImporter {
     protected void setIntegerOrNull(int index, Integer value) throws SQLException {
         if (value != null) {
             stmt.setInt(index, value);
+            batchController.addBytes(Integer.BYTES);
         } else {
             stmt.setNull(index, Types.INTEGER);
         }
@@ -101,6 +113,7 @@ public abstract class DatabaseImporter {
     protected void setLongOrNull(int index, Long value) throws SQLException {
         if (value != null) {
             stmt.setLong(index, value);
+            batchController.addBytes(Long.BYTES);
         } else {
             stmt.setNull(index, Types.BIGINT);
         }
@@ -109,6 +122,7 @@ public abstract class DatabaseImporter {
     protected void setDoubleOrNull(int index, Double value) throws SQLException {
         if (value != null) {
             stmt.setDouble(index, value);
+            batchController.addBytes(Double.BYTES);
         } else {
             stmt.setNull(index, Types.DOUBLE);
         }
@@ -117,6 +131,7 @@ public abstract class DatabaseImporter {
     protected void setTimestampOrNull(int index, OffsetDateTime value) throws SQLException {
         if (value != null) {
             stmt.setObject(index, value, Types.TIMESTAMP_WITH_TIMEZONE);
+            batchController.addBytes(Long.BYTES);
         } else {
             stmt.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
         }
@@ -124,14 +139,25 @@ public abstract class DatabaseImporter {
 
     protected void setBytesOrNull(int index, byte[] bytes) throws SQLException {
         adapter.getSchemaAdapter().getSqlHelper().setBytesOrNull(stmt, index, bytes);
+        if (bytes != null) {
+            batchController.addBytes(bytes.length);
+        }
     }
 
     protected void setJsonOrNull(int index, String json) throws SQLException {
         adapter.getSchemaAdapter().getSqlHelper().setJsonOrNull(stmt, index, json);
+        if (json != null) {
+            batchController.addBytes(json.length());
+        }
     }
 
     protected void setGeometryOrNull(int index, Object geometry) throws SQLException {
         adapter.getSchemaAdapter().getSqlHelper().setGeometryOrNull(stmt, index, geometry);
+        if (geometry instanceof CharSequence value) {
+            batchController.addBytes(value.length());
+        } else if (geometry instanceof byte[] value) {
+            batchController.addBytes(value.length);
+        }
     }
 
     protected long nextSequenceValue(Sequence sequence) throws SQLException {
@@ -242,14 +268,17 @@ public abstract class DatabaseImporter {
 
     protected void addBatch() throws SQLException {
         stmt.addBatch();
-        if (++batchCounter == helper.getBatchSize()) {
+        if (batchController.isFull(++batchCounter)) {
             helper.executeBatch(table);
         }
     }
 
     public void executeBatch() throws SQLException {
         if (batchCounter > 0) {
+            Timer.Context context = batchTimer.start();
             stmt.executeBatch();
+            batchController.update(batchCounter, context.stop());
+            batchSizes.update(batchCounter);
             batchCounter = 0;
         }
     }
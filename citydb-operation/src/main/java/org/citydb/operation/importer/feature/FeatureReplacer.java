@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.importer.feature;
+
+import org.citydb.database.adapter.SchemaAdapter;
+import org.citydb.model.feature.Feature;
+import org.citydb.operation.deleter.DeleteException;
+import org.citydb.operation.deleter.DeleteHelper;
+import org.citydb.operation.deleter.DeleteOptions;
+import org.citydb.operation.deleter.feature.FeatureDeleter;
+import org.citydb.operation.deleter.options.DeleteMode;
+import org.citydb.operation.importer.ImportException;
+import org.citydb.operation.importer.ImportHelper;
+import org.citydb.operation.importer.options.ReplaceMode;
+import org.citydb.sqlbuilder.literal.Placeholder;
+import org.citydb.sqlbuilder.query.Select;
+import org.citydb.sqlbuilder.schema.Table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+public class FeatureReplacer {
+    private final SchemaAdapter schemaAdapter;
+    private final int batchSize;
+    private final PreparedStatement lookupStmt;
+    private final FeatureDeleter deleter;
+    private final Set<String> objectIds = new HashSet<>();
+
+    public FeatureReplacer(ImportHelper helper, Connection connection, ReplaceMode mode) throws ImportException, SQLException {
+        schemaAdapter = helper.getAdapter().getSchemaAdapter();
+        batchSize = Math.min(helper.getBatchSize(), schemaAdapter.getMaximumNumberOfItemsForInOperator());
+
+        Table table = Table.of(org.citydb.database.schema.Table.FEATURE.getName(),
+                helper.getAdapter().getConnectionDetails().getSchema());
+        Select select = Select.newInstance()
+                .select(table.column("id"))
+                .from(table)
+                .where(schemaAdapter.getOperationHelper().inArray(table.column("objectid"), Placeholder.empty())
+                        .and(table.column("termination_date").isNull()));
+
+        DeleteOptions options = new DeleteOptions()
+                .setMode(mode == ReplaceMode.TERMINATE ? DeleteMode.TERMINATE : DeleteMode.DELETE)
+                .setUpdatingPerson(helper.getOptions().getUpdatingPerson().orElse(null))
+                .setReasonForUpdate(helper.getOptions().getReasonForUpdate().orElse(null))
+                .setLineage(helper.getOptions().getLineage().orElse(null));
+
+        lookupStmt = connection.prepareStatement(select.toSql());
+        try {
+            deleter = DeleteHelper.of(helper.getAdapter(), connection, options).getTableHelper()
+                    .getOrCreateDeleter(FeatureDeleter.class);
+        } catch (DeleteException e) {
+            lookupStmt.close();
+            throw new ImportException("Failed to build feature deleter.", e);
+        }
+    }
+
+    public void replace(Feature feature) throws SQLException {
+        String objectId = feature.getObjectId().orElse(null);
+        if (objectId != null && objectIds.add(objectId) && objectIds.size() == batchSize) {
+            lookupExistingFeatures();
+        }
+    }
+
+    public void executeBatch() throws SQLException {
+        lookupExistingFeatures();
+        try {
+            deleter.executeBatch();
+        } catch (DeleteException e) {
+            throw new SQLException("Failed to replace existing features.", e);
+        }
+    }
+
+    private void lookupExistingFeatures() throws SQLException {
+        if (!objectIds.isEmpty()) {
+            try {
+                schemaAdapter.getSqlHelper().setStringArrayOrNull(lookupStmt, 1, objectIds);
+                try (ResultSet rs = lookupStmt.executeQuery()) {
+                    while (rs.next()) {
+                        deleter.deleteFeature(rs.getLong(1));
+                    }
+                }
+            } catch (DeleteException e) {
+                throw new SQLException("Failed to replace existing features.", e);
+            } finally {
+                objectIds.clear();
+            }
+        }
+    }
+
+    public void close() throws SQLException {
+        try {
+            lookupStmt.close();
+        } finally {
+            deleter.close();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.importer.options;
+
+import org.citydb.database.schema.Table;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class BatchOptions {
+    public static final long DEFAULT_MAX_BATCH_BYTES = 16 * 1024 * 1024;
+    public static final long DEFAULT_TARGET_LATENCY = 500;
+
+    private boolean adaptive = true;
+    private boolean asynchronous;
+    private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+    private long targetLatency = DEFAULT_TARGET_LATENCY;
+    private Map<String, Integer> tableLimits;
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public BatchOptions setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    public BatchOptions setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+        return this;
+    }
+
+    public long getMaxBatchBytes() {
+        return maxBatchBytes > 0 ? maxBatchBytes : DEFAULT_MAX_BATCH_BYTES;
+    }
+
+    public BatchOptions setMaxBatchBytes(long maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+        return this;
+    }
+
+    public long getTargetLatency() {
+        return targetLatency > 0 ? targetLatency : DEFAULT_TARGET_LATENCY;
+    }
+
+    public BatchOptions setTargetLatency(long targetLatency) {
+        this.targetLatency = targetLatency;
+        return this;
+    }
+
+    public Map<String, Integer> getTableLimits() {
+        if (tableLimits == null) {
+            tableLimits = new LinkedHashMap<>();
+        }
+
+        return tableLimits;
+    }
+
+    public BatchOptions setTableLimits(Map<String, Integer> tableLimits) {
+        this.tableLimits = tableLimits;
+        return this;
+    }
+
+    public Optional<Integer> getTableLimit(Table table) {
+        return tableLimits != null
+                ? Optional.ofNullable(tableLimits.get(table.getName())).filter(limit -> limit > 0)
+                : Optional.empty();
+    }
+
+    public BatchOptions withTableLimit(Table table, int limit) {
+        getTableLimits().put(table.getName(), limit);
+        return this;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.importer.options;
+
+public enum ReplaceMode {
+    DELETE("delete"),
+    TERMINATE("terminate");
+
+    private final String value;
+
+    ReplaceMode(String value) {
+        this.value = value;
+    }
+
+    public String toValue() {
+        return value;
+    }
+
+    public static ReplaceMode fromValue(String value) {
+        for (ReplaceMode v : ReplaceMode.values()) {
+            if (v.value.equals(value)) {
+                return v;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
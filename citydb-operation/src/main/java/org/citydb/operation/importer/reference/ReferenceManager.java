@@ -7,6 +7,9 @@ package org.citydb.operation.importer.reference;
 
 import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.core.concurrent.CountLatch;
+import org.citydb.core.concurrent.ExecutorHelper;
+import org.citydb.core.metrics.MetricRegistry;
+import org.citydb.core.metrics.Timer;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.operation.importer.ImportException;
 import org.citydb.operation.importer.ImportOptions;
@@ -15,9 +18,9 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
 
 public class ReferenceManager {
     private final Logger logger = LoggerFactory.getLogger(ReferenceManager.class);
@@ -26,15 +29,18 @@ public class ReferenceManager {
     private final ExecutorService service;
     private final CountLatch countLatch;
     private final int batchSize;
+    private final Timer resolveTimer = MetricRegistry.getInstance().timer("import.references.resolve");
+    private final Set<Updater> updaters = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Updater> updater = ThreadLocal.withInitial(this::newUpdater);
 
-    private Throwable exception;
+    private volatile Throwable exception;
     private volatile boolean shouldRun = true;
 
     private ReferenceManager(DatabaseAdapter adapter, PersistentMapStore store, ImportOptions options) {
         this.adapter = adapter;
         this.store = store;
 
-        service = Executors.newFixedThreadPool(options.getNumberOfThreads() > 0
+        service = ExecutorHelper.newFixedAndBlockingThreadPool(options.getNumberOfThreads() > 0
                 ? options.getNumberOfThreads()
                 : Math.max(2, Runtime.getRuntime().availableProcessors()));
         countLatch = new CountLatch();
@@ -61,35 +67,59 @@ public class ReferenceManager {
 
     public void resolveReferences() {
         countLatch.await();
-        for (CacheType type : CacheType.values()) {
-            if (shouldRun && store.hasMap(type.ordinal() + "r")) {
-                logger.debug("Resolving local {} references...", type.getLabel());
-                store.withCurrentVersion(() -> {
-                    Map<String, Long> targets = store.getOrCreateMap(type.ordinal() + "t");
-                    Map<Long, String> references = store.getOrCreateMap(type.ordinal() + "r");
-                    Map<Long, Long> resolved = new HashMap<>();
-                    Set<String> unresolved = new HashSet<>();
-
-                    Iterator<Map.Entry<Long, String>> iterator = references.entrySet().iterator();
-                    while (shouldRun && iterator.hasNext()) {
-                        Map.Entry<Long, String> reference = iterator.next();
-                        Long targetId = targets.get(reference.getValue());
-                        if (targetId != null) {
-                            resolved.put(reference.getKey(), targetId);
-                            if (!iterator.hasNext() || resolved.size() == batchSize) {
-                                update(resolved, type);
-                                resolved.clear();
-                            }
-                        } else if (type != CacheType.TEXTURE_IMAGE && unresolved.add(reference.getValue())) {
-                            logger.debug("Failed to resolve local {} reference: '{}'.",
-                                    type.getLabel(), reference.getValue());
-                        }
-                    }
-                });
+        try (Timer.Context ignored = resolveTimer.start()) {
+            List<CacheType> types = Arrays.stream(CacheType.values())
+                    .filter(type -> store.hasMap(type.ordinal() + "r"))
+                    .toList();
+
+            if (!types.isEmpty()) {
+                ExecutorService scanners = Executors.newFixedThreadPool(types.size());
+                try {
+                    CompletableFuture.allOf(types.stream()
+                                    .map(type -> CompletableFuture.runAsync(() -> resolveReferences(type), scanners))
+                                    .toArray(CompletableFuture[]::new))
+                            .join();
+                } catch (CompletionException e) {
+                    setException(e.getCause());
+                } finally {
+                    scanners.shutdown();
+                }
             }
+
+            countLatch.await();
         }
     }
 
+    private void resolveReferences(CacheType type) {
+        logger.debug("Resolving local {} references...", type.getLabel());
+        store.withCurrentVersion(() -> {
+            Map<String, Long> targets = store.getOrCreateMap(type.ordinal() + "t");
+            Map<Long, String> references = store.getOrCreateMap(type.ordinal() + "r");
+            Map<Long, Long> resolved = new HashMap<>();
+            Set<String> unresolved = new HashSet<>();
+
+            Iterator<Map.Entry<Long, String>> iterator = references.entrySet().iterator();
+            while (shouldRun && iterator.hasNext()) {
+                Map.Entry<Long, String> reference = iterator.next();
+                Long targetId = targets.get(reference.getValue());
+                if (targetId != null) {
+                    resolved.put(reference.getKey(), targetId);
+                    if (resolved.size() == batchSize) {
+                        update(resolved, type);
+                        resolved = new HashMap<>();
+                    }
+                } else if (type != CacheType.TEXTURE_IMAGE && unresolved.add(reference.getValue())) {
+                    logger.debug("Failed to resolve local {} reference: '{}'.",
+                            type.getLabel(), reference.getValue());
+                }
+            }
+
+            if (shouldRun && !resolved.isEmpty()) {
+                update(resolved, type);
+            }
+        });
+    }
+
     private <K, V> void store(Map<K, V> unresolved, String name) {
         Map<K, V> values = new HashMap<>(unresolved);
         countLatch.increment();
@@ -103,15 +133,12 @@ public class ReferenceManager {
     }
 
     private void update(Map<Long, Long> resolved, CacheType type) {
-        Map<Long, Long> values = new HashMap<>(resolved);
         countLatch.increment();
         service.execute(() -> {
             try {
-                try (Connection connection = adapter.getPool().getConnection(true);
-                     PreparedStatement stmt = connection.prepareStatement("update " +
-                             adapter.getConnectionDetails().getSchema() + "." + type.getTable() +
-                             " set " + type.getColumn() + " = ? where id = ?")) {
-                    for (Map.Entry<Long, Long> entry : values.entrySet()) {
+                if (shouldRun) {
+                    PreparedStatement stmt = updater.get().getStatement(type);
+                    for (Map.Entry<Long, Long> entry : resolved.entrySet()) {
                         stmt.setLong(1, entry.getValue());
                         stmt.setLong(2, entry.getKey());
                         stmt.addBatch();
@@ -120,19 +147,72 @@ public class ReferenceManager {
                     stmt.executeBatch();
                 }
             } catch (Throwable e) {
-                shouldRun = false;
-                exception = e;
+                setException(e);
             } finally {
                 countLatch.decrement();
             }
         });
     }
 
+    private Updater newUpdater() {
+        Updater updater = new Updater();
+        updaters.add(updater);
+        return updater;
+    }
+
+    private synchronized void setException(Throwable e) {
+        shouldRun = false;
+        if (exception == null) {
+            exception = e;
+        }
+    }
+
     public void close() throws ImportException {
         countLatch.await();
         service.shutdown();
+        for (Updater updater : updaters) {
+            try {
+                updater.close();
+            } catch (SQLException e) {
+                setException(e);
+            }
+        }
+
         if (exception != null) {
             throw new ImportException("Failed to resolve references.", exception);
         }
     }
+
+    private class Updater {
+        private final Map<CacheType, PreparedStatement> statements = new EnumMap<>(CacheType.class);
+        private Connection connection;
+
+        PreparedStatement getStatement(CacheType type) throws SQLException {
+            PreparedStatement stmt = statements.get(type);
+            if (stmt == null) {
+                if (connection == null) {
+                    connection = adapter.getPool().getConnection(true);
+                }
+
+                stmt = connection.prepareStatement("update " +
+                        adapter.getConnectionDetails().getSchema() + "." + type.getTable() +
+                        " set " + type.getColumn() + " = ? where id = ?");
+                statements.put(type, stmt);
+            }
+
+            return stmt;
+        }
+
+        void close() throws SQLException {
+            if (connection != null) {
+                try {
+                    for (PreparedStatement stmt : statements.values()) {
+                        stmt.close();
+                    }
+                } finally {
+                    connection.close();
+                }
+            }
+        }
+    }
 }
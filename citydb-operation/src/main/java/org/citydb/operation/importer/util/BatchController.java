@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.importer.util;
+
+import org.citydb.database.schema.Table;
+import org.citydb.operation.importer.options.BatchOptions;
+
+import java.util.concurrent.TimeUnit;
+
+public class BatchController {
+    private static final int MIN_BATCH_SIZE = 10;
+
+    private final int maxSize;
+    private final long maxBytes;
+    private final long targetLatency;
+    private final boolean adaptive;
+    private int limit;
+    private long bytes;
+
+    private BatchController(int maxSize, long maxBytes, long targetLatency, boolean adaptive) {
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+        this.targetLatency = targetLatency;
+        this.adaptive = adaptive;
+        limit = maxSize;
+    }
+
+    public static BatchController of(Table table, int defaultBatchSize, BatchOptions options) {
+        int maxSize = Math.max(options.getTableLimit(table).orElse(defaultBatchSize), 1);
+        return new BatchController(maxSize,
+                options.getMaxBatchBytes(),
+                TimeUnit.MILLISECONDS.toNanos(options.getTargetLatency()),
+                options.isAdaptive());
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void addBytes(long bytes) {
+        this.bytes += bytes;
+    }
+
+    public boolean isFull(int batchSize) {
+        return batchSize >= limit || (adaptive && bytes >= maxBytes);
+    }
+
+    public void update(int batchSize, long nanos) {
+        if (adaptive && batchSize > 0) {
+            if (nanos > targetLatency) {
+                long size = batchSize * targetLatency / nanos;
+                limit = (int) Math.max(Math.min(size, limit), Math.min(MIN_BATCH_SIZE, maxSize));
+            } else if (batchSize >= limit && nanos < targetLatency / 2) {
+                limit = Math.min(limit + Math.max(limit / 4, 1), maxSize);
+            }
+        }
+
+        bytes = 0;
+    }
+}
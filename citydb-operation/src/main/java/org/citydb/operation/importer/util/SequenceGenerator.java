@@ -5,8 +5,8 @@
 
 package org.citydb.operation.importer.util;
 
+import org.citydb.database.adapter.SchemaAdapter;
 import org.citydb.database.schema.Sequence;
-import org.citydb.database.schema.Table;
 import org.citydb.database.util.SequenceHelper;
 import org.citydb.model.address.Address;
 import org.citydb.model.appearance.Appearance;
@@ -23,48 +23,128 @@ import org.citydb.model.property.Property;
 import org.citydb.model.walker.ModelWalker;
 import org.citydb.operation.importer.ImportHelper;
 import org.citydb.operation.importer.reference.CacheType;
+import org.citydb.sqlbuilder.literal.Placeholder;
+import org.citydb.sqlbuilder.query.Select;
+import org.citydb.sqlbuilder.schema.Table;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.EnumMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public class SequenceGenerator {
     private final ImportHelper helper;
-    private final SequenceHelper sequenceHelper;
-    private PreparedStatement lookupStmt;
+    private final SchemaAdapter schemaAdapter;
+    private final Map<Connection, SequenceHelper> sequenceHelpers = new IdentityHashMap<>();
+    private final Map<Connection, PreparedStatement> lookupStmts = new IdentityHashMap<>();
+    private final TemplateCache templateCache;
+    private final int batchSize;
 
-    public SequenceGenerator(ImportHelper helper) throws SQLException {
+    public SequenceGenerator(ImportHelper helper, TemplateCache templateCache) throws SQLException {
         this.helper = helper;
-        sequenceHelper = helper.getAdapter().getSchemaAdapter().getSequenceHelper(helper.getConnection());
+        this.templateCache = templateCache;
+        schemaAdapter = helper.getAdapter().getSchemaAdapter();
+        batchSize = Math.min(helper.getBatchSize(), schemaAdapter.getMaximumNumberOfItemsForInOperator());
     }
 
-    public SequenceValues generateNextValues(Visitable visitable) throws SQLException {
+    public Request prepare(Visitable visitable) {
         Processor processor = new Processor();
         visitable.accept(processor);
-        if (processor.exception != null) {
-            throw processor.exception;
+        return new Request(processor);
+    }
+
+    public SequenceValues generateNextValues(Visitable visitable) throws SQLException {
+        return generateNextValues(prepare(visitable));
+    }
+
+    public SequenceValues generateNextValues(Request request) throws SQLException {
+        Processor processor = request.processor;
+        if (!processor.templates.isEmpty()) {
+            lookupTemplates(List.of(request));
+            for (ImplicitGeometry template : processor.templates) {
+                String objectId = template.getObjectId().orElse(null);
+                Long id = templateCache.get(objectId);
+                if (id != null) {
+                    helper.getOrCreateReferenceCache(CacheType.IMPLICIT_GEOMETRY).putTarget(objectId, id);
+                } else {
+                    processor.process(template);
+                }
+            }
         }
 
         SequenceValues values = new SequenceValues(processor.idCache);
-        sequenceHelper.getNextValues(processor.counter).forEach(values::addValues);
+        getSequenceHelper(helper.getConnection()).getNextValues(processor.counter).forEach(values::addValues);
         return values;
     }
 
+    public void lookupTemplates(List<Request> requests) throws SQLException {
+        Set<String> objectIds = new HashSet<>();
+        for (Request request : requests) {
+            for (ImplicitGeometry template : request.processor.templates) {
+                String objectId = template.getObjectId().orElse(null);
+                if (!templateCache.contains(objectId)
+                        && objectIds.add(objectId)
+                        && objectIds.size() == batchSize) {
+                    lookupTemplates(objectIds);
+                }
+            }
+        }
+
+        lookupTemplates(objectIds);
+    }
+
     public void close() throws SQLException {
-        sequenceHelper.close();
-        if (lookupStmt != null) {
-            lookupStmt.close();
+        try {
+            for (SequenceHelper sequenceHelper : sequenceHelpers.values()) {
+                sequenceHelper.close();
+            }
+
+            for (PreparedStatement lookupStmt : lookupStmts.values()) {
+                lookupStmt.close();
+            }
+        } finally {
+            sequenceHelpers.clear();
+            lookupStmts.clear();
+        }
+    }
+
+    private SequenceHelper getSequenceHelper(Connection connection) throws SQLException {
+        SequenceHelper sequenceHelper = sequenceHelpers.get(connection);
+        if (sequenceHelper == null) {
+            sequenceHelper = schemaAdapter.getSequenceHelper(connection);
+            sequenceHelpers.put(connection, sequenceHelper);
+        }
+
+        return sequenceHelper;
+    }
+
+    public class Request {
+        private final Processor processor;
+
+        private Request(Processor processor) {
+            this.processor = processor;
+        }
+
+        public int getNumberOfTemplates() {
+            return processor.templates.size();
+        }
+
+        public boolean requiresTemplateLookup() {
+            for (ImplicitGeometry template : processor.templates) {
+                if (!templateCache.contains(template.getObjectId().orElse(null))) {
+                    return true;
+                }
+            }
+
+            return false;
         }
     }
 
     private class Processor extends ModelWalker {
         private final Map<Sequence, Integer> counter = new EnumMap<>(Sequence.class);
         private final Map<CacheType, Set<String>> idCache = new EnumMap<>(CacheType.class);
-        private SQLException exception;
+        private final List<ImplicitGeometry> templates = new ArrayList<>();
 
         @Override
         public void visit(Feature feature) {
@@ -77,21 +157,23 @@ public class SequenceGenerator {
 
         @Override
         public void visit(ImplicitGeometry implicitGeometry) {
-            try {
-                if (!lookup(CacheType.IMPLICIT_GEOMETRY, implicitGeometry)
-                        && !helper.lookupAndPut(implicitGeometry)
-                        && !existsInDatabase(implicitGeometry)) {
-                    count(Sequence.IMPLICIT_GEOMETRY);
-                    implicitGeometry.getGeometry().ifPresent(geometry -> count(Sequence.GEOMETRY_DATA));
-                    cache(CacheType.IMPLICIT_GEOMETRY, implicitGeometry);
-                    super.visit(implicitGeometry);
+            if (!lookup(CacheType.IMPLICIT_GEOMETRY, implicitGeometry)
+                    && !helper.lookupAndPut(implicitGeometry)) {
+                if (implicitGeometry.getObjectId().isPresent()) {
+                    templates.add(implicitGeometry);
+                } else {
+                    process(implicitGeometry);
                 }
-            } catch (SQLException e) {
-                setShouldWalk(false);
-                exception = e;
             }
         }
 
+        private void process(ImplicitGeometry implicitGeometry) {
+            count(Sequence.IMPLICIT_GEOMETRY);
+            implicitGeometry.getGeometry().ifPresent(geometry -> count(Sequence.GEOMETRY_DATA));
+            cache(CacheType.IMPLICIT_GEOMETRY, implicitGeometry);
+            super.visit(implicitGeometry);
+        }
+
         @Override
         public void visit(Appearance appearance) {
             count(Sequence.APPEARANCE);
@@ -166,24 +248,36 @@ public class SequenceGenerator {
         }
     }
 
-    private boolean existsInDatabase(ImplicitGeometry implicitGeometry) throws SQLException {
-        String objectId = implicitGeometry.getObjectId().orElse(null);
-        if (objectId != null) {
-            if (lookupStmt == null) {
-                lookupStmt = helper.getConnection().prepareStatement("select id from " +
-                        helper.getTableHelper().getPrefixedTableName(Table.IMPLICIT_GEOMETRY) +
-                        " where objectid = ? fetch first 1 rows only");
-            }
+    private void lookupTemplates(Set<String> objectIds) throws SQLException {
+        if (!objectIds.isEmpty()) {
+            try {
+                Connection connection = helper.getConnection();
+                PreparedStatement lookupStmt = lookupStmts.get(connection);
+                if (lookupStmt == null) {
+                    Table table = Table.of(org.citydb.database.schema.Table.IMPLICIT_GEOMETRY.getName(),
+                            helper.getAdapter().getConnectionDetails().getSchema());
+                    lookupStmt = connection.prepareStatement(Select.newInstance()
+                            .select(table.columns("id", "objectid"))
+                            .from(table)
+                            .where(schemaAdapter.getOperationHelper()
+                                    .inArray(table.column("objectid"), Placeholder.empty()))
+                            .toSql());
+                    lookupStmts.put(connection, lookupStmt);
+                }
 
-            lookupStmt.setString(1, objectId);
-            try (ResultSet rs = lookupStmt.executeQuery()) {
-                if (rs.next()) {
-                    helper.getOrCreateReferenceCache(CacheType.IMPLICIT_GEOMETRY).putTarget(objectId, rs.getLong(1));
-                    return true;
+                schemaAdapter.getSqlHelper().setStringArrayOrNull(lookupStmt, 1, objectIds);
+                try (ResultSet rs = lookupStmt.executeQuery()) {
+                    while (rs.next()) {
+                        templateCache.putExisting(rs.getString(2), rs.getLong(1));
+                    }
                 }
+
+                for (String objectId : objectIds) {
+                    templateCache.putMissing(objectId);
+                }
+            } finally {
+                objectIds.clear();
             }
         }
-
-        return false;
     }
 }
@@ -13,15 +13,18 @@ import org.citydb.operation.importer.address.AddressImporter;
 import org.citydb.operation.importer.appearance.*;
 import org.citydb.operation.importer.common.DatabaseImporter;
 import org.citydb.operation.importer.feature.FeatureImporter;
+import org.citydb.operation.importer.feature.FeatureReplacer;
 import org.citydb.operation.importer.geometry.GeometryImporter;
 import org.citydb.operation.importer.geometry.ImplicitGeometryImporter;
 import org.citydb.operation.importer.property.*;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.*;
 
 public class TableHelper {
     private final ImportHelper helper;
+    private final Connection connection;
     private final Map<String, DatabaseImporter> importers = new HashMap<>();
     private final CommitOrder commitOrder = CommitOrder.of(
             Table.ADDRESS,
@@ -35,8 +38,15 @@ public class TableHelper {
             Table.SURFACE_DATA_MAPPING,
             Table.TEX_IMAGE);
 
-    public TableHelper(ImportHelper helper) {
+    private FeatureReplacer replacer;
+
+    public TableHelper(ImportHelper helper, Connection connection) {
         this.helper = helper;
+        this.connection = connection;
+    }
+
+    public Connection getConnection() {
+        return connection;
     }
 
     public String getPrefixedTableName(Table table) {
@@ -106,6 +116,25 @@ public class TableHelper {
         }
     }
 
+    public FeatureReplacer getOrCreateReplacer() throws ImportException {
+        if (replacer == null) {
+            try {
+                replacer = new FeatureReplacer(helper, connection, helper.getOptions().getReplaceMode()
+                        .orElseThrow(() -> new ImportException("No replace mode defined.")));
+            } catch (SQLException e) {
+                throw new ImportException("Failed to build feature replacer.", e);
+            }
+        }
+
+        return replacer;
+    }
+
+    public void executeReplacements() throws SQLException {
+        if (replacer != null) {
+            replacer.executeBatch();
+        }
+    }
+
     public List<DatabaseImporter> getImporters(Table table) {
         List<DatabaseImporter> candidates = new ArrayList<>();
         switch (table) {
@@ -156,5 +185,9 @@ public class TableHelper {
         for (DatabaseImporter importer : importers.values()) {
             importer.close();
         }
+
+        if (replacer != null) {
+            replacer.close();
+        }
     }
 }
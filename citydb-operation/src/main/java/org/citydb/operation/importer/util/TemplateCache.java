@@ -0,0 +1,42 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.importer.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TemplateCache {
+    private final Map<String, Long> existingTemplates = new ConcurrentHashMap<>();
+    private final Set<String> missingTemplates = ConcurrentHashMap.newKeySet();
+
+    private TemplateCache() {
+    }
+
+    public static TemplateCache newInstance() {
+        return new TemplateCache();
+    }
+
+    public Long get(String objectId) {
+        return objectId != null ? existingTemplates.get(objectId) : null;
+    }
+
+    public boolean contains(String objectId) {
+        return objectId != null
+                && (existingTemplates.containsKey(objectId) || missingTemplates.contains(objectId));
+    }
+
+    void putExisting(String objectId, long id) {
+        existingTemplates.putIfAbsent(objectId, id);
+        missingTemplates.remove(objectId);
+    }
+
+    void putMissing(String objectId) {
+        if (!existingTemplates.containsKey(objectId)) {
+            missingTemplates.add(objectId);
+        }
+    }
+}
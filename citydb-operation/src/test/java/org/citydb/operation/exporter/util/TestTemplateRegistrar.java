@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.operation.exporter.util;
+
+import org.citydb.model.appearance.*;
+import org.citydb.model.common.ExternalFile;
+import org.citydb.model.common.Name;
+import org.citydb.model.common.Namespaces;
+import org.citydb.model.geometry.Coordinate;
+import org.citydb.model.geometry.ImplicitGeometry;
+import org.citydb.model.geometry.LinearRing;
+import org.citydb.model.geometry.Polygon;
+import org.citydb.model.property.AppearanceProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTemplateRegistrar {
+
+    @Test
+    @DisplayName("Two features sharing one cached template")
+    public void testSharedTemplate() {
+        ImplicitGeometryCache cache = ImplicitGeometryCache.newInstance(10);
+        cache.putAndCopy(1, createTemplate());
+
+        // first feature: the template surface data is exported in full and registered
+        Set<String> surfaceDataIds = new HashSet<>();
+        Set<String> externalFileIds = new HashSet<>();
+        ImplicitGeometry first = cache.get(1);
+        registrar(surfaceDataIds, externalFileIds).register(first);
+
+        assertEquals(Set.of("material", "texture"), surfaceDataIds);
+        assertEquals(Set.of("image"), externalFileIds);
+        assertTrue(getSurfaceData(first).stream().allMatch(property -> property.getObject().isPresent()));
+
+        // a second instance within the same feature must only reference the surface data
+        ImplicitGeometry second = cache.get(1);
+        registrar(surfaceDataIds, externalFileIds).register(second);
+        assertTrue(getSurfaceData(second).stream().allMatch(property -> property.getObject().isEmpty()));
+        assertEquals(List.of("material", "texture"), getSurfaceData(second).stream()
+                .map(property -> property.getReference().orElse(null))
+                .toList());
+
+        // second feature: the id caches are reset, so the surface data is exported in full again
+        surfaceDataIds = new HashSet<>();
+        externalFileIds = new HashSet<>();
+        ImplicitGeometry third = cache.get(1);
+        registrar(surfaceDataIds, externalFileIds).register(third);
+
+        assertEquals(Set.of("material", "texture"), surfaceDataIds);
+        assertTrue(getSurfaceData(third).stream().allMatch(property -> property.getObject().isPresent()));
+    }
+
+    @Test
+    @DisplayName("Cached template surface data already exported by the feature")
+    public void testFeatureSurfaceData() {
+        ImplicitGeometryCache cache = ImplicitGeometryCache.newInstance(10);
+        cache.putAndCopy(1, createTemplate());
+
+        Polygon polygon = createPolygon("feature-polygon");
+        X3DMaterial material = X3DMaterial.newInstance().addTarget(polygon);
+        material.setObjectId("material");
+        Appearance appearance = Appearance.newInstance().addSurfaceData(SurfaceDataProperty.of(material));
+
+        Set<String> surfaceDataIds = new HashSet<>(Set.of("material"));
+        ImplicitGeometry template = cache.get(1);
+        registrar(surfaceDataIds, new HashSet<>())
+                .withAppearance(appearance)
+                .register(template);
+
+        SurfaceDataProperty property = getSurfaceData(template).get(0);
+        assertEquals("material", property.getReference().orElse(null));
+        assertEquals(2, material.getTargets().size());
+        assertSame(polygon, material.getTargets().get(0));
+        assertSame(template.getGeometry().orElse(null), material.getTargets().get(1));
+
+        ImplicitGeometry cached = cache.get(1);
+        X3DMaterial cachedMaterial = (X3DMaterial) getSurfaceData(cached).get(0).getObject().orElseThrow();
+        assertEquals(1, cachedMaterial.getTargets().size());
+    }
+
+    private TemplateRegistrar registrar(Set<String> surfaceDataIds, Set<String> externalFileIds) {
+        return new TemplateRegistrar(
+                surfaceData -> !surfaceDataIds.add(surfaceData.getObjectId().orElseThrow()),
+                externalFile -> !externalFileIds.add(externalFile.getObjectId().orElseThrow()));
+    }
+
+    private ImplicitGeometry createTemplate() {
+        Polygon polygon = createPolygon("template-polygon");
+        X3DMaterial material = X3DMaterial.newInstance().addTarget(polygon);
+        material.setObjectId("material");
+
+        ExternalFile image = ExternalFile.of("image.png").setObjectId("image");
+        ParameterizedTexture texture = ParameterizedTexture.newInstance()
+                .setTextureImage(image)
+                .addTextureCoordinates(polygon.getExteriorRing(), TextureCoordinate.of(List.of(0, 0, 1, 0, 1, 1, 0, 0)));
+        texture.setObjectId("texture");
+
+        Appearance appearance = Appearance.newInstance()
+                .addSurfaceData(SurfaceDataProperty.of(material))
+                .addSurfaceData(SurfaceDataProperty.of(texture));
+
+        return ImplicitGeometry.of(polygon)
+                .addAppearance(AppearanceProperty.of(Name.of("appearance", Namespaces.APPEARANCE), appearance));
+    }
+
+    private Polygon createPolygon(String objectId) {
+        return Polygon.of(LinearRing.of(List.of(
+                Coordinate.of(0, 0, 0),
+                Coordinate.of(1, 0, 0),
+                Coordinate.of(1, 1, 0),
+                Coordinate.of(0, 0, 0)))).setObjectId(objectId);
+    }
+
+    private List<SurfaceDataProperty> getSurfaceData(ImplicitGeometry template) {
+        return template.getAppearances().getAll().get(0).getObject().getSurfaceData();
+    }
+}
@@ -0,0 +1,16 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * Copyright virtualcitysystems GmbH <https://vc.systems>
+ */
+
+package org.citydb.query.executor;
+
+public record IdRange(long lowerBound, long upperBound) {
+    public static IdRange of(long lowerBound, long upperBound) {
+        return new IdRange(lowerBound, upperBound);
+    }
+
+    public boolean contains(long id) {
+        return id >= lowerBound && id <= upperBound;
+    }
+}
@@ -8,6 +8,7 @@ package org.citydb.query.executor;
 import org.citydb.core.cache.PersistentMapStore;
 import org.citydb.database.adapter.DatabaseAdapter;
 import org.citydb.database.geometry.GeometryException;
+import org.citydb.database.schema.Table;
 import org.citydb.database.srs.SpatialReference;
 import org.citydb.database.util.SqlHelper;
 import org.citydb.model.geometry.Envelope;
@@ -15,7 +16,9 @@ import org.citydb.query.Query;
 import org.citydb.query.builder.QueryBuildException;
 import org.citydb.query.builder.sql.SqlBuildOptions;
 import org.citydb.query.builder.sql.SqlQueryBuilder;
+import org.citydb.sqlbuilder.literal.Placeholder;
 import org.citydb.sqlbuilder.query.Select;
+import org.citydb.sqlbuilder.schema.Column;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,7 +28,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class QueryExecutor {
     private final Select select;
@@ -90,6 +96,66 @@ public class QueryExecutor {
         return new QueryResult(connection, helper.prepareStatement(select, connection), store);
     }
 
+    public List<IdRange> computeIdRanges(int partitions) throws SQLException {
+        try (Connection connection = adapter.getPool().getConnection()) {
+            return computeIdRanges(partitions, connection);
+        }
+    }
+
+    public List<IdRange> computeIdRanges(int partitions, Connection connection) throws SQLException {
+        List<Long> boundaries = partitions > 1
+                ? adapter.getSchemaAdapter().getStatisticsHelper()
+                .estimateIdBoundaries(Table.FEATURE, partitions, connection)
+                : List.of();
+
+        List<IdRange> ranges = new ArrayList<>(boundaries.size() + 1);
+        long lowerBound = Long.MIN_VALUE;
+        for (long boundary : boundaries) {
+            if (boundary > lowerBound) {
+                ranges.add(IdRange.of(lowerBound, boundary - 1));
+                lowerBound = boundary;
+            }
+        }
+
+        ranges.add(IdRange.of(lowerBound, Long.MAX_VALUE));
+        return ranges;
+    }
+
+    public List<QueryResult> executeQuery(List<IdRange> ranges) throws SQLException {
+        Column id = select.getFrom().get(0).column("id");
+        AtomicInteger references = new AtomicInteger();
+        List<QueryResult> results = new ArrayList<>(ranges.size());
+
+        try {
+            for (IdRange range : ranges) {
+                Select partition = Select.of(select)
+                        .where(id.between(Placeholder.of(range.lowerBound()), Placeholder.of(range.upperBound())));
+                Connection connection = adapter.getPool().getConnection();
+                try {
+                    references.incrementAndGet();
+                    results.add(new QueryResult(connection, helper.prepareStatement(partition, connection), store,
+                            references));
+                } catch (SQLException e) {
+                    references.decrementAndGet();
+                    connection.close();
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            for (QueryResult result : results) {
+                try {
+                    result.close();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+
+            throw e;
+        }
+
+        return results;
+    }
+
     public static class Builder {
         private final Logger logger = LoggerFactory.getLogger(Builder.class);
         private final DatabaseAdapter adapter;
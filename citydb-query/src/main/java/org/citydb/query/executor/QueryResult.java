@@ -13,18 +13,25 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class QueryResult implements AutoCloseable {
     private final Connection connection;
     private final PreparedStatement stmt;
     private final PersistentMapStore store;
+    private final AtomicInteger references;
     private final ResultSet rs;
     private Set<Long> distinctIds;
 
     QueryResult(Connection connection, PreparedStatement stmt, PersistentMapStore store) throws SQLException {
+        this(connection, stmt, store, null);
+    }
+
+    QueryResult(Connection connection, PreparedStatement stmt, PersistentMapStore store, AtomicInteger references) throws SQLException {
         this.connection = connection;
         this.stmt = stmt;
         this.store = store;
+        this.references = references;
         rs = stmt.executeQuery();
         distinctIds = store != null ? Collections.newSetFromMap(store.getOrCreateMap("distinct-ids")) : null;
     }
@@ -63,7 +70,10 @@ public class QueryResult implements AutoCloseable {
             rs.close();
         } finally {
             if (store != null) {
-                store.close();
+                if (references == null || references.decrementAndGet() == 0) {
+                    store.close();
+                }
+
                 distinctIds = null;
             }
         }
@@ -12,6 +12,7 @@ import org.citydb.model.change.FeatureChange;
 import org.citydb.model.geometry.Geometry;
 import org.citydb.model.geometry.Polygon;
 import org.citydb.model.walker.ModelWalker;
+import org.citydb.sqlbuilder.query.Select;
 import org.citydb.util.changelog.query.ChangelogQuery;
 import org.citydb.util.changelog.query.QueryBuildException;
 import org.citydb.util.changelog.query.QueryBuilder;
@@ -19,7 +20,9 @@ import org.citydb.util.changelog.query.QueryBuilder;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.time.OffsetDateTime;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 public class Changelog {
@@ -62,6 +65,29 @@ public class Changelog {
         }
     }
 
+    public Optional<OffsetDateTime> getLatestTransactionDate(ChangelogQuery query) throws ChangelogException {
+        try (Connection connection = adapter.getPool().getConnection(false);
+             PreparedStatement stmt = sqlHelper.prepareStatement(builder.buildForLatestTransactionDate(query),
+                     connection);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next()
+                    ? Optional.ofNullable(rs.getObject("transaction_date", OffsetDateTime.class))
+                    : Optional.empty();
+        } catch (QueryBuildException e) {
+            throw new ChangelogException("Failed to build changelog query.", e);
+        } catch (Exception e) {
+            throw new ChangelogException("Failed to query latest transaction date.", e);
+        }
+    }
+
+    public Select getFeatureIdQuery(ChangelogQuery query) throws ChangelogException {
+        try {
+            return builder.buildForFeatureIds(query);
+        } catch (QueryBuildException e) {
+            throw new ChangelogException("Failed to build changelog query.", e);
+        }
+    }
+
     public void forEachRegion(ChangelogQuery query, Consumer<Polygon> consumer) throws ChangelogException {
         processRegions(query, Pipeline.forEach(consumer));
     }
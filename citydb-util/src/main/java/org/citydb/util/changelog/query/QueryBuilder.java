@@ -76,6 +76,21 @@ public class QueryBuilder {
                 : changelogHelper.getAndTransformChangeRegions(select, envelope, targetSrs.getSRID());
     }
 
+    public Select buildForFeatureIds(ChangelogQuery query) throws QueryBuildException {
+        Pair<Table, Select> result = build(query);
+        Column featureId = result.first().column("feature_id");
+        return result.second()
+                .select(featureId)
+                .where(featureId.isNotNull());
+    }
+
+    public Select buildForLatestTransactionDate(ChangelogQuery query) throws QueryBuildException {
+        Pair<Table, Select> result = build(query);
+        return result.second()
+                .select(org.citydb.sqlbuilder.function.Function.of("max",
+                        result.first().column("transaction_date")).as("transaction_date"));
+    }
+
     private Pair<Table, Select> build(ChangelogQuery query) throws QueryBuildException {
         Table table = Table.of(org.citydb.database.schema.Table.FEATURE_CHANGELOG.getName(),
                 adapter.getConnectionDetails().getSchema());
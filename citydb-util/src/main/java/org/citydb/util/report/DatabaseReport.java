@@ -296,6 +296,12 @@ public class DatabaseReport {
         return extent;
     }
 
+    void setExtent(Envelope extent) {
+        if (extent != null) {
+            this.extent.include(extent);
+        }
+    }
+
     void setWgs84Extent(Envelope wgs84Extent) {
         this.wgs84Extent = wgs84Extent != null ? wgs84Extent.force2D() : null;
     }
@@ -9,8 +9,10 @@ import org.citydb.core.concurrent.CountLatch;
 import org.citydb.core.tuple.Pair;
 import org.citydb.database.DatabaseException;
 import org.citydb.database.adapter.DatabaseAdapter;
+import org.citydb.database.schema.FeatureType;
 import org.citydb.database.util.StatisticsHelper;
 import org.citydb.model.geometry.Envelope;
+import org.citydb.model.geometry.GeometryType;
 import org.citydb.sqlbuilder.query.Select;
 import org.citydb.sqlbuilder.schema.Table;
 import org.citydb.util.report.options.FeatureScope;
@@ -38,10 +40,125 @@ public class DatabaseReportBuilder {
         T get(Connection connection) throws DatabaseException, SQLException;
     }
 
+    private interface Statistics {
+        Map<FeatureType, StatisticsHelper.FeatureInfo> getFeatures(StatisticsHelper.FeatureScope scope, Connection connection) throws DatabaseException, SQLException;
+
+        Envelope getExtent(StatisticsHelper.FeatureScope scope, Connection connection) throws DatabaseException, SQLException;
+
+        Map<GeometryType, Long> getGeometryCount(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException;
+
+        Pair<FeatureType, Long> getImplicitGeometryCount(Connection connection) throws SQLException;
+
+        Map<String, Long> getGeometryCountByLod(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException;
+
+        Map<String, Long> getAppearanceCountByTheme(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException;
+
+        Pair<FeatureType, Long> getAddressCount(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException;
+    }
+
+    private static class ExactStatistics implements Statistics {
+        private final StatisticsHelper helper;
+
+        ExactStatistics(StatisticsHelper helper) {
+            this.helper = helper;
+        }
+
+        @Override
+        public Map<FeatureType, StatisticsHelper.FeatureInfo> getFeatures(StatisticsHelper.FeatureScope scope, Connection connection) throws DatabaseException, SQLException {
+            return helper.getFeatureCountAndExtent(scope, connection);
+        }
+
+        @Override
+        public Envelope getExtent(StatisticsHelper.FeatureScope scope, Connection connection) {
+            // the extent is aggregated from the feature extents
+            return null;
+        }
+
+        @Override
+        public Map<GeometryType, Long> getGeometryCount(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.getGeometryCount(scope, connection);
+        }
+
+        @Override
+        public Pair<FeatureType, Long> getImplicitGeometryCount(Connection connection) throws SQLException {
+            return helper.getImplicitGeometryCount(connection);
+        }
+
+        @Override
+        public Map<String, Long> getGeometryCountByLod(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.getGeometryCountByLod(scope, connection);
+        }
+
+        @Override
+        public Map<String, Long> getAppearanceCountByTheme(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.getAppearanceCountByTheme(scope, connection);
+        }
+
+        @Override
+        public Pair<FeatureType, Long> getAddressCount(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.getAddressCount(scope, connection);
+        }
+    }
+
+    private static class EstimatedStatistics implements Statistics {
+        private final StatisticsHelper helper;
+
+        EstimatedStatistics(StatisticsHelper helper) {
+            this.helper = helper;
+        }
+
+        @Override
+        public Map<FeatureType, StatisticsHelper.FeatureInfo> getFeatures(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            Map<FeatureType, StatisticsHelper.FeatureInfo> features = new IdentityHashMap<>();
+            helper.estimateFeatureCount(scope, connection).forEach((type, count) ->
+                    features.put(type, new StatisticsHelper.FeatureInfo(count, Envelope.empty())));
+            return features;
+        }
+
+        @Override
+        public Envelope getExtent(StatisticsHelper.FeatureScope scope, Connection connection) throws DatabaseException, SQLException {
+            Envelope extent = helper.estimateFeatureExtent(connection);
+            if (extent == null) {
+                extent = Envelope.empty();
+                for (StatisticsHelper.FeatureInfo info : helper.getFeatureCountAndExtent(scope, connection).values()) {
+                    extent.include(info.extent());
+                }
+            }
+
+            return extent;
+        }
+
+        @Override
+        public Map<GeometryType, Long> getGeometryCount(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.estimateGeometryCount(scope, connection);
+        }
+
+        @Override
+        public Pair<FeatureType, Long> getImplicitGeometryCount(Connection connection) throws SQLException {
+            return helper.estimateImplicitGeometryCount(connection);
+        }
+
+        @Override
+        public Map<String, Long> getGeometryCountByLod(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.estimateGeometryCountByLod(scope, connection);
+        }
+
+        @Override
+        public Map<String, Long> getAppearanceCountByTheme(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.estimateAppearanceCountByTheme(scope, connection);
+        }
+
+        @Override
+        public Pair<FeatureType, Long> getAddressCount(StatisticsHelper.FeatureScope scope, Connection connection) throws SQLException {
+            return helper.estimateAddressCount(scope, connection);
+        }
+    }
+
     private static class ReportProcessor {
         private final ReportOptions options;
         private final DatabaseAdapter adapter;
         private final StatisticsHelper helper;
+        private final Statistics statistics;
         private final String schema;
 
         private volatile boolean shouldRun = true;
@@ -53,6 +170,9 @@ public class DatabaseReportBuilder {
             this.options = Objects.requireNonNull(options, "The report options must not be null.");
             this.adapter = Objects.requireNonNull(adapter, "The database adapter must not be null.");
             helper = adapter.getSchemaAdapter().getStatisticsHelper();
+            statistics = options.isApproximate()
+                    ? new EstimatedStatistics(helper)
+                    : new ExactStatistics(helper);
             schema = adapter.getConnectionDetails().getSchema();
         }
 
@@ -66,29 +186,33 @@ public class DatabaseReportBuilder {
             StatisticsHelper.FeatureScope scope;
 
             try {
-                execute(connection -> helper.getFeatureCountAndExtent(StatisticsHelper.FeatureScope.TERMINATED,
-                        connection), report::setTerminatedFeatures);
+                execute(connection -> statistics.getFeatures(StatisticsHelper.FeatureScope.TERMINATED, connection),
+                        report::setTerminatedFeatures);
 
                 countLatch.await();
                 scope = options.getFeatureScope() == FeatureScope.ACTIVE && report.hasTerminatedFeatures()
                         ? StatisticsHelper.FeatureScope.ACTIVE
                         : StatisticsHelper.FeatureScope.ALL;
 
-                execute(connection -> helper.getFeatureCountAndExtent(StatisticsHelper.FeatureScope.ACTIVE,
-                        connection), report::setActiveFeatures);
+                execute(connection -> statistics.getFeatures(StatisticsHelper.FeatureScope.ACTIVE, connection),
+                        report::setActiveFeatures);
+                execute(connection -> statistics.getExtent(options.getFeatureScope() == FeatureScope.ALL
+                        ? StatisticsHelper.FeatureScope.ALL
+                        : StatisticsHelper.FeatureScope.ACTIVE, connection), report::setExtent);
 
                 if (options.isCompact()) {
                     execute(connection -> helper.getLods(scope, connection), report::setLods);
                     execute(connection -> helper.getThemes(scope, connection), report::setAppearances);
                 } else {
-                    execute(connection -> helper.getGeometryCount(scope, connection), report::setGeometries);
-                    execute(helper::getImplicitGeometryCount,
+                    execute(connection -> statistics.getGeometryCount(scope, connection), report::setGeometries);
+                    execute(statistics::getImplicitGeometryCount,
                             result -> report.setImplicitGeometryCount(result.second()));
-                    execute(connection -> helper.getGeometryCountByLod(scope, connection), report::setLods);
-                    execute(connection -> helper.getAppearanceCountByTheme(scope, connection), report::setAppearances);
+                    execute(connection -> statistics.getGeometryCountByLod(scope, connection), report::setLods);
+                    execute(connection -> statistics.getAppearanceCountByTheme(scope, connection),
+                            report::setAppearances);
                     execute(connection -> helper.hasSurfaceData(scope, connection), report::setSurfaceData);
                     execute(helper::hasGlobalAppearances, report::setGlobalAppearances);
-                    execute(connection -> helper.getAddressCount(scope, connection),
+                    execute(connection -> statistics.getAddressCount(scope, connection),
                             result -> report.setAddressCount(result.second()));
                     execute(this::getADEs, report::setADEs);
                     execute(this::getCodeLists, report::setCodeLists);
@@ -64,6 +64,7 @@ public class ReportJsonBuilder {
         return new JSONObject()
                 .fluentPut("generatedAt", timestamp)
                 .fluentPut("featureScope", options.getFeatureScope().toValue())
+                .fluentPut("estimated", options.isApproximate())
                 .fluentPut("genericAttributesProcessed", options.isIncludeGenericAttributes());
     }
 
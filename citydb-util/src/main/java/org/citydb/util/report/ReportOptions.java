@@ -18,6 +18,7 @@ public class ReportOptions {
     private boolean compact;
     private boolean includeGenericAttributes;
     private boolean includeDatabaseSize;
+    private boolean approximate;
 
     public int getNumberOfThreads() {
         return numberOfThreads;
@@ -63,4 +64,13 @@ public class ReportOptions {
         this.includeDatabaseSize = includeDatabaseSize;
         return this;
     }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public ReportOptions setApproximate(boolean approximate) {
+        this.approximate = approximate;
+        return this;
+    }
 }
@@ -65,6 +65,10 @@ public class ReportTextBuilder {
         ReportOptions options = report.getOptions();
 
         consumer.accept(getTitle("Overview"));
+        if (options.isApproximate()) {
+            consumer.accept("Note: Counts and extents are estimates based on database statistics and samples.");
+        }
+
         buildSummary(getJSONObject(jsonReport, "summary"), consumer);
 
         if (options.isIncludeDatabaseSize()) {